@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.benchmarks;
+
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.service.RingRange;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * A Murmur3 vnode ring with SimpleStrategy placement, shaped like the one Cassandra's JMX API describes.
+ *
+ * <p>
+ * Tokens are drawn from a fixed seed so that every benchmark run works on the same ring.
+ */
+public final class VnodeRing {
+
+  public static final String DC = "dc1";
+
+  private static final long SEED = 0x5eed_7e57L;
+
+  private final List<String> endpoints;
+  private final List<BigInteger> tokens;
+  private final Map<List<String>, List<String>> rangeToEndpoint;
+
+  private VnodeRing(
+      List<String> endpoints,
+      List<BigInteger> tokens,
+      Map<List<String>, List<String>> rangeToEndpoint) {
+
+    this.endpoints = endpoints;
+    this.tokens = tokens;
+    this.rangeToEndpoint = rangeToEndpoint;
+  }
+
+  public static VnodeRing create(int nodes, int tokensPerNode, int replicationFactor) {
+    Random random = new Random(SEED);
+    List<String> endpoints = Lists.newArrayList();
+    TreeMap<BigInteger, String> ring = Maps.newTreeMap();
+    for (int i = 0; i < nodes; i++) {
+      String endpoint = String.format("10.%d.%d.%d", i >> 16 & 0xff, i >> 8 & 0xff, i & 0xff);
+      endpoints.add(endpoint);
+      for (int t = 0; t < tokensPerNode; t++) {
+        BigInteger token;
+        do {
+          token = BigInteger.valueOf(random.nextLong());
+        } while (ring.containsKey(token));
+        ring.put(token, endpoint);
+      }
+    }
+
+    List<BigInteger> tokens = ImmutableList.copyOf(ring.keySet());
+    List<String> owners = ImmutableList.copyOf(ring.values());
+    Map<List<String>, List<String>> rangeToEndpoint = Maps.newHashMap();
+    for (int i = 0; i < tokens.size(); i++) {
+      int end = (i + 1) % tokens.size();
+      // the range (start, end] is replicated on the owner of its end token, then on the next distinct nodes
+      Set<String> replicas = Sets.newLinkedHashSet();
+      for (int j = end; replicas.size() < Math.min(replicationFactor, nodes); j = (j + 1) % tokens.size()) {
+        replicas.add(owners.get(j));
+      }
+      rangeToEndpoint.put(
+          ImmutableList.of(tokens.get(i).toString(), tokens.get(end).toString()),
+          ImmutableList.copyOf(replicas));
+    }
+    return new VnodeRing(
+        Collections.unmodifiableList(endpoints),
+        tokens,
+        Collections.unmodifiableMap(rangeToEndpoint));
+  }
+
+  public List<String> getEndpoints() {
+    return endpoints;
+  }
+
+  public List<BigInteger> getTokens() {
+    return tokens;
+  }
+
+  public Map<List<String>, List<String>> getRangeToEndpoint() {
+    return rangeToEndpoint;
+  }
+
+  /**
+   * @return one segment per vnode, covering the first half of the vnode's token range, in a random order
+   */
+  public List<Segment> getSegmentPerVnode() {
+    List<Segment> segments = Lists.newArrayList();
+    for (int i = 0; i < tokens.size(); i++) {
+      BigInteger start = tokens.get(i);
+      BigInteger end = tokens.get((i + 1) % tokens.size());
+      BigInteger span = end.subtract(start);
+      BigInteger middle = 0 < span.signum() ? start.add(span.shiftRight(1)) : start.add(BigInteger.ONE);
+      Map<String, String> replicas = Maps.newLinkedHashMap();
+      rangeToEndpoint.get(ImmutableList.of(start.toString(), end.toString())).forEach(r -> replicas.put(r, DC));
+      segments.add(Segment.builder().withTokenRange(new RingRange(start, middle)).withReplicas(replicas).build());
+    }
+    Collections.shuffle(segments, new Random(SEED));
+    return segments;
+  }
+}
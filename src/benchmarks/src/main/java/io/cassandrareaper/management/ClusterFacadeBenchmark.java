@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import io.cassandrareaper.AppContext;
+import io.cassandrareaper.ReaperApplicationConfiguration;
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.benchmarks.VnodeRing;
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.storage.MemoryStorageFacade;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolving the replicas of a segment, as done by RepairRunner before each segment is started.
+ * The token range map is served from ClusterFacade's cache, as it is in between topology refreshes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClusterFacadeBenchmark {
+
+  private static final String KEYSPACE = "bench";
+
+  @Param({"300"})
+  public int nodes;
+
+  @Param({"256"})
+  public int tokensPerNode;
+
+  private ClusterFacade clusterFacade;
+  private Cluster cluster;
+  private Segment[] segments;
+  private int next;
+
+  @Setup
+  public void setup() throws ReaperException {
+    VnodeRing ring = VnodeRing.create(nodes, tokensPerNode, 3);
+    ICassandraManagementProxy proxy = mock(ICassandraManagementProxy.class);
+    when(proxy.getRangeToEndpointMap(anyString())).thenReturn(ring.getRangeToEndpoint());
+    IManagementConnectionFactory connectionFactory = mock(IManagementConnectionFactory.class);
+    when(connectionFactory.connectAny(any())).thenReturn(proxy);
+
+    AppContext context = new AppContext();
+    context.config = new ReaperApplicationConfiguration();
+    context.storage = new MemoryStorageFacade();
+    context.managementConnectionFactory = connectionFactory;
+    clusterFacade = ClusterFacade.create(context);
+    cluster = Cluster.builder()
+        .withName("bench")
+        .withPartitioner("org.apache.cassandra.dht.Murmur3Partitioner")
+        .withSeedHosts(ImmutableSet.copyOf(ring.getEndpoints().subList(0, 3)))
+        .withState(Cluster.State.UNKNOWN)
+        .build();
+
+    List<Segment> segmentPerVnode = ring.getSegmentPerVnode();
+    segments = segmentPerVnode.toArray(new Segment[0]);
+    // warm the token range cache up
+    clusterFacade.tokenRangeToEndpoint(cluster, KEYSPACE, segments[0]);
+  }
+
+  @Benchmark
+  public List<String> tokenRangeToEndpoint() {
+    next = (next + 1) % segments.length;
+    return clusterFacade.tokenRangeToEndpoint(cluster, KEYSPACE, segments[next]);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management.http;
+
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.GenericMetric;
+import io.cassandrareaper.core.Node;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Resources;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Parsing the /metrics payload recorded from a large node, as done by each metrics collection of the management API.
+ * The payload is fed through a reader, the way the response body is streamed into the parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpMetricsProxyBenchmark {
+
+  @Param({
+      HttpMetricsProxy.THREAD_POOL_METRICS_PREFIX,
+      HttpMetricsProxy.DROPPED_MESSAGES_METRICS_PREFIX,
+      HttpMetricsProxy.PERCENT_REPAIRED_METRICS_PREFIX})
+  public String metricPrefix;
+
+  private HttpMetricsProxy metricsProxy;
+  private String payload;
+
+  @Setup
+  public void setup() throws IOException {
+    payload = Resources.toString(Resources.getResource("metric-samples/prom-metrics.txt"), Charsets.UTF_8);
+    Node node = Node.builder()
+        .withHostname("172.18.0.3")
+        .withCluster(Cluster.builder().withName("bench").withSeedHosts(ImmutableSet.of("172.18.0.3")).build())
+        .build();
+    metricsProxy = HttpMetricsProxy.create(mock(HttpCassandraManagementProxy.class), node, OkHttpClient::new);
+  }
+
+  @Benchmark
+  public List<GenericMetric> parsePrometheusMetrics() throws IOException {
+    return metricsProxy.parsePrometheusMetrics(metricPrefix, new StringReader(payload), Optional.of("bench"));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.core.Compaction;
+import io.cassandrareaper.core.CompactionStats;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing the compactions of a node, as done on each metrics collection, with a mapper created for each call as
+ * ClusterFacade used to, and with the shared readers and writers of PayloadCodec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadCodecBenchmark {
+
+  @Param({"1", "20"})
+  public int activeCompactions;
+
+  private CompactionStats compactionStats;
+  private String json;
+
+  @Setup
+  public void setup() throws IOException {
+    List<Compaction> compactions = IntStream.range(0, activeCompactions)
+        .mapToObj(i -> Compaction.builder()
+            .withId("compaction-" + i)
+            .withKeyspace("ks")
+            .withTable("table" + i)
+            .withProgress(64L * i)
+            .withTotal(128L * i)
+            .withType("Compaction")
+            .withUnit("bytes")
+            .build())
+        .collect(Collectors.toList());
+    compactionStats = CompactionStats.builder()
+        .withActiveCompactions(compactions)
+        .withPendingCompactions(Optional.of(activeCompactions * 2))
+        .build();
+    json = new String(PayloadCodec.writeCompactionStats(compactionStats), "UTF-8");
+  }
+
+  @Benchmark
+  public CompactionStats readWithMapperPerCall() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new Jdk8Module());
+    return mapper.readValue(json, new TypeReference<CompactionStats>() {});
+  }
+
+  @Benchmark
+  public CompactionStats readWithCodec() throws IOException {
+    return PayloadCodec.readCompactionStats(json);
+  }
+
+  @Benchmark
+  public byte[] writeWithMapperPerCall() throws IOException {
+    return new ObjectMapper().registerModule(new Jdk8Module()).writeValueAsBytes(compactionStats);
+  }
+
+  @Benchmark
+  public byte[] writeWithCodec() throws IOException {
+    return PayloadCodec.writeCompactionStats(compactionStats);
+  }
+}
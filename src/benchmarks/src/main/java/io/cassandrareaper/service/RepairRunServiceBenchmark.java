@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.benchmarks.VnodeRing;
+import io.cassandrareaper.core.RepairUnit;
+import io.cassandrareaper.core.Segment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The replica and node mappings RepairRunService computes when a repair run is registered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepairRunServiceBenchmark {
+
+  @Param({"300"})
+  public int nodes;
+
+  @Param({"256"})
+  public int tokensPerNode;
+
+  private VnodeRing ring;
+  private List<Segment> segments;
+  private Map<String, List<RingRange>> endpointToRange;
+  private RepairUnit repairUnit;
+
+  @Setup
+  public void setup() throws ReaperException {
+    ring = VnodeRing.create(nodes, tokensPerNode, 3);
+    Map<List<String>, List<RingRange>> replicasToRange
+        = RepairRunService.buildReplicasToRangeMap(ring.getRangeToEndpoint());
+    endpointToRange = RepairRunService.buildEndpointToRangeMap(ring.getRangeToEndpoint());
+    segments = new SegmentGenerator("org.apache.cassandra.dht.Murmur3Partitioner").generateSegments(
+        RepairRunService.computeGlobalSegmentCount(0, endpointToRange),
+        ring.getTokens(),
+        false,
+        replicasToRange,
+        "4.0.0");
+    // repairing a handful of nodes, the others' segments get filtered out
+    repairUnit = RepairUnit.builder()
+        .clusterName("bench")
+        .keyspaceName("bench")
+        .nodes(ImmutableSet.copyOf(ring.getEndpoints().subList(0, 3)))
+        .incrementalRepair(false)
+        .repairThreadCount(1)
+        .timeout(30)
+        .build(UUID.randomUUID());
+  }
+
+  @Benchmark
+  public Map<List<String>, List<RingRange>> buildReplicasToRangeMap() {
+    return RepairRunService.buildReplicasToRangeMap(ring.getRangeToEndpoint());
+  }
+
+  @Benchmark
+  public List<Segment> filterSegmentsByNodes() {
+    return RepairRunService.filterSegmentsByNodes(segments, repairUnit, endpointToRange);
+  }
+}
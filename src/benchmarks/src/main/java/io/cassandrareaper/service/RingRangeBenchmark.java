@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.benchmarks.VnodeRing;
+import io.cassandrareaper.core.Segment;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The BigInteger token arithmetic of RingRange, which every range lookup relies on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingRangeBenchmark {
+
+  private static final BigInteger RING_SIZE = BigInteger.valueOf(2).pow(64);
+
+  private RingRange[] vnodes;
+  private RingRange[] segments;
+  private int next;
+
+  @Setup
+  public void setup() {
+    VnodeRing ring = VnodeRing.create(300, 256, 3);
+    List<BigInteger> tokens = ring.getTokens();
+    vnodes = new RingRange[tokens.size()];
+    for (int i = 0; i < tokens.size(); i++) {
+      vnodes[i] = new RingRange(tokens.get(i), tokens.get((i + 1) % tokens.size()));
+    }
+    // the i-th segment lies within the i-th vnode
+    segments = ring.getSegmentPerVnode()
+        .stream()
+        .sorted(Segment.START_COMPARATOR)
+        .map(Segment::getBaseRange)
+        .toArray(RingRange[]::new);
+  }
+
+  @Benchmark
+  public boolean encloses() {
+    next = (next + 1) % vnodes.length;
+    return vnodes[next].encloses(segments[next]);
+  }
+
+  @Benchmark
+  public BigInteger span() {
+    next = (next + 1) % vnodes.length;
+    return vnodes[next].span(RING_SIZE);
+  }
+
+  @Benchmark
+  public void enclosesFullScan(Blackhole blackhole) {
+    next = (next + 1) % segments.length;
+    for (RingRange vnode : vnodes) {
+      blackhole.consume(vnode.encloses(segments[next]));
+    }
+  }
+}
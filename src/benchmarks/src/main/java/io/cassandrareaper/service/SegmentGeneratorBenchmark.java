@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.benchmarks.VnodeRing;
+import io.cassandrareaper.core.Segment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Segment generation as done when a repair run is registered, over a large vnode ring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentGeneratorBenchmark {
+
+  @Param({"300"})
+  public int nodes;
+
+  @Param({"256"})
+  public int tokensPerNode;
+
+  private VnodeRing ring;
+  private SegmentGenerator generator;
+  private Map<List<String>, List<RingRange>> replicasToRange;
+  private int segmentCount;
+
+  @Setup
+  public void setup() throws ReaperException {
+    ring = VnodeRing.create(nodes, tokensPerNode, 3);
+    generator = new SegmentGenerator("org.apache.cassandra.dht.Murmur3Partitioner");
+    replicasToRange = RepairRunService.buildReplicasToRangeMap(ring.getRangeToEndpoint());
+    segmentCount = RepairRunService.computeGlobalSegmentCount(0, RepairRunService.buildEndpointToRangeMap(
+        ring.getRangeToEndpoint()));
+  }
+
+  /**
+   * Less segments than vnodes are requested, so token ranges sharing the same replicas get coalesced.
+   */
+  @Benchmark
+  public List<Segment> generateCoalescedSegments() throws ReaperException {
+    return generator.generateSegments(segmentCount, ring.getTokens(), false, replicasToRange, "4.0.0");
+  }
+
+  /**
+   * Cassandra versions that can't repair several ranges at once get each vnode split into segments.
+   */
+  @Benchmark
+  public List<Segment> generateSplitSegments() throws ReaperException {
+    return generator.generateSegments(segmentCount, ring.getTokens(), false, replicasToRange, "2.1.22");
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage;
+
+import io.cassandrareaper.benchmarks.VnodeRing;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.RepairUnit;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.storage.repairsegment.IRepairSegmentDao;
+import io.cassandrareaper.storage.repairsegment.RepairRunProgress;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.apache.cassandra.repair.RepairParallelism;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The segment selection paths RepairRunner goes through on the memory backend, on a run that is partly done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryRepairSegmentDaoBenchmark {
+
+  @Param({"1000", "20000"})
+  public int segmentCount;
+
+  @Param({"0.9"})
+  public double doneRatio;
+
+  private IRepairSegmentDao repairSegmentDao;
+  private UUID runId;
+
+  @Setup
+  public void setup() {
+    MemoryStorageFacade storage = new MemoryStorageFacade();
+    VnodeRing ring = VnodeRing.create(Math.max(3, (segmentCount + 255) / 256), 256, 3);
+    RepairUnit repairUnit = storage.getRepairUnitDao().addRepairUnit(
+        RepairUnit.builder()
+            .clusterName("bench")
+            .keyspaceName("bench")
+            .incrementalRepair(false)
+            .repairThreadCount(1)
+            .timeout(30));
+
+    List<RepairSegment.Builder> segments = Lists.newArrayList();
+    for (Segment segment : ring.getSegmentPerVnode().subList(0, segmentCount)) {
+      segments.add(RepairSegment.builder(segment, repairUnit.getId()));
+    }
+    RepairRun run = storage.getRepairRunDao().addRepairRun(
+        RepairRun.builder("bench", repairUnit.getId())
+            .intensity(1.0)
+            .segmentCount(segmentCount)
+            .repairParallelism(RepairParallelism.PARALLEL)
+            .tables(ImmutableSet.of("table1")),
+        segments);
+    runId = run.getId();
+    repairSegmentDao = storage.getRepairSegmentDao();
+
+    int done = (int) (segmentCount * doneRatio);
+    for (RepairSegment segment : Lists.newArrayList(repairSegmentDao.getRepairSegmentsForRun(runId))) {
+      if (0 < done--) {
+        repairSegmentDao.updateRepairSegment(
+            segment.with()
+                .withState(RepairSegment.State.DONE)
+                .withStartTime(DateTime.now().minusMinutes(1))
+                .withEndTime(DateTime.now())
+                .withId(segment.getId())
+                .build());
+      }
+    }
+  }
+
+  @Benchmark
+  public List<RepairSegment> getNextFreeSegments() {
+    return repairSegmentDao.getNextFreeSegments(runId);
+  }
+
+  @Benchmark
+  public RepairSegmentPage getNextFreeSegmentsPage() {
+    return repairSegmentDao.getNextFreeSegments(runId, Optional.empty(), 100);
+  }
+
+  @Benchmark
+  public Collection<RepairSegment> getSegmentsWithState() {
+    return repairSegmentDao.getSegmentsWithState(runId, RepairSegment.State.NOT_STARTED);
+  }
+
+  @Benchmark
+  public RepairRunProgress getRepairRunProgress() {
+    return repairSegmentDao.getRepairRunProgress(runId);
+  }
+}
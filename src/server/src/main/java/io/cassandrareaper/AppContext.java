@@ -18,6 +18,9 @@
 package io.cassandrareaper;
 
 import io.cassandrareaper.management.IManagementConnectionFactory;
+import io.cassandrareaper.metrics.MetricOwnershipIndex;
+import io.cassandrareaper.service.PurgeService;
+import io.cassandrareaper.service.ReaperMembership;
 import io.cassandrareaper.service.RepairManager;
 import io.cassandrareaper.service.SchedulingManager;
 import io.cassandrareaper.storage.IStorageDao;
@@ -43,12 +46,16 @@ public final class AppContext {
   public final UUID reaperInstanceId = UUIDs.timeBased();
   public final AtomicBoolean isRunning = new AtomicBoolean(true);
   public final AtomicBoolean isDistributed = new AtomicBoolean(false);
+  public final ReaperMembership membership = ReaperMembership.create(this);
   public IStorageDao storage;
   public RepairManager repairManager;
   public SchedulingManager schedulingManager;
+  public PurgeService purgeService;
   public IManagementConnectionFactory managementConnectionFactory;
   public ReaperApplicationConfiguration config;
   public MetricRegistry metricRegistry = new MetricRegistry();
+  public final MetricOwnershipIndex scheduleMetrics = MetricOwnershipIndex.create(() -> metricRegistry);
+  public final MetricOwnershipIndex repairUnitMetrics = MetricOwnershipIndex.create(() -> metricRegistry);
   volatile String localNodeAddress = null;
 
   public String getLocalNodeAddress() {
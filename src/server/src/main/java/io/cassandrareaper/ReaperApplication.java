@@ -189,6 +189,12 @@ public final class ReaperApplication extends Application<ReaperApplicationConfig
         maxParallelRepairs,
         context.storage.getRepairRunDao());
 
+    context.purgeService = PurgeService.create(
+        context,
+        environment.lifecycle().executorService("PurgeService").minThreads(PurgeService.PURGE_CONCURRENCY)
+            .maxThreads(PurgeService.PURGE_CONCURRENCY).allowCoreThreadTimeOut(true).build(),
+        context.storage.getRepairRunDao());
+
     RequestUtils.setCorsEnabled(config.isEnableCrossOrigin());
     // Enable cross-origin requests for using external GUI applications.
     if (config.isEnableCrossOrigin() || System.getProperty("enableCrossOrigin") != null) {
@@ -400,13 +406,10 @@ public final class ReaperApplication extends Application<ReaperApplicationConfig
   }
 
   private void schedulePurge(ScheduledExecutorService scheduler) {
-    final PurgeService purgeManager = PurgeService.create(context,
-        context.storage.getRepairRunDao());
-
     scheduler.scheduleWithFixedDelay(
         () -> {
           try {
-            int purgedRuns = purgeManager.purgeDatabase();
+            int purgedRuns = context.purgeService.purgeDatabase();
             LOG.info("Purged {} repair runs from history", purgedRuns);
           } catch (RuntimeException | ReaperException e) {
             LOG.error("Failed purging repair runs from history", e);
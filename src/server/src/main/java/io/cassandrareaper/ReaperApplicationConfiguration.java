@@ -117,6 +117,8 @@ public final class ReaperApplicationConfiguration extends Configuration {
   @JsonProperty
   private HttpManagement httpManagement = new HttpManagement();
   @JsonProperty
+  private MemoryStorage memoryStorage = new MemoryStorage();
+  @JsonProperty
   private AutoSchedulingConfiguration autoScheduling;
   @JsonProperty
   @DefaultValue("true")
@@ -178,6 +180,14 @@ public final class ReaperApplicationConfiguration extends Configuration {
     this.httpManagement = httpManagement;
   }
 
+  public MemoryStorage getMemoryStorage() {
+    return memoryStorage;
+  }
+
+  public void setMemoryStorage(MemoryStorage memoryStorage) {
+    this.memoryStorage = memoryStorage;
+  }
+
   public Jmxmp getJmxmp() {
     return jmxmp;
   }
@@ -726,4 +736,35 @@ public final class ReaperApplicationConfiguration extends Configuration {
     }
     // TODO: Add ports and root paths here.
   }
-}
\ No newline at end of file
+
+  public static final class MemoryStorage {
+
+    /**
+     * Directory the memory storage is journaled to, so it survives restarts. Transient when unset.
+     */
+    @JsonProperty
+    private String persistenceDirectory;
+
+    @JsonProperty
+    private Integer syncIntervalMillis = 100;
+
+    @JsonProperty
+    private Integer recordsPerSnapshot = 100000;
+
+    public Optional<String> getPersistenceDirectory() {
+      return Optional.ofNullable(persistenceDirectory);
+    }
+
+    public void setPersistenceDirectory(String persistenceDirectory) {
+      this.persistenceDirectory = persistenceDirectory;
+    }
+
+    public int getSyncIntervalMillis() {
+      return syncIntervalMillis;
+    }
+
+    public int getRecordsPerSnapshot() {
+      return recordsPerSnapshot;
+    }
+  }
+}
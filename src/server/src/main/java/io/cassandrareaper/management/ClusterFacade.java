@@ -33,9 +33,11 @@ import io.cassandrareaper.core.StreamSession;
 import io.cassandrareaper.core.Table;
 import io.cassandrareaper.core.ThreadPoolStat;
 import io.cassandrareaper.resources.view.NodesStatus;
+import io.cassandrareaper.service.PayloadCodec;
 import io.cassandrareaper.service.RingRange;
 import io.cassandrareaper.storage.IDistributedStorage;
 import io.cassandrareaper.storage.OpType;
+import io.cassandrareaper.storage.operations.IOperationsDao;
 
 import java.io.IOError;
 import java.io.IOException;
@@ -58,9 +60,6 @@ import javax.management.JMException;
 import javax.management.MalformedObjectNameException;
 import javax.management.ReflectionException;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
@@ -91,15 +90,31 @@ public final class ClusterFacade {
   private static final long TOKEN_RANGES_IN_KEYSPACE_TTL_SECONDS
       = Long.getLong(ClusterFacade.class.getPackage().getName() + ".token_ranges_in_keyspace_ttl_seconds", 60);
 
+  private static final long NODES_STATUS_TTL_SECONDS
+      = Long.getLong(ClusterFacade.class.getPackage().getName() + ".nodes_status_ttl_seconds", 10);
+
+  private static final long ENDPOINT_TOPOLOGY_TTL_SECONDS
+      = Long.getLong(ClusterFacade.class.getPackage().getName() + ".endpoint_topology_ttl_seconds", 300);
+
+  // a snapshot missing an endpoint is refreshed at most this often, so an unreachable gossip doesn't get hammered
+  private static final long ENDPOINT_TOPOLOGY_MIN_REFRESH_SECONDS
+      = Long.getLong(ClusterFacade.class.getPackage().getName() + ".endpoint_topology_min_refresh_seconds", 10);
+
   private static final Cache<Pair<Cluster, String>, String> CLUSTER_VERSIONS
       = CacheBuilder.newBuilder().expireAfterWrite(CLUSTER_VERSIONS_TTL_SECONDS, TimeUnit.SECONDS).build();
 
   private static final Cache<Pair<Cluster, String>, Set<Table>> TABLES_IN_KEYSPACE
       = CacheBuilder.newBuilder().expireAfterWrite(TABLES_IN_KEYSPACE_TTL_SECONDS, TimeUnit.SECONDS).build();
 
-  private static final Cache<Pair<Cluster, String>, Map<List<String>, List<String>>> TOKEN_RANGES_IN_KEYSPACE
+  private static final Cache<Pair<Cluster, String>, TokenRing> TOKEN_RANGES_IN_KEYSPACE
       = CacheBuilder.newBuilder().expireAfterWrite(TOKEN_RANGES_IN_KEYSPACE_TTL_SECONDS, TimeUnit.SECONDS).build();
 
+  private static final Cache<Cluster, NodesStatus> NODES_STATUS
+      = CacheBuilder.newBuilder().expireAfterWrite(NODES_STATUS_TTL_SECONDS, TimeUnit.SECONDS).build();
+
+  private static final Cache<Cluster, EndpointTopology> ENDPOINT_TOPOLOGIES
+      = CacheBuilder.newBuilder().expireAfterWrite(ENDPOINT_TOPOLOGY_TTL_SECONDS, TimeUnit.SECONDS).build();
+
   private static final String LOCALHOST = "127.0.0.1";
   private final AppContext context;
 
@@ -143,8 +158,12 @@ public final class ClusterFacade {
   }
 
   public static List<StreamSession> parseStreamSessionJson(String json) throws IOException {
-    return parseJson(json, new TypeReference<List<StreamSession>>() {
-    });
+    try {
+      return PayloadCodec.readStreamSessions(json);
+    } catch (IOException e) {
+      LOG.error("Error parsing json", e);
+      throw e;
+    }
   }
 
   /**
@@ -165,12 +184,16 @@ public final class ClusterFacade {
           .build();
     }
     try {
-      return parseJson(json, new TypeReference<CompactionStats>() {
-      });
+      return PayloadCodec.readCompactionStats(json);
     } catch (IOException e) {
       // it can be that the storage had old format of compaction info, so we try to parse that
-      List<Compaction> compactions = parseJson(json, new TypeReference<List<Compaction>>() {
-      });
+      List<Compaction> compactions;
+      try {
+        compactions = PayloadCodec.readCompactions(json);
+      } catch (IOException legacyFormatException) {
+        LOG.error("Error parsing json", legacyFormatException);
+        throw legacyFormatException;
+      }
       return CompactionStats.builder()
           .withPendingCompactions(Optional.empty())
           .withActiveCompactions(compactions)
@@ -178,17 +201,6 @@ public final class ClusterFacade {
     }
   }
 
-  private static <T> T parseJson(String json, TypeReference<T> ref) throws IOException {
-    try {
-      ObjectMapper mapper = new ObjectMapper();
-      mapper.registerModule(new Jdk8Module());
-      return mapper.readValue(json, ref);
-    } catch (IOException e) {
-      LOG.error("Error parsing json", e);
-      throw e;
-    }
-  }
-
   /**
    * Connects to either JMX or HTTP.
    * In EACH, LOCAL and ALL : connect directly to any available node
@@ -276,14 +288,18 @@ public final class ClusterFacade {
    * Get the status of all nodes in the cluster.
    * In EACH, LOCAL and ALL : connect directly to any provided node to get the information
    * In SIDECAR : Enforce connecting to the local node to get the information
+   * The status is cached for a few seconds, as it is polled by every client displaying the cluster.
    *
    * @param cluster the cluster to connect to
    * @return a NodeStatus object with all nodes state
    * @throws ReaperException any runtime exception we catch
    */
   public NodesStatus getNodesStatus(Cluster cluster) throws ReaperException {
-    ICassandraManagementProxy cassandraManagementProxy = connect(cluster);
-    return cassandraManagementProxy.getNodesStatus();
+    try {
+      return NODES_STATUS.get(cluster, () -> connect(cluster).getNodesStatus());
+    } catch (ExecutionException ex) {
+      throw ex.getCause() instanceof ReaperException ? (ReaperException) ex.getCause() : new ReaperException(ex);
+    }
   }
 
   /**
@@ -349,10 +365,18 @@ public final class ClusterFacade {
       Cluster cluster,
       String keyspace) throws ReaperException {
 
+    return getTokenRing(cluster, keyspace).getRangeToEndpoint();
+  }
+
+  /**
+   * Get the token ranges of a keyspace indexed by their end token, cached along with the range to endpoint map they
+   * were built from so that both expire together.
+   */
+  private TokenRing getTokenRing(Cluster cluster, String keyspace) throws ReaperException {
     try {
       return TOKEN_RANGES_IN_KEYSPACE.get(
           Pair.of(cluster, keyspace),
-          () -> getRangeToEndpointMapImpl(cluster, keyspace));
+          () -> TokenRing.of(getRangeToEndpointMapImpl(cluster, keyspace)));
     } catch (ExecutionException ex) {
       throw new ReaperException(ex);
     } catch (ExecutionError ex) {
@@ -431,23 +455,20 @@ public final class ClusterFacade {
    * @return a list of endpoints
    */
   public List<String> tokenRangeToEndpoint(Cluster cluster, String keyspace, Segment segment) {
-    Set<Map.Entry<List<String>, List<String>>> entries;
+    TokenRing tokenRing;
     try {
-      entries = getRangeToEndpointMap(cluster, keyspace).entrySet();
+      tokenRing = getTokenRing(cluster, keyspace);
     } catch (ReaperException e) {
       LOG.error("[tokenRangeToEndpoint] no replicas found for token range {}", segment, e);
       return Lists.newArrayList();
     }
 
-    for (Map.Entry<List<String>, List<String>> entry : entries) {
-      BigInteger rangeStart = new BigInteger(entry.getKey().get(0));
-      BigInteger rangeEnd = new BigInteger(entry.getKey().get(1));
-      if (new RingRange(rangeStart, rangeEnd).encloses(segment.getTokenRanges().get(0))) {
-        return entry.getValue();
-      }
+    Optional<List<String>> replicas = tokenRing.getReplicas(segment.getTokenRanges().get(0));
+    if (replicas.isPresent()) {
+      return replicas.get();
     }
     LOG.error("[tokenRangeToEndpoint] no replicas found for token range {}", segment);
-    LOG.debug("[tokenRangeToEndpoint] checked token ranges were {}", entries);
+    LOG.debug("[tokenRangeToEndpoint] checked token ranges were {}", tokenRing);
     return Lists.newArrayList();
   }
 
@@ -487,7 +508,14 @@ public final class ClusterFacade {
    * @throws ReaperException any runtime exception we catch in the process
    */
   public String getDatacenter(Cluster cluster, String endpoint) throws ReaperException {
-    return EndpointSnitchInfoProxy.create(connect(cluster)).getDataCenter(endpoint);
+    Optional<String> datacenter = getEndpointTopology(cluster).getDatacenter(endpoint);
+    if (!datacenter.isPresent() && refreshEndpointTopology(cluster)) {
+      // the endpoint may have joined since the snapshot was taken
+      datacenter = getEndpointTopology(cluster).getDatacenter(endpoint);
+    }
+    return datacenter.isPresent()
+        ? datacenter.get()
+        : EndpointSnitchInfoProxy.create(connect(cluster)).getDataCenter(endpoint);
   }
 
   /**
@@ -502,6 +530,38 @@ public final class ClusterFacade {
     return EndpointSnitchInfoProxy.create(connect(node)).getDataCenter();
   }
 
+  /**
+   * Get the snapshot of the datacenter and rack of all endpoints of the cluster, fetched in bulk from gossip.
+   * An empty snapshot is cached when gossip can't be read, lookups then fall back to the endpoint snitch.
+   */
+  private EndpointTopology getEndpointTopology(Cluster cluster) {
+    try {
+      return ENDPOINT_TOPOLOGIES.get(cluster, () -> {
+        try {
+          EndpointTopology topology = EndpointTopology.of(connect(cluster).getNodesStatus());
+          LOG.debug("Fetched the topology of cluster {}: {}", cluster.getName(), topology);
+          return topology;
+        } catch (ReaperException | RuntimeException e) {
+          LOG.warn("Failed fetching the topology of cluster {}", cluster.getName(), e);
+          return EndpointTopology.empty();
+        }
+      });
+    } catch (ExecutionException e) {
+      // the loader doesn't throw checked exceptions
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean refreshEndpointTopology(Cluster cluster) {
+    EndpointTopology topology = ENDPOINT_TOPOLOGIES.getIfPresent(cluster);
+    if (null != topology
+        && TimeUnit.MILLISECONDS.toSeconds(topology.getAgeMillis()) >= ENDPOINT_TOPOLOGY_MIN_REFRESH_SECONDS) {
+      ENDPOINT_TOPOLOGIES.invalidate(cluster);
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Get the endpoint name/ip indentifying the node in the cluster.
    *
@@ -549,8 +609,15 @@ public final class ClusterFacade {
       // We don't have access to the node through jmx/http, so we'll get data from the database
       LOG.debug("Node {} in DC {} is not accessible through jmx/http", node.getHostname(), nodeDc);
 
-      String compactionsJson = ((IDistributedStorage) context.storage).getOperationsDao()
-          .listOperations(node.getClusterName(), OpType.OP_COMPACTION, node.getHostname());
+      IOperationsDao operationsDao = ((IDistributedStorage) context.storage).getOperationsDao();
+      Optional<CompactionStats> compactionStats
+          = operationsDao.getCompactionStats(node.getClusterName(), node.getHostname());
+      if (compactionStats.isPresent()) {
+        return compactionStats.get();
+      }
+      // the node may still be collected by an instance running a version storing JSON operations
+      String compactionsJson = operationsDao.listOperations(
+          node.getClusterName(), OpType.OP_COMPACTION, node.getHostname());
 
       return parseCompactionStats(compactionsJson);
     }
@@ -826,8 +893,15 @@ public final class ClusterFacade {
       // We don't have access to the node through jmx/http, so we'll get data from the database
       LOG.debug("Node {} in DC {} is not accessible through jmx/http", node.getHostname(), nodeDc);
 
-      String streamsJson = ((IDistributedStorage) context.storage).getOperationsDao()
-          .listOperations(node.getClusterName(), OpType.OP_STREAMING, node.getHostname());
+      IOperationsDao operationsDao = ((IDistributedStorage) context.storage).getOperationsDao();
+      Optional<List<StreamSession>> activeStreams
+          = operationsDao.getActiveStreams(node.getClusterName(), node.getHostname());
+      if (activeStreams.isPresent()) {
+        return activeStreams.get();
+      }
+      // the node may still be collected by an instance running a version storing JSON operations
+      String streamsJson = operationsDao.listOperations(
+          node.getClusterName(), OpType.OP_STREAMING, node.getHostname());
       if (streamsJson.length() > 0) {
         return parseStreamSessionJson(streamsJson);
       }
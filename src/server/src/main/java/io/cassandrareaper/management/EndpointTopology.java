@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import io.cassandrareaper.resources.view.NodesStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Immutable snapshot of the datacenter and rack of every endpoint of a cluster, as seen through gossip.
+ *
+ * <p>
+ * The snapshot is taken in bulk from the nodes status, so that locating the replicas of a segment doesn't require a
+ * round trip to the cluster per replica.
+ */
+final class EndpointTopology {
+
+  private final Map<String, String> datacenterByEndpoint;
+  private final Map<String, String> rackByEndpoint;
+  private final long createdAtMillis;
+
+  private EndpointTopology(
+      Map<String, String> datacenterByEndpoint,
+      Map<String, String> rackByEndpoint,
+      long createdAtMillis) {
+
+    this.datacenterByEndpoint = datacenterByEndpoint;
+    this.rackByEndpoint = rackByEndpoint;
+    this.createdAtMillis = createdAtMillis;
+  }
+
+  static EndpointTopology empty() {
+    return new EndpointTopology(ImmutableMap.of(), ImmutableMap.of(), System.currentTimeMillis());
+  }
+
+  static EndpointTopology of(NodesStatus nodesStatus) {
+    Map<String, String> datacenterByEndpoint = Maps.newHashMap();
+    Map<String, String> rackByEndpoint = Maps.newHashMap();
+    if (null != nodesStatus && null != nodesStatus.endpointStates) {
+      for (NodesStatus.GossipInfo gossipInfo : nodesStatus.endpointStates) {
+        for (Map<String, List<NodesStatus.EndpointState>> racks : gossipInfo.endpoints.values()) {
+          for (List<NodesStatus.EndpointState> endpointStates : racks.values()) {
+            for (NodesStatus.EndpointState endpointState : endpointStates) {
+              if (isKnown(endpointState.endpoint) && isKnown(endpointState.getDc())) {
+                datacenterByEndpoint.put(endpointState.endpoint, endpointState.getDc());
+                if (isKnown(endpointState.getRack())) {
+                  rackByEndpoint.put(endpointState.endpoint, endpointState.getRack());
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return new EndpointTopology(
+        ImmutableMap.copyOf(datacenterByEndpoint),
+        ImmutableMap.copyOf(rackByEndpoint),
+        System.currentTimeMillis());
+  }
+
+  private static boolean isKnown(String value) {
+    return null != value && !NodesStatus.NOT_AVAILABLE.equals(value);
+  }
+
+  Optional<String> getDatacenter(String endpoint) {
+    return Optional.ofNullable(datacenterByEndpoint.get(endpoint));
+  }
+
+  Optional<String> getRack(String endpoint) {
+    return Optional.ofNullable(rackByEndpoint.get(endpoint));
+  }
+
+  long getAgeMillis() {
+    return System.currentTimeMillis() - createdAtMillis;
+  }
+
+  int size() {
+    return datacenterByEndpoint.size();
+  }
+
+  @Override
+  public String toString() {
+    return datacenterByEndpoint.toString();
+  }
+}
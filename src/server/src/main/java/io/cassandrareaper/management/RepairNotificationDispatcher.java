@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Dispatches repair notifications to a fixed number of single threaded stripes.
+ *
+ * <p>
+ * All the notifications of a repair, identified by its host and repair number, are handled by the same stripe, so they
+ * are processed in the order they were received while the number of threads stays bounded regardless of the number of
+ * running repairs. The JMX notifications and the polled HTTP job statuses both go through the shared instance.
+ */
+public final class RepairNotificationDispatcher {
+
+  public static final RepairNotificationDispatcher SHARED = new RepairNotificationDispatcher(Integer.getInteger(
+      RepairNotificationDispatcher.class.getPackage().getName() + ".repair_notification_threads", 16));
+
+  static final String QUEUE_DEPTH_METRIC
+      = MetricRegistry.name(RepairNotificationDispatcher.class, "queueDepth");
+
+  static final String DISPATCH_LATENCY_METRIC
+      = MetricRegistry.name(RepairNotificationDispatcher.class, "dispatchLatency");
+
+  private final ThreadPoolExecutor[] stripes;
+  private final Timer dispatchLatency = new Timer();
+
+  RepairNotificationDispatcher(int stripeCount) {
+    Preconditions.checkArgument(0 < stripeCount, "the number of stripes must be positive: %s", stripeCount);
+    stripes = new ThreadPoolExecutor[stripeCount];
+    for (int i = 0; i < stripeCount; ++i) {
+      stripes[i] = new ThreadPoolExecutor(
+          1,
+          1,
+          0,
+          TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(),
+          new ThreadFactoryBuilder().setNameFormat("RepairNotifications-" + i + "-%d").setDaemon(true).build());
+    }
+  }
+
+  /**
+   * Registers the queue depth and dispatch latency metrics, unless already registered.
+   */
+  public void registerMetrics(MetricRegistry metricRegistry) {
+    try {
+      if (!metricRegistry.getGauges().containsKey(QUEUE_DEPTH_METRIC)) {
+        metricRegistry.register(QUEUE_DEPTH_METRIC, (Gauge<Integer>) this::getQueueDepth);
+      }
+      if (!metricRegistry.getTimers().containsKey(DISPATCH_LATENCY_METRIC)) {
+        metricRegistry.register(DISPATCH_LATENCY_METRIC, dispatchLatency);
+      }
+    } catch (IllegalArgumentException ignore) {
+      // registered concurrently
+    }
+  }
+
+  /**
+   * Queues the task on the stripe of the repair, after the previously dispatched tasks of the same repair.
+   */
+  public void dispatch(String host, int repairNo, Runnable task) {
+    final long queuedAt = System.nanoTime();
+    stripes[stripeOf(host, repairNo)].execute(() -> {
+      dispatchLatency.update(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+      task.run();
+    });
+  }
+
+  @VisibleForTesting
+  int stripeOf(String host, int repairNo) {
+    return Math.floorMod(Objects.hash(host, repairNo), stripes.length);
+  }
+
+  int getQueueDepth() {
+    return Arrays.stream(stripes).mapToInt((stripe) -> stripe.getQueue().size()).sum();
+  }
+
+  @VisibleForTesting
+  Timer getDispatchLatency() {
+    return dispatchLatency;
+  }
+}
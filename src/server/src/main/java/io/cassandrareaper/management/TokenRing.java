@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import io.cassandrareaper.service.RingRange;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+/**
+ * Immutable index of the token ranges of a keyspace and their replicas, sorted by the end token of the ranges.
+ *
+ * <p>
+ * The token ranges of a keyspace partition the ring, so the range enclosing a segment is the one containing its first
+ * token, which is found with a binary search over the end tokens of the ranges.
+ */
+final class TokenRing {
+
+  private final Map<List<String>, List<String>> rangeToEndpoint;
+  private final List<RingRange> ranges;
+  private final List<List<String>> replicas;
+
+  private TokenRing(
+      Map<List<String>, List<String>> rangeToEndpoint,
+      List<Map.Entry<RingRange, List<String>>> sortedRanges) {
+
+    this.rangeToEndpoint = rangeToEndpoint;
+    ImmutableList.Builder<RingRange> rangesBuilder = ImmutableList.builder();
+    ImmutableList.Builder<List<String>> replicasBuilder = ImmutableList.builder();
+    for (int i = 0; i < sortedRanges.size(); ++i) {
+      rangesBuilder.add(sortedRanges.get(i).getKey());
+      replicasBuilder.add(sortedRanges.get(i).getValue());
+    }
+    ranges = rangesBuilder.build();
+    replicas = replicasBuilder.build();
+  }
+
+  static TokenRing of(Map<List<String>, List<String>> rangeToEndpoint) {
+    List<Map.Entry<RingRange, List<String>>> sortedRanges = rangeToEndpoint.entrySet().stream()
+        .map(entry -> Maps.immutableEntry(
+            new RingRange(entry.getKey().get(0), entry.getKey().get(1)), entry.getValue()))
+        .sorted(Comparator.comparing(Map.Entry::getKey, RingRange.END_COMPARATOR))
+        .collect(Collectors.toList());
+    return new TokenRing(rangeToEndpoint, sortedRanges);
+  }
+
+  /**
+   * Returns the map of token ranges to their replicas this ring was built from.
+   */
+  Map<List<String>, List<String>> getRangeToEndpoint() {
+    return rangeToEndpoint;
+  }
+
+  /**
+   * Returns the replicas of the token range enclosing the given range, if any.
+   */
+  Optional<List<String>> getReplicas(RingRange range) {
+    if (ranges.isEmpty()) {
+      return Optional.empty();
+    }
+    int candidate = firstEndAfterStartOf(range);
+    if (ranges.get(candidate).encloses(range)) {
+      return Optional.of(replicas.get(candidate));
+    }
+    // the ranges may not partition the ring when they were only partially reported, fall back to checking them all
+    for (int i = 0; i < ranges.size(); ++i) {
+      if (ranges.get(i).encloses(range)) {
+        return Optional.of(replicas.get(i));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the index of the first range ending after the start of the given range, wrapping around to the first range.
+   */
+  private int firstEndAfterStartOf(RingRange range) {
+    int low = 0;
+    int high = ranges.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ranges.get(mid).endsAfterStartOf(range)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low == ranges.size() ? 0 : low;
+  }
+
+  @Override
+  public String toString() {
+    return ranges.toString();
+  }
+}
@@ -23,6 +23,7 @@ import io.cassandrareaper.core.Node;
 import io.cassandrareaper.core.Snapshot;
 import io.cassandrareaper.core.Table;
 import io.cassandrareaper.management.ICassandraManagementProxy;
+import io.cassandrareaper.management.RepairNotificationDispatcher;
 import io.cassandrareaper.management.RepairStatusHandler;
 import io.cassandrareaper.management.http.models.JobStatusTracker;
 import io.cassandrareaper.resources.view.NodesStatus;
@@ -44,9 +45,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.management.JMException;
@@ -68,6 +68,7 @@ import com.datastax.mgmtapi.client.model.TokenRangeToEndpointResponse;
 import com.datastax.mgmtapi.client.model.TokenRangeToEndpoints;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
+import okhttp3.OkHttpClient;
 
 import org.apache.cassandra.repair.RepairParallelism;
 import org.apache.cassandra.utils.progress.ProgressEventType;
@@ -77,6 +78,7 @@ import org.slf4j.LoggerFactory;
 public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
 
   public static final int DEFAULT_POLL_INTERVAL_IN_MILLISECONDS = 5000;
+  public static final int MIN_POLL_INTERVAL_IN_MILLISECONDS = 250;
   private static final Logger LOG = LoggerFactory.getLogger(HttpCassandraManagementProxy.class);
   final String host;
   final MetricRegistry metricRegistry;
@@ -85,14 +87,20 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
   final DefaultApi apiClient;
   final int metricsPort;
   final Node node;
+  final OkHttpClient metricsHttpClient;
   final HttpMetricsProxy metricsProxy;
 
   final ConcurrentMap<Integer, RepairStatusHandler> repairStatusHandlers = Maps.newConcurrentMap();
   final ConcurrentMap<String, JobStatusTracker> jobTracker = Maps.newConcurrentMap();
-  final ConcurrentMap<Integer, ExecutorService> repairStatusExecutors = Maps.newConcurrentMap();
 
-
-  private ScheduledExecutorService statusTracker;
+  final ScheduledExecutorService statusTracker;
+  private long pollIntervalMillis = MIN_POLL_INTERVAL_IN_MILLISECONDS;
+  // moving average of the job durations, to stop backing off before the next jobs are expected to complete
+  private long averageJobDurationMillis = 0;
+  private ScheduledFuture<?> nextPoll;
+  // a single poll runs at a time, the running one schedules the next so status changes are never dispatched twice
+  private boolean polling = false;
+  private boolean jobTriggeredWhilePolling = false;
 
   public HttpCassandraManagementProxy(MetricRegistry metricRegistry,
                                       String rootPath,
@@ -100,7 +108,8 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
                                       ScheduledExecutorService executor,
                                       DefaultApi apiClient,
                                       int metricsPort,
-                                      Node node
+                                      Node node,
+                                      OkHttpClient metricsHttpClient
   ) {
     this.host = endpoint.getHostString();
     this.metricRegistry = metricRegistry;
@@ -110,10 +119,9 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
     this.metricsPort = metricsPort;
     this.statusTracker = executor;
     this.node = node;
+    this.metricsHttpClient = metricsHttpClient;
     this.metricsProxy = HttpMetricsProxy.create(this, node);
-
-    // TODO Perhaps the poll interval should be configurable through context.config ?
-    this.scheduleJobPoller(DEFAULT_POLL_INTERVAL_IN_MILLISECONDS);
+    registerDispatcherMetrics();
   }
 
   public HttpCassandraManagementProxy(MetricRegistry metricRegistry,
@@ -123,6 +131,7 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
                                       DefaultApi apiClient,
                                       int metricsPort,
                                       Node node,
+                                      OkHttpClient metricsHttpClient,
                                       HttpMetricsProxy metricsProxy
   ) {
     this.host = endpoint.getHostString();
@@ -133,10 +142,9 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
     this.metricsPort = metricsPort;
     this.statusTracker = executor;
     this.node = node;
+    this.metricsHttpClient = metricsHttpClient;
     this.metricsProxy = metricsProxy;
-
-    // TODO Perhaps the poll interval should be configurable through context.config ?
-    this.scheduleJobPoller(DEFAULT_POLL_INTERVAL_IN_MILLISECONDS);
+    registerDispatcherMetrics();
   }
 
   @Override
@@ -148,6 +156,10 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
     return metricsPort;
   }
 
+  OkHttpClient getMetricsHttpClient() {
+    return metricsHttpClient;
+  }
+
   @Override
   public List<BigInteger> getTokens() {
     try {
@@ -385,19 +397,16 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
 
     int repairNo = Integer.parseInt(jobId.substring(7));
 
-    repairStatusExecutors.putIfAbsent(repairNo, Executors.newSingleThreadExecutor());
     repairStatusHandlers.putIfAbsent(repairNo, repairStatusHandler);
     jobTracker.put(jobId, new JobStatusTracker());
+    // poll the new job quickly, backing off while it makes no progress
+    resetPollInterval();
     return repairNo;
   }
 
   @Override
   public void removeRepairStatusHandler(int repairNo) {
     repairStatusHandlers.remove(repairNo);
-    ExecutorService repairStatusExecutor = repairStatusExecutors.remove(repairNo);
-    if (null != repairStatusExecutor) {
-      repairStatusExecutor.shutdown();
-    }
     String jobId = String.format("repair-%d", repairNo);
     jobTracker.remove(jobId);
   }
@@ -605,45 +614,126 @@ public class HttpCassandraManagementProxy implements ICassandraManagementProxy {
     }
   }
 
+  private void registerDispatcherMetrics() {
+    if (null != metricRegistry) {
+      RepairNotificationDispatcher.SHARED.registerMetrics(metricRegistry);
+    }
+  }
+
+  private synchronized void resetPollInterval() {
+    pollIntervalMillis = MIN_POLL_INTERVAL_IN_MILLISECONDS;
+    if (polling) {
+      jobTriggeredWhilePolling = true;
+    } else {
+      schedulePoll(pollIntervalMillis);
+    }
+  }
+
+  /**
+   * Schedules the next poll of the job statuses of the node, unless one is already due sooner.
+   */
+  private synchronized void schedulePoll(long delayMillis) {
+    if (null != nextPoll) {
+      // a poll that could not be cancelled has already started, and it schedules the next one itself
+      if (nextPoll.getDelay(TimeUnit.MILLISECONDS) <= delayMillis || !nextPoll.cancel(false)) {
+        return;
+      }
+    }
+    nextPoll = statusTracker.schedule(this::pollJobs, delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void pollJobs() {
+    synchronized (this) {
+      nextPoll = null;
+      polling = true;
+    }
+    boolean progressed = false;
+    try {
+      progressed = pollJobStatuses();
+    } catch (RuntimeException e) {
+      LOG.warn("Failed polling the repair jobs of {}", host, e);
+    } finally {
+      synchronized (this) {
+        polling = false;
+        if (!jobTracker.isEmpty()) {
+          // a job triggered during the poll gets polled quickly too
+          pollIntervalMillis = nextPollInterval(
+              pollIntervalMillis, progressed || jobTriggeredWhilePolling, averageJobDurationMillis);
+          schedulePoll(pollIntervalMillis);
+        }
+        jobTriggeredWhilePolling = false;
+      }
+    }
+  }
+
+  /**
+   * Polls again quickly after progress, otherwise backs off exponentially up to a quarter of the average job duration,
+   * within the minimum and default poll intervals.
+   */
   @VisibleForTesting
-  private void scheduleJobPoller(int pollInterval) {
-    statusTracker.scheduleWithFixedDelay(
-        notificationsTracker(),
-        pollInterval * 2,
-        pollInterval,
-        TimeUnit.MILLISECONDS);
+  static long nextPollInterval(long pollIntervalMillis, boolean progressed, long averageJobDurationMillis) {
+    if (progressed) {
+      return MIN_POLL_INTERVAL_IN_MILLISECONDS;
+    }
+    long maxIntervalMillis = 0 < averageJobDurationMillis
+        ? Math.max(MIN_POLL_INTERVAL_IN_MILLISECONDS,
+            Math.min(DEFAULT_POLL_INTERVAL_IN_MILLISECONDS, averageJobDurationMillis / 4))
+        : DEFAULT_POLL_INTERVAL_IN_MILLISECONDS;
+    return Math.min(maxIntervalMillis, pollIntervalMillis * 2);
   }
 
   @VisibleForTesting
   Runnable notificationsTracker() {
-    return () -> {
-      if (jobTracker.size() > 0) {
-        for (Map.Entry<String, JobStatusTracker> entry : jobTracker.entrySet()) {
-          Job job = getJobStatus(entry.getKey());
-          int availableNotifications = job.getStatusChanges().size();
-          int currentNotificationCount = entry.getValue().latestNotificationCount.get();
-
-          if (currentNotificationCount < availableNotifications) {
-            // We need to process the new ones
-            for (int i = currentNotificationCount; i < availableNotifications; i++) {
-              StatusChange statusChange = job.getStatusChanges().get(i);
-              // remove "repair-" prefix
-              int repairNo = Integer.parseInt(job.getId().substring(7));
-              ProgressEventType progressType = ProgressEventType.valueOf(statusChange.getStatus());
-              repairStatusExecutors.get(repairNo).submit(() -> {
-                repairStatusHandlers
-                    .get(repairNo)
-                    .handle(repairNo, Optional.empty(), Optional.of(progressType),
-                        statusChange.getMessage(), this);
-              });
-
-              // Update the count as we process them
-              entry.getValue().latestNotificationCount.incrementAndGet();
-            }
-          }
+    return this::pollJobStatuses;
+  }
+
+  /**
+   * Polls the status of all the outstanding jobs of the node, dispatching their new status changes to the repair
+   * handlers in order.
+   *
+   * @return whether any of the jobs had new status changes
+   */
+  private boolean pollJobStatuses() {
+    boolean progressed = false;
+    for (Map.Entry<String, JobStatusTracker> entry : jobTracker.entrySet()) {
+      Job job;
+      try {
+        job = getJobStatus(entry.getKey());
+      } catch (RuntimeException e) {
+        LOG.warn("Failed polling the status of job {} on {}", entry.getKey(), host, e);
+        continue;
+      }
+      int availableNotifications = job.getStatusChanges().size();
+      int currentNotificationCount = entry.getValue().latestNotificationCount.get();
+
+      // We need to process the new ones
+      for (int i = currentNotificationCount; i < availableNotifications; i++) {
+        StatusChange statusChange = job.getStatusChanges().get(i);
+        // remove "repair-" prefix
+        int repairNo = Integer.parseInt(job.getId().substring(7));
+        ProgressEventType progressType = ProgressEventType.valueOf(statusChange.getStatus());
+        if (ProgressEventType.COMPLETE == progressType) {
+          recordJobDuration(System.currentTimeMillis() - entry.getValue().createdAtMillis);
         }
+        RepairNotificationDispatcher.SHARED.dispatch(host, repairNo, () -> {
+          RepairStatusHandler handler = repairStatusHandlers.get(repairNo);
+          if (null != handler) {
+            handler.handle(repairNo, Optional.empty(), Optional.of(progressType), statusChange.getMessage(), this);
+          }
+        });
+
+        // Update the count as we process them
+        entry.getValue().latestNotificationCount.incrementAndGet();
+        progressed = true;
       }
-    };
+    }
+    return progressed;
+  }
+
+  private synchronized void recordJobDuration(long durationMillis) {
+    averageJobDurationMillis = 0 == averageJobDurationMillis
+        ? durationMillis
+        : (3 * averageJobDurationMillis + durationMillis) / 4;
   }
 
   // Coordinator nodes such as Stargate instances do not have tokens
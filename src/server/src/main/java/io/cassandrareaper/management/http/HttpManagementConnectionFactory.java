@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.Response;
 
 import com.codahale.metrics.Gauge;
@@ -44,6 +45,8 @@ import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,12 +54,20 @@ import org.slf4j.LoggerFactory;
 public class HttpManagementConnectionFactory implements IManagementConnectionFactory {
   private static final Logger LOG = LoggerFactory.getLogger(HttpManagementConnectionFactory.class);
   private static final ConcurrentMap<String, HttpCassandraManagementProxy> HTTP_CONNECTIONS = Maps.newConcurrentMap();
+  // enough idle connections to keep one per node of large clusters, kept alive across metrics collection cycles
+  private static final int METRICS_MAX_IDLE_CONNECTIONS = 1024;
+  private static final long METRICS_KEEP_ALIVE_MINUTES = 5;
   private final MetricRegistry metricRegistry;
   private final HostConnectionCounters hostConnectionCounters;
   private final int metricsPort;
 
   private final ScheduledExecutorService jobStatusPollerExecutor;
 
+  // shared by all the nodes, its connection pool keeps alive the connections to each of them
+  private final OkHttpClient metricsHttpClient = new OkHttpClient.Builder()
+      .connectionPool(new ConnectionPool(METRICS_MAX_IDLE_CONNECTIONS, METRICS_KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+      .build();
+
   private final Set<String> accessibleDatacenters = Sets.newHashSet();
 
   // Constructor for HttpManagementConnectionFactory
@@ -147,7 +158,8 @@ public class HttpManagementConnectionFactory implements IManagementConnectionFac
             statusTracker,
             apiClient,
             metricsPort,
-            node
+            node,
+            metricsHttpClient
         );
       }
     });
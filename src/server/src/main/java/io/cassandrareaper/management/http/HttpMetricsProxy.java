@@ -23,6 +23,8 @@ import io.cassandrareaper.core.Node;
 import io.cassandrareaper.management.MetricsProxy;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +37,8 @@ import java.util.stream.Collectors;
 import javax.management.JMException;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -57,6 +59,15 @@ public final class HttpMetricsProxy implements MetricsProxy {
   static final String
       PERCENT_REPAIRED_METRICS_PREFIX = "org_apache_cassandra_metrics_table_percent_repaired";
   private static final Logger LOG = LoggerFactory.getLogger(HttpMetricsProxy.class);
+
+  private static final Map<String, Pattern> METRIC_PARSE_PATTERNS = ImmutableMap.<String, Pattern>builder()
+      .put(THREAD_POOL_METRICS_PREFIX, Pattern.compile(THREAD_POOL_METRICS_PREFIX + "_(.*)$"))
+      .put(TPSTATS_PENDING_METRIC_NAME, Pattern.compile(TPSTATS_PENDING_METRIC_NAME))
+      .put(DROPPED_MESSAGES_METRICS_PREFIX, Pattern.compile(DROPPED_MESSAGES_METRICS_PREFIX + "_(.*)$"))
+      .put(CLIENT_REQUEST_LATENCY_METRICS_PREFIX, Pattern.compile(CLIENT_REQUEST_LATENCY_METRICS_PREFIX + "_(.*)$"))
+      .put(PERCENT_REPAIRED_METRICS_PREFIX, Pattern.compile(PERCENT_REPAIRED_METRICS_PREFIX))
+      .build();
+
   private final HttpCassandraManagementProxy proxy;
   private final OkHttpClient httpClient;
   private final Node node;
@@ -70,7 +81,7 @@ public final class HttpMetricsProxy implements MetricsProxy {
   }
 
   public static HttpMetricsProxy create(HttpCassandraManagementProxy proxy, Node node) {
-    return new HttpMetricsProxy(proxy, node, () -> new OkHttpClient.Builder().build());
+    return new HttpMetricsProxy(proxy, node, proxy::getMetricsHttpClient);
   }
 
   @VisibleForTesting
@@ -121,14 +132,11 @@ public final class HttpMetricsProxy implements MetricsProxy {
     Request request = new Request.Builder()
         .url(url)
         .build();
-    String metrics;
     try (Response response = this.httpClient.newCall(request).execute()) {
       if (!response.isSuccessful()) {
         throw new IOException("Unexpected code " + response);
       }
-      metrics = response.body().string();
-      LOG.debug("Got metrics: {}", metrics);
-      return parsePrometheusMetrics(metricNamePrefix, metrics, keyspaceName);
+      return parsePrometheusMetrics(metricNamePrefix, response.body().charStream(), keyspaceName);
     }
   }
 
@@ -149,34 +157,25 @@ public final class HttpMetricsProxy implements MetricsProxy {
   @VisibleForTesting
   public List<GenericMetric> parsePrometheusMetrics(
       String metricPrefix, String metrics, Optional<String> keyspaceName) {
-    List<GenericMetric> parsedMetrics = Lists.newArrayList();
+    try {
+      return parsePrometheusMetrics(metricPrefix, new StringReader(metrics), keyspaceName);
+    } catch (IOException e) {
+      throw new IllegalStateException("cannot fail reading from a string", e);
+    }
+  }
 
-    //Regex Pattern for Prometheus Metrics format
-    Pattern pattern = Pattern.compile("(\\w+)(\\{.*\\})?\\s(\\d+\\.\\d+)");
-    Matcher matcher = pattern.matcher(metrics);
-
-    //Pattern to extract labels
-    Pattern labelPattern = Pattern.compile("(\\w+)=\"(.*?)\"");
-
-    while (matcher.find()) {
-      String metricName = matcher.group(1);
-      double value = Double.parseDouble(matcher.group(3));
-
-      // check if there are any labels and parse them
-      Map<String, String> labels = Maps.newHashMap();
-      String labelString = matcher.group(2);
-      if (labelString != null) {
-        Matcher labelMatcher = labelPattern.matcher(labelString);
-        while (labelMatcher.find()) {
-          labels.put(labelMatcher.group(1), labelMatcher.group(2));
-        }
-      }
-      Optional<GenericMetric> metric = parseMetric(this.node, metricName, labels, value, metricPrefix, keyspaceName);
-      // add the stat to the list of stats for this metric
-      if (metric.isPresent()) {
-        parsedMetrics.add(metric.get());
+  /**
+   * Parses the metrics as they are read, only the samples of the metric families starting with the prefix are kept.
+   */
+  List<GenericMetric> parsePrometheusMetrics(
+      String metricPrefix, Reader metrics, Optional<String> keyspaceName) throws IOException {
+    List<GenericMetric> parsedMetrics = Lists.newArrayList();
+    PrometheusTextParser.parse(metrics, metricPrefix, (metricName, labels, value) -> {
+      // non finite values (NaN, +Inf, -Inf) have no use in Reaper
+      if (Double.isFinite(value)) {
+        parseMetric(this.node, metricName, labels, value, metricPrefix, keyspaceName).ifPresent(parsedMetrics::add);
       }
-    }
+    });
     return parsedMetrics;
   }
 
@@ -270,10 +269,11 @@ public final class HttpMetricsProxy implements MetricsProxy {
   }
 
   private Pattern getMetricParsePattern(String metricPrefix) {
-    if (PERCENT_REPAIRED_METRICS_PREFIX.equals(metricPrefix) || TPSTATS_PENDING_METRIC_NAME.equals(metricPrefix)) {
-      return Pattern.compile(metricPrefix);
+    Pattern pattern = METRIC_PARSE_PATTERNS.get(metricPrefix);
+    if (null == pattern) {
+      throw new IllegalArgumentException("Unsupported metric prefix: " + metricPrefix);
     }
-    return Pattern.compile(metricPrefix + "_(.*)$");
+    return pattern;
   }
 
   private String getMetricNameFromMatcher(Matcher matcher, String metricPrefix) {
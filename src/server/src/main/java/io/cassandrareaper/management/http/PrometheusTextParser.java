@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management.http;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Line oriented parser of the Prometheus text exposition format.
+ *
+ * <p>
+ * The payload is read one line at a time, and samples whose metric name doesn't start with the requested prefix are
+ * skipped before their labels and value get parsed, so only the metric families of interest are ever materialized.
+ */
+final class PrometheusTextParser {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PrometheusTextParser.class);
+
+  private PrometheusTextParser() {
+  }
+
+  @FunctionalInterface
+  interface SampleConsumer {
+    void accept(String metricName, Map<String, String> labels, double value);
+  }
+
+  static void parse(Reader text, String metricNamePrefix, SampleConsumer consumer) throws IOException {
+    BufferedReader reader = text instanceof BufferedReader ? (BufferedReader) text : new BufferedReader(text);
+    String line;
+    while (null != (line = reader.readLine())) {
+      if (line.startsWith(metricNamePrefix)) {
+        try {
+          parseSample(line, consumer);
+        } catch (RuntimeException e) {
+          LOG.debug("Skipping malformed sample: {}", line, e);
+        }
+      }
+    }
+  }
+
+  private static void parseSample(String line, SampleConsumer consumer) {
+    int pos = 0;
+    while (pos < line.length() && '{' != line.charAt(pos) && !Character.isWhitespace(line.charAt(pos))) {
+      ++pos;
+    }
+    final String metricName = line.substring(0, pos);
+    Map<String, String> labels = Maps.newHashMap();
+    if (pos < line.length() && '{' == line.charAt(pos)) {
+      pos = parseLabels(line, pos + 1, labels);
+    }
+    pos = skipWhitespace(line, pos);
+    int valueEnd = pos;
+    while (valueEnd < line.length() && !Character.isWhitespace(line.charAt(valueEnd))) {
+      ++valueEnd;
+    }
+    // an optional timestamp may follow the value, it is ignored
+    consumer.accept(metricName, labels, parseValue(line.substring(pos, valueEnd)));
+  }
+
+  /**
+   * Parses the labels following the opening brace, and returns the position right after the closing brace.
+   */
+  private static int parseLabels(String line, int start, Map<String, String> labels) {
+    int pos = skipWhitespace(line, start);
+    StringBuilder value = new StringBuilder();
+    while ('}' != line.charAt(pos)) {
+      int equals = line.indexOf('=', pos);
+      String name = line.substring(pos, equals).trim();
+      pos = skipWhitespace(line, equals + 1);
+      if ('"' != line.charAt(pos)) {
+        throw new IllegalArgumentException("label value of " + name + " isn't quoted");
+      }
+      value.setLength(0);
+      for (++pos; '"' != line.charAt(pos); ++pos) {
+        char ch = line.charAt(pos);
+        if ('\\' == ch) {
+          ch = line.charAt(++pos);
+          value.append('n' == ch ? '\n' : ch);
+        } else {
+          value.append(ch);
+        }
+      }
+      labels.put(name, value.toString());
+      pos = skipWhitespace(line, pos + 1);
+      if (',' == line.charAt(pos)) {
+        pos = skipWhitespace(line, pos + 1);
+      }
+    }
+    return pos + 1;
+  }
+
+  private static int skipWhitespace(String line, int start) {
+    int pos = start;
+    while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+      ++pos;
+    }
+    return pos;
+  }
+
+  private static double parseValue(String value) {
+    switch (value) {
+      case "+Inf":
+        return Double.POSITIVE_INFINITY;
+      case "-Inf":
+        return Double.NEGATIVE_INFINITY;
+      default:
+        // also covers NaN
+        return Double.parseDouble(value);
+    }
+  }
+}
@@ -20,4 +20,5 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class JobStatusTracker {
   public AtomicInteger latestNotificationCount = new AtomicInteger(0);
+  public final long createdAtMillis = System.currentTimeMillis();
 }
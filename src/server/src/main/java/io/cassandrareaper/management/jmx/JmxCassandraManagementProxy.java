@@ -25,6 +25,7 @@ import io.cassandrareaper.core.Snapshot;
 import io.cassandrareaper.core.Table;
 import io.cassandrareaper.crypto.Cryptograph;
 import io.cassandrareaper.management.ICassandraManagementProxy;
+import io.cassandrareaper.management.RepairNotificationDispatcher;
 import io.cassandrareaper.management.RepairStatusHandler;
 import io.cassandrareaper.resources.view.NodesStatus;
 import io.cassandrareaper.service.RingRange;
@@ -38,6 +39,7 @@ import java.net.MalformedURLException;
 import java.net.UnknownHostException;
 import java.rmi.server.RMIClientSocketFactory;
 import java.rmi.server.RMISocketFactory;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,8 +53,9 @@ import java.util.SortedMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -62,8 +65,11 @@ import javax.management.IntrospectionException;
 import javax.management.JMException;
 import javax.management.JMX;
 import javax.management.ListenerNotFoundException;
+import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
 import javax.management.MalformedObjectNameException;
 import javax.management.Notification;
 import javax.management.NotificationFilter;
@@ -73,6 +79,8 @@ import javax.management.QueryExp;
 import javax.management.ReflectionException;
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
+import javax.management.relation.MBeanServerNotificationFilter;
+import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
@@ -85,6 +93,7 @@ import javax.validation.constraints.NotNull;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.policies.AddressTranslator;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
@@ -92,6 +101,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.cassandra.db.ColumnFamilyStoreMBean;
 import org.apache.cassandra.db.compaction.CompactionManager;
 import org.apache.cassandra.db.compaction.CompactionManagerMBean;
@@ -118,7 +128,10 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
   private static final String ERROR_GETTING_ATTR_JMX = "Error getting attribute from JMX";
 
 
-  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+  private static final int CONNECT_THREADS = Integer.getInteger(
+      JmxCassandraManagementProxy.class.getPackage().getName() + ".connect_threads", 32);
+
+  private static final ExecutorService EXECUTOR = createConnectExecutor();
 
   private final JMXConnector jmxConnector;
   private final MBeanServerConnection mbeanServer;
@@ -129,13 +142,16 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
   private final String host;
   private final String hostBeforeTranslation;
   private final String clusterName;
-  private final ConcurrentMap<Integer, ExecutorService> repairStatusExecutors = Maps.newConcurrentMap();
   private final ConcurrentMap<Integer, RepairStatusHandler> repairStatusHandlers = Maps.newConcurrentMap();
   private final MetricRegistry metricRegistry;
   private final Optional<StreamManagerMBean> smProxy;
   private final DiagnosticEventPersistenceMBean diagEventProxy;
   private final LastEventIdBroadcasterMBean lastEventIdProxy;
   private final Jmxmp jmxmp;
+  // readable attribute names per MBean, kept until the MBean gets (un)registered or notifications get lost
+  private final ConcurrentMap<ObjectName, String[]> readableAttributeNames = Maps.newConcurrentMap();
+  private final NotificationListener mbeanRegistrationListener = this::handleMBeanRegistration;
+  private final NotificationListener connectionListener = this::handleConnectionNotification;
 
   private JmxCassandraManagementProxy(
       String host,
@@ -167,6 +183,20 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
     this.smProxy = smProxy;
     this.jmxmp = jmxmp;
     registerConnectionsGauge();
+    RepairNotificationDispatcher.SHARED.registerMetrics(metricRegistry);
+  }
+
+  private static ExecutorService createConnectExecutor() {
+    // connection attempts beyond the pool size wait in the queue, which counts against their timeout
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        CONNECT_THREADS,
+        CONNECT_THREADS,
+        60,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("JmxConnect-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   static JmxCassandraManagementProxy connect(
@@ -248,45 +278,7 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
         env.put("com.sun.jndi.rmi.factory.socket", getRmiClientSocketFactory());
       }
       JMXConnector jmxConn = connectWithTimeout(jmxUrl, connectionTimeout, TimeUnit.SECONDS, env);
-      MBeanServerConnection mbeanServerConn = jmxConn.getMBeanServerConnection();
-
-      StorageServiceMBean ssProxy
-          = JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STORAGE_SERVICE, StorageServiceMBean.class);
-
-      final String cassandraVersion = ssProxy.getReleaseVersion();
-      if (cassandraVersion.startsWith("2.0") || cassandraVersion.startsWith("1.")) {
-        ssProxy = JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STORAGE_SERVICE, StorageServiceMBean20.class);
-      }
-
-      final Optional<StreamManagerMBean> smProxy;
-      // StreamManagerMbean is only available since Cassandra 2.0
-      if (cassandraVersion.startsWith("1.")) {
-        smProxy = Optional.empty();
-      } else {
-        smProxy = Optional.of(JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STREAM_MANAGER, StreamManagerMBean.class));
-      }
-
-      JmxCassandraManagementProxy proxy
-          = new JmxCassandraManagementProxy(
-          host,
-          originalHost,
-          jmxConn,
-          ssProxy,
-          mbeanServerConn,
-          JMX.newMBeanProxy(mbeanServerConn, ObjectNames.COMPACTION_MANAGER, CompactionManagerMBean.class),
-          JMX.newMBeanProxy(mbeanServerConn, ObjectNames.ENDPOINT_SNITCH_INFO, EndpointSnitchInfoMBean.class),
-          JMX.newMBeanProxy(mbeanServerConn, ObjectNames.FAILURE_DETECTOR, FailureDetectorMBean.class),
-          metricRegistry,
-          smProxy,
-          JMX.newMBeanProxy(mbeanServerConn, ObjectNames.DIAGNOSTICS_EVENTS, DiagnosticEventPersistenceMBean.class),
-          JMX.newMBeanProxy(mbeanServerConn, ObjectNames.LAST_EVENT_ID, LastEventIdBroadcasterMBean.class),
-          jmxmp);
-
-      // registering listeners throws bunch of exceptions, so do it here rather than in the constructor
-      mbeanServerConn.addNotificationListener(ObjectNames.STORAGE_SERVICE, proxy, null, null);
-      if (smProxy.isPresent()) {
-        mbeanServerConn.addNotificationListener(ObjectNames.STREAM_MANAGER, proxy, null, null);
-      }
+      JmxCassandraManagementProxy proxy = create(host, originalHost, jmxConn, metricRegistry, jmxmp);
       LOG.debug("JMX connection to {} properly connected: {}", host, jmxUrl.toString());
 
       return proxy;
@@ -302,6 +294,68 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
     }
   }
 
+  /**
+   * Creates the proxy on an established JMX connection, and registers its notification listeners.
+   */
+  @VisibleForTesting
+  static JmxCassandraManagementProxy create(
+      String host,
+      String originalHost,
+      JMXConnector jmxConn,
+      MetricRegistry metricRegistry,
+      Jmxmp jmxmp) throws IOException, InstanceNotFoundException {
+
+    MBeanServerConnection mbeanServerConn = jmxConn.getMBeanServerConnection();
+
+    StorageServiceMBean ssProxy
+        = JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STORAGE_SERVICE, StorageServiceMBean.class);
+
+    final String cassandraVersion = ssProxy.getReleaseVersion();
+    if (cassandraVersion.startsWith("2.0") || cassandraVersion.startsWith("1.")) {
+      ssProxy = JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STORAGE_SERVICE, StorageServiceMBean20.class);
+    }
+
+    final Optional<StreamManagerMBean> smProxy;
+    // StreamManagerMbean is only available since Cassandra 2.0
+    if (cassandraVersion.startsWith("1.")) {
+      smProxy = Optional.empty();
+    } else {
+      smProxy = Optional.of(JMX.newMBeanProxy(mbeanServerConn, ObjectNames.STREAM_MANAGER, StreamManagerMBean.class));
+    }
+
+    JmxCassandraManagementProxy proxy
+        = new JmxCassandraManagementProxy(
+        host,
+        originalHost,
+        jmxConn,
+        ssProxy,
+        mbeanServerConn,
+        JMX.newMBeanProxy(mbeanServerConn, ObjectNames.COMPACTION_MANAGER, CompactionManagerMBean.class),
+        JMX.newMBeanProxy(mbeanServerConn, ObjectNames.ENDPOINT_SNITCH_INFO, EndpointSnitchInfoMBean.class),
+        JMX.newMBeanProxy(mbeanServerConn, ObjectNames.FAILURE_DETECTOR, FailureDetectorMBean.class),
+        metricRegistry,
+        smProxy,
+        JMX.newMBeanProxy(mbeanServerConn, ObjectNames.DIAGNOSTICS_EVENTS, DiagnosticEventPersistenceMBean.class),
+        JMX.newMBeanProxy(mbeanServerConn, ObjectNames.LAST_EVENT_ID, LastEventIdBroadcasterMBean.class),
+        jmxmp);
+
+    // registering listeners throws bunch of exceptions, so do it here rather than in the constructor
+    mbeanServerConn.addNotificationListener(ObjectNames.STORAGE_SERVICE, proxy, null, null);
+    if (smProxy.isPresent()) {
+      mbeanServerConn.addNotificationListener(ObjectNames.STREAM_MANAGER, proxy, null, null);
+    }
+    // the filter selects no MBean until told otherwise
+    MBeanServerNotificationFilter registrations = new MBeanServerNotificationFilter();
+    registrations.enableAllObjectNames();
+    mbeanServerConn.addNotificationListener(
+        MBeanServerDelegate.DELEGATE_NAME,
+        proxy.mbeanRegistrationListener,
+        registrations,
+        null);
+    jmxConn.addConnectionNotificationListener(proxy.connectionListener, null, null);
+    return proxy;
+  }
+
   private static JMXConnector connectWithTimeout(
       JMXServiceURL url,
       long timeout,
@@ -309,7 +363,13 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
       Map<String, Object> env) throws InterruptedException, ExecutionException, TimeoutException {
 
     Future<JMXConnector> future = EXECUTOR.submit(() -> JMXConnectorFactory.connect(url, env));
-    return future.get(timeout, unit);
+    try {
+      return future.get(timeout, unit);
+    } catch (TimeoutException e) {
+      // don't keep a bounded thread busy with an attempt nobody waits for anymore
+      future.cancel(true);
+      throw e;
+    }
   }
 
 
@@ -596,7 +656,6 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
           datacenters,
           associatedTokens,
           repairThreadCount);
-      repairStatusExecutors.putIfAbsent(repairNo, Executors.newSingleThreadExecutor());
       repairStatusHandlers.putIfAbsent(repairNo, repairStatusHandler);
       return repairNo;
     } catch (RuntimeException e) {
@@ -654,12 +713,12 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
    */
   @Override
   public void handleNotification(final Notification notification, Object handback) {
-    // pass off the work immediately to a separate thread
+    // pass off the work immediately to the stripe of the repair, keeping its notifications in order
     final int repairNo = "repair".equals(notification.getType())
         ? ((int[]) notification.getUserData())[0]
         : Integer.parseInt(((String) notification.getSource()).split(":")[1]);
 
-    repairStatusExecutors.get(repairNo).submit(() -> {
+    RepairNotificationDispatcher.SHARED.dispatch(host, repairNo, () -> {
       String threadName = Thread.currentThread().getName();
       try {
         String type = notification.getType();
@@ -744,10 +803,6 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
   @Override
   public void removeRepairStatusHandler(int repairNo) {
     repairStatusHandlers.remove(repairNo);
-    ExecutorService repairStatusExecutor = repairStatusExecutors.remove(repairNo);
-    if (null != repairStatusExecutor) {
-      repairStatusExecutor.shutdown();
-    }
   }
 
   /**
@@ -757,15 +812,32 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
     try {
       mbeanServer.removeNotificationListener(ObjectNames.STORAGE_SERVICE, this);
       mbeanServer.removeNotificationListener(ObjectNames.STREAM_MANAGER, this);
+      mbeanServer.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, mbeanRegistrationListener);
       LOG.debug("Successfully removed notification listeners for '{}'", host);
     } catch (InstanceNotFoundException | ListenerNotFoundException | IOException e) {
       LOG.debug("failed on removing notification listener", e);
     }
     try {
+      jmxConnector.removeConnectionNotificationListener(connectionListener);
       jmxConnector.close();
-    } catch (IOException e) {
+    } catch (ListenerNotFoundException | IOException e) {
       LOG.warn("failed closing a JMX connection", e);
     }
+    readableAttributeNames.clear();
+  }
+
+  private void handleMBeanRegistration(Notification notification, Object handback) {
+    if (notification instanceof MBeanServerNotification) {
+      readableAttributeNames.remove(((MBeanServerNotification) notification).getMBeanName());
+    }
+  }
+
+  private void handleConnectionNotification(Notification notification, Object handback) {
+    // (un)registrations may have been missed, the cached attribute names can't be trusted anymore
+    if (JMXConnectionNotification.NOTIFS_LOST.equals(notification.getType())
+        || JMXConnectionNotification.FAILED.equals(notification.getType())) {
+      readableAttributeNames.clear();
+    }
   }
 
   @Override
@@ -964,6 +1036,35 @@ public final class JmxCassandraManagementProxy implements ICassandraManagementPr
     return getMBeanServerConnection().getAttributes(name, attributes);
   }
 
+  /**
+   * Reads all the readable attributes of an MBean in a single round-trip.
+   *
+   * <p>
+   * The attribute names are looked up through the MBeanInfo on first use only, then served from a cache that lives
+   * as long as this connection and is invalidated by the MBean server's (un)registration notifications.
+   */
+  public AttributeList getReadableAttributes(ObjectName name) throws JMException, IOException {
+    String[] attributeNames = readableAttributeNames.get(name);
+    if (null == attributeNames) {
+      attributeNames = Arrays.stream(getMBeanInfo(name).getAttributes())
+          .filter(attr -> {
+            if (!attr.isReadable()) {
+              LOG.warn("{}.{} not readable", name, attr);
+            }
+            return attr.isReadable();
+          })
+          .map(MBeanAttributeInfo::getName)
+          .toArray(String[]::new);
+      readableAttributeNames.put(name, attributeNames);
+    }
+    try {
+      return getAttributes(name, attributeNames);
+    } catch (JMException | IOException e) {
+      readableAttributeNames.remove(name);
+      throw e;
+    }
+  }
+
   // From CompactionManagerMBean
   public List<Map<String, String>> getCompactions() {
     return getCompactionManagerMBean().getCompactions();
@@ -23,14 +23,11 @@ import io.cassandrareaper.core.Node;
 import io.cassandrareaper.management.MetricsProxy;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.management.JMException;
-import javax.management.MBeanAttributeInfo;
-import javax.management.MBeanInfo;
 import javax.management.ObjectName;
 
 import com.google.common.collect.Lists;
@@ -126,17 +123,7 @@ public final class JmxMetricsProxy implements MetricsProxy {
   private List<JmxStat> scrapeBean(ObjectName mbeanName) {
     List<JmxStat> attributeList = Lists.newArrayList();
     try {
-      Map<String, MBeanAttributeInfo> name2AttrInfo = new LinkedHashMap<>();
-      MBeanInfo info = proxy.getMBeanInfo(mbeanName);
-      for (MBeanAttributeInfo attrInfo : info.getAttributes()) {
-        MBeanAttributeInfo attr = attrInfo;
-        if (!attr.isReadable()) {
-          LOG.warn("{}.{} not readable", mbeanName, attr);
-        } else {
-          name2AttrInfo.put(attr.getName(), attr);
-        }
-      }
-      proxy.getAttributes(mbeanName, name2AttrInfo.keySet().toArray(new String[0]))
+      proxy.getReadableAttributes(mbeanName)
           .asList()
           .forEach((attribute) -> {
             Object value = attribute.getValue();
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Keeps track of the metrics registered on behalf of an entity, such as a repair schedule or a repair unit,
+ * so that they can be removed from the registry when the entity goes away, without scanning the whole registry.
+ *
+ * <p>
+ * A metric name belongs to a single owner, the last one that registered it.
+ */
+public final class MetricOwnershipIndex {
+
+  private final Supplier<MetricRegistry> metricRegistry;
+  private final ConcurrentMap<UUID, Set<String>> metricsByOwner = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, UUID> ownerByMetric = new ConcurrentHashMap<>();
+
+  private MetricOwnershipIndex(Supplier<MetricRegistry> metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  public static MetricOwnershipIndex create(Supplier<MetricRegistry> metricRegistry) {
+    return new MetricOwnershipIndex(metricRegistry);
+  }
+
+  /**
+   * Registers the metric for the given owner, replacing the metric already registered with the same name if any.
+   */
+  public synchronized void register(UUID ownerId, String metricName, Metric metric) {
+    MetricRegistry registry = metricRegistry.get();
+    registry.remove(metricName);
+    registry.register(metricName, metric);
+    UUID previousOwner = ownerByMetric.put(metricName, ownerId);
+    if (null != previousOwner && !previousOwner.equals(ownerId)) {
+      Set<String> previousMetrics = metricsByOwner.get(previousOwner);
+      previousMetrics.remove(metricName);
+      if (previousMetrics.isEmpty()) {
+        metricsByOwner.remove(previousOwner);
+      }
+    }
+    metricsByOwner.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(metricName);
+  }
+
+  /**
+   * Registers the metric for the given owner, unless it already registered a metric of the same name.
+   */
+  public synchronized void registerIfAbsent(UUID ownerId, String metricName, Metric metric) {
+    if (!ownerByMetric.containsKey(metricName)) {
+      register(ownerId, metricName, metric);
+    }
+  }
+
+  /**
+   * Removes all the metrics of the given owner from the registry.
+   */
+  public synchronized void removeAll(UUID ownerId) {
+    Set<String> metricNames = metricsByOwner.remove(ownerId);
+    if (null != metricNames) {
+      MetricRegistry registry = metricRegistry.get();
+      for (String metricName : metricNames) {
+        ownerByMetric.remove(metricName);
+        registry.remove(metricName);
+        PrometheusMetricsFilter.removeIgnoredMetric(metricName);
+      }
+    }
+  }
+
+  /**
+   * Removes the metrics of the owners that aren't in the given set.
+   */
+  public void retainOwners(Set<UUID> ownerIds) {
+    List<UUID> goneOwners = metricsByOwner.keySet().stream()
+        .filter(ownerId -> !ownerIds.contains(ownerId))
+        .collect(Collectors.toList());
+    goneOwners.forEach(this::removeAll);
+  }
+
+  public Set<String> getMetricNames(UUID ownerId) {
+    Set<String> metricNames = metricsByOwner.get(ownerId);
+    return null == metricNames ? Collections.emptySet() : Collections.unmodifiableSet(metricNames);
+  }
+}
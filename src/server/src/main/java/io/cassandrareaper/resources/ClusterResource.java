@@ -27,6 +27,7 @@ import io.cassandrareaper.crypto.Cryptograph;
 import io.cassandrareaper.management.ClusterFacade;
 import io.cassandrareaper.management.jmx.JmxManagementConnectionFactory;
 import io.cassandrareaper.resources.view.ClusterStatus;
+import io.cassandrareaper.resources.view.RepairRunStatus;
 import io.cassandrareaper.service.ClusterRepairScheduler;
 import io.cassandrareaper.service.RepairScheduleService;
 import io.cassandrareaper.storage.events.IEventsDao;
@@ -40,6 +41,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.ws.rs.DELETE;
@@ -61,6 +63,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,6 +74,9 @@ public final class ClusterResource {
 
   private static final Logger LOG = LoggerFactory.getLogger(ClusterResource.class);
 
+  private static final int DEFAULT_REPAIR_RUNS_LIMIT = 100;
+  private static final int MAX_REPAIR_RUNS_LIMIT = 1000;
+
   private final AppContext context;
 
   private final IEventsDao eventsDao;
@@ -161,9 +167,18 @@ public final class ClusterResource {
   @Path("/{cluster_name}")
   public Response getCluster(
       @PathParam("cluster_name") String clusterName,
-      @QueryParam("limit") Optional<Integer> limit) {
+      @QueryParam("limit") Optional<Integer> limit,
+      @QueryParam("cursor") Optional<String> cursor) {
 
     LOG.debug("get cluster called with cluster_name: {}", clusterName);
+    Optional<UUID> before;
+    try {
+      before = cursor.map(UUID::fromString);
+    } catch (IllegalArgumentException ex) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("invalid repair runs cursor " + cursor.get()).build();
+    }
+    // the repair runs are paged through, one bounded page per request
+    final int repairRunsLimit = Math.max(1, Math.min(limit.orElse(DEFAULT_REPAIR_RUNS_LIMIT), MAX_REPAIR_RUNS_LIMIT));
     try {
       Cluster cluster = context.storage.getClusterDao().getCluster(clusterName);
 
@@ -182,11 +197,19 @@ public final class ClusterResource {
         jmxPasswordIsSet = !StringUtils.isEmpty(jmxCredentials.get().getPassword());
       }
 
+      List<RepairRunStatus> repairRuns
+          = Lists.newArrayList(repairRunDao.getClusterRunStatuses(cluster.getName(), before, repairRunsLimit));
+      // a full page means there may be older repair runs, the next page starts after the oldest one of this page
+      Optional<UUID> nextCursor = repairRuns.size() < repairRunsLimit
+          ? Optional.empty()
+          : Optional.of(repairRuns.get(repairRuns.size() - 1).getId());
+
       ClusterStatus clusterStatus = new ClusterStatus(
           cluster,
           jmxUsername,
           jmxPasswordIsSet,
-          repairRunDao.getClusterRunStatuses(cluster.getName(), limit.orElse(Integer.MAX_VALUE)),
+          repairRuns,
+          nextCursor,
           context.storage.getRepairScheduleDao().getClusterScheduleStatuses(cluster.getName()),
           clusterFacade.getNodesStatus(cluster));
 
@@ -476,6 +499,9 @@ public final class ClusterResource {
       // delete existing repair schedules to properly unregister metrics associated with the schedules
       repairSchedulesForCluster
           .forEach(repairSchedule -> repairScheduleService.deleteRepairSchedule(repairSchedule.getId()));
+      // along with the metrics of the repair units that were only repaired manually
+      repairRunDao.getRepairRunsForCluster(clusterName, Optional.empty())
+          .forEach(repairRun -> context.repairUnitMetrics.removeAll(repairRun.getRepairUnitId()));
       context.storage.getClusterDao().deleteCluster(clusterName);
       return Response.accepted().build();
     } catch (IllegalArgumentException ex) {
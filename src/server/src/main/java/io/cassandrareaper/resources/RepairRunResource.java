@@ -26,7 +26,6 @@ import io.cassandrareaper.core.RepairSegment;
 import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.management.ClusterFacade;
 import io.cassandrareaper.resources.view.RepairRunStatus;
-import io.cassandrareaper.service.PurgeService;
 import io.cassandrareaper.service.RepairRunService;
 import io.cassandrareaper.service.RepairUnitService;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
@@ -791,8 +790,8 @@ public final class RepairRunResource {
         String msg = String.format("Repair run %s is not owned by the user you defined %s", runId, owner.get());
         return Response.status(Response.Status.CONFLICT).entity(msg).build();
       }
-      if (context.storage.getRepairSegmentDao().getSegmentAmountForRepairRunWithState(runId,
-          RepairSegment.State.RUNNING) > 0) {
+      if (context.storage.getRepairSegmentDao().countSegmentsByState(runId)
+          .getSegmentAmount(RepairSegment.State.RUNNING) > 0) {
         String msg = String.format("Repair run %s has running segments, which must finish before deleting", runId);
         return Response.status(Response.Status.CONFLICT).entity(msg).build();
       }
@@ -810,7 +809,7 @@ public final class RepairRunResource {
   @POST
   @Path("/purge")
   public Response purgeRepairRuns() throws ReaperException {
-    int purgedRepairs = PurgeService.create(context, repairRunDao).purgeDatabase();
+    int purgedRepairs = context.purgeService.purgeDatabase();
     return Response.ok().entity(purgedRepairs).build();
   }
 }
\ No newline at end of file
@@ -198,6 +198,7 @@ public final class RepairScheduleResource {
     // Attempt to update the schedule
     boolean updated = context.storage.getRepairScheduleDao().updateRepairSchedule(patchedRepairSchedule);
     if (updated) {
+      notifySchedulingManager(patchedRepairSchedule);
       return Response.status(Response.Status.OK).entity(getRepairScheduleStatus(patchedRepairSchedule)).build();
     } else {
       return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
@@ -548,6 +549,12 @@ public final class RepairScheduleResource {
     return Response.ok().location(buildRepairScheduleUri(uriInfo, repairSchedule)).build();
   }
 
+  private void notifySchedulingManager(RepairSchedule repairSchedule) {
+    if (null != context.schedulingManager) {
+      context.schedulingManager.scheduleChanged(repairSchedule);
+    }
+  }
+
   /**
    * @return detailed information about a repair schedule.
    */
@@ -583,6 +590,7 @@ public final class RepairScheduleResource {
           .build(repairScheduleId);
 
       context.storage.getRepairScheduleDao().updateRepairSchedule(newSchedule);
+      notifySchedulingManager(newSchedule);
       return Response.ok().entity(getRepairScheduleStatus(newSchedule)).build();
     } else {
       return Response.status(404)
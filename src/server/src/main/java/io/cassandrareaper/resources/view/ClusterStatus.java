@@ -20,7 +20,9 @@ package io.cassandrareaper.resources.view;
 import io.cassandrareaper.core.Cluster;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -41,6 +43,9 @@ public final class ClusterStatus {
   @JsonProperty("repair_runs")
   public final Collection<RepairRunStatus> repairRuns;
 
+  @JsonProperty("repair_runs_cursor")
+  public final String repairRunsCursor;
+
   @JsonProperty("repair_schedules")
   public final Collection<RepairScheduleStatus> repairSchedules;
 
@@ -52,6 +57,7 @@ public final class ClusterStatus {
       String jmxUsername,
       Boolean jmxPasswordIsSet,
       Collection<RepairRunStatus> repairRuns,
+      Optional<UUID> repairRunsCursor,
       Collection<RepairScheduleStatus> repairSchedules,
       NodesStatus nodesStatus) {
 
@@ -60,6 +66,7 @@ public final class ClusterStatus {
     this.jmxPasswordIsSet = jmxPasswordIsSet;
     this.seedHosts = cluster.getSeedHosts();
     this.repairRuns = repairRuns;
+    this.repairRunsCursor = repairRunsCursor.map(UUID::toString).orElse(null);
     this.repairSchedules = repairSchedules;
     this.nodesStatus = nodesStatus;
   }
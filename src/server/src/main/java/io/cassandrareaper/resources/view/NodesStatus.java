@@ -35,6 +35,8 @@ import com.google.common.collect.Sets;
 
 public final class NodesStatus {
 
+  public static final String NOT_AVAILABLE = "Not available";
+
   private static final List<Pattern> ENDPOINT_NAME_PATTERNS = Lists.newArrayList();
   private static final List<Pattern> ENDPOINT_STATUS_PATTERNS = Lists.newArrayList();
   private static final List<Pattern> ENDPOINT_DC_PATTERNS = Lists.newArrayList();
@@ -69,8 +71,6 @@ public final class NodesStatus {
   private static final Pattern ENDPOINT_LOAD_SCYLLA_44_PATTERN = Pattern.compile("(LOAD)(:)([0-9eE.\\+]+)");
   private static final Pattern ENDPOINT_TYPE_STARGATE_PATTERN = Pattern.compile("(X10):([0-9]*):(stargate)");
 
-  private static final String NOT_AVAILABLE = "Not available";
-
   @JsonProperty
   public final List<GossipInfo> endpointStates;
 
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the diagnostic events of a subscription to its HTTP endpoint.
+ *
+ * <p>
+ * Events are queued without blocking the poller that delivers them and posted from a dedicated thread, once a full
+ * batch is queued or the flush interval elapses. Each event is posted as its own JSON object, unless posting whole
+ * batches as JSON arrays was opted into. Failed posts are retried with an exponential backoff.
+ * Events are dropped, and counted, when the queue is full or a post still fails after the last attempt.
+ */
+final class DiagEventExporter implements Closeable {
+
+  static final int QUEUE_CAPACITY
+      = Integer.getInteger(DiagEventExporter.class.getPackage().getName() + ".diag_event_export_queue_capacity", 10000);
+
+  static final int BATCH_SIZE
+      = Integer.getInteger(DiagEventExporter.class.getPackage().getName() + ".diag_event_export_batch_size", 100);
+
+  static final long FLUSH_INTERVAL_MILLIS
+      = Long.getLong(DiagEventExporter.class.getPackage().getName() + ".diag_event_export_flush_millis", 1000);
+
+  // endpoints written for single event posts don't accept arrays
+  static final boolean JSON_ARRAYS
+      = Boolean.getBoolean(DiagEventExporter.class.getPackage().getName() + ".diag_event_export_json_arrays");
+
+  static final int MAX_ATTEMPTS = 5;
+  static final long INITIAL_BACKOFF_MILLIS = 500;
+
+  private static final Logger LOG = LoggerFactory.getLogger(DiagEventExporter.class);
+
+  private final String endpoint;
+  private final HttpClient httpClient;
+  private final MetricRegistry metricRegistry;
+  private final BlockingQueue<String> queue;
+  private final int batchSize;
+  private final long initialBackoffMillis;
+  private final boolean jsonArrays;
+  private final ScheduledExecutorService executor;
+  private final AtomicBoolean flushPending = new AtomicBoolean(false);
+  private final Counter exported;
+  private final Counter droppedQueueFull;
+  private final Counter droppedFailed;
+
+  @VisibleForTesting
+  DiagEventExporter(
+      UUID subscriptionId,
+      String endpoint,
+      HttpClient httpClient,
+      MetricRegistry metricRegistry,
+      int queueCapacity,
+      int batchSize,
+      long flushIntervalMillis,
+      long initialBackoffMillis,
+      boolean jsonArrays) {
+
+    this.endpoint = endpoint;
+    this.httpClient = httpClient;
+    this.metricRegistry = metricRegistry;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.jsonArrays = jsonArrays;
+    this.exported = metricRegistry.counter(metricName(subscriptionId, "exported"));
+    this.droppedQueueFull = metricRegistry.counter(metricName(subscriptionId, "droppedQueueFull"));
+    this.droppedFailed = metricRegistry.counter(metricName(subscriptionId, "droppedFailed"));
+
+    this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("DiagEventExporter-" + subscriptionId + "-%d")
+        .setDaemon(true)
+        .build());
+
+    executor.scheduleWithFixedDelay(
+        this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  static DiagEventExporter create(UUID subscriptionId, String endpoint, HttpClient client, MetricRegistry registry) {
+    return new DiagEventExporter(
+        subscriptionId,
+        endpoint,
+        client,
+        registry,
+        QUEUE_CAPACITY,
+        BATCH_SIZE,
+        FLUSH_INTERVAL_MILLIS,
+        INITIAL_BACKOFF_MILLIS,
+        JSON_ARRAYS);
+  }
+
+  @VisibleForTesting
+  static String metricName(UUID subscriptionId, String counter) {
+    return MetricRegistry.name(DiagEventExporter.class, counter, subscriptionId.toString());
+  }
+
+  String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Queues the JSON of an event for export, never blocking the caller.
+   */
+  void offer(String json) {
+    if (!queue.offer(json)) {
+      droppedQueueFull.inc();
+      return;
+    }
+    if (queue.size() >= batchSize && flushPending.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::flushQuietly);
+      } catch (RejectedExecutionException e) {
+        // closed, the remaining events were already drained
+        flushPending.set(false);
+      }
+    }
+  }
+
+  /**
+   * Flushes the queued events in the background, and unregisters the counters of the subscription right away so that
+   * an exporter replacing this one starts from fresh counters.
+   */
+  @Override
+  public void close() {
+    try {
+      executor.execute(this::flushQuietly);
+    } catch (RejectedExecutionException ignore) {
+      // already closed
+    }
+    executor.shutdown();
+    metricRegistry.removeMatching(
+        (name, metric) -> metric == exported || metric == droppedQueueFull || metric == droppedFailed);
+  }
+
+  @VisibleForTesting
+  boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executor.awaitTermination(timeout, unit);
+  }
+
+  private void flushQuietly() {
+    flushPending.set(false);
+    try {
+      List<String> batch = new ArrayList<>(batchSize);
+      while (0 < queue.drainTo(batch, batchSize)) {
+        if (jsonArrays) {
+          export("[" + String.join(",", batch) + "]", batch.size());
+        } else {
+          for (String json : batch) {
+            export(json, 1);
+          }
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      LOG.error("Failed to export diagnostic events to " + endpoint, e);
+    }
+  }
+
+  private void export(String json, int events) throws InterruptedException {
+    if (post(json)) {
+      exported.inc(events);
+    } else {
+      LOG.warn("Dropping {} diagnostic events after failing to post them to {}", events, endpoint);
+      droppedFailed.inc(events);
+    }
+  }
+
+  private boolean post(String json) throws InterruptedException {
+    HttpPost req = new HttpPost(endpoint);
+    req.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+    long backoffMillis = initialBackoffMillis;
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS; ++attempt) {
+      try {
+        HttpResponse resp = httpClient.execute(req);
+        // consume response to return connection to pool
+        EntityUtils.consumeQuietly(resp.getEntity());
+        int status = resp.getStatusLine().getStatusCode();
+        if (status < 500) {
+          if (300 <= status) {
+            LOG.warn("Diagnostic events rejected by {} with status {}", endpoint, status);
+            return false;
+          }
+          return true;
+        }
+        LOG.debug("Failed to post diagnostic events to {} with status {} (attempt {})", endpoint, status, attempt);
+      } catch (IOException e) {
+        LOG.debug("Failed to post diagnostic events to {} (attempt {})", endpoint, attempt, e);
+      }
+      if (attempt < MAX_ATTEMPTS) {
+        Thread.sleep(backoffMillis);
+        backoffMillis *= 2;
+      }
+    }
+    return false;
+  }
+}
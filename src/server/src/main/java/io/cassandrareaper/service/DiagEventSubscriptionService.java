@@ -28,7 +28,6 @@ import io.cassandrareaper.management.jmx.JmxManagementConnectionFactory;
 import io.cassandrareaper.resources.view.DiagnosticEvent;
 import io.cassandrareaper.storage.events.IEventsDao;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,19 +52,12 @@ import javax.management.remote.JMXConnectionNotification;
 import javax.ws.rs.core.MediaType;
 
 import com.codahale.metrics.InstrumentedScheduledExecutorService;
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.SetMultimap;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.util.EntityUtils;
 import org.glassfish.jersey.media.sse.EventOutput;
 import org.glassfish.jersey.media.sse.OutboundEvent;
 import org.glassfish.jersey.media.sse.SseBroadcaster;
@@ -79,7 +71,6 @@ public final class DiagEventSubscriptionService {
   public static final Map<Node, DiagEventPoller> POLLERS_BY_NODE = new HashMap<>();
   private static final Logger LOG = LoggerFactory.getLogger(DiagEventSubscriptionService.class);
   private static final Map<DiagEventSubscription, Broadcaster> BROADCASTERS = new HashMap<>();
-  private static final ObjectMapper JSON_MAPPER = new ObjectMapper(new JsonFactory());
   private static final AtomicLong ID_COUNTER = new AtomicLong(0);
   private final IEventsDao eventsDao;
   private final Map<Node, NotificationListener> listenerByNode = new ConcurrentHashMap<>();
@@ -87,6 +78,7 @@ public final class DiagEventSubscriptionService {
   private final HttpClient httpClient;
   private final ScheduledExecutorService scheduler;
   private final AtomicLong lastUpdateCheck = new AtomicLong(0);
+  private final Map<UUID, DiagEventExporter> exporters = new ConcurrentHashMap<>();
 
   private Set<DiagEventSubscription> subsAlwaysActive;
 
@@ -172,6 +164,8 @@ public final class DiagEventSubscriptionService {
         .filter((sub) -> sub.getExportFileLogger() != null || sub.getExportHttpEndpoint() != null)
         .collect(Collectors.toSet());
 
+    updateExporters();
+
     // determine which of the ad-hoc subscriptions have currently active SSE clients listening
     Set<DiagEventSubscription> subsAdHocActive
         = DiagEventSubscriptionService.getAdhocActiveSubs(allSubs, this.subsAlwaysActive);
@@ -290,6 +284,23 @@ public final class DiagEventSubscriptionService {
     }
   }
 
+  private void updateExporters() {
+    Map<UUID, String> endpoints = subsAlwaysActive.stream()
+        .filter((sub) -> sub.getExportHttpEndpoint() != null && sub.getId().isPresent())
+        .collect(Collectors.toMap((sub) -> sub.getId().get(), DiagEventSubscription::getExportHttpEndpoint));
+
+    // close the exporters of deleted subscriptions, flushing their queued events
+    exporters.entrySet().removeIf((entry) -> {
+      if (!entry.getValue().getEndpoint().equals(endpoints.get(entry.getKey()))) {
+        entry.getValue().close();
+        return true;
+      }
+      return false;
+    });
+    endpoints.forEach((id, endpoint) -> exporters.computeIfAbsent(
+        id, (key) -> DiagEventExporter.create(key, endpoint, httpClient, context.metricRegistry)));
+  }
+
   private void enableEvents(Node node, Set<String> events, boolean enabled,
                             JmxCassandraManagementProxy cassandraManagementProxy) {
     for (String event : events) {
@@ -361,7 +372,7 @@ public final class DiagEventSubscriptionService {
   private void onEvent(DiagnosticEvent event) {
     String json;
     try {
-      json = JSON_MAPPER.writeValueAsString(event);
+      json = PayloadCodec.writeDiagnosticEvent(event);
     } catch (JsonProcessingException e) {
       throw new IllegalStateException("Failed to serialize diagnostic event as JSON", e);
     }
@@ -381,15 +392,11 @@ public final class DiagEventSubscriptionService {
               logger.info(json);
             }
           }
-          if (sub.getExportHttpEndpoint() != null) {
-            HttpPost req = new HttpPost(sub.getExportHttpEndpoint());
-            req.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-            try {
-              HttpResponse resp = httpClient.execute(req);
-              // consume response to return connection to pool
-              EntityUtils.consumeQuietly(resp.getEntity());
-            } catch (IOException e) {
-              LOG.error("Failed to post event to endpoint: " + sub.getExportHttpEndpoint(), e);
+          if (sub.getExportHttpEndpoint() != null && sub.getId().isPresent()) {
+            // queued for the exporter's own thread, never blocking the poller on the network
+            DiagEventExporter exporter = exporters.get(sub.getId().get());
+            if (exporter != null) {
+              exporter.offer(json);
             }
           }
         }
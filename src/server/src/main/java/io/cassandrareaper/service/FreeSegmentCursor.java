@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Position of a repair runner in the free segments of its run.
+ *
+ * <p>
+ * Each search resumes from the page following the one the previous search stopped in, so the segments at the start
+ * of the run aren't scanned over and over, and wraps around to the first page until it is back where it started.
+ */
+final class FreeSegmentCursor {
+
+  private Optional<UUID> position = Optional.empty();
+  private boolean exhausted = false;
+
+  Optional<RepairSegment> next(PageReader pageReader, SegmentPicker segmentPicker) throws ReaperException {
+    final Optional<UUID> start = position;
+    boolean wrapped = !start.isPresent();
+    exhausted = true;
+    while (true) {
+      RepairSegmentPage page = pageReader.read(position);
+      exhausted &= page.getSegments().isEmpty();
+      Optional<RepairSegment> segment = segmentPicker.pick(page.getSegments());
+      if (segment.isPresent()) {
+        return segment;
+      }
+      position = page.getNextCursor();
+      if (page.isLastPage()) {
+        if (wrapped) {
+          return Optional.empty();
+        }
+        wrapped = true;
+      } else if (wrapped && start.isPresent()
+          && 0 <= RepairSegmentPage.SEGMENT_ID_ORDER.compare(position.get(), start.get())) {
+        // back to where the search started from, the following segments were read before wrapping around
+        return Optional.empty();
+      }
+    }
+  }
+
+  /**
+   * @return whether the last search didn't read a single free segment, i.e. there was nothing left to start.
+   */
+  boolean isExhausted() {
+    return exhausted;
+  }
+
+  Optional<UUID> getPosition() {
+    return position;
+  }
+
+  interface PageReader {
+    RepairSegmentPage read(Optional<UUID> cursor);
+  }
+
+  interface SegmentPicker {
+    Optional<RepairSegment> pick(List<RepairSegment> candidates) throws ReaperException;
+  }
+}
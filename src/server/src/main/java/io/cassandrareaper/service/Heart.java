@@ -27,22 +27,28 @@ import io.cassandrareaper.core.RepairSchedule;
 import io.cassandrareaper.management.ClusterFacade;
 import io.cassandrareaper.storage.IDistributedStorage;
 
-import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.management.JMException;
 
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,12 +59,14 @@ public final class Heart implements AutoCloseable {
   private static final long DEFAULT_MAX_FREQUENCY = TimeUnit.SECONDS.toMillis(60);
 
   private final AtomicLong lastBeat = new AtomicLong(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
-  private final AtomicLong lastMetricBeat = new AtomicLong(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
-  private final AtomicLong lastPercentRepairedBeat = new AtomicLong(System.currentTimeMillis() - TimeUnit.HOURS
-      .toMillis(1));
-  private final ForkJoinPool forkJoinPool = new ForkJoinPool(64);
+  // last collection of the generic and percent repaired metrics of each node, the local node having an empty key
+  private final ConcurrentMap<String, Long> lastMetricBeats = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Long> lastPercentRepairedBeats = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat("Heart-%d").setDaemon(true).build());
   private final AppContext context;
   private final MetricsService metricsService;
+  private final MetricsCollectionScheduler collectionScheduler;
   private final long maxBeatFrequencyMillis;
   private final AtomicBoolean updatingNodeMetrics = new AtomicBoolean(false);
 
@@ -66,6 +74,7 @@ public final class Heart implements AutoCloseable {
     this.context = context;
     this.maxBeatFrequencyMillis = maxBeatFrequency;
     this.metricsService = MetricsService.create(context);
+    this.collectionScheduler = MetricsCollectionScheduler.create(context);
   }
 
   public static Heart create(AppContext context) throws ReaperException {
@@ -84,6 +93,7 @@ public final class Heart implements AutoCloseable {
   /**
    * Performs the following operations as part of regular heartbeats.
    * - Store heart beat with timestamp in the running_reapers table (allows to count live reaper instances)
+   * and refresh the cached view of the live reaper instances
    * - In distributed modes, stores metrics in the backend such as tpstats, latencies and pending compactions
    * as all instances can't reach all nodes through JMX (all dcAvailability modes but ALL).
    * This is done for all nodes in all clusters that are managed by the Reaper instance.
@@ -95,8 +105,9 @@ public final class Heart implements AutoCloseable {
       if (lastBeat.get() + maxBeatFrequencyMillis < System.currentTimeMillis()) {
         lastBeat.set(System.currentTimeMillis());
         ((IDistributedStorage) context.storage).saveHeartbeat();
+        context.membership.refresh();
 
-        if (!context.isDistributed.get() && 1 < ((IDistributedStorage) context.storage).countRunningReapers()) {
+        if (!context.isDistributed.get() && 1 < context.membership.count()) {
           context.isDistributed.set(true);
         }
       }
@@ -109,16 +120,7 @@ public final class Heart implements AutoCloseable {
       // In standalone/non collocated Reaper mode, only percent repaired metrics
       // are collected for incremental repair schedules
       if (!updatingNodeMetrics.getAndSet(true)) {
-        forkJoinPool.submit(() -> {
-          try (Timer.Context t0 = timer(context, "updatingNodeMetrics")) {
-            ClusterFacade clusterFacade = ClusterFacade.create(context);
-            Collection<Cluster> clusters = context.storage.getClusterDao().getClusters();
-            updateMetricsForClusters(clusterFacade, clusters);
-          } finally {
-            assert updatingNodeMetrics.get();
-            updatingNodeMetrics.set(false);
-          }
-        });
+        executor.submit(this::updateMetricsForClusters);
       }
     }
   }
@@ -130,11 +132,12 @@ public final class Heart implements AutoCloseable {
   @Override
   public void close() {
     try {
-      forkJoinPool.shutdown();
-      forkJoinPool.awaitTermination(10, TimeUnit.SECONDS);
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
     } catch (InterruptedException ignore) {
     } finally {
-      forkJoinPool.shutdownNow();
+      executor.shutdownNow();
+      collectionScheduler.close();
     }
   }
 
@@ -151,90 +154,85 @@ public final class Heart implements AutoCloseable {
     registerGauges();
 
     if (!updatingNodeMetrics.getAndSet(true)) {
-      forkJoinPool.submit(() -> {
-        try (Timer.Context t0 = timer(context, "updatingNodeMetrics")) {
-          if (context.config.getDatacenterAvailability() != DatacenterAvailability.SIDECAR) {
-            // In distributed modes other than SIDECAR, metrics are grabbed for all accessible nodes
-            // in all managed clusters
-            ClusterFacade clusterFacade = ClusterFacade.create(context);
-            Collection<Cluster> clusters = context.storage.getClusterDao().getClusters();
-            forkJoinPool.submit(() -> {
-              updateMetricsForClusters(clusterFacade, clusters);
-            }).get();
-          } else {
-            // In SIDECAR mode we grab metrics for the local node only
-            if (canPerformBeat(lastMetricBeat, maxBeatFrequencyMillis)) {
-              metricsService.grabAndStoreGenericMetrics(Optional.empty());
-              lastMetricBeat.set(System.currentTimeMillis());
-            } else {
-              LOG.trace("Not storing metrics yet... Last beat was {} and now is {}",
-                  lastMetricBeat.get(),
-                  System.currentTimeMillis());
-            }
-            updatePercentRepairedForNode(
-                Optional.empty(),
-                context.storage.getClusterDao().getClusters().stream().findFirst().get());
-            metricsService.grabAndStoreCompactionStats(Optional.empty());
-            metricsService.grabAndStoreActiveStreams(Optional.empty());
-          }
-        } catch (ExecutionException | InterruptedException | RuntimeException
-                 | ReaperException | JMException | IOException ex) {
-          LOG.warn("Failed metric collection during heartbeat", ex);
-        } finally {
-          assert updatingNodeMetrics.get();
-          updatingNodeMetrics.set(false);
+      if (context.config.getDatacenterAvailability() != DatacenterAvailability.SIDECAR) {
+        // In distributed modes other than SIDECAR, metrics are grabbed for all accessible nodes
+        // in all managed clusters
+        executor.submit(this::updateMetricsForClusters);
+      } else {
+        // In SIDECAR mode we grab metrics for the local node only
+        executor.submit(this::updateMetricsForLocalNode);
+      }
+    }
+  }
+
+  private void updateMetricsForLocalNode() {
+    try (Timer.Context t0 = timer(context, "updatingNodeMetrics")) {
+      if (canPerformBeat(lastMetricBeats, Optional.empty(), maxBeatFrequencyMillis)) {
+        metricsService.grabAndStoreGenericMetrics(Optional.empty());
+        lastMetricBeats.put(beatKey(Optional.empty()), System.currentTimeMillis());
+      } else {
+        LOG.trace("Not storing metrics yet... Last beat was {} and now is {}",
+            lastMetricBeats.get(beatKey(Optional.empty())),
+            System.currentTimeMillis());
+      }
+      updatePercentRepairedForNode(
+          Optional.empty(),
+          context.storage.getClusterDao().getClusters().stream().findFirst().get());
+      metricsService.grabAndStoreCompactionStats(Optional.empty());
+      metricsService.grabAndStoreActiveStreams(Optional.empty());
+    } catch (InterruptedException | RuntimeException | ReaperException | JMException ex) {
+      LOG.warn("Failed metric collection during heartbeat", ex);
+    } finally {
+      assert updatingNodeMetrics.get();
+      updatingNodeMetrics.set(false);
+    }
+  }
+
+  /**
+   * Updates the metrics in all modes for all the clusters managed by Reaper, including the non collocated ones.
+   * For non collocated modes, only percent repaired metrics will be extracted for existing incr repair schedules.
+   * The nodes are collected over the next collection interval, and no other update starts until they all are.
+   */
+  private void updateMetricsForClusters() {
+    Timer.Context t0 = timer(context, "updatingNodeMetrics");
+    CompletableFuture<List<Node>> collection = CompletableFuture.completedFuture(null);
+    try {
+      ClusterFacade clusterFacade = ClusterFacade.create(context);
+      Collection<Cluster> clusters = context.storage.getClusterDao().getClusters();
+      collection = collectionScheduler.collect(clusterFacade, clusters, this::collectNode);
+    } catch (RuntimeException ex) {
+      LOG.warn("Failed metric collection during heartbeat", ex);
+    } finally {
+      collection.whenComplete((liveNodes, error) -> {
+        if (null != liveNodes) {
+          forgetDepartedNodes(liveNodes);
         }
+        t0.stop();
+        assert updatingNodeMetrics.get();
+        updatingNodeMetrics.set(false);
       });
     }
   }
 
   /**
-   * Updates the metrics in all modes for a given list of clusters, including the non collocated ones.
-   * For non collocated modes, only percent repaired metrics will be extracted for existing incr repair schedules.
-   *
-   * @param clusterFacade A ClusterFacade object used to access the nodes via JMX.
-   * @param clusters      Active clusters managed by Reaper
+   * Updates the metrics of a node, returns false if the node couldn't be reached.
    */
-  private void updateMetricsForClusters(
-      ClusterFacade clusterFacade,
-      Collection<Cluster> clusters
-  ) {
-    clusters
-        .parallelStream()
-        .filter(cluster -> cluster.getState() == Cluster.State.ACTIVE)
-        .forEach(cluster -> {
-          try {
-            clusterFacade.getLiveNodes(cluster)
-                .parallelStream()
-                .filter(hostname -> {
-                  return context.managementConnectionFactory
-                      .getHostConnectionCounters()
-                      .getSuccessfulConnections(hostname) >= 0;
-                })
-                .map(hostname -> Node.builder()
-                    .withHostname(hostname)
-                    .withCluster(cluster)
-                    .build())
-                .forEach(node -> {
-                  try {
-                    if (isDistributedAndCollocated()) {
-                      // All metrics but percent repaired should be extracted only in distributed/collocated modes
-                      updateMetricsForNode(node);
-                    }
-                    updatePercentRepairedForNode(Optional.of(node), cluster);
-                  } catch (JMException | ReaperException | RuntimeException | IOException e) {
-                    LOG.error("Couldn't extract metrics for node {} in cluster {}",
-                        node.getHostname(), cluster.getName(), e);
-                  } catch (InterruptedException e) {
-                    LOG.error("Interrupted while extracting metrics for node {} in cluster {}",
-                        node.getHostname(), cluster.getName(), e);
-                  }
-                });
-          } catch (ReaperException e) {
-            LOG.error("Couldn't list live nodes in cluster {}", cluster.getName(), e);
-            e.printStackTrace();
-          }
-        });
+  @VisibleForTesting
+  boolean collectNode(Cluster cluster, Node node) {
+    try {
+      if (isDistributedAndCollocated()) {
+        // All metrics but percent repaired should be extracted only in distributed/collocated modes
+        updateMetricsForNode(node);
+      }
+      updatePercentRepairedForNode(Optional.of(node), cluster);
+      return true;
+    } catch (JMException | ReaperException | RuntimeException e) {
+      LOG.error("Couldn't extract metrics for node {} in cluster {}", node.getHostname(), cluster.getName(), e);
+    } catch (InterruptedException e) {
+      LOG.error("Interrupted while extracting metrics for node {} in cluster {}",
+          node.getHostname(), cluster.getName(), e);
+    }
+    return false;
   }
 
   /**
@@ -248,7 +246,8 @@ public final class Heart implements AutoCloseable {
       Cluster cluster
   ) {
     if (canPerformBeat(
-        lastPercentRepairedBeat,
+        lastPercentRepairedBeats,
+        node,
         TimeUnit.MINUTES.toMillis(context.config.getPercentRepairedCheckIntervalMinutes()))) {
 
       Collection<RepairSchedule> incrementalRepairSchedules
@@ -266,17 +265,17 @@ public final class Heart implements AutoCloseable {
           }
         }
       });
-      lastPercentRepairedBeat.set(System.currentTimeMillis());
+      lastPercentRepairedBeats.put(beatKey(node), System.currentTimeMillis());
     }
   }
 
   private void updateMetricsForNode(Node node)
-      throws JsonProcessingException, JMException, ReaperException, InterruptedException {
+      throws JMException, ReaperException, InterruptedException {
     metricsService.grabAndStoreCompactionStats(Optional.of(node));
     metricsService.grabAndStoreActiveStreams(Optional.of(node));
-    if (canPerformBeat(lastMetricBeat, maxBeatFrequencyMillis)) {
+    if (canPerformBeat(lastMetricBeats, Optional.of(node), maxBeatFrequencyMillis)) {
       metricsService.grabAndStoreGenericMetrics(Optional.of(node));
-      lastMetricBeat.set(System.currentTimeMillis());
+      lastMetricBeats.put(beatKey(Optional.of(node)), System.currentTimeMillis());
     }
   }
 
@@ -285,24 +284,48 @@ public final class Heart implements AutoCloseable {
 
       context.metricRegistry.register(
           MetricRegistry.name(Heart.class, "runningThreadCount"),
-          (Gauge<Integer>) () -> forkJoinPool.getRunningThreadCount());
+          (Gauge<Integer>) () -> collectionScheduler.getPoolSize());
 
       context.metricRegistry.register(
           MetricRegistry.name(Heart.class, "activeThreadCount"),
-          (Gauge<Integer>) () -> forkJoinPool.getActiveThreadCount());
+          (Gauge<Integer>) () -> collectionScheduler.getActiveCount());
 
       context.metricRegistry.register(
           MetricRegistry.name(Heart.class, "queuedTaskCount"),
-          (Gauge<Long>) () -> forkJoinPool.getQueuedTaskCount());
+          (Gauge<Long>) () -> (long) collectionScheduler.getQueuedTaskCount());
 
       context.metricRegistry.register(
           MetricRegistry.name(Heart.class, "queuedSubmissionCount"),
-          (Gauge<Integer>) () -> forkJoinPool.getQueuedSubmissionCount());
+          (Gauge<Integer>) () -> collectionScheduler.getQueuedCollectionCount());
+
+      context.metricRegistry.register(
+          MetricRegistry.name(Heart.class, "pendingNodeCollectionCount"),
+          (Gauge<Integer>) () -> collectionScheduler.getPendingCollectionCount());
     }
   }
 
-  private boolean canPerformBeat(AtomicLong lastBeat, long interval) {
-    return lastBeat.get() + interval <= System.currentTimeMillis();
+  /**
+   * Drops the last beats of the nodes that left the live node view, the local node being always kept.
+   */
+  @VisibleForTesting
+  void forgetDepartedNodes(Collection<Node> liveNodes) {
+    Set<String> liveKeys = liveNodes.stream().map(node -> beatKey(Optional.of(node))).collect(Collectors.toSet());
+    liveKeys.add(beatKey(Optional.empty()));
+    lastMetricBeats.keySet().retainAll(liveKeys);
+    lastPercentRepairedBeats.keySet().retainAll(liveKeys);
+  }
+
+  @VisibleForTesting
+  Set<String> getBeatKeys() {
+    return Sets.union(lastMetricBeats.keySet(), lastPercentRepairedBeats.keySet()).immutableCopy();
+  }
+
+  private boolean canPerformBeat(ConcurrentMap<String, Long> lastBeats, Optional<Node> node, long interval) {
+    return lastBeats.getOrDefault(beatKey(node), 0L) + interval <= System.currentTimeMillis();
+  }
+
+  private static String beatKey(Optional<Node> node) {
+    return node.map(nd -> nd.getClusterName() + '/' + nd.getHostname()).orElse("");
   }
 
   private boolean isDistributedAndCollocated() {
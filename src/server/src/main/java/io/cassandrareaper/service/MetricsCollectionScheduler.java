@@ -0,0 +1,239 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.AppContext;
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.Node;
+import io.cassandrareaper.management.ClusterFacade;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads the collection of the node metrics of the managed clusters over the collection interval.
+ *
+ * <p>
+ * The live nodes of each cluster are cached, and listed again after the topology refresh period or as soon as one of
+ * the nodes could not be collected. Each node of a cluster gets its own slot of the interval, with a random offset
+ * within the slot, so that the nodes are not all queried at once. The number of concurrent collections is bounded
+ * for the whole Reaper instance by the size of the thread pool, and for each cluster by a number of permits.
+ */
+final class MetricsCollectionScheduler implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MetricsCollectionScheduler.class);
+
+  private static final long INTERVAL_MILLIS
+      = Long.getLong(MetricsCollectionScheduler.class.getName() + ".interval_millis", 10_000);
+
+  private static final int MAX_CONCURRENT_COLLECTIONS
+      = Integer.getInteger(MetricsCollectionScheduler.class.getName() + ".max_concurrent_collections", 16);
+
+  private static final int MAX_CONCURRENT_COLLECTIONS_PER_CLUSTER
+      = Integer.getInteger(MetricsCollectionScheduler.class.getName() + ".max_concurrent_collections_per_cluster", 4);
+
+  private static final int TOPOLOGY_REFRESH_SECONDS
+      = Integer.getInteger(MetricsCollectionScheduler.class.getName() + ".topology_refresh_seconds", 300);
+
+  private static final long MAX_PERMIT_RETRY_DELAY_MILLIS = 1000;
+
+  private final AppContext context;
+  private final long intervalMillis;
+  private final ScheduledThreadPoolExecutor executor;
+  private final Cache<String, List<String>> liveNodes
+      = CacheBuilder.newBuilder().expireAfterWrite(TOPOLOGY_REFRESH_SECONDS, TimeUnit.SECONDS).build();
+  private final ConcurrentMap<String, Semaphore> clusterPermits = new ConcurrentHashMap<>();
+  private final AtomicInteger pendingCollections = new AtomicInteger();
+
+  private MetricsCollectionScheduler(AppContext context, long intervalMillis) {
+    this.context = context;
+    this.intervalMillis = intervalMillis;
+    this.executor = new ScheduledThreadPoolExecutor(
+        MAX_CONCURRENT_COLLECTIONS,
+        new ThreadFactoryBuilder().setNameFormat("MetricsCollection-%d").setDaemon(true).build());
+  }
+
+  static MetricsCollectionScheduler create(AppContext context) {
+    return new MetricsCollectionScheduler(context, INTERVAL_MILLIS);
+  }
+
+  @VisibleForTesting
+  static MetricsCollectionScheduler create(AppContext context, long intervalMillis) {
+    return new MetricsCollectionScheduler(context, intervalMillis);
+  }
+
+  /**
+   * Schedules the collection of all the live nodes of the given active clusters over the next interval.
+   *
+   * @return a future completed with the live nodes once they all have been collected
+   */
+  CompletableFuture<List<Node>> collect(
+      ClusterFacade clusterFacade,
+      Collection<Cluster> clusters,
+      NodeCollector collector) {
+
+    List<Node> collectedNodes = Lists.newArrayList();
+    List<CompletableFuture<Void>> collections = Lists.newArrayList();
+    for (Cluster cluster : clusters) {
+      if (cluster.getState() == Cluster.State.ACTIVE) {
+        try {
+          List<Node> nodes = getLiveNodes(clusterFacade, cluster).stream()
+              .filter(hostname -> context.managementConnectionFactory
+                  .getHostConnectionCounters()
+                  .getSuccessfulConnections(hostname) >= 0)
+              .map(hostname -> Node.builder().withHostname(hostname).withCluster(cluster).build())
+              .collect(Collectors.toList());
+          collectedNodes.addAll(nodes);
+          collections.addAll(schedule(cluster, nodes, collector));
+        } catch (ReaperException e) {
+          LOG.error("Couldn't list live nodes in cluster {}", cluster.getName(), e);
+        }
+      }
+    }
+    return CompletableFuture.allOf(collections.toArray(new CompletableFuture[0])).thenApply(done -> collectedNodes);
+  }
+
+  int getPoolSize() {
+    return executor.getPoolSize();
+  }
+
+  int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  int getQueuedTaskCount() {
+    return executor.getQueue().size();
+  }
+
+  int getPendingCollectionCount() {
+    return pendingCollections.get();
+  }
+
+  /**
+   * The node collections scheduled but not started yet, excluding the running ones.
+   */
+  int getQueuedCollectionCount() {
+    return Math.max(0, pendingCollections.get() - executor.getActiveCount());
+  }
+
+  @Override
+  public void close() {
+    try {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ignore) {
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<String> getLiveNodes(ClusterFacade clusterFacade, Cluster cluster) throws ReaperException {
+    try {
+      return liveNodes.get(cluster.getName(), () -> clusterFacade.getLiveNodes(cluster));
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), ReaperException.class);
+      throw new ReaperException(e);
+    }
+  }
+
+  private List<CompletableFuture<Void>> schedule(Cluster cluster, List<Node> nodes, NodeCollector collector) {
+    List<CompletableFuture<Void>> collections = Lists.newArrayList();
+    if (!nodes.isEmpty()) {
+      long slotMillis = Math.max(1, intervalMillis / nodes.size());
+      for (int i = 0; i < nodes.size(); ++i) {
+        CompletableFuture<Void> collection = new CompletableFuture<>();
+        long delayMillis = i * slotMillis + ThreadLocalRandom.current().nextLong(slotMillis);
+        pendingCollections.incrementAndGet();
+        Node node = nodes.get(i);
+        executor.schedule(() -> collectWhenPermitted(cluster, node, collector, collection, slotMillis),
+            delayMillis,
+            TimeUnit.MILLISECONDS);
+        collections.add(collection);
+      }
+    }
+    return collections;
+  }
+
+  /**
+   * Collects the node if the cluster has a permit left, and tries again later otherwise.
+   * Waiting for a permit would hold a thread of the pool that other clusters could use.
+   */
+  private void collectWhenPermitted(
+      Cluster cluster,
+      Node node,
+      NodeCollector collector,
+      CompletableFuture<Void> collection,
+      long slotMillis) {
+
+    Semaphore permits = clusterPermits.computeIfAbsent(
+        cluster.getName(), name -> new Semaphore(MAX_CONCURRENT_COLLECTIONS_PER_CLUSTER));
+
+    if (!permits.tryAcquire()) {
+      long retryDelayMillis = ThreadLocalRandom.current().nextLong(Math.min(slotMillis, MAX_PERMIT_RETRY_DELAY_MILLIS));
+      executor.schedule(
+          () -> collectWhenPermitted(cluster, node, collector, collection, slotMillis),
+          Math.max(1, retryDelayMillis),
+          TimeUnit.MILLISECONDS);
+      return;
+    }
+    try {
+      if (!collector.collect(cluster, node)) {
+        // the topology may have changed, list the live nodes again on the next collection
+        liveNodes.invalidate(cluster.getName());
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Couldn't extract metrics for node {} in cluster {}", node.getHostname(), cluster.getName(), e);
+      liveNodes.invalidate(cluster.getName());
+    } finally {
+      permits.release();
+      pendingCollections.decrementAndGet();
+      collection.complete(null);
+    }
+  }
+
+  @FunctionalInterface
+  interface NodeCollector {
+
+    /**
+     * Collects the metrics of a node.
+     *
+     * @return false if the node could not be collected
+     */
+    boolean collect(Cluster cluster, Node node);
+  }
+}
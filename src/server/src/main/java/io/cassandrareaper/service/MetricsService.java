@@ -32,16 +32,12 @@ import io.cassandrareaper.core.StreamSession;
 import io.cassandrareaper.core.ThreadPoolStat;
 import io.cassandrareaper.management.ClusterFacade;
 import io.cassandrareaper.storage.IDistributedStorage;
-import io.cassandrareaper.storage.OpType;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import javax.management.JMException;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
@@ -55,7 +51,6 @@ public final class MetricsService {
 
   private final AppContext context;
   private final ClusterFacade clusterFacade;
-  private final ObjectMapper objectMapper;
   private final String localClusterName;
   private final RepairUnitService repairUnitService;
 
@@ -72,8 +67,6 @@ public final class MetricsService {
     } else {
       localClusterName = null;
     }
-    objectMapper = new ObjectMapper();
-    objectMapper.registerModule(new Jdk8Module());
     this.repairUnitService = RepairUnitService.create(context);
   }
 
@@ -114,7 +107,7 @@ public final class MetricsService {
   }
 
   void grabAndStoreCompactionStats(Optional<Node> maybeNode)
-      throws JsonProcessingException, JMException, ReaperException {
+      throws JMException, ReaperException {
     Preconditions.checkState(
         context.config.getDatacenterAvailability().isInCollocatedMode(),
         "grabAndStoreCompactionStats() can only be called in sidecar");
@@ -124,16 +117,12 @@ public final class MetricsService {
     CompactionStats compactionStats = ClusterFacade.create(context).listCompactionStatsDirect(node);
 
     ((IDistributedStorage) context.storage).getOperationsDao()
-        .storeOperations(
-            node.getClusterName(),
-            OpType.OP_COMPACTION,
-            node.getHostname(),
-            objectMapper.writeValueAsString(compactionStats));
+        .storeCompactionStats(node.getClusterName(), node.getHostname(), compactionStats);
 
     LOG.debug("Grabbing and storing compaction stats for {}", node.getHostname());
   }
 
-  void grabAndStoreActiveStreams(Optional<Node> maybeNode) throws JsonProcessingException, ReaperException {
+  void grabAndStoreActiveStreams(Optional<Node> maybeNode) throws ReaperException {
     Preconditions.checkState(
         context.config.getDatacenterAvailability().isInCollocatedMode(),
         "grabAndStoreActiveStreams() can only be called in sidecar");
@@ -143,11 +132,7 @@ public final class MetricsService {
     List<StreamSession> activeStreams = ClusterFacade.create(context).listStreamsDirect(node);
 
     ((IDistributedStorage) context.storage).getOperationsDao()
-        .storeOperations(
-            node.getClusterName(),
-            OpType.OP_STREAMING,
-            node.getHostname(),
-            objectMapper.writeValueAsString(activeStreams));
+        .storeActiveStreams(node.getClusterName(), node.getHostname(), activeStreams);
 
     LOG.debug("Grabbing and storing streams for {}", node.getHostname());
   }
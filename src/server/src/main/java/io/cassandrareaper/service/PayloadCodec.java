@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.core.Compaction;
+import io.cassandrareaper.core.CompactionStats;
+import io.cassandrareaper.core.StreamSession;
+import io.cassandrareaper.resources.view.DiagnosticEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+/**
+ * Serializes the payloads collected from the nodes with readers and writers built once and shared by all threads.
+ *
+ * <p>
+ * Payloads are exchanged as JSON. Stored payloads are the same JSON, deflated.
+ */
+public final class PayloadCodec {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+
+  private static final ObjectReader COMPACTION_STATS_READER = MAPPER.readerFor(CompactionStats.class);
+  private static final ObjectReader COMPACTIONS_READER = MAPPER.readerFor(new TypeReference<List<Compaction>>() {});
+  private static final ObjectReader STREAM_SESSIONS_READER
+      = MAPPER.readerFor(new TypeReference<List<StreamSession>>() {});
+
+  private static final ObjectWriter COMPACTION_STATS_WRITER = MAPPER.writerFor(CompactionStats.class);
+  private static final ObjectWriter STREAM_SESSIONS_WRITER
+      = MAPPER.writerFor(new TypeReference<List<StreamSession>>() {});
+  private static final ObjectWriter DIAGNOSTIC_EVENT_WRITER = MAPPER.writerFor(DiagnosticEvent.class);
+
+  private PayloadCodec() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static CompactionStats readCompactionStats(String json) throws IOException {
+    return COMPACTION_STATS_READER.readValue(json);
+  }
+
+  public static List<Compaction> readCompactions(String json) throws IOException {
+    return COMPACTIONS_READER.readValue(json);
+  }
+
+  public static List<StreamSession> readStreamSessions(String json) throws IOException {
+    return STREAM_SESSIONS_READER.readValue(json);
+  }
+
+  public static byte[] writeCompactionStats(CompactionStats compactionStats) throws JsonProcessingException {
+    return COMPACTION_STATS_WRITER.writeValueAsBytes(compactionStats);
+  }
+
+  public static byte[] writeStreamSessions(List<StreamSession> streamSessions) throws JsonProcessingException {
+    return STREAM_SESSIONS_WRITER.writeValueAsBytes(streamSessions);
+  }
+
+  public static String writeDiagnosticEvent(DiagnosticEvent event) throws JsonProcessingException {
+    return DIAGNOSTIC_EVENT_WRITER.writeValueAsString(event);
+  }
+
+  /**
+   * Returns the stored form of a serialized payload.
+   */
+  public static ByteBuffer toStored(byte[] payload) {
+    ByteArrayOutputStream deflated = new ByteArrayOutputStream(payload.length / 2 + 16);
+    try (OutputStream output = new DeflaterOutputStream(deflated)) {
+      output.write(payload);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return ByteBuffer.wrap(deflated.toByteArray());
+  }
+
+  public static CompactionStats readStoredCompactionStats(ByteBuffer stored) throws IOException {
+    try (InputStream input = inflate(stored)) {
+      return COMPACTION_STATS_READER.readValue(input);
+    }
+  }
+
+  public static List<StreamSession> readStoredStreamSessions(ByteBuffer stored) throws IOException {
+    try (InputStream input = inflate(stored)) {
+      return STREAM_SESSIONS_READER.readValue(input);
+    }
+  }
+
+  private static InputStream inflate(ByteBuffer stored) {
+    return new InflaterInputStream(new ByteBufferBackedInputStream(stored.duplicate()));
+  }
+}
@@ -30,31 +30,85 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class PurgeService {
 
+  public static final int PURGE_CONCURRENCY = Integer.getInteger(PurgeService.class.getName() + ".concurrency", 8);
+
+  static final int PURGE_PAGE_SIZE = 1000;
+
   private static final Logger LOG = LoggerFactory.getLogger(PurgeService.class);
 
+  // purges run hourly, leave them time to finish before the next one
+  private static final long PURGE_TIME_BUDGET_MILLIS
+      = Long.getLong(PurgeService.class.getName() + ".time_budget_millis", TimeUnit.MINUTES.toMillis(50));
+
+  private static final String PURGED_RUNS_METRIC = MetricRegistry.name(PurgeService.class, "purgedRuns");
+  private static final String PURGE_THROUGHPUT_METRIC = MetricRegistry.name(PurgeService.class, "purgeThroughput");
+
   private final AppContext context;
 
+  private final ExecutorService executor;
+
   private final IRepairRunDao repairRunDao;
 
-  private PurgeService(AppContext context, IRepairRunDao repairRunDao) {
+  private final long timeBudgetMillis;
+
+  // where the purge by date of each cluster stopped when running out of time, the next purge resumes from there
+  private final Map<String, UUID> checkpoints = new ConcurrentHashMap<>();
+
+  private volatile double lastPurgeThroughput = 0;
+
+  private PurgeService(
+      AppContext context,
+      ExecutorService executor,
+      IRepairRunDao repairRunDao,
+      long timeBudgetMillis) {
+
     this.context = context;
+    this.executor = executor;
     this.repairRunDao = repairRunDao;
+    this.timeBudgetMillis = timeBudgetMillis;
+    context.metricRegistry.remove(PURGE_THROUGHPUT_METRIC);
+    context.metricRegistry.register(PURGE_THROUGHPUT_METRIC, (Gauge<Double>) () -> lastPurgeThroughput);
+  }
+
+  /**
+   * Creates the purge service, the repair runs being deleted concurrently on the given executor.
+   */
+  public static PurgeService create(AppContext context, ExecutorService executor, IRepairRunDao repairRunDao) {
+    return new PurgeService(context, executor, repairRunDao, PURGE_TIME_BUDGET_MILLIS);
   }
 
-  public static PurgeService create(AppContext context, IRepairRunDao repairRunDao) {
-    return new PurgeService(context, repairRunDao);
+  @VisibleForTesting
+  static PurgeService create(
+      AppContext context,
+      ExecutorService executor,
+      IRepairRunDao repairRunDao,
+      long timeBudgetMillis) {
+
+    return new PurgeService(context, executor, repairRunDao, timeBudgetMillis);
   }
 
   public Integer purgeDatabase() throws ReaperException {
+    long startMillis = System.currentTimeMillis();
+    long deadlineMillis = startMillis + timeBudgetMillis;
     int purgedRuns = 0;
     if (context.config.getNumberOfRunsToKeepPerUnit() != 0
         || context.config.getPurgeRecordsAfterInDays() != 0) {
@@ -63,25 +117,31 @@ public final class PurgeService {
 
       // List repair runs
       for (Cluster cluster : clusters) {
-
-        Collection<RepairRun> repairRuns
-            = repairRunDao.getRepairRunsForCluster(cluster.getName(), Optional.empty());
-
         if (context.config.getPurgeRecordsAfterInDays() > 0) {
           // Purge all runs that are older than threshold
-          purgedRuns += purgeRepairRunsByDate(repairRuns);
+          purgedRuns += purgeRepairRunsByDate(cluster.getName(), deadlineMillis);
         }
 
         if (context.config.getNumberOfRunsToKeepPerUnit() > 0) {
           // Purge units that have more runs than the threshold
-          purgedRuns += purgeRepairRunsByHistoryDepth(repairRuns);
+          purgedRuns += purgeRepairRunsByHistoryDepth(
+              repairRunDao.getRepairRunsForCluster(cluster.getName(), Optional.empty()));
         }
       }
     }
     purgeMetrics();
+
+    long elapsedMillis = Math.max(1, System.currentTimeMillis() - startMillis);
+    lastPurgeThroughput = purgedRuns * 1000.0 / elapsedMillis;
+    LOG.debug("Purged {} repair runs in {} ms", purgedRuns, elapsedMillis);
     return purgedRuns;
   }
 
+  @VisibleForTesting
+  Optional<UUID> getCheckpoint(String clusterName) {
+    return Optional.ofNullable(checkpoints.get(clusterName));
+  }
+
   /**
    * Purges all the repair runs that exceed the required number to keep per repair unit. Runs
    * provided as argument will be grouped by repair unit and the purge will be applied by unit.
@@ -90,7 +150,7 @@ public final class PurgeService {
    * @return the number of purged runs
    */
   private int purgeRepairRunsByHistoryDepth(Collection<RepairRun> repairRuns) {
-    int purgedRuns = 0;
+    List<Callable<Boolean>> deletions = Lists.newArrayList();
     Map<UUID, List<RepairRun>> repairRunsByRepairUnit = repairRuns
         .stream()
         .filter(run -> run.getRunState().isTerminated()) // only delete terminated runs
@@ -102,52 +162,97 @@ public final class PurgeService {
       for (int i = context.config.getNumberOfRunsToKeepPerUnit();
            i < repairRunsForUnit.size();
            i++) {
-        repairRunDao.deleteRepairRun(repairRunsForUnit.get(i).getId());
-        purgedRuns++;
+        UUID runId = repairRunsForUnit.get(i).getId();
+        deletions.add(() -> {
+          repairRunDao.deleteRepairRun(runId);
+          return true;
+        });
       }
     }
 
-    return purgedRuns;
+    return purgeConcurrently(deletions);
   }
 
   /**
    * Purges all repair runs that are older than the required history depth in days.
    *
-   * @param repairRuns the list of existing repair runs
+   * <p>
+   * As run ids are time based, only the runs created before the threshold are read, page by page from the time index
+   * of the cluster. The purge stops at the end of a page once out of time, recording the page as the checkpoint the
+   * next purge resumes from.
+   *
+   * @param clusterName the cluster to purge the runs of
+   * @param deadlineMillis the time after which no new page is purged
    * @return the number of purged runs
    */
-  private int purgeRepairRunsByDate(Collection<RepairRun> repairRuns) {
-    AtomicInteger purgedRuns = new AtomicInteger(0);
-    repairRuns
-        .stream()
-        .filter(run -> run.getRunState().isTerminated()) // only delete terminated runs
-        .filter(
-            run ->
-                run.getEndTime()
-                    .isBefore(
-                        DateTime.now()
-                            .minusDays(
-                                context.config.getPurgeRecordsAfterInDays()))) // filter by date
-        .forEach(
-            run -> {
-              repairRunDao.deleteRepairRun(run.getId());
-              purgedRuns.incrementAndGet();
-            });
-
-    return purgedRuns.get();
+  private int purgeRepairRunsByDate(String clusterName, long deadlineMillis) {
+    DateTime threshold = DateTime.now().minusDays(context.config.getPurgeRecordsAfterInDays());
+    UUID cursor = checkpoints.getOrDefault(clusterName, UUIDs.startOf(threshold.getMillis()));
+    int purgedRuns = 0;
+    while (true) {
+      List<UUID> runIds = repairRunDao.getRepairRunIdsForClusterBefore(clusterName, cursor, PURGE_PAGE_SIZE);
+      List<Callable<Boolean>> deletions = Lists.newArrayList();
+      for (UUID runId : runIds) {
+        deletions.add(() -> {
+          Optional<RepairRun> run = repairRunDao.getRepairRun(runId);
+          if (run.isPresent()
+              && run.get().getRunState().isTerminated() // only delete terminated runs
+              && run.get().getEndTime().isBefore(threshold)) {
+            repairRunDao.deleteRepairRun(runId);
+            return true;
+          }
+          return false;
+        });
+      }
+      purgedRuns += purgeConcurrently(deletions);
+
+      if (runIds.size() < PURGE_PAGE_SIZE) {
+        checkpoints.remove(clusterName);
+        return purgedRuns;
+      }
+      cursor = runIds.get(runIds.size() - 1);
+      if (deadlineMillis <= System.currentTimeMillis()) {
+        LOG.info("Purge of cluster {} ran out of time, it will resume from repair run {}", clusterName, cursor);
+        checkpoints.put(clusterName, cursor);
+        return purgedRuns;
+      }
+    }
+  }
+
+  /**
+   * Runs the deletions with a bounded concurrency, returning how many of them purged a run.
+   */
+  private int purgeConcurrently(List<Callable<Boolean>> deletions) {
+    List<Future<Boolean>> results = Lists.newArrayList();
+    deletions.forEach(deletion -> results.add(executor.submit(deletion)));
+    int purgedRuns = 0;
+    for (Future<Boolean> result : results) {
+      try {
+        if (result.get()) {
+          context.metricRegistry.meter(PURGED_RUNS_METRIC).mark();
+          ++purgedRuns;
+        }
+      } catch (ExecutionException e) {
+        LOG.warn("Failed purging a repair run", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        results.forEach(pending -> pending.cancel(false));
+        break;
+      }
+    }
+    return purgedRuns;
   }
 
   /**
    * Purges all expired metrics from storage. Expiration time is a property of the storage, stored either in
-   * the schema itself for databases with TTL or in the storage instance for databases which must be purged manually
+   * the schema itself for databases with TTL or in the storage instance for databases which must be purged manually.
+   * Metrics are stored outside of the sidecar mode too, so they are purged whatever the datacenter availability.
    */
   private void purgeMetrics() {
     if (context.storage instanceof IDistributedStorage) {
       IDistributedStorage storage = ((IDistributedStorage) context.storage);
-      if (context.config.isInSidecarMode()) {
-        storage.purgeMetrics();
-        storage.getOperationsDao().purgeNodeOperations();
-      }
+      storage.purgeMetrics();
+      storage.getOperationsDao().purgeNodeOperations();
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.AppContext;
+import io.cassandrareaper.storage.IDistributedStorage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cached view of the Reaper instances sharing the backend storage.
+ *
+ * <p>
+ * The view is refreshed from the running_reapers table by the {@link Heart}, right after it records the heartbeat of
+ * this instance, so that segment runners and schedulers can read it as often as they need without querying storage.
+ */
+public final class ReaperMembership {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReaperMembership.class);
+
+  private final AppContext context;
+  private final List<Consumer<List<UUID>>> listeners = new CopyOnWriteArrayList<>();
+  // sorted ids of the running instances, null until first read
+  private volatile List<UUID> instances;
+
+  private ReaperMembership(AppContext context) {
+    this.context = context;
+  }
+
+  public static ReaperMembership create(AppContext context) {
+    return new ReaperMembership(context);
+  }
+
+  /**
+   * Reads the running instances from storage, and notifies the listeners if they changed since the last refresh.
+   */
+  public void refresh() {
+    List<UUID> previous;
+    List<UUID> current;
+    synchronized (this) {
+      previous = instances;
+      current = readInstances();
+      instances = current;
+    }
+    if (null != previous && !previous.equals(current)) {
+      LOG.info("Running Reaper instances changed from {} to {}", previous, current);
+      listeners.forEach(listener -> listener.accept(current));
+    }
+  }
+
+  /**
+   * @return the sorted ids of the running Reaper instances, as of the last refresh.
+   */
+  public List<UUID> getInstances() {
+    List<UUID> current = instances;
+    if (null == current) {
+      synchronized (this) {
+        if (null == instances) {
+          instances = readInstances();
+        }
+        current = instances;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * @return the number of running Reaper instances, as of the last refresh, and at least one.
+   */
+  public int count() {
+    return Math.max(1, getInstances().size());
+  }
+
+  /**
+   * Registers a listener called with the new instances every time a refresh finds they changed.
+   */
+  public void addListener(Consumer<List<UUID>> listener) {
+    listeners.add(listener);
+  }
+
+  private List<UUID> readInstances() {
+    if (!(context.storage instanceof IDistributedStorage)) {
+      return Collections.singletonList(context.reaperInstanceId);
+    }
+    List<UUID> runningReapers = ((IDistributedStorage) context.storage).getRunningReapers();
+    return ImmutableList.copyOf(Ordering.natural().sortedCopy(runningReapers));
+  }
+}
@@ -29,12 +29,12 @@ import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -60,6 +60,8 @@ public final class RepairManager implements AutoCloseable {
   // State of all active RepairRunners
   final Map<UUID, RepairRunner> repairRunners = Maps.newConcurrentMap();
   private final Lock repairRunnersLock = new ReentrantLock();
+  // Pending retry of each RepairRunner, which can be brought forward when one of its segments completes
+  private final Map<UUID, ScheduledFuture<?>> pendingRetries = Maps.newConcurrentMap();
 
   private final AppContext context;
   private final ClusterFacade clusterFacade;
@@ -129,12 +131,12 @@ public final class RepairManager implements AutoCloseable {
         repairRunDao);
   }
 
-  private static boolean takeLead(AppContext context, UUID leaderElectionId) {
+  private static boolean takeLead(AppContext context, UUID leaderElectionId, UUID runId) {
     try (Timer.Context cx
              = context.metricRegistry.timer(MetricRegistry.name(RepairManager.class, "takeLead")).time()) {
 
       boolean result = context.storage instanceof IDistributedStorage
-          ? ((IDistributedStorage) context.storage).takeLead(leaderElectionId)
+          ? ((IDistributedStorage) context.storage).takeLead(leaderElectionId, runId)
           : true;
 
       if (!result) {
@@ -144,12 +146,12 @@ public final class RepairManager implements AutoCloseable {
     }
   }
 
-  private static boolean renewLead(AppContext context, UUID leaderElectionId) {
+  private static boolean renewLead(AppContext context, UUID leaderElectionId, UUID runId) {
     try (Timer.Context cx
              = context.metricRegistry.timer(MetricRegistry.name(RepairManager.class, "renewLead")).time()) {
 
       boolean result = context.storage instanceof IDistributedStorage
-          ? ((IDistributedStorage) context.storage).renewLead(leaderElectionId)
+          ? ((IDistributedStorage) context.storage).renewLead(leaderElectionId, runId)
           : true;
 
       if (!result) {
@@ -159,11 +161,11 @@ public final class RepairManager implements AutoCloseable {
     }
   }
 
-  private static void releaseLead(AppContext context, UUID leaderElectionId) {
+  private static void releaseLead(AppContext context, UUID leaderElectionId, UUID runId) {
     try (Timer.Context cx
              = context.metricRegistry.timer(MetricRegistry.name(RepairManager.class, "releaseLead")).time()) {
       if (context.storage instanceof IDistributedStorage) {
-        ((IDistributedStorage) context.storage).releaseLead(leaderElectionId);
+        ((IDistributedStorage) context.storage).releaseLead(leaderElectionId, runId);
       }
     }
   }
@@ -275,9 +277,9 @@ public final class RepairManager implements AutoCloseable {
       if (context.storage instanceof IDistributedStorage || !repairRunners.containsKey(repairRun.getId())) {
         // When multiple Reapers are in use, we can get stuck segments when one instance is rebooted
         // Any segment in RUNNING or STARTED state but with no leader should be killed
-        List<UUID> leaders = context.storage instanceof IDistributedStorage
-            ? ((IDistributedStorage) context.storage).getLeaders()
-            : Collections.emptyList();
+        Set<UUID> leaders = context.storage instanceof IDistributedStorage
+            ? ((IDistributedStorage) context.storage).getLeadersForRun(repairRun.getId())
+            : Collections.emptySet();
 
         Collection<RepairSegment> orphanedSegments = runningSegments
             .stream()
@@ -328,12 +330,12 @@ public final class RepairManager implements AutoCloseable {
         RepairUnit repairUnit = context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId());
         UUID leaderElectionId = repairUnit.getIncrementalRepair() ? runId : segmentId;
         boolean tookLead;
-        if (tookLead = takeLead(context, leaderElectionId) || renewLead(context, leaderElectionId)) {
+        if (tookLead = takeLead(context, leaderElectionId, runId) || renewLead(context, leaderElectionId, runId)) {
           try {
             SegmentRunner.postponeSegment(context, segment);
           } finally {
             if (tookLead) {
-              releaseLead(context, leaderElectionId);
+              releaseLead(context, leaderElectionId, runId);
             }
           }
         }
@@ -470,9 +472,19 @@ public final class RepairManager implements AutoCloseable {
     return updatedRun;
   }
 
-  @SuppressWarnings("CheckReturnValue")
   void scheduleRetry(RepairRunner runner) {
-    executor.schedule(runner, retryDelayMillis, TimeUnit.MILLISECONDS);
+    pendingRetries.put(runner.getRepairRunId(), executor.schedule(runner, retryDelayMillis, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Runs the runner right away instead of waiting for its pending retry.
+   * Nothing is done if the runner is currently running, as it then schedules its own retry.
+   */
+  void runNow(RepairRunner runner) {
+    ScheduledFuture<?> pendingRetry = pendingRetries.get(runner.getRepairRunId());
+    if (null != pendingRetry && pendingRetry.cancel(false)) {
+      pendingRetries.put(runner.getRepairRunId(), executor.schedule(runner, 0, TimeUnit.MILLISECONDS));
+    }
   }
 
   ListenableFuture<?> submitSegment(SegmentRunner runner) {
@@ -483,6 +495,7 @@ public final class RepairManager implements AutoCloseable {
     try {
       repairRunnersLock.lock();
       repairRunners.remove(runner.getRepairRunId());
+      pendingRetries.remove(runner.getRepairRunId());
     } finally {
       repairRunnersLock.unlock();
     }
@@ -26,8 +26,6 @@ import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.core.Segment;
 import io.cassandrareaper.core.Table;
 import io.cassandrareaper.management.ClusterFacade;
-import io.cassandrareaper.management.EndpointSnitchInfoProxy;
-import io.cassandrareaper.management.ICassandraManagementProxy;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 
 import java.math.BigInteger;
@@ -366,11 +364,12 @@ public final class RepairRunService {
     final int maxAttempts = 2;
     for (int attempt = 0; attempt < maxAttempts; attempt++) {
       try {
-        ICassandraManagementProxy jmxConnection = clusterFacade.connect(cluster);
         // when hosts are coming up or going down, this method can throw an UndeclaredThrowableException
         Collection<String> nodes = clusterFacade.tokenRangeToEndpoint(cluster, keyspace, segment);
         Map<String, String> dcByNode = Maps.newHashMap();
-        nodes.forEach(node -> dcByNode.put(node, EndpointSnitchInfoProxy.create(jmxConnection).getDataCenter(node)));
+        for (String node : nodes) {
+          dcByNode.put(node, clusterFacade.getDatacenter(cluster, node));
+        }
         if (repairUnit.getDatacenters().isEmpty()) {
           return dcByNode;
         } else {
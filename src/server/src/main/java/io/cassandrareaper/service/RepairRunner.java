@@ -34,6 +34,8 @@ import io.cassandrareaper.management.ICassandraManagementProxy;
 import io.cassandrareaper.metrics.PrometheusMetricsFilter;
 import io.cassandrareaper.storage.IDistributedStorage;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
+import io.cassandrareaper.storage.repairsegment.RepairRunProgress;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -47,6 +49,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -63,6 +66,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -87,6 +91,10 @@ final class RepairRunner implements Runnable {
   private static final int MIN_SEGMENTS_PER_NODE_REDUCTION = 16;
   // Segment duration under which adaptive schedules will get a reduction in segments per node.
   private static final int SEGMENT_DURATION_FOR_REDUCTION_THRESHOLD = 5;
+  // Maximum number of free segments read from storage at once when looking for the next segment to run.
+  private static final int FREE_SEGMENTS_PAGE_SIZE = 100;
+  // Minimum time between two counts of all the segments of a run whose remaining segments are all running.
+  private static final long COMPLETION_CHECK_PERIOD_MILLIS = 60_000;
 
   private final AppContext context;
   private final ClusterFacade clusterFacade;
@@ -102,6 +110,11 @@ final class RepairRunner implements Runnable {
   private final List<RingRange> localEndpointRanges;
   private final RepairUnit repairUnit;
   private AtomicBoolean isRunning = new AtomicBoolean(false);
+  // Where to resume looking for free segments, so successive lookups don't always re-read the same first page.
+  private final FreeSegmentCursor freeSegmentsCursor = new FreeSegmentCursor();
+  // Earliest time each node can take part in a new segment, so the intensity is honored without holding a thread.
+  private final ConcurrentMap<String, Long> nextSegmentAllowedAtMillisByNode = Maps.newConcurrentMap();
+  private long nextCompletionCheckAtMillis = 0;
 
   private final IRepairRunDao repairRunDao;
 
@@ -203,10 +216,7 @@ final class RepairRunner implements Runnable {
   }
 
   private void registerMetric(String metricName, Gauge<?> gauge) {
-    if (context.metricRegistry.getMetrics().containsKey(metricName)) {
-      context.metricRegistry.remove(metricName);
-    }
-    context.metricRegistry.register(metricName, gauge);
+    context.repairUnitMetrics.register(repairUnit.getId(), metricName, gauge);
   }
 
   boolean isRunning() {
@@ -217,6 +227,26 @@ final class RepairRunner implements Runnable {
     return repairRunId;
   }
 
+  /**
+   * Holds back the next segments of this run involving any of the given nodes for the given delay, as required by the
+   * intensity of the run. Segments on other replicas can still start.
+   */
+  void delayNextSegment(Collection<String> nodes, long delayMillis) {
+    if (0 < delayMillis) {
+      long allowedAtMillis = System.currentTimeMillis() + delayMillis;
+      nodes.forEach(node -> nextSegmentAllowedAtMillisByNode.merge(node, allowedAtMillis, Math::max));
+    }
+  }
+
+  /**
+   * @return whether a segment involving the given nodes has to wait before it can start.
+   */
+  @VisibleForTesting
+  boolean isDelayed(Collection<String> nodes) {
+    long now = System.currentTimeMillis();
+    return nodes.stream().anyMatch(node -> nextSegmentAllowedAtMillisByNode.getOrDefault(node, 0L) > now);
+  }
+
   /**
    * Starts/resumes a repair run that is supposed to run.
    */
@@ -244,9 +274,9 @@ final class RepairRunner implements Runnable {
           start();
           break;
         case RUNNING:
-          // The number of parallel repairs is bounded to avoid overwhelming nodes.
-          // Only the oldest repairs can run if we're over the max limit.
           if (isAllowedToRun(repairRunIds, repairRunId)) {
+            // The number of parallel repairs is bounded to avoid overwhelming nodes.
+            // Only the oldest repairs can run if we're over the max limit.
             startNextSegment();
             // We're updating the node list of the cluster at the start of each new run.
             // Helps keeping up with topology changes.
@@ -347,15 +377,11 @@ final class RepairRunner implements Runnable {
                   .lastEvent("All done")
                   .build(repairRun.get().getId()));
 
-          context.metricRegistry.remove(metricNameForMillisSinceLastRepairPerKeyspace);
-          context.metricRegistry.remove(metricNameForMillisSinceLastRepair);
-          PrometheusMetricsFilter.removeIgnoredMetric(metricNameForMillisSinceLastRepair);
-
-          context.metricRegistry.register(
+          registerMetric(
               metricNameForMillisSinceLastRepairPerKeyspace,
               (Gauge<Long>) () -> DateTime.now().getMillis() - repairRunCompleted.toInstant().getMillis());
 
-          context.metricRegistry.register(
+          registerMetric(
               metricNameForMillisSinceLastRepair,
               (Gauge<Long>) () -> DateTime.now().getMillis() - repairRunCompleted.toInstant().getMillis());
           PrometheusMetricsFilter.ignoreMetric(metricNameForMillisSinceLastRepair);
@@ -479,41 +505,11 @@ final class RepairRunner implements Runnable {
     boolean repairStarted = false;
 
     // We have an empty slot, so let's start new segment runner if possible.
-    // When in sidecar mode, filter on ranges that the local node is a replica for only.
     LOG.info("Attempting to run new segment...");
-    List<RepairSegment> nextRepairSegments
-        = context.config.isInSidecarMode()
-        ? ((IDistributedStorage) context.storage)
-        .getNextFreeSegmentsForRanges(
-            repairRunId, localEndpointRanges)
-        : context.storage.getRepairSegmentDao().getNextFreeSegments(
-        repairRunId);
-
-    Optional<RepairSegment> nextRepairSegment = Optional.empty();
     final Collection<String> potentialReplicas = new HashSet<>();
-    for (RepairSegment segment : nextRepairSegments) {
-      Map<String, String> potentialReplicaMap = this.repairRunService.getDCsByNodeForRepairSegment(
-          cluster, segment.getTokenRange(), repairUnit.getKeyspaceName(), repairUnit);
-      if (repairUnit.getIncrementalRepair()) {
-        Map<String, String> endpointHostIdMap = clusterFacade.getEndpointToHostId(cluster);
-        if (segment.getHostID() == null) {
-          throw new ReaperException(
-              String.format("No host ID for repair segment %s", segment.getId().toString())
-          );
-        }
-        endpointHostIdMap.entrySet().stream()
-            .filter(entry -> entry.getValue().equals(segment.getHostID().toString()))
-            .forEach(entry -> potentialReplicas.add(entry.getKey()));
-      } else {
-        potentialReplicas.addAll(potentialReplicaMap.keySet());
-      }
-      LOG.debug("Potential replicas for segment {}: {}", segment.getId(), potentialReplicas);
-      ICassandraManagementProxy coordinator = clusterFacade.connect(cluster, potentialReplicas);
-      if (nodesReadyForNewRepair(coordinator, segment, potentialReplicaMap, repairRunId)) {
-        nextRepairSegment = Optional.of(segment);
-        break;
-      }
-    }
+    Optional<RepairSegment> nextRepairSegment = freeSegmentsCursor.next(
+        this::getNextFreeSegments,
+        candidates -> findSegmentReadyForRepair(candidates, potentialReplicas));
     if (!nextRepairSegment.isPresent()) {
       String msg = "All nodes are busy or have too many pending compactions for the remaining candidate segments.";
       LOG.info(msg);
@@ -525,26 +521,24 @@ final class RepairRunner implements Runnable {
           nextRepairSegment.get().getTokenRange(),
           potentialReplicas);
       if (scheduleRetry) {
-        segmentsTotal = context.storage.getRepairSegmentDao().getSegmentAmountForRepairRun(repairRunId);
         repairStarted = true;
       }
     }
 
-    if (!repairStarted) {
-      segmentsDone = context.storage.getRepairSegmentDao().getSegmentAmountForRepairRunWithState(repairRunId,
-          RepairSegment.State.DONE);
-      segmentsTotal = context.storage.getRepairSegmentDao().getSegmentAmountForRepairRun(repairRunId);
-
+    RepairRunProgress progress = context.storage.getRepairSegmentDao().getRepairRunProgress(repairRunId);
+    boolean completionCheckDue = nextCompletionCheckAtMillis <= System.currentTimeMillis();
+    if (!repairStarted && mayBeComplete(progress, freeSegmentsCursor.isExhausted(), completionCheckDue)) {
+      // the segment counters are only indicative, whether the run is complete is decided from the segments
+      progress = context.storage.getRepairSegmentDao().countSegmentsByState(repairRunId);
+      nextCompletionCheckAtMillis = System.currentTimeMillis() + COMPLETION_CHECK_PERIOD_MILLIS;
+      updateProgress(progress);
       LOG.info("Repair amount done {}", segmentsDone);
-      repairProgress = segmentsDone / segmentsTotal;
-
       if (segmentsDone == segmentsTotal) {
         endRepairRun();
         scheduleRetry = false;
       }
     } else {
-      segmentsDone = context.storage.getRepairSegmentDao().getSegmentAmountForRepairRunWithState(repairRunId,
-          RepairSegment.State.DONE);
+      updateProgress(progress);
     }
 
     if (scheduleRetry) {
@@ -552,6 +546,68 @@ final class RepairRunner implements Runnable {
     }
   }
 
+  /**
+   * Whether the segments have to be counted to find out if the run is complete, after no segment could be started.
+   * That's the case when the segment counters say so, or when they still report segments to start while none was
+   * found. Once only running segments are left, they are counted every so often in case the counters drifted.
+   */
+  @VisibleForTesting
+  static boolean mayBeComplete(RepairRunProgress progress, boolean noFreeSegment, boolean completionCheckDue) {
+    if (progress.getSegmentsDone() >= progress.getSegmentsTotal()) {
+      return true;
+    }
+    return noFreeSegment
+        && (0 < progress.getSegmentAmount(RepairSegment.State.NOT_STARTED) || completionCheckDue);
+  }
+
+  private void updateProgress(RepairRunProgress progress) {
+    segmentsDone = progress.getSegmentsDone();
+    segmentsTotal = progress.getSegmentsTotal();
+    repairProgress = progress.getProgress();
+  }
+
+  private RepairSegmentPage getNextFreeSegments(Optional<UUID> cursor) {
+    // When in sidecar mode, filter on ranges that the local node is a replica for only.
+    return context.config.isInSidecarMode()
+        ? ((IDistributedStorage) context.storage)
+            .getNextFreeSegmentsForRanges(repairRunId, localEndpointRanges, cursor, FREE_SEGMENTS_PAGE_SIZE)
+        : context.storage.getRepairSegmentDao()
+            .getNextFreeSegments(repairRunId, cursor, FREE_SEGMENTS_PAGE_SIZE);
+  }
+
+  private Optional<RepairSegment> findSegmentReadyForRepair(
+      List<RepairSegment> candidates,
+      Collection<String> potentialReplicas) throws ReaperException {
+
+    for (RepairSegment segment : candidates) {
+      Map<String, String> potentialReplicaMap = this.repairRunService.getDCsByNodeForRepairSegment(
+          cluster, segment.getTokenRange(), repairUnit.getKeyspaceName(), repairUnit);
+      if (isDelayed(getNodesInvolvedInSegment(potentialReplicaMap))) {
+        LOG.debug("Replicas of segment {} wait before repairing another segment", segment.getId());
+        continue;
+      }
+      if (repairUnit.getIncrementalRepair()) {
+        Map<String, String> endpointHostIdMap = clusterFacade.getEndpointToHostId(cluster);
+        if (segment.getHostID() == null) {
+          throw new ReaperException(
+              String.format("No host ID for repair segment %s", segment.getId().toString())
+          );
+        }
+        endpointHostIdMap.entrySet().stream()
+            .filter(entry -> entry.getValue().equals(segment.getHostID().toString()))
+            .forEach(entry -> potentialReplicas.add(entry.getKey()));
+      } else {
+        potentialReplicas.addAll(potentialReplicaMap.keySet());
+      }
+      LOG.debug("Potential replicas for segment {}: {}", segment.getId(), potentialReplicas);
+      ICassandraManagementProxy coordinator = clusterFacade.connect(cluster, potentialReplicas);
+      if (nodesReadyForNewRepair(coordinator, segment, potentialReplicaMap, repairRunId)) {
+        return Optional.of(segment);
+      }
+    }
+    return Optional.empty();
+  }
+
   Pair<String, Callable<Optional<CompactionStats>>> getNodeMetrics(String node, String localDc, String nodeDc) {
 
     return Pair.of(node, () -> {
@@ -659,10 +715,6 @@ final class RepairRunner implements Runnable {
       unitId = repairRun.getRepairUnitId();
       intensity = repairRun.getIntensity();
       validationParallelism = repairRun.getRepairParallelism();
-
-      int amountDone = context.storage.getRepairSegmentDao().getSegmentAmountForRepairRunWithState(repairRunId,
-          RepairSegment.State.DONE);
-      repairProgress = (float) amountDone / repairRun.getSegmentCount();
     }
 
     RepairUnit repairUnit = context.storage.getRepairUnitDao().getRepairUnit(unitId);
@@ -795,7 +847,8 @@ final class RepairRunner implements Runnable {
           break;
 
         case DONE:
-          // Successful repair
+          // Successful repair, the next segment can start without waiting for the next scheduled run
+          context.repairManager.runNow(this);
           break;
 
         default:
@@ -132,12 +132,20 @@ public final class RepairScheduleService {
 
     RepairSchedule repairSchedule = context.storage.getRepairScheduleDao().addRepairSchedule(scheduleBuilder);
     registerScheduleMetrics(repairSchedule.getId());
+    if (null != context.schedulingManager) {
+      context.schedulingManager.scheduleChanged(repairSchedule);
+    }
     return repairSchedule;
   }
 
   public void deleteRepairSchedule(UUID repairScheduleId) {
     unregisterScheduleMetrics(repairScheduleId);
-    context.storage.getRepairScheduleDao().deleteRepairSchedule(repairScheduleId);
+    // the repair unit gauges outlive its runs, they only go away along with the schedule
+    context.storage.getRepairScheduleDao().deleteRepairSchedule(repairScheduleId)
+        .ifPresent(schedule -> context.repairUnitMetrics.removeAll(schedule.getRepairUnitId()));
+    if (null != context.schedulingManager) {
+      context.schedulingManager.scheduleRemoved(repairScheduleId);
+    }
   }
 
   private void registerRepairScheduleMetrics(Collection<RepairSchedule> allRepairSchedules) {
@@ -153,24 +161,12 @@ public final class RepairScheduleService {
         repairUnit.getKeyspaceName(),
         schedule.getId());
 
-    if (!context.metricRegistry.getMetrics().containsKey(metricName)) {
-      context.metricRegistry.register(metricName, getMillisSinceLastRepairForSchedule(schedule.getId()));
-    }
+    context.scheduleMetrics.registerIfAbsent(
+        schedule.getId(), metricName, getMillisSinceLastRepairForSchedule(schedule.getId()));
   }
 
   private void unregisterScheduleMetrics(UUID repairScheduleId) {
-    Optional<RepairSchedule> schedule = context.storage.getRepairScheduleDao().getRepairSchedule(repairScheduleId);
-    schedule.ifPresent(sched -> {
-      RepairUnit repairUnit = context.storage.getRepairUnitDao().getRepairUnit(sched.getRepairUnitId());
-      String metricName = metricName(MILLIS_SINCE_LAST_REPAIR_METRIC_NAME,
-          repairUnit.getClusterName(),
-          repairUnit.getKeyspaceName(),
-          sched.getId());
-
-      if (context.metricRegistry.getMetrics().containsKey(metricName)) {
-        context.metricRegistry.remove(metricName);
-      }
-    });
+    context.scheduleMetrics.removeAll(repairScheduleId);
   }
 
   private Gauge<Long> getMillisSinceLastRepairForSchedule(UUID repairSchedule) {
@@ -34,27 +34,64 @@ import com.google.common.base.Preconditions;
 public final class RingRange {
 
   public static final Comparator<RingRange> START_COMPARATOR
-      = (RingRange o1, RingRange o2) -> o1.start.compareTo(o2.start);
+      = (RingRange o1, RingRange o2) -> compare(o1.startToken, o1.bigStart, o2.startToken, o2.bigStart);
 
-  private final BigInteger start;
-  private final BigInteger end;
+  public static final Comparator<RingRange> END_COMPARATOR
+      = (RingRange o1, RingRange o2) -> compare(o1.endToken, o1.bigEnd, o2.endToken, o2.bigEnd);
+
+  // Tokens fitting in a long, which covers all the Murmur3Partitioner ones, are compared without allocating.
+  // The BigInteger tokens are only set when one of the tokens doesn't fit in a long.
+  private final long startToken;
+  private final long endToken;
+  private final BigInteger bigStart;
+  private final BigInteger bigEnd;
 
   public RingRange(BigInteger start, BigInteger end) {
-    this.start = start;
-    this.end = end;
+    this(start.longValue(), fitsInLong(start) ? null : start, end.longValue(), fitsInLong(end) ? null : end);
   }
 
   public RingRange(String... range) {
-    start = new BigInteger(range[0]);
-    end = new BigInteger(range[1]);
+    this(parseLongToken(range[0]), parseBigToken(range[0]), parseLongToken(range[1]), parseBigToken(range[1]));
+  }
+
+  RingRange(long start, long end) {
+    this(start, null, end, null);
+  }
+
+  private RingRange(long startToken, BigInteger bigStart, long endToken, BigInteger bigEnd) {
+    this.startToken = startToken;
+    this.endToken = endToken;
+    if (bigStart == null && bigEnd == null) {
+      this.bigStart = null;
+      this.bigEnd = null;
+    } else {
+      this.bigStart = toBigInteger(startToken, bigStart);
+      this.bigEnd = toBigInteger(endToken, bigEnd);
+    }
   }
 
   public BigInteger getStart() {
-    return start;
+    return toBigInteger(startToken, bigStart);
   }
 
   public BigInteger getEnd() {
-    return end;
+    return toBigInteger(endToken, bigEnd);
+  }
+
+  /**
+   * @return true if both tokens of this range fit in a long, and can be read with {@link #startToken()} and
+   *     {@link #endToken()}.
+   */
+  boolean hasLongTokens() {
+    return bigStart == null;
+  }
+
+  long startToken() {
+    return startToken;
+  }
+
+  long endToken() {
+    return endToken;
   }
 
   /**
@@ -63,10 +100,10 @@ public final class RingRange {
    * @return size of the range, max - range, in case of wrap
    */
   public BigInteger span(BigInteger ringSize) {
-    if (SegmentGenerator.greaterThanOrEqual(start, end)) {
-      return end.subtract(start).add(ringSize);
+    if (isWrapping()) {
+      return getEnd().subtract(getStart()).add(ringSize);
     } else {
-      return end.subtract(start);
+      return getEnd().subtract(getStart());
     }
   }
 
@@ -74,30 +111,33 @@ public final class RingRange {
    * @return true if other is enclosed in this range.
    */
   public boolean encloses(RingRange other) {
+    boolean startsWithin = compare(other.startToken, other.bigStart, startToken, bigStart) >= 0;
+    boolean endsWithin = compare(other.endToken, other.bigEnd, endToken, bigEnd) <= 0;
     if (!isWrapping()) {
-      return !other.isWrapping()
-          && SegmentGenerator.greaterThanOrEqual(other.start, start)
-          && SegmentGenerator.lowerThanOrEqual(other.end, end);
+      return !other.isWrapping() && startsWithin && endsWithin;
     } else {
-      return (!other.isWrapping()
-          && (SegmentGenerator.greaterThanOrEqual(other.start, start)
-          || SegmentGenerator.lowerThanOrEqual(other.end, end)))
-          || (SegmentGenerator.greaterThanOrEqual(other.start, start)
-          && SegmentGenerator.lowerThanOrEqual(other.end, end));
+      return (!other.isWrapping() && (startsWithin || endsWithin)) || (startsWithin && endsWithin);
     }
   }
 
+  /**
+   * @return true if this range ends after the start of the other one.
+   */
+  public boolean endsAfterStartOf(RingRange other) {
+    return compare(endToken, bigEnd, other.startToken, other.bigStart) > 0;
+  }
+
   /**
    * @return true if 0 is inside of this range. Note that if start == end, then wrapping is true
    */
   @JsonIgnore
   public boolean isWrapping() {
-    return SegmentGenerator.greaterThanOrEqual(start, end);
+    return compare(startToken, bigStart, endToken, bigEnd) >= 0;
   }
 
   @Override
   public String toString() {
-    return String.format("(%s,%s]", start.toString(), end.toString());
+    return String.format("(%s,%s]", getStart(), getEnd());
   }
 
   public static RingRange merge(List<RingRange> ranges) {
@@ -109,19 +149,56 @@ public final class RingRange {
     for (; gap < ranges.size() - 1; gap++) {
       RingRange left = ranges.get(gap);
       RingRange right = ranges.get(gap + 1);
-      if (!left.end.equals(right.start)) {
+      if (compare(left.endToken, left.bigEnd, right.startToken, right.bigStart) != 0) {
         break;
       }
     }
 
     // return merged
     if (gap == ranges.size() - 1) {
-      return new RingRange(ranges.get(0).start, ranges.get(gap).end);
+      return between(ranges.get(0), ranges.get(gap));
     } else {
-      return new RingRange(ranges.get(gap + 1).start, ranges.get(gap).end);
+      return between(ranges.get(gap + 1), ranges.get(gap));
     }
   }
 
+  private static RingRange between(RingRange first, RingRange last) {
+    return new RingRange(first.startToken, first.bigStart, last.endToken, last.bigEnd);
+  }
+
+  private static int compare(long token0, BigInteger bigToken0, long token1, BigInteger bigToken1) {
+    if (bigToken0 == null && bigToken1 == null) {
+      return Long.compare(token0, token1);
+    }
+    return toBigInteger(token0, bigToken0).compareTo(toBigInteger(token1, bigToken1));
+  }
+
+  private static BigInteger toBigInteger(long token, BigInteger bigToken) {
+    return bigToken != null ? bigToken : BigInteger.valueOf(token);
+  }
+
+  private static boolean fitsInLong(BigInteger token) {
+    return token.bitLength() < Long.SIZE;
+  }
+
+  private static boolean fitsInLong(String token) {
+    boolean negative = token.startsWith("-");
+    int digits = negative ? token.length() - 1 : token.length();
+    if (digits != 19) {
+      return digits < 19;
+    }
+    // same length numbers compare like their digits
+    return token.compareTo(negative ? "-9223372036854775808" : "9223372036854775807") <= 0;
+  }
+
+  private static long parseLongToken(String token) {
+    return fitsInLong(token) ? Long.parseLong(token) : 0;
+  }
+
+  private static BigInteger parseBigToken(String token) {
+    return fitsInLong(token) ? null : new BigInteger(token);
+  }
+
   @JsonPOJOBuilder(buildMethodName = "build", withPrefix = "with")
   public static final class Builder {
 
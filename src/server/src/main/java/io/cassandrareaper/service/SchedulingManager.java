@@ -23,35 +23,61 @@ import io.cassandrareaper.core.PercentRepairedMetric;
 import io.cassandrareaper.core.RepairRun;
 import io.cassandrareaper.core.RepairSchedule;
 import io.cassandrareaper.core.RepairUnit;
-import io.cassandrareaper.storage.IDistributedStorage;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.DriverInternalError;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public final class SchedulingManager extends TimerTask {
+/**
+ * Starts the repair runs of the repair schedules when they activate.
+ *
+ * <p>
+ * The active schedules are kept in a queue ordered by the next time they must be evaluated, and a single thread wakes
+ * up when the earliest of them is due. Only the due schedules are read again from storage and evaluated. The queue is
+ * updated as soon as a schedule is changed through this instance, and reconciled with the schedules in storage every
+ * period, which picks up the changes made by other Reaper instances.
+ */
+public final class SchedulingManager implements Runnable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SchedulingManager.class);
 
+  private static final long RELOAD_PERIOD_MILLIS
+      = 1000L * Integer.getInteger(SchedulingManager.class.getName() + ".period_seconds", 60);
+
   private final AppContext context;
   private final RepairRunService repairRunService;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("SchedulingManager-%d").setDaemon(true).build());
 
-  /* nextActivatedSchedule used for nicer logging only */
-  private RepairSchedule nextActivatedSchedule;
+  // guarded by this: next activation of the queued schedules, as last seen, and the time they are due for evaluation
+  private final Map<UUID, Long> activations = Maps.newHashMap();
+  private final Map<UUID, Long> dueTimes = Maps.newHashMap();
+  // stale entries, whose due time no longer matches dueTimes, are skipped when polled
+  private final PriorityQueue<DueSchedule> dueSchedules = new PriorityQueue<>();
+  private ScheduledFuture<?> nextWakeUp;
+  private volatile boolean started;
 
   private IRepairRunDao repairRunDao;
 
@@ -84,12 +110,35 @@ public final class SchedulingManager extends TimerTask {
 
   public void start() {
     LOG.info("Starting new SchedulingManager instance");
-    Timer timer = new Timer("SchedulingManagerTimer");
-
-    timer.schedule(
+    started = true;
+    executor.scheduleWithFixedDelay(
         this,
         ThreadLocalRandom.current().nextLong(1000, 2000),
-        1000L * Integer.getInteger(SchedulingManager.class.getName() + ".period_seconds", 60));
+        RELOAD_PERIOD_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queues the schedule for its next evaluation, or removes it from the queue if it isn't active anymore.
+   * To be called every time a schedule is changed through this instance.
+   */
+  public void scheduleChanged(RepairSchedule schedule) {
+    synchronized (this) {
+      if (RepairSchedule.State.ACTIVE == schedule.getState()) {
+        queue(schedule);
+      } else {
+        forget(schedule.getId());
+      }
+    }
+    if (currentReaperIsSchedulingLeader()) {
+      scheduleWakeUp();
+    }
+  }
+
+  public void scheduleRemoved(UUID scheduleId) {
+    synchronized (this) {
+      forget(scheduleId);
+    }
   }
 
   public RepairSchedule pauseRepairSchedule(RepairSchedule schedule) {
@@ -99,6 +148,7 @@ public final class SchedulingManager extends TimerTask {
     if (!context.storage.getRepairScheduleDao().updateRepairSchedule(updatedSchedule)) {
       throw new IllegalStateException(String.format("failed updating repair schedule %s", updatedSchedule.getId()));
     }
+    scheduleChanged(updatedSchedule);
     return updatedSchedule;
   }
 
@@ -109,34 +159,44 @@ public final class SchedulingManager extends TimerTask {
     if (!context.storage.getRepairScheduleDao().updateRepairSchedule(updatedSchedule)) {
       throw new IllegalStateException(String.format("failed updating repair schedule %s", updatedSchedule.getId()));
     }
+    scheduleChanged(updatedSchedule);
     return updatedSchedule;
   }
 
   /**
-   * Called regularly, do not block!
+   * Called every period, reconciles the queue with the schedules in storage before evaluating the due ones.
    */
   @Override
   public void run() {
+    manageSchedules(true);
+  }
+
+  private void manageSchedules(boolean reload) {
     if (context.isRunning.get()) {
       LOG.debug("Checking for repair schedules...");
       UUID lastId = null;
       try {
-        Collection<RepairSchedule> schedules = context.storage.getRepairScheduleDao().getAllRepairSchedules();
-        // Cleanup metric registry from deleted schedules
-        cleanupMetricsRegistry(schedules);
+        if (reload) {
+          Collection<RepairSchedule> schedules = context.storage.getRepairScheduleDao().getAllRepairSchedules();
+          // Cleanup metric registry from deleted schedules
+          cleanupMetricsRegistry(schedules);
+          reload(schedules);
+        }
         // Start repairs for schedules that require it
         if (currentReaperIsSchedulingLeader()) {
           boolean anyRunStarted = false;
-          for (RepairSchedule schedule : schedules) {
-            lastId = schedule.getId();
-            anyRunStarted = manageSchedule(schedule) || anyRunStarted;
+          for (UUID scheduleId : pollDueSchedules(System.currentTimeMillis())) {
+            lastId = scheduleId;
+            Optional<RepairSchedule> schedule = context.storage.getRepairScheduleDao().getRepairSchedule(scheduleId);
+            if (schedule.isPresent()) {
+              anyRunStarted = manageSchedule(schedule.get()) || anyRunStarted;
+              requeueIfUnchanged(schedule.get());
+            }
           }
-          if (!anyRunStarted && nextActivatedSchedule != null) {
-            LOG.debug(
-                "not scheduling new repairs yet, next activation is '{}' for schedule id '{}'",
-                nextActivatedSchedule.getNextActivation(),
-                nextActivatedSchedule.getId());
+          if (!anyRunStarted) {
+            logNextActivation();
           }
+          scheduleWakeUp();
         }
       } catch (DriverInternalError expected) {
         LOG.debug("Driver connection closed, Reaper is shutting down.");
@@ -160,17 +220,125 @@ public final class SchedulingManager extends TimerTask {
     }
   }
 
+  /**
+   * Queues the active schedules that are new or whose next activation changed, and forgets the other ones.
+   */
+  @VisibleForTesting
+  synchronized void reload(Collection<RepairSchedule> schedules) {
+    Set<UUID> activeIds = schedules.stream()
+        .filter(schedule -> RepairSchedule.State.ACTIVE == schedule.getState())
+        .map(RepairSchedule::getId)
+        .collect(Collectors.toSet());
+    activations.keySet().stream()
+        .filter(id -> !activeIds.contains(id))
+        .collect(Collectors.toList())
+        .forEach(this::forget);
+    for (RepairSchedule schedule : schedules) {
+      Long activation = activations.get(schedule.getId());
+      if (activeIds.contains(schedule.getId())
+          && (null == activation || activation != schedule.getNextActivation().getMillis())) {
+        queue(schedule);
+      }
+    }
+    if (dueSchedules.size() > 2 * dueTimes.size() + 16) {
+      // drop the stale entries
+      dueSchedules.clear();
+      dueTimes.forEach((id, dueTime) -> dueSchedules.add(new DueSchedule(id, dueTime)));
+    }
+  }
+
+  /**
+   * Removes the schedules due for evaluation from the queue, they are queued again once evaluated.
+   */
+  @VisibleForTesting
+  synchronized List<UUID> pollDueSchedules(long now) {
+    List<UUID> due = Lists.newArrayList();
+    while (!dueSchedules.isEmpty() && dueSchedules.peek().dueTime <= now) {
+      DueSchedule next = dueSchedules.poll();
+      if (isCurrent(next)) {
+        forget(next.scheduleId);
+        due.add(next.scheduleId);
+      }
+    }
+    return due;
+  }
+
+  private synchronized void requeueIfUnchanged(RepairSchedule schedule) {
+    // schedules that were changed during their evaluation are already queued again
+    if (!dueTimes.containsKey(schedule.getId()) && RepairSchedule.State.ACTIVE == schedule.getState()) {
+      queue(schedule);
+    }
+  }
+
+  private void queue(RepairSchedule schedule) {
+    long dueTime = schedule.getNextActivation().getMillis();
+    if (schedule.getPercentUnrepairedThreshold() > 0) {
+      // percent repaired metrics can trigger the schedule before its next activation
+      dueTime = Math.min(
+          dueTime,
+          System.currentTimeMillis()
+              + TimeUnit.MINUTES.toMillis(context.config.getPercentRepairedCheckIntervalMinutes()));
+    }
+    activations.put(schedule.getId(), schedule.getNextActivation().getMillis());
+    dueTimes.put(schedule.getId(), dueTime);
+    dueSchedules.add(new DueSchedule(schedule.getId(), dueTime));
+  }
+
+  private void forget(UUID scheduleId) {
+    activations.remove(scheduleId);
+    dueTimes.remove(scheduleId);
+  }
+
+  private boolean isCurrent(DueSchedule dueSchedule) {
+    Long dueTime = dueTimes.get(dueSchedule.scheduleId);
+    return null != dueTime && dueTime == dueSchedule.dueTime;
+  }
+
+  private synchronized Optional<DueSchedule> nextDueSchedule() {
+    while (!dueSchedules.isEmpty() && !isCurrent(dueSchedules.peek())) {
+      dueSchedules.poll();
+    }
+    return Optional.ofNullable(dueSchedules.peek());
+  }
+
+  private void logNextActivation() {
+    if (LOG.isDebugEnabled()) {
+      nextDueSchedule().ifPresent(next -> LOG.debug(
+          "not scheduling new repairs yet, next activation is '{}' for schedule id '{}'",
+          new DateTime(next.dueTime),
+          next.scheduleId));
+    }
+  }
+
+  /**
+   * Wakes the scheduling thread up when the earliest schedule is due, unless it already wakes up before that.
+   * Only the scheduling leader evaluates the schedules, the other instances just keep their queue up to date.
+   */
+  private void scheduleWakeUp() {
+    if (!started) {
+      return;
+    }
+    Optional<DueSchedule> next = nextDueSchedule();
+    if (next.isPresent()) {
+      long delay = Math.max(0, next.get().dueTime - System.currentTimeMillis());
+      synchronized (this) {
+        if (null == nextWakeUp || nextWakeUp.isDone() || nextWakeUp.getDelay(TimeUnit.MILLISECONDS) > delay) {
+          if (null != nextWakeUp) {
+            nextWakeUp.cancel(false);
+          }
+          nextWakeUp = executor.schedule(() -> manageSchedules(false), delay, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+  }
+
   // Cleanup metric registry from deleted schedules
   // Such metrics are named after the following pattern:
   //   "millisSinceLastRepairForSchedule.<cluster>.<keyspace>.<schedule id>"
   @VisibleForTesting
   void cleanupMetricsRegistry(Collection<RepairSchedule> schedules) {
-    // Cycle through the metrics registry and delete any metrics that are not in the current schedules
-    context.metricRegistry.getMetrics().keySet().stream()
-        .filter(key -> key.startsWith(RepairScheduleService.MILLIS_SINCE_LAST_REPAIR_METRIC_NAME))
-        .filter(key -> !schedules.stream().anyMatch(
-            schedule -> schedule.getId().toString().equals(key.split("\\.")[3])))
-        .forEach(context.metricRegistry::remove);
+    // Delete the metrics of the schedules that no longer exist, in case their deletion was handled by another instance
+    context.scheduleMetrics.retainOwners(schedules.stream().map(RepairSchedule::getId).collect(Collectors.toSet()));
   }
 
   /**
@@ -206,6 +374,7 @@ public final class SchedulingManager extends TimerTask {
               = schdle.with().nextActivation(schdle.getFollowingActivation()).build(schdle.getId());
 
           context.storage.getRepairScheduleDao().updateRepairSchedule(schedule);
+          scheduleChanged(schedule);
 
           LOG.info(
               "repair unit '{}' should be repaired based on RepairSchedule with id '{}'",
@@ -223,12 +392,6 @@ public final class SchedulingManager extends TimerTask {
           } catch (ReaperException e) {
             LOG.error(e.getMessage(), e);
           }
-        } else {
-          if (nextActivatedSchedule == null
-              || nextActivatedSchedule.getNextActivation().isAfter(schdle.getNextActivation())) {
-
-            nextActivatedSchedule = schdle;
-          }
         }
         break;
       case PAUSED:
@@ -278,8 +441,7 @@ public final class SchedulingManager extends TimerTask {
   @VisibleForTesting
   boolean currentReaperIsSchedulingLeader() {
     if (context.isDistributed.get()) {
-      List<UUID> runningReapers = ((IDistributedStorage) context.storage).getRunningReapers();
-      Collections.sort(runningReapers);
+      List<UUID> runningReapers = context.membership.getInstances();
       if (runningReapers.isEmpty()) {
         // this should never happen, but if it does, we don't want to start a repair run
         LOG.warn("No running reapers found but running in distributed mode."
@@ -323,4 +485,19 @@ public final class SchedulingManager extends TimerTask {
         .ifPresent(schedule -> context.storage.getRepairScheduleDao().updateRepairSchedule(
             schedule.with().lastRun(repairRun.getId()).build(schedule.getId())));
   }
-}
\ No newline at end of file
+
+  private static final class DueSchedule implements Comparable<DueSchedule> {
+    private final UUID scheduleId;
+    private final long dueTime;
+
+    DueSchedule(UUID scheduleId, long dueTime) {
+      this.scheduleId = scheduleId;
+      this.dueTime = dueTime;
+    }
+
+    @Override
+    public int compareTo(DueSchedule other) {
+      return Long.compare(dueTime, other.dueTime);
+    }
+  }
+}
@@ -44,7 +44,7 @@ final class SegmentGenerator {
   private final String partitioner;
   private final BigInteger rangeMin;
   private final BigInteger rangeMax;
-  private final BigInteger rangeSize;
+  private final TokenSpace tokenSpace;
 
   SegmentGenerator(String partitioner) throws ReaperException {
     if (partitioner.endsWith("RandomPartitioner")) {
@@ -56,14 +56,14 @@ final class SegmentGenerator {
     } else {
       throw new ReaperException("Unsupported partitioner " + partitioner);
     }
-    rangeSize = rangeMax.subtract(rangeMin).add(BigInteger.ONE);
+    tokenSpace = TokenSpace.forPartitioner(partitioner);
     this.partitioner = partitioner;
   }
 
   SegmentGenerator(BigInteger rangeMin, BigInteger rangeMax) {
     this.rangeMin = rangeMin;
     this.rangeMax = rangeMax;
-    rangeSize = rangeMax.subtract(rangeMin).add(BigInteger.ONE);
+    tokenSpace = TokenSpace.of(rangeMin, rangeMax);
     partitioner = "(" + rangeMin + "," + rangeMax + ")";
   }
 
@@ -129,55 +129,18 @@ final class SegmentGenerator {
               String.format("Tokens (%s,%s): two nodes have the same token", start, stop));
         }
 
-        BigInteger rs = stop.subtract(start);
-        if (lowerThanOrEqual(rs, BigInteger.ZERO)) {
-          // wrap around case
-          rs = rs.add(rangeSize);
-        }
-
-        // the below, in essence, does this:
-        // segmentCount = ceiling((rangeSize / RANGE_SIZE) * totalSegmentCount)
-        BigInteger[] segmentCountAndRemainder
-            = rs.multiply(BigInteger.valueOf(totalSegmentCount)).divideAndRemainder(rangeSize);
-
-        int segmentCount = segmentCountAndRemainder[0].intValue()
-            + (segmentCountAndRemainder[1].equals(BigInteger.ZERO) ? 0 : 1);
-
-        LOG.info("Dividing token range [{},{}) into {} segments", start, stop, segmentCount);
-
-        // Make big0 list of all the endpoints for the repair segments, including both start and stop
-        List<BigInteger> endpointTokens = Lists.newArrayList();
-        for (int j = 0; j <= segmentCount; j++) {
-          BigInteger offset = rs.multiply(BigInteger.valueOf(j)).divide(BigInteger.valueOf(segmentCount));
-          BigInteger reaperToken = start.add(offset);
-          if (greaterThan(reaperToken, rangeMax)) {
-            reaperToken = reaperToken.subtract(rangeSize);
-          }
-          endpointTokens.add(reaperToken);
-        }
+        List<RingRange> segmentRanges = tokenSpace.split(start, stop, totalSegmentCount);
+        LOG.info("Dividing token range [{},{}) into {} segments", start, stop, segmentRanges.size());
 
         // Append the segments between the endpoints
-        for (int j = 0; j < segmentCount; j++) {
-          repairSegments.add(
-              Segment.builder()
-                  .withTokenRanges(
-                      Arrays.asList(
-                          new RingRange(endpointTokens.get(j), endpointTokens.get(j + 1))))
-                  .build());
-          LOG.debug(
-              "Segment #{}: [{},{})", j + 1, endpointTokens.get(j), endpointTokens.get(j + 1));
+        for (int j = 0; j < segmentRanges.size(); j++) {
+          repairSegments.add(Segment.builder().withTokenRanges(Arrays.asList(segmentRanges.get(j))).build());
+          LOG.debug("Segment #{}: {}", j + 1, segmentRanges.get(j));
         }
       }
 
       // verify that the whole range is repaired
-      BigInteger total = BigInteger.ZERO;
-      for (Segment segment : repairSegments) {
-        for (RingRange range : segment.getTokenRanges()) {
-          BigInteger size = range.span(rangeSize);
-          total = total.add(size);
-        }
-      }
-      if (!total.equals(rangeSize) && !incrementalRepair) {
+      if (!tokenSpace.coversRing(repairSegments) && !incrementalRepair) {
         throw new ReaperException("Not entire ring would get repaired");
       }
     } else {
@@ -196,13 +159,12 @@ final class SegmentGenerator {
 
     List<Segment> coalescedRepairSegments = Lists.newArrayList();
     List<RingRange> tokenRangesForCurrentSegment = Lists.newArrayList();
-    BigInteger tokenCount = BigInteger.ZERO;
+    TokenSpace.SpanCounter tokenCount = tokenSpace.newSpanCounter(targetSegmentSize);
 
     for (Entry<List<String>, List<RingRange>> tokenRangesByReplica : replicasToRange.entrySet()) {
       LOG.info("Coalescing segments for nodes {}", tokenRangesByReplica.getKey());
       for (RingRange tokenRange : tokenRangesByReplica.getValue()) {
-        if (tokenRange.span(rangeSize).add(tokenCount).compareTo(targetSegmentSize) > 0
-            && !tokenRangesForCurrentSegment.isEmpty()) {
+        if (tokenCount.exceedsLimitWith(tokenRange) && !tokenRangesForCurrentSegment.isEmpty()) {
           // enough tokens in that segment
           LOG.info(
               "Got enough tokens for one segment ({}) : {}",
@@ -211,10 +173,10 @@ final class SegmentGenerator {
           coalescedRepairSegments.add(
               Segment.builder().withTokenRanges(tokenRangesForCurrentSegment).build());
           tokenRangesForCurrentSegment = Lists.newArrayList();
-          tokenCount = BigInteger.ZERO;
+          tokenCount.reset();
         }
 
-        tokenCount = tokenCount.add(tokenRange.span(rangeSize));
+        tokenCount.add(tokenRange);
         tokenRangesForCurrentSegment.add(tokenRange);
 
       }
@@ -261,7 +223,7 @@ final class SegmentGenerator {
   }
 
   protected boolean inRange(BigInteger token) {
-    return !(lowerThan(token, rangeMin) || greaterThan(token, rangeMax));
+    return tokenSpace.inRange(token);
   }
 
   private boolean supportsSegmentCoalescing(String cassandraVersion) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * In memory state machine of the repair command triggered for a segment, fed by the repair notifications.
+ *
+ * <p>
+ * Notifications can arrive out of order, so the repair is complete once both its outcome (success or failure) and
+ * the end of the repair command have been notified. Waiting for completion releases the monitor of this object,
+ * which notification handlers synchronize on.
+ */
+final class SegmentRepairState {
+
+  enum Phase {
+    /** the repair command was triggered on the coordinator. */
+    TRIGGERED,
+    /** the coordinator notified that the repair started. */
+    RUNNING,
+    /** the coordinator notified that the repair succeeded. */
+    SUCCEEDED,
+    /** the coordinator notified that the repair failed. */
+    FAILED,
+    /** the runner gave up on the repair, later notifications must be ignored. */
+    ABORTED
+  }
+
+  private final UUID segmentId;
+  private Phase phase = Phase.TRIGGERED;
+  private boolean finished;
+
+  SegmentRepairState(UUID segmentId) {
+    this.segmentId = segmentId;
+  }
+
+  synchronized Phase getPhase() {
+    return phase;
+  }
+
+  synchronized boolean hasOutcome() {
+    return Phase.SUCCEEDED == phase || Phase.FAILED == phase;
+  }
+
+  synchronized boolean isComplete() {
+    return Phase.ABORTED == phase || (finished && hasOutcome());
+  }
+
+  synchronized void running() {
+    Preconditions.checkState(Phase.TRIGGERED == phase, "cannot move segment %s from %s to RUNNING", segmentId, phase);
+    phase = Phase.RUNNING;
+  }
+
+  synchronized void succeeded() {
+    setOutcome(Phase.SUCCEEDED);
+  }
+
+  synchronized void failed() {
+    setOutcome(Phase.FAILED);
+  }
+
+  /**
+   * Records the end of the repair command, which is notified regardless of the outcome.
+   */
+  synchronized void finished() {
+    Preconditions.checkState(!finished, "illegal multiple 'COMPLETE' on segment %s", segmentId);
+    finished = true;
+    notifyAll();
+  }
+
+  synchronized void abort() {
+    phase = Phase.ABORTED;
+    notifyAll();
+  }
+
+  /**
+   * Waits until the repair is complete, or until the timeout expires.
+   *
+   * @return true if the repair is complete
+   */
+  synchronized boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    long remaining = unit.toNanos(timeout);
+    while (!isComplete() && 0 < remaining) {
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      remaining = deadline - System.nanoTime();
+    }
+    return isComplete();
+  }
+
+  private void setOutcome(Phase outcome) {
+    Preconditions.checkState(!hasOutcome(), "illegal multiple 'SUCCESS' and 'FAILURE' on segment %s", segmentId);
+    Preconditions.checkState(Phase.ABORTED != phase, "segment %s was already aborted", segmentId);
+    phase = outcome;
+    notifyAll();
+  }
+}
@@ -38,8 +38,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Condition;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -67,6 +65,8 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
   private static final Logger LOG = LoggerFactory.getLogger(SegmentRunner.class);
 
   private static final int MAX_TIMEOUT_EXTENSIONS = 10;
+  // the storage only keeps renewing the leases of the segment for as long as they are renewed here
+  private static final long LEASE_RENEWAL_PERIOD_MILLIS = 30_000;
   private static final Pattern REPAIR_UUID_PATTERN
       = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
 
@@ -75,7 +75,6 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
 
   private final AppContext context;
   private final UUID segmentId;
-  private final Condition condition = new SimpleCondition();
   private final Collection<String> potentialCoordinators;
   private final long timeoutMillis;
   private final double intensity;
@@ -84,10 +83,12 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
   private final RepairRunner repairRunner;
   private final RepairUnit repairUnit;
   private volatile int repairNo;
-  private final AtomicBoolean segmentFailed;
   private final UUID leaderElectionId;
-  private final AtomicBoolean successOrFailedNotified = new AtomicBoolean(false);
-  private final AtomicBoolean completeNotified = new AtomicBoolean(false);
+  private final SegmentRepairState repairState;
+  // the segment as last written by this runner, which owns its state transitions while it holds the lead
+  private volatile RepairSegment segment;
+  // message of the failed repair session, set by the notification for the runner to clear its snapshots
+  private volatile String failedSessionMessage;
   private final ClusterFacade clusterFacade;
   private final Set<String> tablesToRepair;
 
@@ -120,7 +121,7 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
     this.clusterName = clusterName;
     this.repairUnit = repairUnit;
     this.repairRunner = repairRunner;
-    this.segmentFailed = new AtomicBoolean(false);
+    this.repairState = new SegmentRepairState(segmentId);
     this.leaderElectionId = repairUnit.getIncrementalRepair() ? repairRunner.getRepairRunId() : segmentId;
     this.tablesToRepair = tablesToRepair;
   }
@@ -167,25 +168,27 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
     context.storage.getRepairSegmentDao().updateRepairSegmentUnsafe(postponed);
   }
 
-  private static void postpone(AppContext context, RepairSegment segment, RepairUnit repairUnit) {
+  private static RepairSegment postpone(AppContext context, RepairSegment segment, RepairUnit repairUnit) {
     LOG.info("Postponing segment {}", segment.getId());
+    RepairSegment postponed = segment
+        .reset()
+        // set coordinator host to null only for full repairs
+        .withCoordinatorHost(repairUnit.getIncrementalRepair() ? segment.getCoordinatorHost() : null)
+        .withFailCount(segment.getFailCount() + 1)
+        .withId(segment.getId())
+        .build();
     try {
-      context.storage.getRepairSegmentDao().updateRepairSegment(
-          segment
-              .reset()
-              // set coordinator host to null only for full repairs
-              .withCoordinatorHost(repairUnit.getIncrementalRepair() ? segment.getCoordinatorHost() : null)
-              .withFailCount(segment.getFailCount() + 1)
-              .withId(segment.getId())
-              .build());
+      context.storage.getRepairSegmentDao().updateRepairSegment(postponed);
     } finally {
       SEGMENT_RUNNERS.remove(segment.getId());
       context.metricRegistry.counter(metricNameForPostpone(repairUnit, segment)).inc();
     }
+    return postponed;
   }
 
-  static void abort(AppContext context, RepairSegment segment, ICassandraManagementProxy jmxConnection) {
-    postpone(context, segment, context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId()));
+  static RepairSegment abort(AppContext context, RepairSegment segment, ICassandraManagementProxy jmxConnection) {
+    final RepairSegment postponed
+        = postpone(context, segment, context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId()));
     LOG.info("Aborting repair on segment with id {} on coordinator {}", segment.getId(), segment.getCoordinatorHost());
 
     String metric = MetricRegistry.name(
@@ -195,10 +198,11 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
 
     context.metricRegistry.counter(metric).inc();
     jmxConnection.cancelAllRepairs();
+    return postponed;
   }
 
   private void abort(RepairSegment segment, ICassandraManagementProxy jmxConnection) {
-    abort(context, segment, jmxConnection);
+    this.segment = abort(context, segment, jmxConnection);
   }
 
 
@@ -246,23 +250,17 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       }
     }
     if (ran) {
-      long delay = intensityBasedDelayMillis(intensity);
-      try {
-        Thread.sleep(delay);
-      } catch (InterruptedException e) {
-        LOG.warn("Slept shorter than intended delay.");
-      }
+      // the replicas wait before taking part in the next segment of the run, rather than this thread sleeping
+      repairRunner.delayNextSegment(potentialCoordinators, intensityBasedDelayMillis(intensity));
     }
   }
 
   /**
-   * Remember to call method postponeCurrentSegment() outside of synchronized(condition) block.
+   * Remember to call method postponeCurrentSegment() outside of synchronized(repairState) block.
    */
   void postponeCurrentSegment() {
-    synchronized (condition) {
-      RepairSegment segment = context.storage.getRepairSegmentDao().getRepairSegment(repairRunner.getRepairRunId(),
-          segmentId).get();
-      postpone(context, segment, context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId()));
+    synchronized (repairState) {
+      segment = postpone(context, segment, context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId()));
     }
 
     try {
@@ -274,8 +272,8 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
 
   private boolean runRepair() {
     LOG.debug("Run repair for segment #{}", segmentId);
-    RepairSegment segment = context.storage.getRepairSegmentDao().getRepairSegment(repairRunner.getRepairRunId(),
-        segmentId).get();
+    // read again now that the lead is held, as another instance may have repaired the segment in the meantime
+    segment = context.storage.getRepairSegmentDao().getRepairSegment(repairRunner.getRepairRunId(), segmentId).get();
     Thread.currentThread().setName(clusterName + ":" + segment.getRunId() + ":" + segmentId);
 
     try (Timer.Context cxt = context.metricRegistry.timer(metricNameForRunRepair(segment)).time()) {
@@ -303,19 +301,18 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       try (Timer.Context cxt1 = context.metricRegistry.timer(metricNameForRepairing(segment)).time()) {
         try {
           LOG.debug("Enter synchronized section with segment ID {}", segmentId);
-          synchronized (condition) {
+          synchronized (repairState) {
             String coordinatorHost = context.config.getDatacenterAvailability() == DatacenterAvailability.SIDECAR
                 ? context.getLocalNodeAddress()
                 : coordinator.getHost();
-            segment = segment
-                .with()
-                .withState(RepairSegment.State.STARTED)
-                .withCoordinatorHost(coordinatorHost)
-                .withStartTime(DateTime.now())
-                .withId(segmentId)
-                .build();
-
-            context.storage.getRepairSegmentDao().updateRepairSegment(segment);
+            updateSegment(
+                segment
+                    .with()
+                    .withState(RepairSegment.State.STARTED)
+                    .withCoordinatorHost(coordinatorHost)
+                    .withStartTime(DateTime.now())
+                    .withId(segmentId)
+                    .build());
 
             repairNo = coordinator.triggerRepair(
                 keyspace,
@@ -328,11 +325,11 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
                 repairUnit.getRepairThreadCount());
 
             if (0 != repairNo) {
-              processTriggeredSegment(segment, coordinator, repairNo);
+              processTriggeredSegment(coordinator, repairNo);
             } else {
               LOG.info("Nothing to repair for segment {} in keyspace {}", segmentId, keyspace);
 
-              context.storage.getRepairSegmentDao().updateRepairSegment(
+              updateSegment(
                   segment
                       .with()
                       .withState(RepairSegment.State.DONE)
@@ -340,12 +337,16 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
                       .withId(segmentId)
                       .build());
 
-              SEGMENT_RUNNERS.remove(segment.getId());
+              SEGMENT_RUNNERS.remove(segmentId);
             }
           }
         } finally {
           LOG.debug("Exiting synchronized section with segment ID {}", segmentId);
         }
+        if (null != failedSessionMessage) {
+          tryClearSnapshots(failedSessionMessage);
+          repairRunner.delayNextSegment(potentialCoordinators, SLEEP_TIME_AFTER_POSTPONE_IN_MS);
+        }
       }
     } catch (RuntimeException | ReaperException e) {
       LOG.warn("Failed to connect to a coordinator node for segment {}", segmentId, e);
@@ -355,7 +356,7 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       LOG.warn("Open files amount for process: " + getOpenFilesAmount());
       return false;
     } finally {
-      SEGMENT_RUNNERS.remove(segment.getId());
+      SEGMENT_RUNNERS.remove(segmentId);
       context.metricRegistry
           .histogram(MetricRegistry.name(SegmentRunner.class, "openFiles"))
           .update(getOpenFilesAmount());
@@ -363,11 +364,15 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
     return true;
   }
 
-  private void processTriggeredSegment(final RepairSegment segment, final ICassandraManagementProxy coordinator,
-                                       int repairNo) {
+  /**
+   * Waits for the repair notifications to complete the repair of the segment, or for the timeout to expire.
+   * The leases held on the segment are renewed in the meantime.
+   * A failed repair is postponed here, as the notifications only record the failure.
+   */
+  private void processTriggeredSegment(final ICassandraManagementProxy coordinator, int repairNo) {
 
     repairRunner.updateLastEvent(
-        String.format("Triggered repair of segment %s via host %s", segment.getId(), coordinator.getHost()));
+        String.format("Triggered repair of segment %s via host %s", segmentId, coordinator.getHost()));
 
     // Timeout is extended for each attempt to prevent repairs from blocking if settings aren't accurate
     int attempt = segment.getFailCount() + 1;
@@ -377,17 +382,11 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
     LOG.info("Repair for segment {} started, status wait will timeout in {} millis", segmentId, segmentTimeout);
 
     try {
-      final long startTime = System.currentTimeMillis();
-      final long maxTime = startTime + segmentTimeout;
-      final long waitTime = Math.min(segmentTimeout, 60000);
-
-      while (System.currentTimeMillis() < maxTime) {
-        boolean isDoneOrFailed = condition.await(waitTime, TimeUnit.MILLISECONDS);
-
-        isDoneOrFailed |= RepairSegment.State.DONE == context.storage
-            .getRepairSegmentDao().getRepairSegment(segment.getRunId(), segmentId).get().getState();
-
-        if (isDoneOrFailed) {
+      final long deadline = System.currentTimeMillis() + segmentTimeout;
+      long remaining = segmentTimeout;
+      while (!repairState.awaitCompletion(Math.min(remaining, LEASE_RENEWAL_PERIOD_MILLIS), TimeUnit.MILLISECONDS)) {
+        remaining = deadline - System.currentTimeMillis();
+        if (0 >= remaining) {
           break;
         }
         renewLead(segment);
@@ -396,30 +395,32 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       LOG.warn("Repair command {} on segment {} interrupted", this.repairNo, segmentId, e);
     } finally {
       coordinator.removeRepairStatusHandler(repairNo);
-      RepairSegment resultingSegment
-          = context.storage.getRepairSegmentDao().getRepairSegment(repairRunner.getRepairRunId(), segmentId).get();
+      if (SegmentRepairState.Phase.FAILED == repairState.getPhase()) {
+        segment = postpone(
+            context, segment, context.storage.getRepairUnitDao().getRepairUnit(segment.getRepairUnitId()));
+      }
 
       LOG.info(
           "Repair command {} on segment {} returned with state {}",
           this.repairNo,
           segmentId,
-          resultingSegment.getState());
+          segment.getState());
 
-      switch (resultingSegment.getState()) {
+      switch (segment.getState()) {
         case STARTED:
         case RUNNING:
           LOG.info("Repair command {} on segment {} has been cancelled while running", this.repairNo, segmentId);
-          segmentFailed.set(true);
-          abort(resultingSegment, coordinator);
+          repairState.abort();
+          abort(segment, coordinator);
           break;
 
         case DONE:
           LOG.debug(
               "Repair segment with id '{}' was repaired in {} seconds",
-              resultingSegment.getId(),
-              Seconds.secondsBetween(resultingSegment.getStartTime(), resultingSegment.getEndTime()).getSeconds());
+              segmentId,
+              Seconds.secondsBetween(segment.getStartTime(), segment.getEndTime()).getSeconds());
 
-          SEGMENT_RUNNERS.remove(resultingSegment.getId());
+          SEGMENT_RUNNERS.remove(segmentId);
           break;
 
         default:
@@ -430,14 +431,20 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
               "Repair command {} on segment {} never managed to start within timeout.",
               this.repairNo,
               segmentId);
-          segmentFailed.set(true);
-          abort(resultingSegment, coordinator);
+          repairState.abort();
+          abort(segment, coordinator);
       }
-      // Repair is still running, we'll renew lead on the segment when using Cassandra as storage backend
-      renewLead(segment);
     }
   }
 
+  /**
+   * Writes a state transition of the segment, and keeps it as the current state of the segment for this runner.
+   */
+  private void updateSegment(RepairSegment newSegment) {
+    context.storage.getRepairSegmentDao().updateRepairSegment(newSegment);
+    segment = newSegment;
+  }
+
   private String metricNameForRepairing(RepairSegment rs) {
     return MetricRegistry.name(
         SegmentRunner.class,
@@ -471,8 +478,6 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       String message,
       ICassandraManagementProxy cassandraManagementProxy) {
 
-    final RepairSegment segment = context.storage.getRepairSegmentDao().getRepairSegment(repairRunner.getRepairRunId(),
-        segmentId).get();
     Thread.currentThread().setName(clusterName + ":" + segment.getRunId() + ":" + segmentId);
     LOG.debug(
         "handle called for repairCommandId {}, outcome {} / {} and message: {}",
@@ -481,175 +486,78 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
         progress,
         message);
 
-    Preconditions.checkArgument(
-        repairNo == this.repairNo,
-        "Handler for command id %s not handling message %s with number %s",
-        this.repairNo, (status.isPresent() ? status.get() : progress.get()), repairNo);
-
-    boolean failOutsideSynchronizedBlock = false;
+    boolean failed = false;
     // DO NOT ADD EXTERNAL CALLS INSIDE THIS SYNCHRONIZED BLOCK (JMX PROXY ETC)
-    synchronized (condition) {
-      RepairSegment currentSegment = context.storage.getRepairSegmentDao().getRepairSegment(
-          repairRunner.getRepairRunId(), segmentId).get();
+    synchronized (repairState) {
+      // the runner holds the monitor until the repair number is known, so notifications can't overtake it
+      Preconditions.checkArgument(
+          repairNo == this.repairNo,
+          "Handler for command id %s not handling message %s with number %s",
+          this.repairNo, (status.isPresent() ? status.get() : progress.get()), repairNo);
+
+      if (SegmentRepairState.Phase.ABORTED == repairState.getPhase()) {
+        LOG.debug(
+            "Ignoring {} for segment {} as its repair was already aborted",
+            status.isPresent() ? status.get() : progress.get(),
+            segmentId);
+        return;
+      }
 
       Preconditions.checkState(
-          RepairSegment.State.NOT_STARTED != currentSegment.getState() || successOrFailedNotified.get(),
+          RepairSegment.State.NOT_STARTED != segment.getState() || repairState.hasOutcome(),
           "received " + (status.isPresent() ? status.get() : progress.get()) + " on unstarted segment " + segmentId);
 
       // See status explanations at: https://wiki.apache.org/cassandra/RepairAsyncAPI
       // Old repair API – up to Cassandra-2.1.x
       if (status.isPresent()) {
-        failOutsideSynchronizedBlock = handleJmxNotificationForCassandra21(
+        failed = handleJmxNotificationForCassandra21(
             status,
-            currentSegment,
             repairNo,
-            failOutsideSynchronizedBlock,
+            failed,
             progress,
             cassandraManagementProxy);
       }
 
       // New repair API – Cassandra-2.2 onwards
       if (progress.isPresent()) {
-        failOutsideSynchronizedBlock = handleJmxNotificationForCassandra22(
+        failed = handleJmxNotificationForCassandra22(
             progress,
-            currentSegment,
             repairNo,
-            failOutsideSynchronizedBlock,
+            failed,
             cassandraManagementProxy);
       }
-    }
 
-    if (failOutsideSynchronizedBlock) {
-      if (takeLead(segment) || renewLead(segment)) {
-        try {
-          postponeCurrentSegment();
-          tryClearSnapshots(message);
-        } finally {
-          // if someone else does hold the lease, ie renewLead(..) was true,
-          // then their writes to repair_run table and any call to releaseLead(..) will throw an exception
-          try {
-            releaseLead(segment);
-          } catch (AssertionError ignore) {
-          }
-        }
+      if (failed) {
+        // the runner postpones the segment and clears its snapshots, this thread is shared by all the repairs
+        failedSessionMessage = message;
       }
     }
   }
 
   private boolean handleJmxNotificationForCassandra22(
       Optional<ProgressEventType> progress,
-      RepairSegment currentSegment,
       int repairNumber,
-      boolean failOutsideSynchronizedBlock,
+      boolean failed,
       ICassandraManagementProxy cassandraManagementProxy) {
 
     switch (progress.get()) {
       case START:
-        try {
-          // avoid changing state to RUNNING if later notifications have already arrived
-          if (!successOrFailedNotified.get()
-              && RepairSegment.State.STARTED == currentSegment.getState()
-              && renewLead(currentSegment)) {
-
-            context.storage.getRepairSegmentDao().updateRepairSegment(
-                currentSegment
-                    .with()
-                    .withState(RepairSegment.State.RUNNING)
-                    .withId(segmentId)
-                    .build());
-
-            LOG.debug("updated segment {} with state {}", segmentId, RepairSegment.State.RUNNING);
-            break;
-          }
-        } catch (AssertionError er) {
-          LOG.debug("Failed processing START notification for segment {}", segmentId, er);
-        }
-        segmentFailed.set(true);
+        repairStarted();
         break;
 
       case SUCCESS:
-        Preconditions.checkState(
-            !successOrFailedNotified.get(),
-            "illegal multiple 'SUCCESS' and 'FAILURE', %s:%s", repairRunner.getRepairRunId(), segmentId);
-        successOrFailedNotified.set(true);
-
-        try {
-          if (segmentFailed.get()) {
-            LOG.debug(
-                "Got SUCCESS for segment with id '{}' and repair number '{}', but it had already timed out",
-                segmentId,
-                repairNumber);
-          } else if (renewLead(currentSegment)) {
-            LOG.debug(
-                "repair session succeeded for segment with id '{}' and repair number '{}'",
-                segmentId,
-                repairNumber);
-
-            context.storage.getRepairSegmentDao().updateRepairSegment(
-                currentSegment
-                    .with()
-                    .withState(RepairSegment.State.DONE)
-                    .withEndTime(DateTime.now())
-                    .withId(segmentId)
-                    .build());
-
-            // Since we can get out of order notifications,
-            // we need to exit if we already got the COMPLETE notification.
-            if (completeNotified.get()) {
-              LOG.debug("Complete was already notified for segment {}. Signaling the condition object...", segmentId);
-              condition.signalAll();
-              cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-            }
-            break;
-          }
-        } catch (AssertionError er) {
-          LOG.debug("Failed processing SUCCESS notification for segment {}", segmentId, er);
-        }
-        segmentFailed.set(true);
+        repairSucceeded(repairNumber, cassandraManagementProxy);
         break;
 
       case ERROR:
       case ABORT:
-
-        Preconditions.checkState(
-            !successOrFailedNotified.get(),
-            "illegal multiple 'SUCCESS' and 'FAILURE', %s:%s", repairRunner.getRepairRunId(), segmentId);
-
-        LOG.warn(
-            "repair session failed for segment with id '{}' and repair number '{}'",
-            segmentId,
-            repairNumber);
-        failOutsideSynchronizedBlock = true;
-        successOrFailedNotified.set(true);
-        // Since we can get out of order notifications,
-        // we need to exit if we already got the COMPLETE notification.
-        if (completeNotified.get()) {
-          condition.signalAll();
-          cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-        }
+        failed = repairFailed(repairNumber, cassandraManagementProxy);
         break;
 
       case COMPLETE:
         // This gets called through the JMX proxy at the end
         // regardless of succeeded or failed sessions.
-        // Since we can get out of order notifications,
-        // we won't exit unless we already got a SUCCESS or ERROR notification.
-
-        Preconditions.checkState(
-            !completeNotified.get(),
-            "illegal multiple 'COMPLETE', %s:%s", repairRunner.getRepairRunId(), segmentId);
-
-        completeNotified.set(true);
-        LOG.debug(
-            "repair session finished for segment with id '{}' and repair number '{}'",
-            segmentId,
-            repairNumber);
-
-        if (successOrFailedNotified.get()) {
-          LOG.debug("Success was already notified for segment {}. Signaling the condition object...", segmentId);
-          condition.signalAll();
-          cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-        }
+        repairFinished(repairNumber, cassandraManagementProxy);
         break;
       default:
         LOG.debug(
@@ -658,132 +566,39 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
             segmentId,
             repairNumber);
     }
-    return failOutsideSynchronizedBlock;
+    return failed;
   }
 
   private boolean handleJmxNotificationForCassandra21(
       Optional<ActiveRepairService.Status> status,
-      RepairSegment currentSegment,
       int repairNumber,
-      boolean failOutsideSynchronizedBlock,
+      boolean failed,
       Optional<ProgressEventType> progress,
       ICassandraManagementProxy cassandraManagementProxy) {
 
     switch (status.get()) {
       case STARTED:
-        try {
-          // avoid changing state to RUNNING if later notifications have already arrived
-          if (!successOrFailedNotified.get()
-              && RepairSegment.State.STARTED == currentSegment.getState()
-              && renewLead(currentSegment)) {
-
-            context.storage.getRepairSegmentDao().updateRepairSegment(
-                currentSegment
-                    .with()
-                    .withState(RepairSegment.State.RUNNING)
-                    .withId(segmentId)
-                    .build());
-
-            LOG.debug("updated segment {} with state {}", segmentId, RepairSegment.State.RUNNING);
-            break;
-          }
-        } catch (AssertionError er) {
-          // ignore. segment repair has since timed out.
-        }
-        segmentFailed.set(true);
+        repairStarted();
         break;
 
       case SESSION_SUCCESS:
         // Cassandra 2.1 sends several SUCCESS/FAILED notifications during incremental repair
-        if (!(repairUnit.getIncrementalRepair() && successOrFailedNotified.get())) {
-          Preconditions.checkState(
-              !successOrFailedNotified.get(),
-              "illegal multiple 'SUCCESS' and 'FAILURE', %s:%s",
-              repairRunner.getRepairRunId(),
-              segmentId);
-          successOrFailedNotified.set(true);
-
-          try {
-            if (segmentFailed.get()) {
-              LOG.debug(
-                  "Got SESSION_SUCCESS for segment with id '{}' and repair number '{}', but it had already timed out",
-                  segmentId,
-                  repairNumber);
-            } else if (renewLead(currentSegment)) {
-              LOG.debug(
-                  "repair session succeeded for segment with id '{}' and repair number '{}'",
-                  segmentId,
-                  repairNumber);
-
-              context.storage.getRepairSegmentDao().updateRepairSegment(
-                  currentSegment
-                      .with()
-                      .withState(RepairSegment.State.DONE)
-                      .withEndTime(DateTime.now())
-                      .withId(segmentId)
-                      .build());
-
-              // Since we can get out of order notifications,
-              // we need to exit if we already got the COMPLETE notification.
-              if (completeNotified.get()) {
-                condition.signalAll();
-                cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-              }
-
-              break;
-            }
-          } catch (AssertionError er) {
-            // ignore. segment repair has since timed out.
-          }
-          segmentFailed.set(true);
-          break;
+        if (!(repairUnit.getIncrementalRepair() && repairState.hasOutcome())) {
+          repairSucceeded(repairNumber, cassandraManagementProxy);
         }
         break;
 
       case SESSION_FAILED:
         // Cassandra 2.1 sends several SUCCESS/FAILED notifications during incremental repair
-        if (!(repairUnit.getIncrementalRepair() && successOrFailedNotified.get())) {
-          Preconditions.checkState(
-              !successOrFailedNotified.get(),
-              "illegal multiple 'SUCCESS' and 'FAILURE', %s:%s",
-              repairRunner.getRepairRunId(),
-              segmentId);
-
-          LOG.warn(
-              "repair session failed for segment with id '{}' and repair number '{}'",
-              segmentId,
-              repairNumber);
-          failOutsideSynchronizedBlock = true;
-          // Since we can get out of order notifications,
-          // we need to exit if we already got the COMPLETE notification.
-          successOrFailedNotified.set(true);
-          if (completeNotified.get()) {
-            condition.signalAll();
-            cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-          }
-          break;
+        if (!(repairUnit.getIncrementalRepair() && repairState.hasOutcome())) {
+          failed = repairFailed(repairNumber, cassandraManagementProxy);
         }
         break;
 
       case FINISHED:
-
-        Preconditions.checkState(
-            !completeNotified.get(),
-            "illegal multiple 'COMPLETE', %s:%s", repairRunner.getRepairRunId(), segmentId);
-
         // This gets called through the JMX proxy at the end
         // regardless of succeeded or failed sessions.
-        // Since we can get out of order notifications,
-        // we won't exit unless we already got a SUCCESS or ERROR notification.
-        completeNotified.set(true);
-        LOG.debug(
-            "repair session finished for segment with id '{}' and repair number '{}'",
-            segmentId,
-            repairNumber);
-        if (successOrFailedNotified.get()) {
-          condition.signalAll();
-          cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
-        }
+        repairFinished(repairNumber, cassandraManagementProxy);
         break;
       default:
         LOG.debug(
@@ -792,7 +607,80 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
             segmentId,
             repairNumber);
     }
-    return failOutsideSynchronizedBlock;
+    return failed;
+  }
+
+  private void repairStarted() {
+    // avoid changing state to RUNNING if later notifications have already arrived
+    if (SegmentRepairState.Phase.TRIGGERED != repairState.getPhase()) {
+      LOG.debug("Got a late start notification for segment {} in phase {}", segmentId, repairState.getPhase());
+      return;
+    }
+    try {
+      if (renewLead(segment)) {
+        updateSegment(segment.with().withState(RepairSegment.State.RUNNING).withId(segmentId).build());
+        repairState.running();
+        LOG.debug("updated segment {} with state {}", segmentId, RepairSegment.State.RUNNING);
+        return;
+      }
+    } catch (AssertionError er) {
+      LOG.debug("Failed processing START notification for segment {}", segmentId, er);
+    }
+    // the lead on the segment is lost, stop waiting for the repair
+    repairState.abort();
+  }
+
+  private void repairSucceeded(int repairNumber, ICassandraManagementProxy cassandraManagementProxy) {
+    // Since we can get out of order notifications, the repair only completes once COMPLETE was notified too.
+    repairState.succeeded();
+    try {
+      if (renewLead(segment)) {
+        LOG.debug(
+            "repair session succeeded for segment with id '{}' and repair number '{}'",
+            segmentId,
+            repairNumber);
+
+        updateSegment(
+            segment
+                .with()
+                .withState(RepairSegment.State.DONE)
+                .withEndTime(DateTime.now())
+                .withId(segmentId)
+                .build());
+
+        removeHandlerIfComplete(repairNumber, cassandraManagementProxy);
+        return;
+      }
+    } catch (AssertionError er) {
+      LOG.debug("Failed processing SUCCESS notification for segment {}", segmentId, er);
+    }
+    repairState.abort();
+  }
+
+  private boolean repairFailed(int repairNumber, ICassandraManagementProxy cassandraManagementProxy) {
+    repairState.failed();
+    LOG.warn(
+        "repair session failed for segment with id '{}' and repair number '{}'",
+        segmentId,
+        repairNumber);
+    removeHandlerIfComplete(repairNumber, cassandraManagementProxy);
+    return true;
+  }
+
+  private void repairFinished(int repairNumber, ICassandraManagementProxy cassandraManagementProxy) {
+    repairState.finished();
+    LOG.debug(
+        "repair session finished for segment with id '{}' and repair number '{}'",
+        segmentId,
+        repairNumber);
+    removeHandlerIfComplete(repairNumber, cassandraManagementProxy);
+  }
+
+  private void removeHandlerIfComplete(int repairNumber, ICassandraManagementProxy cassandraManagementProxy) {
+    if (repairState.isComplete()) {
+      LOG.debug("Repair of segment {} is complete, waking up its runner", segmentId);
+      cassandraManagementProxy.removeRepairStatusHandler(repairNumber);
+    }
   }
 
   /**
@@ -858,7 +746,7 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
       boolean result = false;
       if (repairUnit.getIncrementalRepair()) {
         result = context.storage instanceof IDistributedStorage
-            ? ((IDistributedStorage) context.storage).takeLead(leaderElectionId)
+            ? ((IDistributedStorage) context.storage).takeLead(leaderElectionId, repairRunner.getRepairRunId())
             : true;
       } else {
         result = context.storage instanceof IDistributedStorage
@@ -879,7 +767,7 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
 
       if (repairUnit.getIncrementalRepair()) {
         boolean result = context.storage instanceof IDistributedStorage
-            ? ((IDistributedStorage) context.storage).renewLead(leaderElectionId)
+            ? ((IDistributedStorage) context.storage).renewLead(leaderElectionId, repairRunner.getRepairRunId())
             : true;
 
         if (!result) {
@@ -906,7 +794,7 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
              = context.metricRegistry.timer(MetricRegistry.name(SegmentRunner.class, "releaseLead")).time()) {
       if (context.storage instanceof IDistributedStorage) {
         if (repairUnit.getIncrementalRepair()) {
-          ((IDistributedStorage) context.storage).releaseLead(leaderElectionId);
+          ((IDistributedStorage) context.storage).releaseLead(leaderElectionId, repairRunner.getRepairRunId());
         } else {
           ((IDistributedStorage) context.storage).releaseRunningRepairsForNodes(this.repairRunner.getRepairRunId(),
               segment.getId(), segment.getReplicas().keySet());
@@ -916,6 +804,6 @@ final class SegmentRunner implements RepairStatusHandler, Runnable {
   }
 
   private int countRunningReapers() {
-    return context.isDistributed.get() ? ((IDistributedStorage) context.storage).countRunningReapers() : 1;
+    return context.isDistributed.get() ? context.membership.count() : 1;
   }
 }
\ No newline at end of file
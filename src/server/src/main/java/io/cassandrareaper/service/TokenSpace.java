@@ -0,0 +1,272 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.Segment;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+/**
+ * Token arithmetic of a partitioner's ring.
+ *
+ * <p>
+ * Murmur3Partitioner tokens span the whole signed 64-bit range, so their arithmetic is done on primitive longs, modulo
+ * 2^64, without allocating. RandomPartitioner tokens and arbitrary rings use BigInteger arithmetic.
+ */
+abstract class TokenSpace {
+
+  /**
+   * Accumulates the span of token ranges up to a limit.
+   */
+  interface SpanCounter {
+
+    /**
+     * @return true if adding the span of the range would exceed the limit of this counter.
+     */
+    boolean exceedsLimitWith(RingRange range);
+
+    void add(RingRange range);
+
+    void reset();
+  }
+
+  static TokenSpace forPartitioner(String partitioner) throws ReaperException {
+    if (partitioner.endsWith("RandomPartitioner")) {
+      return new BigIntegerTokenSpace(BigInteger.ZERO, BigInteger.valueOf(2).pow(127).subtract(BigInteger.ONE));
+    } else if (partitioner.endsWith("Murmur3Partitioner")) {
+      return new Murmur3TokenSpace();
+    }
+    throw new ReaperException("Unsupported partitioner " + partitioner);
+  }
+
+  static TokenSpace of(BigInteger rangeMin, BigInteger rangeMax) {
+    return new BigIntegerTokenSpace(rangeMin, rangeMax);
+  }
+
+  abstract boolean inRange(BigInteger token);
+
+  /**
+   * Splits the range between two ring tokens into consecutive ranges, as many of them as the range would get if the
+   * whole ring was split in {@code totalSegmentCount} ranges of equal size, rounded up.
+   */
+  abstract List<RingRange> split(BigInteger start, BigInteger stop, int totalSegmentCount);
+
+  /**
+   * @return true if the token ranges of the segments add up to exactly the size of the ring.
+   */
+  abstract boolean coversRing(List<Segment> segments);
+
+  abstract SpanCounter newSpanCounter(BigInteger limit);
+
+  /**
+   * Tokens of the Murmur3Partitioner, in [-2^63, 2^63 - 1]. Spans are unsigned longs, with a range starting and ending
+   * on the same token spanning the whole ring.
+   */
+  static final class Murmur3TokenSpace extends TokenSpace {
+
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    @Override
+    boolean inRange(BigInteger token) {
+      return token.bitLength() < Long.SIZE;
+    }
+
+    @Override
+    List<RingRange> split(BigInteger start, BigInteger stop, int totalSegmentCount) {
+      long first = start.longValue();
+      long span = stop.longValue() - first;
+      // the span is handled as a 33-bit high part and a 32-bit low part, so products by an int never overflow
+      long high = span == 0 ? 1L << 32 : span >>> 32;
+      long low = span & LOW_MASK;
+
+      // segmentCount = ceiling(span * totalSegmentCount / 2^64)
+      long lowProduct = low * totalSegmentCount;
+      long carried = high * totalSegmentCount + (lowProduct >>> 32);
+      int segmentCount = (int) (carried >>> 32) + ((carried & LOW_MASK) != 0 || (lowProduct & LOW_MASK) != 0 ? 1 : 0);
+
+      List<RingRange> ranges = Lists.newArrayListWithCapacity(segmentCount);
+      long segmentStart = first;
+      for (int j = 1; j <= segmentCount; j++) {
+        // tokens wrap around the ring with the overflow of the long addition
+        long segmentEnd = first + offset(high, low, j, segmentCount);
+        ranges.add(new RingRange(segmentStart, segmentEnd));
+        segmentStart = segmentEnd;
+      }
+      return ranges;
+    }
+
+    /**
+     * @return floor(span * segment / segmentCount), modulo 2^64
+     */
+    private static long offset(long high, long low, int segment, int segmentCount) {
+      long highProduct = high * segment;
+      long rest = ((highProduct % segmentCount) << 32) + low * segment;
+      return ((highProduct / segmentCount) << 32) + Long.divideUnsigned(rest, segmentCount);
+    }
+
+    @Override
+    boolean coversRing(List<Segment> segments) {
+      long total = 0;
+      int wraps = 0;
+      for (Segment segment : segments) {
+        for (RingRange range : segment.getTokenRanges()) {
+          long span = span(range);
+          long sum = total + span;
+          if (span == 0 || Long.compareUnsigned(sum, total) < 0) {
+            wraps++;
+          }
+          total = sum;
+        }
+      }
+      return wraps == 1 && total == 0;
+    }
+
+    @Override
+    SpanCounter newSpanCounter(BigInteger limit) {
+      long unsignedLimit = limit.bitLength() > Long.SIZE ? -1L : limit.longValue();
+      return new SpanCounter() {
+        private long count;
+
+        @Override
+        public boolean exceedsLimitWith(RingRange range) {
+          return Long.compareUnsigned(saturatedAdd(count, range), unsignedLimit) > 0;
+        }
+
+        @Override
+        public void add(RingRange range) {
+          count = saturatedAdd(count, range);
+        }
+
+        @Override
+        public void reset() {
+          count = 0;
+        }
+
+        @Override
+        public String toString() {
+          return Long.toUnsignedString(count);
+        }
+      };
+    }
+
+    /**
+     * @return the unsigned span of the range, which is 0 for a range covering the whole ring.
+     */
+    private static long span(RingRange range) {
+      Preconditions.checkArgument(range.hasLongTokens(), "Range %s is not a Murmur3 range", range);
+      return range.endToken() - range.startToken();
+    }
+
+    private static long saturatedAdd(long count, RingRange range) {
+      long span = span(range);
+      long sum = count + span;
+      return span == 0 || Long.compareUnsigned(sum, count) < 0 ? -1L : sum;
+    }
+  }
+
+  /**
+   * Tokens of an arbitrary range, such as the RandomPartitioner's [0, 2^127 - 1].
+   */
+  static final class BigIntegerTokenSpace extends TokenSpace {
+
+    private final BigInteger rangeMin;
+    private final BigInteger rangeMax;
+    private final BigInteger rangeSize;
+
+    BigIntegerTokenSpace(BigInteger rangeMin, BigInteger rangeMax) {
+      this.rangeMin = rangeMin;
+      this.rangeMax = rangeMax;
+      rangeSize = rangeMax.subtract(rangeMin).add(BigInteger.ONE);
+    }
+
+    @Override
+    boolean inRange(BigInteger token) {
+      return !(SegmentGenerator.lowerThan(token, rangeMin) || SegmentGenerator.greaterThan(token, rangeMax));
+    }
+
+    @Override
+    List<RingRange> split(BigInteger start, BigInteger stop, int totalSegmentCount) {
+      BigInteger rs = stop.subtract(start);
+      if (SegmentGenerator.lowerThanOrEqual(rs, BigInteger.ZERO)) {
+        // wrap around case
+        rs = rs.add(rangeSize);
+      }
+
+      // the below, in essence, does this:
+      // segmentCount = ceiling((rangeSize / RANGE_SIZE) * totalSegmentCount)
+      BigInteger[] segmentCountAndRemainder
+          = rs.multiply(BigInteger.valueOf(totalSegmentCount)).divideAndRemainder(rangeSize);
+
+      int segmentCount = segmentCountAndRemainder[0].intValue()
+          + (segmentCountAndRemainder[1].equals(BigInteger.ZERO) ? 0 : 1);
+
+      List<RingRange> ranges = Lists.newArrayListWithCapacity(segmentCount);
+      BigInteger segmentStart = start;
+      for (int j = 1; j <= segmentCount; j++) {
+        BigInteger offset = rs.multiply(BigInteger.valueOf(j)).divide(BigInteger.valueOf(segmentCount));
+        BigInteger segmentEnd = start.add(offset);
+        if (SegmentGenerator.greaterThan(segmentEnd, rangeMax)) {
+          segmentEnd = segmentEnd.subtract(rangeSize);
+        }
+        ranges.add(new RingRange(segmentStart, segmentEnd));
+        segmentStart = segmentEnd;
+      }
+      return ranges;
+    }
+
+    @Override
+    boolean coversRing(List<Segment> segments) {
+      BigInteger total = BigInteger.ZERO;
+      for (Segment segment : segments) {
+        total = total.add(segment.countTokens(rangeSize));
+      }
+      return total.equals(rangeSize);
+    }
+
+    @Override
+    SpanCounter newSpanCounter(BigInteger limit) {
+      return new SpanCounter() {
+        private BigInteger count = BigInteger.ZERO;
+
+        @Override
+        public boolean exceedsLimitWith(RingRange range) {
+          return range.span(rangeSize).add(count).compareTo(limit) > 0;
+        }
+
+        @Override
+        public void add(RingRange range) {
+          count = count.add(range.span(rangeSize));
+        }
+
+        @Override
+        public void reset() {
+          count = BigInteger.ZERO;
+        }
+
+        @Override
+        public String toString() {
+          return count.toString();
+        }
+      };
+    }
+  }
+}
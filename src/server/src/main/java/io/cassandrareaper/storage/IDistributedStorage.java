@@ -39,8 +39,10 @@ import io.cassandrareaper.core.RepairSegment;
 import io.cassandrareaper.service.RingRange;
 import io.cassandrareaper.storage.metrics.IDistributedMetrics;
 import io.cassandrareaper.storage.operations.IOperationsDao;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -54,19 +56,38 @@ public interface IDistributedStorage extends IDistributedMetrics {
 
   boolean takeLead(UUID leaderId, int ttl);
 
+  /**
+   * Takes the lead on a repair run, or on one of its segments, so that it is returned by {@link #getLeadersForRun}.
+   */
+  boolean takeLead(UUID leaderId, UUID runId);
+
+  /**
+   * Leads are renewed in the background once taken, so this is expected to be cheap for leads held by this instance.
+   */
   boolean renewLead(UUID leaderId);
 
   boolean renewLead(UUID leaderId, int ttl);
 
-  List<UUID> getLeaders();
+  boolean renewLead(UUID leaderId, UUID runId);
 
   void releaseLead(UUID leaderId);
 
+  void releaseLead(UUID leaderId, UUID runId);
+
+  /**
+   * Returns the leads currently held on a repair run and on its segments, without scanning all the leads.
+   */
+  Set<UUID> getLeadersForRun(UUID runId);
+
   boolean lockRunningRepairsForNodes(
       UUID repairId,
       UUID segmentId,
       Set<String> replicas);
 
+  /**
+   * Node locks are renewed in the background once taken, so this is expected to be cheap for locks held by this
+   * instance.
+   */
   boolean renewRunningRepairsForNodes(
       UUID repairId,
       UUID segmentId,
@@ -79,8 +100,6 @@ public interface IDistributedStorage extends IDistributedMetrics {
 
   Set<UUID> getLockedSegmentsForRun(UUID runId);
 
-  int countRunningReapers();
-
   List<UUID> getRunningReapers();
 
   void saveHeartbeat();
@@ -95,6 +114,18 @@ public interface IDistributedStorage extends IDistributedMetrics {
   List<RepairSegment> getNextFreeSegmentsForRanges(
       UUID runId, List<RingRange> ranges);
 
+  /**
+   * Gets a bounded page of free segments from the backend that are within the local node ranges.
+   *
+   * @param runId  id of the repair run
+   * @param ranges list of ranges we're looking a segment for
+   * @param cursor the cursor returned with the previous page, or nothing to start from the first segment
+   * @param limit  the maximum amount of NOT_STARTED segments to scan for this page
+   * @return the free segments found in the page, along with the cursor of the next page
+   */
+  RepairSegmentPage getNextFreeSegmentsForRanges(
+      UUID runId, List<RingRange> ranges, Optional<UUID> cursor, int limit);
+
   /**
    * Purges old metrics from the database (no-op for databases w/ TTL)
    */
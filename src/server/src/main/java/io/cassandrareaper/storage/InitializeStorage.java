@@ -20,6 +20,8 @@ import io.cassandrareaper.ReaperApplicationConfiguration;
 import io.cassandrareaper.ReaperException;
 import io.cassandrareaper.storage.cassandra.CassandraStorageFacade;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.UUID;
 
 import com.google.common.base.Preconditions;
@@ -58,7 +60,7 @@ public final class InitializeStorage {
     LOG.info("Initializing the database and performing schema migrations");
 
     if ("memory".equalsIgnoreCase(config.getStorageType())) {
-      storage = new MemoryStorageFacade();
+      storage = initializeMemoryStorage(config.getMemoryStorage());
     } else if (Lists.newArrayList("cassandra", "astra").contains(config.getStorageType())) {
       CassandraStorageFacade.CassandraMode mode = config.getStorageType().equals("cassandra")
           ? CassandraStorageFacade.CassandraMode.CASSANDRA
@@ -71,4 +73,22 @@ public final class InitializeStorage {
     Preconditions.checkState(storage.isStorageConnected(), "Failed to connect storage");
     return storage;
   }
+
+  private static IStorageDao initializeMemoryStorage(ReaperApplicationConfiguration.MemoryStorage config)
+      throws ReaperException {
+
+    if (!config.getPersistenceDirectory().isPresent()) {
+      return new MemoryStorageFacade();
+    }
+    LOG.info("Persisting the memory storage to {}", config.getPersistenceDirectory().get());
+    try {
+      return MemoryStorageFacade.persistent(
+          Paths.get(config.getPersistenceDirectory().get()),
+          config.getSyncIntervalMillis(),
+          config.getRecordsPerSnapshot());
+    } catch (IOException e) {
+      throw new ReaperException(
+          "Failed restoring the memory storage from " + config.getPersistenceDirectory().get(), e);
+    }
+  }
 }
\ No newline at end of file
@@ -18,11 +18,19 @@
 package io.cassandrareaper.storage;
 
 import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.DiagEventSubscription;
 import io.cassandrareaper.core.PercentRepairedMetric;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSchedule;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.storage.cluster.IClusterDao;
 import io.cassandrareaper.storage.cluster.MemoryClusterDao;
 import io.cassandrareaper.storage.events.IEventsDao;
 import io.cassandrareaper.storage.events.MemoryEventsDao;
+import io.cassandrareaper.storage.journal.FileJournal;
+import io.cassandrareaper.storage.journal.IJournaledState;
+import io.cassandrareaper.storage.journal.RecordType;
 import io.cassandrareaper.storage.metrics.MemoryMetricsDao;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 import io.cassandrareaper.storage.repairrun.MemoryRepairRunDao;
@@ -35,32 +43,66 @@ import io.cassandrareaper.storage.repairunit.MemoryRepairUnitDao;
 import io.cassandrareaper.storage.snapshot.ISnapshotDao;
 import io.cassandrareaper.storage.snapshot.MemorySnapshotDao;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
- * Implements the StorageAPI using transient Java classes.
+ * Implements the StorageAPI using transient Java classes, optionally persisted to a local journal.
  */
 public final class MemoryStorageFacade implements IStorageDao {
 
   private static final Logger LOG = LoggerFactory.getLogger(MemoryStorageFacade.class);
-  private final MemoryRepairSegmentDao memRepairSegment = new MemoryRepairSegmentDao(this);
-  private final MemoryRepairUnitDao memoryRepairUnitDao = new MemoryRepairUnitDao();
-  private final MemoryRepairRunDao memoryRepairRunDao = new MemoryRepairRunDao(memRepairSegment, memoryRepairUnitDao);
-  private final MemoryRepairScheduleDao memRepairScheduleDao = new MemoryRepairScheduleDao(memoryRepairUnitDao);
-  private final MemoryEventsDao memEventsDao = new MemoryEventsDao();
+  private final MemoryRepairSegmentDao memRepairSegment = new MemoryRepairSegmentDao(this, this::recordChange);
+  private final MemoryRepairUnitDao memoryRepairUnitDao = new MemoryRepairUnitDao(this::recordChange);
+  private final MemoryRepairRunDao memoryRepairRunDao
+      = new MemoryRepairRunDao(memRepairSegment, memoryRepairUnitDao, this::recordChange);
+  private final MemoryRepairScheduleDao memRepairScheduleDao
+      = new MemoryRepairScheduleDao(memoryRepairUnitDao, this::recordChange);
+  private final MemoryEventsDao memEventsDao = new MemoryEventsDao(this::recordChange);
   private final MemoryClusterDao memClusterDao = new MemoryClusterDao(
       memoryRepairUnitDao,
       memoryRepairRunDao,
       memRepairScheduleDao,
-      memEventsDao
+      memEventsDao,
+      this::recordChange
   );
   private final MemorySnapshotDao memSnapshotDao = new MemorySnapshotDao();
   private final MemoryMetricsDao memMetricsDao = new MemoryMetricsDao();
+  // null when the storage is transient
+  private FileJournal journal;
+
+  /**
+   * Creates a memory storage restored from, and persisted to, a journal in the given directory.
+   * Metrics and snapshots aren't persisted, they're collected again after a restart.
+   *
+   * @param directory          the directory holding the journal and its snapshots
+   * @param syncIntervalMillis how often the changes are written and synced to disk
+   * @param recordsPerSnapshot how many records are journaled before they're compacted into a snapshot
+   */
+  public static MemoryStorageFacade persistent(Path directory, long syncIntervalMillis, long recordsPerSnapshot)
+      throws IOException {
+
+    MemoryStorageFacade storage = new MemoryStorageFacade();
+    storage.journal = FileJournal.open(directory, storage.new JournaledState(), syncIntervalMillis, recordsPerSnapshot);
+    return storage;
+  }
+
+  private void recordChange(RecordType type, Object key) {
+    if (null != journal) {
+      journal.recordChange(type, key);
+    }
+  }
 
   @Override
   public boolean isStorageConnected() {
@@ -88,8 +130,10 @@ public final class MemoryStorageFacade implements IStorageDao {
   }
 
   @Override
-  public void stop() {
-    // no-op
+  public void stop() throws IOException {
+    if (null != journal) {
+      journal.close();
+    }
   }
 
   @Override
@@ -127,4 +171,80 @@ public final class MemoryStorageFacade implements IStorageDao {
     return this.memClusterDao;
   }
 
-}
\ No newline at end of file
+  private final class JournaledState implements IJournaledState {
+
+    @Override
+    public Optional<?> get(RecordType type, String key) {
+      switch (type) {
+        case CLUSTER:
+          return Optional.ofNullable(memClusterDao.clusters.get(key));
+        case REPAIR_UNIT:
+          return Optional.ofNullable(memoryRepairUnitDao.repairUnits.get(UUID.fromString(key)));
+        case REPAIR_RUN:
+          return memoryRepairRunDao.getRepairRun(UUID.fromString(key));
+        case REPAIR_SEGMENT:
+          return memRepairSegment.getRepairSegment(UUID.fromString(key));
+        case REPAIR_SCHEDULE:
+          return memRepairScheduleDao.getRepairSchedule(UUID.fromString(key));
+        case EVENT_SUBSCRIPTION:
+          return memEventsDao.getEventSubscriptions().stream()
+              .filter(subscription -> subscription.getId().get().toString().equals(key))
+              .findFirst();
+        default:
+          throw new IllegalArgumentException("unknown record type " + type);
+      }
+    }
+
+    @Override
+    public Collection<?> getAll(RecordType type) {
+      switch (type) {
+        case CLUSTER:
+          return memClusterDao.getClusters();
+        case REPAIR_UNIT:
+          return memoryRepairUnitDao.repairUnits.values();
+        case REPAIR_RUN:
+          return memoryRepairRunDao.repairRuns.values();
+        case REPAIR_SEGMENT:
+          return memRepairSegment.repairSegmentsByRunId.values().stream()
+              .flatMap(segments -> segments.values().stream())
+              .collect(Collectors.toList());
+        case REPAIR_SCHEDULE:
+          return memRepairScheduleDao.getAllRepairSchedules();
+        case EVENT_SUBSCRIPTION:
+          return memEventsDao.getEventSubscriptions();
+        default:
+          throw new IllegalArgumentException("unknown record type " + type);
+      }
+    }
+
+    @Override
+    public void restore(RecordType type, Collection<?> entities) {
+      switch (type) {
+        case CLUSTER:
+          entities.forEach(cluster -> memClusterDao.clusters.put(((Cluster) cluster).getName(), (Cluster) cluster));
+          break;
+        case REPAIR_UNIT:
+          entities.forEach(unit -> memoryRepairUnitDao.updateRepairUnit((RepairUnit) unit));
+          break;
+        case REPAIR_RUN:
+          entities.forEach(run -> memoryRepairRunDao.repairRuns.put(((RepairRun) run).getId(), (RepairRun) run));
+          break;
+        case REPAIR_SEGMENT:
+          Map<UUID, List<RepairSegment>> segmentsByRunId = entities.stream()
+              .map(RepairSegment.class::cast)
+              .collect(Collectors.groupingBy(RepairSegment::getRunId, LinkedHashMap::new, Collectors.toList()));
+          segmentsByRunId.forEach(memRepairSegment::restoreRepairSegments);
+          break;
+        case REPAIR_SCHEDULE:
+          entities.forEach(schedule -> memRepairScheduleDao.repairSchedules.put(
+              ((RepairSchedule) schedule).getId(), (RepairSchedule) schedule));
+          break;
+        case EVENT_SUBSCRIPTION:
+          entities.forEach(subscription -> memEventsDao.addEventSubscription((DiagEventSubscription) subscription));
+          break;
+        default:
+          throw new IllegalArgumentException("unknown record type " + type);
+      }
+    }
+  }
+}
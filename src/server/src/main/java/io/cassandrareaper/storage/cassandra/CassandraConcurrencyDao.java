@@ -22,6 +22,7 @@ import io.cassandrareaper.AppContext;
 import io.cassandrareaper.core.RepairSegment;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -30,26 +31,33 @@ import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
-import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.VersionNumber;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import org.joda.time.DateTimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class CassandraConcurrencyDao {
   private static final int LEAD_DURATION = 90;
   /* Simple stmts */
-  private static final String SELECT_LEADERS = "SELECT * FROM leader";
   private static final String SELECT_RUNNING_REAPERS = "SELECT reaper_instance_id FROM running_reapers";
   private static final Logger LOG = LoggerFactory.getLogger(CassandraConcurrencyDao.class);
   private final VersionNumber version;
   private final UUID reaperInstanceId;
   private final Session session;
+  private final CassandraLeaseManager leaseManager;
   private PreparedStatement takeLeadPrepStmt;
   private PreparedStatement renewLeadPrepStmt;
   private PreparedStatement releaseLeadPrepStmt;
+  private PreparedStatement getLeadPrepStmt;
+  private PreparedStatement indexLeadByRunPrepStmt;
+  private PreparedStatement unindexLeadByRunPrepStmt;
+  private PreparedStatement getLeadersForRunPrepStmt;
   private PreparedStatement getRunningReapersCountPrepStmt;
   private PreparedStatement setRunningRepairsPrepStmt;
   private PreparedStatement getRunningRepairsPrepStmt;
@@ -59,6 +67,18 @@ public class CassandraConcurrencyDao {
     this.reaperInstanceId = reaperInstanceId;
     this.session = session;
     prepareStatements();
+    this.leaseManager = new CassandraLeaseManager(this, LEAD_DURATION);
+  }
+
+  /**
+   * Starts renewing in the background all the leases taken through this instance.
+   */
+  public void startLeaseRenewal() {
+    leaseManager.start();
+  }
+
+  public void stopLeaseRenewal() {
+    leaseManager.stop();
   }
 
   private void prepareStatements() {
@@ -74,6 +94,15 @@ public class CassandraConcurrencyDao {
         .setConsistencyLevel(ConsistencyLevel.QUORUM);
     releaseLeadPrepStmt = session.prepare("DELETE FROM leader WHERE leader_id = ? IF reaper_instance_id = ?")
         .setConsistencyLevel(ConsistencyLevel.QUORUM);
+    getLeadPrepStmt = session.prepare("SELECT leader_id FROM leader WHERE leader_id = ?")
+        .setConsistencyLevel(ConsistencyLevel.QUORUM);
+    indexLeadByRunPrepStmt = session
+        .prepare("INSERT INTO leader_by_run (run_id, leader_id) VALUES(?, ?) USING TTL ?")
+        .setConsistencyLevel(ConsistencyLevel.QUORUM);
+    unindexLeadByRunPrepStmt = session.prepare("DELETE FROM leader_by_run WHERE run_id = ? AND leader_id = ?")
+        .setConsistencyLevel(ConsistencyLevel.QUORUM);
+    getLeadersForRunPrepStmt = session.prepare("SELECT leader_id FROM leader_by_run WHERE run_id = ?")
+        .setConsistencyLevel(ConsistencyLevel.QUORUM);
 
     getRunningRepairsPrepStmt = session
         .prepare(
@@ -102,11 +131,15 @@ public class CassandraConcurrencyDao {
 
   public boolean takeLead(UUID leaderId, int ttl) {
     LOG.debug("Trying to take lead on segment {}", leaderId);
+    final long start = DateTimeUtils.currentTimeMillis();
     ResultSet lwtResult = session.execute(
         takeLeadPrepStmt.bind(leaderId, reaperInstanceId, AppContext.REAPER_INSTANCE_ADDRESS, ttl));
 
     if (lwtResult.wasApplied()) {
       LOG.debug("Took lead on segment {}", leaderId);
+      if (LEAD_DURATION == ttl) {
+        leaseManager.leadAcquired(leaderId, start);
+      }
       return true;
     }
 
@@ -116,12 +149,32 @@ public class CassandraConcurrencyDao {
   }
 
 
+  /**
+   * Takes the lead on a repair run, or on one of its segments, and indexes the lease by run.
+   * The index entry is only written once the lease is held, as it may also be the entry of the instance holding it.
+   * The lead on the run itself is read from the leader table as well, so it is found before it is indexed.
+   */
+  public boolean takeLead(UUID leaderId, UUID runId) {
+    if (takeLead(leaderId)) {
+      session.execute(indexLead(leaderId, runId));
+      leaseManager.leadIndexed(leaderId, runId);
+      return true;
+    }
+    return false;
+  }
+
+
+  /**
+   * Leads taken with the default duration are renewed in the background, so this only goes to the database
+   * when the lead isn't known to be held by this instance.
+   */
   public boolean renewLead(UUID leaderId) {
-    return renewLead(leaderId, LEAD_DURATION);
+    return leaseManager.holdsLead(leaderId) || renewLead(leaderId, LEAD_DURATION);
   }
 
 
   public boolean renewLead(UUID leaderId, int ttl) {
+    final long start = DateTimeUtils.currentTimeMillis();
     ResultSet lwtResult = session.execute(
         renewLeadPrepStmt.bind(
             ttl,
@@ -132,6 +185,9 @@ public class CassandraConcurrencyDao {
 
     if (lwtResult.wasApplied()) {
       LOG.debug("Renewed lead on segment {}", leaderId);
+      if (LEAD_DURATION == ttl) {
+        leaseManager.leadAcquired(leaderId, start);
+      }
       return true;
     }
     assert false : "Could not renew lead on segment " + leaderId;
@@ -140,17 +196,42 @@ public class CassandraConcurrencyDao {
   }
 
 
-  public List<UUID> getLeaders() {
-    return session.execute(new SimpleStatement(SELECT_LEADERS))
+  public boolean renewLead(UUID leaderId, UUID runId) {
+    if (leaseManager.holdsLead(leaderId)) {
+      return true;
+    }
+    if (renewLead(leaderId, LEAD_DURATION)) {
+      session.execute(indexLead(leaderId, runId));
+      leaseManager.leadIndexed(leaderId, runId);
+      return true;
+    }
+    return false;
+  }
+
+
+  /**
+   * Returns the leads held on a repair run and on its segments.
+   * The lead on the run itself is also read from the leader table, as instances that don't index their leases may
+   * still hold it during a rolling upgrade.
+   */
+  public Set<UUID> getLeadersForRun(UUID runId) {
+    ResultSetFuture indexedLeaders = session.executeAsync(getLeadersForRunPrepStmt.bind(runId));
+    ResultSetFuture runLeader = session.executeAsync(getLeadPrepStmt.bind(runId));
+    Set<UUID> leaders = indexedLeaders.getUninterruptibly()
         .all()
         .stream()
-        .map(leader -> leader.getUUID("leader_id"))
-        .collect(Collectors.toList());
+        .map(row -> row.getUUID("leader_id"))
+        .collect(Collectors.toCollection(Sets::newHashSet));
+    if (!runLeader.getUninterruptibly().isExhausted()) {
+      leaders.add(runId);
+    }
+    return leaders;
   }
 
 
   public void releaseLead(UUID leaderId) {
     Preconditions.checkNotNull(leaderId);
+    leaseManager.leadReleased(leaderId);
     ResultSet lwtResult = session.execute(releaseLeadPrepStmt.bind(leaderId, reaperInstanceId));
     LOG.info("Trying to release lead on segment {} for instance {}", leaderId, reaperInstanceId);
     if (lwtResult.wasApplied()) {
@@ -161,11 +242,23 @@ public class CassandraConcurrencyDao {
     }
   }
 
+
+  public void releaseLead(UUID leaderId, UUID runId) {
+    // the index entry goes first, another instance may index the lease as soon as it is released
+    session.execute(unindexLeadByRunPrepStmt.bind(runId, leaderId));
+    releaseLead(leaderId);
+  }
+
+
   public boolean hasLeadOnSegment(RepairSegment segment) {
     return renewRunningRepairsForNodes(segment.getRunId(), segment.getId(), segment.getReplicas().keySet());
   }
 
   public boolean hasLeadOnSegment(UUID leaderId) {
+    if (leaseManager.holdsLead(leaderId)) {
+      return true;
+    }
+    final long start = DateTimeUtils.currentTimeMillis();
     ResultSet lwtResult = session.execute(
         renewLeadPrepStmt.bind(
             LEAD_DURATION,
@@ -174,14 +267,28 @@ public class CassandraConcurrencyDao {
             leaderId,
             reaperInstanceId));
 
+    if (lwtResult.wasApplied()) {
+      leaseManager.leadAcquired(leaderId, start);
+    }
     return lwtResult.wasApplied();
   }
 
+  ResultSetFuture indexLeadAsync(UUID leaderId, UUID runId) {
+    return session.executeAsync(indexLead(leaderId, runId));
+  }
 
-  public int countRunningReapers() {
-    int runningReapers = getRunningReapers().size();
-    LOG.debug("Running reapers = {}", runningReapers);
-    return runningReapers > 0 ? runningReapers : 1;
+  private Statement indexLead(UUID leaderId, UUID runId) {
+    return indexLeadByRunPrepStmt.bind(runId, leaderId, LEAD_DURATION);
+  }
+
+  ResultSetFuture renewLeadAsync(UUID leaderId) {
+    return session.executeAsync(
+        renewLeadPrepStmt.bind(
+            LEAD_DURATION,
+            reaperInstanceId,
+            AppContext.REAPER_INSTANCE_ADDRESS,
+            leaderId,
+            reaperInstanceId));
   }
 
 
@@ -197,6 +304,7 @@ public class CassandraConcurrencyDao {
       Set<String> replicas) {
 
     // Attempt to lock all the nodes involved in the segment
+    final long start = DateTimeUtils.currentTimeMillis();
     BatchStatement batch = new BatchStatement();
     for (String replica : replicas) {
       batch.add(
@@ -211,7 +319,9 @@ public class CassandraConcurrencyDao {
     }
 
     ResultSet results = session.execute(batch);
-    if (!results.wasApplied()) {
+    if (results.wasApplied()) {
+      leaseManager.runningRepairsLocked(repairId, segmentId, replicas, start);
+    } else {
       logFailedLead(results, repairId, segmentId);
     }
 
@@ -219,12 +329,50 @@ public class CassandraConcurrencyDao {
   }
 
 
+  /**
+   * Node locks are renewed in the background once taken, so this only goes to the database when the locks
+   * aren't known to be held by this instance.
+   */
   public boolean renewRunningRepairsForNodes(
       UUID repairId,
       UUID segmentId,
       Set<String> replicas) {
+
+    if (leaseManager.holdsRunningRepairs(repairId, segmentId, replicas)) {
+      return true;
+    }
+    final long start = DateTimeUtils.currentTimeMillis();
+    if (renewRunningRepairsForSegment(repairId, segmentId, replicas)) {
+      leaseManager.runningRepairsLocked(repairId, segmentId, replicas, start);
+      return true;
+    }
+    return false;
+  }
+
+  boolean renewRunningRepairsForSegment(UUID repairId, UUID segmentId, Set<String> replicas) {
     // Attempt to renew lock on all the nodes involved in the segment
     BatchStatement batch = new BatchStatement();
+    addRunningRepairsRenewals(batch, repairId, segmentId, replicas);
+
+    ResultSet results = session.execute(batch);
+    if (!results.wasApplied()) {
+      logFailedLead(results, repairId, segmentId);
+    }
+
+    return results.wasApplied();
+  }
+
+  /**
+   * Renews the locks of several segments of the same repair run at once.
+   * As running_repairs is partitioned by repair run this is a single partition conditional batch.
+   */
+  ResultSetFuture renewRunningRepairsForRunAsync(UUID repairId, Map<UUID, Set<String>> replicasBySegment) {
+    BatchStatement batch = new BatchStatement();
+    replicasBySegment.forEach((segmentId, replicas) -> addRunningRepairsRenewals(batch, repairId, segmentId, replicas));
+    return session.executeAsync(batch);
+  }
+
+  private void addRunningRepairsRenewals(BatchStatement batch, UUID repairId, UUID segmentId, Set<String> replicas) {
     for (String replica : replicas) {
       batch.add(
           setRunningRepairsPrepStmt.bind(
@@ -236,13 +384,6 @@ public class CassandraConcurrencyDao {
               replica,
               reaperInstanceId));
     }
-
-    ResultSet results = session.execute(batch);
-    if (!results.wasApplied()) {
-      logFailedLead(results, repairId, segmentId);
-    }
-
-    return results.wasApplied();
   }
 
   void logFailedLead(ResultSet results, UUID repairId, UUID segmentId) {
@@ -273,6 +414,7 @@ public class CassandraConcurrencyDao {
       UUID segmentId,
       Set<String> replicas) {
     // Attempt to release all the nodes involved in the segment
+    leaseManager.runningRepairsReleased(repairId, segmentId);
     BatchStatement batch = new BatchStatement();
     for (String replica : replicas) {
       batch.add(
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.cassandra;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.joda.time.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Owns every lease this Reaper instance holds, and renews all of them together on a fixed cadence.
+ *
+ * <p>
+ * Leader leases each live in their own partition of the leader table, so they are renewed concurrently, along with
+ * the index entries of the leases taken on repair runs.
+ * The node locks of running_repairs are partitioned by repair run, so all the locks held on a run are renewed
+ * with a single conditional batch. In between renewals, whether a lease is still held is answered locally.
+ *
+ * <p>
+ * Asking whether a lease is held is also how its owner shows it still needs it. Leases that weren't asked about for a
+ * whole lease duration, because their owner died or hangs without releasing them, are no longer renewed and expire.
+ */
+final class CassandraLeaseManager {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CassandraLeaseManager.class);
+
+  private final CassandraConcurrencyDao concurrency;
+  private final long renewalPeriodMillis;
+  private final long validityMillis;
+  private final long abandonedAfterMillis;
+  // leader id -> lease on the leader
+  private final ConcurrentMap<UUID, Lease> leads = Maps.newConcurrentMap();
+  // leader id -> repair run id, for the leads indexed by run whose index entries are refreshed along with them
+  private final ConcurrentMap<UUID, UUID> leadRuns = Maps.newConcurrentMap();
+  // repair run id -> segment id -> node locks held for the segment
+  private final ConcurrentMap<UUID, ConcurrentMap<UUID, NodeLocks>> runningRepairs = Maps.newConcurrentMap();
+  private volatile ScheduledExecutorService executor;
+
+  CassandraLeaseManager(CassandraConcurrencyDao concurrency, int leaseDurationSeconds) {
+    this.concurrency = concurrency;
+    // renew three times per lease duration, and stop trusting a lease that missed a renewal
+    this.renewalPeriodMillis = TimeUnit.SECONDS.toMillis(leaseDurationSeconds) / 3;
+    this.validityMillis = TimeUnit.SECONDS.toMillis(leaseDurationSeconds) - renewalPeriodMillis;
+    this.abandonedAfterMillis = TimeUnit.SECONDS.toMillis(leaseDurationSeconds);
+  }
+
+  synchronized void start() {
+    if (null == executor) {
+      executor = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("LeaseManager-%d").setDaemon(true).build());
+
+      executor.scheduleWithFixedDelay(
+          () -> {
+            try {
+              renewAll();
+            } catch (RuntimeException e) {
+              LOG.error("Failed renewing leases", e);
+            }
+          },
+          renewalPeriodMillis,
+          renewalPeriodMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  synchronized void stop() {
+    if (null != executor) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  void leadAcquired(UUID leaderId, long confirmedAt) {
+    leads.put(leaderId, new Lease(confirmedAt));
+  }
+
+  void leadIndexed(UUID leaderId, UUID runId) {
+    leadRuns.put(leaderId, runId);
+  }
+
+  void leadReleased(UUID leaderId) {
+    leads.remove(leaderId);
+    leadRuns.remove(leaderId);
+  }
+
+  boolean holdsLead(UUID leaderId) {
+    Lease lease = leads.get(leaderId);
+    if (null == lease) {
+      return false;
+    }
+    lease.touch();
+    return isValid(lease.confirmedAt);
+  }
+
+  void runningRepairsLocked(UUID repairId, UUID segmentId, Set<String> replicas, long confirmedAt) {
+    runningRepairs
+        .computeIfAbsent(repairId, id -> Maps.newConcurrentMap())
+        .put(segmentId, new NodeLocks(replicas, confirmedAt));
+  }
+
+  void runningRepairsReleased(UUID repairId, UUID segmentId) {
+    runningRepairs.computeIfPresent(repairId, (id, segments) -> {
+      segments.remove(segmentId);
+      return segments.isEmpty() ? null : segments;
+    });
+  }
+
+  boolean holdsRunningRepairs(UUID repairId, UUID segmentId, Set<String> replicas) {
+    Map<UUID, NodeLocks> segments = runningRepairs.get(repairId);
+    NodeLocks locks = null != segments ? segments.get(segmentId) : null;
+    if (null == locks || !locks.replicas.containsAll(replicas)) {
+      return false;
+    }
+    locks.touch();
+    return isValid(locks.confirmedAt);
+  }
+
+  private boolean isValid(long confirmedAt) {
+    return DateTimeUtils.currentTimeMillis() - confirmedAt < validityMillis;
+  }
+
+  private boolean isAbandoned(Lease lease, long now) {
+    return now - lease.touchedAt >= abandonedAfterMillis;
+  }
+
+  @VisibleForTesting
+  void renewAll() {
+    final long renewalStart = DateTimeUtils.currentTimeMillis();
+    dropAbandonedLeases(renewalStart);
+    Map<UUID, ResultSetFuture> leadRenewals = Maps.newHashMap();
+    for (UUID leaderId : leads.keySet()) {
+      leadRenewals.put(leaderId, concurrency.renewLeadAsync(leaderId));
+    }
+    Map<UUID, Map<UUID, NodeLocks>> lockedSegmentsByRun = Maps.newHashMap();
+    Map<UUID, ResultSetFuture> lockRenewals = Maps.newHashMap();
+    for (Map.Entry<UUID, ConcurrentMap<UUID, NodeLocks>> run : runningRepairs.entrySet()) {
+      Map<UUID, NodeLocks> segments = Maps.newHashMap(run.getValue());
+      if (!segments.isEmpty()) {
+        lockedSegmentsByRun.put(run.getKey(), segments);
+        lockRenewals.put(
+            run.getKey(),
+            concurrency.renewRunningRepairsForRunAsync(run.getKey(), Maps.transformValues(segments, l -> l.replicas)));
+      }
+    }
+
+    Map<UUID, ResultSetFuture> indexRenewals = Maps.newHashMap();
+    leadRenewals.forEach((leaderId, renewal) -> {
+      try {
+        if (renewal.getUninterruptibly().wasApplied()) {
+          Lease lease = leads.get(leaderId);
+          if (null != lease) {
+            lease.confirmed(renewalStart);
+          }
+          UUID runId = leadRuns.get(leaderId);
+          if (null != runId) {
+            indexRenewals.put(leaderId, concurrency.indexLeadAsync(leaderId, runId));
+          }
+        } else {
+          LOG.warn("Lost lead on {}", leaderId);
+          leads.remove(leaderId);
+          leadRuns.remove(leaderId);
+        }
+      } catch (RuntimeException e) {
+        LOG.warn("Failed renewing lead on {}, will retry", leaderId, e);
+      }
+    });
+
+    indexRenewals.forEach((leaderId, renewal) -> {
+      try {
+        renewal.getUninterruptibly();
+      } catch (RuntimeException e) {
+        LOG.warn("Failed refreshing the index entry of lead {}, will retry", leaderId, e);
+      }
+    });
+
+    lockRenewals.forEach((repairId, renewal) -> {
+      try {
+        if (renewal.getUninterruptibly().wasApplied()) {
+          lockedSegmentsByRun.get(repairId).forEach((segmentId, locks) -> locks.confirmed(renewalStart));
+        } else {
+          // the batch is all or nothing, find out which of the segments lost their locks
+          lockedSegmentsByRun.get(repairId).forEach((segmentId, locks) -> {
+            if (concurrency.renewRunningRepairsForSegment(repairId, segmentId, locks.replicas)) {
+              locks.confirmed(renewalStart);
+            } else {
+              LOG.warn("Lost locks of segment {} of repair run {}", segmentId, repairId);
+              runningRepairs.computeIfPresent(repairId, (id, segments) -> {
+                segments.remove(segmentId, locks);
+                return segments.isEmpty() ? null : segments;
+              });
+            }
+          });
+        }
+      } catch (RuntimeException e) {
+        LOG.warn("Failed renewing node locks of repair run {}, will retry", repairId, e);
+      }
+    });
+    LOG.debug(
+        "Renewed {} leads and node locks of {} repair runs in {} ms",
+        leadRenewals.size(),
+        lockRenewals.size(),
+        DateTimeUtils.currentTimeMillis() - renewalStart);
+  }
+
+  private void dropAbandonedLeases(long now) {
+    leads.forEach((leaderId, lease) -> {
+      if (isAbandoned(lease, now) && leads.remove(leaderId, lease)) {
+        LOG.warn("Letting the lead on {} expire, its owner stopped renewing it", leaderId);
+        leadRuns.remove(leaderId);
+      }
+    });
+    runningRepairs.forEach((repairId, segments) -> segments.forEach((segmentId, locks) -> {
+      if (isAbandoned(locks, now)) {
+        LOG.warn("Letting the locks of segment {} of repair run {} expire, their owner stopped renewing them",
+            segmentId, repairId);
+        runningRepairs.computeIfPresent(repairId, (id, lockedSegments) -> {
+          lockedSegments.remove(segmentId, locks);
+          return lockedSegments.isEmpty() ? null : lockedSegments;
+        });
+      }
+    }));
+  }
+
+  private static class Lease {
+    // time at which the lease was last confirmed in the database
+    volatile long confirmedAt;
+    // time at which the owner of the lease last asked whether it was held
+    volatile long touchedAt;
+
+    Lease(long confirmedAt) {
+      this.confirmedAt = confirmedAt;
+      this.touchedAt = Math.max(confirmedAt, DateTimeUtils.currentTimeMillis());
+    }
+
+    void confirmed(long at) {
+      confirmedAt = Math.max(confirmedAt, at);
+    }
+
+    void touch() {
+      touchedAt = DateTimeUtils.currentTimeMillis();
+    }
+  }
+
+  private static final class NodeLocks extends Lease {
+    private final Set<String> replicas;
+
+    NodeLocks(Set<String> replicas, long confirmedAt) {
+      super(confirmedAt);
+      this.replicas = ImmutableSet.copyOf(replicas);
+    }
+  }
+}
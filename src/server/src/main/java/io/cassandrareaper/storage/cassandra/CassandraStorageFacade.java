@@ -41,6 +41,7 @@ import io.cassandrareaper.storage.repairschedule.CassandraRepairScheduleDao;
 import io.cassandrareaper.storage.repairschedule.IRepairScheduleDao;
 import io.cassandrareaper.storage.repairsegment.CassandraRepairSegmentDao;
 import io.cassandrareaper.storage.repairsegment.IRepairSegmentDao;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
 import io.cassandrareaper.storage.repairunit.CassandraRepairUnitDao;
 import io.cassandrareaper.storage.repairunit.IRepairUnitDao;
 import io.cassandrareaper.storage.snapshot.CassandraSnapshotDao;
@@ -238,6 +239,16 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
     return cassRepairSegmentDao.getNextFreeSegmentsForRanges(runId, ranges);
   }
 
+  @Override
+  public RepairSegmentPage getNextFreeSegmentsForRanges(
+      UUID runId,
+      List<RingRange> ranges,
+      Optional<UUID> cursor,
+      int limit) {
+
+    return cassRepairSegmentDao.getNextFreeSegmentsForRanges(runId, ranges, cursor, limit);
+  }
+
   @Override
   public boolean takeLead(UUID leaderId) {
     return concurrency.takeLead(leaderId);
@@ -250,6 +261,11 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
     return concurrency.takeLead(leaderId, ttl);
   }
 
+  @Override
+  public boolean takeLead(UUID leaderId, UUID runId) {
+    return concurrency.takeLead(leaderId, runId);
+  }
+
   @Override
   public boolean renewLead(UUID leaderId) {
     return concurrency.renewLead(leaderId);
@@ -262,8 +278,8 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
   }
 
   @Override
-  public List<UUID> getLeaders() {
-    return concurrency.getLeaders();
+  public boolean renewLead(UUID leaderId, UUID runId) {
+    return concurrency.renewLead(leaderId, runId);
   }
 
   @Override
@@ -271,6 +287,16 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
     concurrency.releaseLead(leaderId);
   }
 
+  @Override
+  public void releaseLead(UUID leaderId, UUID runId) {
+    concurrency.releaseLead(leaderId, runId);
+  }
+
+  @Override
+  public Set<UUID> getLeadersForRun(UUID runId) {
+    return concurrency.getLeadersForRun(runId);
+  }
+
   boolean hasLeadOnSegment(RepairSegment segment) {
     return concurrency.hasLeadOnSegment(segment);
   }
@@ -280,11 +306,6 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
     return concurrency.hasLeadOnSegment(leaderId);
   }
 
-  @Override
-  public int countRunningReapers() {
-    return concurrency.countRunningReapers();
-  }
-
   @Override
   public List<UUID> getRunningReapers() {
     return concurrency.getRunningReapers();
@@ -386,13 +407,14 @@ public final class CassandraStorageFacade implements IStorageDao, IDistributedSt
 
   @Override
   public void start() {
-    // no-op
+    concurrency.startLeaseRenewal();
   }
 
   @Override
   public void stop() {
     // Statements executed when the server shuts down.
     LOG.info("Reaper is stopping, removing this instance from running reapers...");
+    concurrency.stopLeaseRenewal();
     session.execute(deleteHeartbeatPrepStmt.bind(reaperInstanceId));
   }
 
@@ -24,6 +24,8 @@ import io.cassandrareaper.storage.cassandra.migrations.Migration016;
 import io.cassandrareaper.storage.cassandra.migrations.Migration021;
 import io.cassandrareaper.storage.cassandra.migrations.Migration024;
 import io.cassandrareaper.storage.cassandra.migrations.Migration025;
+import io.cassandrareaper.storage.cassandra.migrations.Migration033;
+import io.cassandrareaper.storage.cassandra.migrations.Migration034;
 
 import java.util.Collections;
 import java.util.List;
@@ -108,6 +110,12 @@ final class MigrationManager {
         if (database.getVersion() == 25) {
           Migration025.migrate(session, config.getCassandraFactory().getKeyspace());
         }
+        if (currentVersion < 33) {
+          Migration033.migrate(session);
+        }
+        if (currentVersion < 34) {
+          Migration034.migrate(session);
+        }
       } else {
         LOG.info(
             String.format("Keyspace %s already at schema version %d", session.getLoggedKeyspace(), currentVersion));
@@ -135,6 +143,12 @@ final class MigrationManager {
 
         int startVersion = database.getVersion();
         migrate(startVersion, migrationRepo, session, CassandraStorageFacade.CassandraMode.ASTRA);
+        if (startVersion < 9) {
+          Migration033.migrate(session);
+        }
+        if (startVersion < 10) {
+          Migration034.migrate(session);
+        }
       } else {
         LOG.info(
             String.format("Keyspace %s already at schema version %d", session.getLoggedKeyspace(), currentVersion));
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.cassandra.migrations;
+
+import io.cassandrareaper.core.RepairRun;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class Migration033 {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Migration033.class);
+  private static final int MAX_BATCH_SIZE = 100;
+
+  private Migration033() {
+  }
+
+  /**
+   * Fill the repair_segment_by_run_and_state index for the repair runs that haven't completed yet
+   */
+  public static void migrate(Session session) {
+
+    try {
+      PreparedStatement getSegments = session.prepare(
+          "SELECT segment_id, segment_state FROM repair_run WHERE id = ?");
+      PreparedStatement insertIndex = session.prepare(
+          "INSERT INTO repair_segment_by_run_and_state (run_id, segment_state, segment_id) VALUES(?, ?, ?)");
+
+      LOG.info("Indexing segments of active repair runs by state...");
+      for (Row run : session.execute("SELECT id, repair_run_state FROM repair_run_by_cluster_v2")) {
+        String runState = run.getString("repair_run_state");
+        if (null != runState && !RepairRun.RunState.valueOf(runState).isTerminated()) {
+          BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+          for (Row segment : session.execute(getSegments.bind(run.getUUID("id")))) {
+            if (null != segment.getUUID("segment_id")) {
+              batch.add(insertIndex.bind(
+                  run.getUUID("id"), segment.getInt("segment_state"), segment.getUUID("segment_id")));
+            }
+            if (MAX_BATCH_SIZE <= batch.size()) {
+              session.execute(batch);
+              batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+            }
+          }
+          if (0 < batch.size()) {
+            session.execute(batch);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Failed indexing repair segments by state", e);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.cassandra.migrations;
+
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSegment;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class Migration034 {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Migration034.class);
+
+  private Migration034() {
+  }
+
+  /**
+   * Initialise the repair_run_segment_count_by_state counters of the repair runs that haven't completed yet
+   */
+  public static void migrate(Session session) {
+
+    try {
+      PreparedStatement getSegmentStates = session.prepare("SELECT segment_state FROM repair_run WHERE id = ?");
+      PreparedStatement getCounts = session.prepare(
+          "SELECT segment_state FROM repair_run_segment_count_by_state WHERE run_id = ? LIMIT 1");
+      PreparedStatement updateCount = session.prepare(
+          "UPDATE repair_run_segment_count_by_state SET segment_count = segment_count + ?"
+              + " WHERE run_id = ? AND segment_state = ?");
+
+      LOG.info("Counting segments of active repair runs by state...");
+      for (Row run : session.execute("SELECT id, repair_run_state FROM repair_run_by_cluster_v2")) {
+        String runState = run.getString("repair_run_state");
+        if (null != runState && !RepairRun.RunState.valueOf(runState).isTerminated()
+            // counters aren't idempotent, never add to the ones of a run that already has some
+            && null == session.execute(getCounts.bind(run.getUUID("id"))).one()) {
+
+          long[] counts = new long[RepairSegment.State.values().length];
+          for (Row segment : session.execute(getSegmentStates.bind(run.getUUID("id")))) {
+            if (!segment.isNull("segment_state")) {
+              ++counts[segment.getInt("segment_state")];
+            }
+          }
+          BatchStatement batch = new BatchStatement(BatchStatement.Type.COUNTER);
+          for (int state = 0; state < counts.length; ++state) {
+            batch.add(updateCount.bind(counts[state], run.getUUID("id"), state));
+          }
+          session.execute(batch);
+        }
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Failed counting repair segments by state", e);
+    }
+  }
+}
@@ -19,6 +19,8 @@ package io.cassandrareaper.storage.cluster;
 
 import io.cassandrareaper.core.Cluster;
 import io.cassandrareaper.storage.events.MemoryEventsDao;
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
 import io.cassandrareaper.storage.repairrun.MemoryRepairRunDao;
 import io.cassandrareaper.storage.repairschedule.MemoryRepairScheduleDao;
 import io.cassandrareaper.storage.repairunit.MemoryRepairUnitDao;
@@ -40,15 +42,18 @@ public class MemoryClusterDao implements IClusterDao {
   private final MemoryRepairScheduleDao memRepairScheduleDao;
 
   private final MemoryEventsDao memEventsDao;
+  private final IJournal journal;
 
   public MemoryClusterDao(MemoryRepairUnitDao memoryRepairUnitDao,
                           MemoryRepairRunDao memoryRepairRunDao,
                           MemoryRepairScheduleDao memRepairScheduleDao,
-                          MemoryEventsDao memEventsDao) {
+                          MemoryEventsDao memEventsDao,
+                          IJournal journal) {
     this.memoryRepairUnitDao = memoryRepairUnitDao;
     this.memoryRepairRunDao = memoryRepairRunDao;
     this.memRepairScheduleDao = memRepairScheduleDao;
     this.memEventsDao = memEventsDao;
+    this.journal = journal;
   }
 
   @Override
@@ -60,6 +65,7 @@ public class MemoryClusterDao implements IClusterDao {
   public boolean addCluster(Cluster cluster) {
     assert addClusterAssertions(cluster);
     Cluster existing = clusters.put(cluster.getName(), cluster);
+    journal.recordChange(RecordType.CLUSTER, cluster.getName());
     return existing == null;
   }
 
@@ -122,8 +128,11 @@ public class MemoryClusterDao implements IClusterDao {
             );
             memoryRepairUnitDao.repairUnits.remove(unit.getId());
             memoryRepairUnitDao.repairUnitsByKey.remove(unit.with());
+            journal.recordChange(RecordType.REPAIR_UNIT, unit.getId());
           });
 
-    return clusters.remove(clusterName);
+    Cluster deletedCluster = clusters.remove(clusterName);
+    journal.recordChange(RecordType.CLUSTER, clusterName);
+    return deletedCluster;
   }
 }
\ No newline at end of file
@@ -19,6 +19,9 @@ package io.cassandrareaper.storage.events;
 
 import io.cassandrareaper.core.DiagEventSubscription;
 
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.UUID;
@@ -30,8 +33,10 @@ import com.google.common.collect.Maps;
 public class MemoryEventsDao implements IEventsDao {
   private final ConcurrentMap<UUID, DiagEventSubscription> subscriptionsById = Maps.newConcurrentMap();
 
-  public MemoryEventsDao() {
+  private final IJournal journal;
 
+  public MemoryEventsDao(IJournal journal) {
+    this.journal = journal;
   }
 
   @Override
@@ -63,11 +68,14 @@ public class MemoryEventsDao implements IEventsDao {
   public DiagEventSubscription addEventSubscription(DiagEventSubscription subscription) {
     Preconditions.checkArgument(subscription.getId().isPresent());
     subscriptionsById.put(subscription.getId().get(), subscription);
+    journal.recordChange(RecordType.EVENT_SUBSCRIPTION, subscription.getId().get());
     return subscription;
   }
 
   @Override
   public boolean deleteEventSubscription(UUID id) {
-    return subscriptionsById.remove(id) != null;
+    boolean deleted = subscriptionsById.remove(id) != null;
+    journal.recordChange(RecordType.EVENT_SUBSCRIPTION, id);
+    return deleted;
   }
 }
\ No newline at end of file
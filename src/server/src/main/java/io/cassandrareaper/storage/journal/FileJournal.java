@@ -0,0 +1,332 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.journal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal persisting the memory storage to a local directory.
+ *
+ * <p>
+ * Changes are only flagged by the storage, a single writer thread appends the current value of each changed entity
+ * every sync interval and then fsyncs the journal once for the whole batch. Entities changed several times within an
+ * interval are written once, and the writer always reads the latest value, so concurrent updates can't be journaled
+ * out of order. A crash loses at most the changes made within the last sync interval.
+ *
+ * <p>
+ * The journal is split in generations. Every so many records a snapshot of the whole storage is written as the start
+ * of a new generation, and the files of the older generations are deleted. At startup the latest complete snapshot
+ * is loaded and the journals following it are replayed on top of it.
+ */
+public final class FileJournal implements IJournal, Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileJournal.class);
+
+  private static final Pattern FILE_PATTERN = Pattern.compile("(journal|snapshot)-(\\d+)\\.log");
+  private static final String JOURNAL = "journal";
+  private static final String SNAPSHOT = "snapshot";
+
+  private final Path directory;
+  private final IJournaledState state;
+  private final long recordsPerSnapshot;
+  private final ScheduledExecutorService writerExecutor;
+  private final Object pendingLock = new Object();
+  private Set<Pair<RecordType, String>> pending = Sets.newLinkedHashSet();
+  private volatile boolean open = false;
+
+  // only accessed by the writer thread once opened
+  private long generation;
+  private FileChannel journalChannel;
+  private Writer journalWriter;
+  private long recordsSinceSnapshot;
+
+  private FileJournal(Path directory, IJournaledState state, long recordsPerSnapshot) {
+    this.directory = directory;
+    this.state = state;
+    this.recordsPerSnapshot = recordsPerSnapshot;
+    this.writerExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("MemoryStorageJournal-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Restores the state persisted in the directory, compacts it into a fresh snapshot, and starts journaling.
+   *
+   * <p>
+   * The journal has to be created before the state is accessed by anyone else, as changes made before it is opened
+   * aren't recorded.
+   */
+  public static FileJournal open(
+      Path directory,
+      IJournaledState state,
+      long syncIntervalMillis,
+      long recordsPerSnapshot) throws IOException {
+
+    Preconditions.checkArgument(0 < syncIntervalMillis, "the sync interval must be positive");
+    Preconditions.checkArgument(0 < recordsPerSnapshot, "the records per snapshot must be positive");
+    Files.createDirectories(directory);
+    FileJournal journal = new FileJournal(directory, state, recordsPerSnapshot);
+    journal.generation = journal.replay();
+    journal.snapshot();
+    journal.open = true;
+    journal.writerExecutor.scheduleWithFixedDelay(
+        journal::flushQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    return journal;
+  }
+
+  @Override
+  public void recordChange(RecordType type, Object key) {
+    if (open) {
+      synchronized (pendingLock) {
+        pending.add(Pair.of(type, key.toString()));
+      }
+    }
+  }
+
+  /**
+   * Writes the pending changes and compacts the journal into a snapshot, so the next startup has nothing to replay.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!open) {
+      return;
+    }
+    open = false;
+    writerExecutor.shutdown();
+    try {
+      if (!writerExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOG.warn("Timed out waiting for the memory storage journal to be written");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    snapshot();
+    journalWriter.close();
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (IOException | RuntimeException e) {
+      LOG.error("Failed writing the memory storage journal, will retry", e);
+    }
+  }
+
+  private void flush() throws IOException {
+    Set<Pair<RecordType, String>> batch;
+    synchronized (pendingLock) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      batch = pending;
+      pending = Sets.newLinkedHashSet();
+    }
+    try {
+      for (Pair<RecordType, String> change : batch) {
+        Optional<?> entity = state.get(change.getLeft(), change.getRight());
+        writeRecord(journalWriter, change.getLeft(), change.getRight(), entity);
+      }
+      journalWriter.flush();
+      journalChannel.force(false);
+    } catch (IOException | RuntimeException e) {
+      // the latest values are read when writing, so the batch can simply be written again
+      synchronized (pendingLock) {
+        batch.addAll(pending);
+        pending = batch;
+      }
+      throw e;
+    }
+    recordsSinceSnapshot += batch.size();
+    if (recordsSinceSnapshot >= recordsPerSnapshot) {
+      snapshot();
+    }
+  }
+
+  /**
+   * Starts a new generation: opens its journal, writes its snapshot, then deletes the previous generations.
+   *
+   * <p>
+   * The new journal is opened first, so changes made while the snapshot is being written are journaled after it.
+   * Replaying them on top of the snapshot is harmless, as each record holds the full value of its entity.
+   */
+  private void snapshot() throws IOException {
+    long newGeneration = generation + 1;
+    FileChannel newChannel = FileChannel.open(
+        file(JOURNAL, newGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    Writer newWriter = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(newChannel),
+        StandardCharsets.UTF_8));
+    if (null != journalWriter) {
+      journalWriter.close();
+    }
+    journalChannel = newChannel;
+    journalWriter = newWriter;
+    generation = newGeneration;
+    recordsSinceSnapshot = 0;
+
+    Path snapshot = file(SNAPSHOT, newGeneration);
+    Path tmpSnapshot = directory.resolve(snapshot.getFileName() + ".tmp");
+    long records = 0;
+    try (FileChannel channel = FileChannel.open(tmpSnapshot, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+            StandardCharsets.UTF_8))) {
+      for (RecordType type : RecordType.values()) {
+        for (Object entity : state.getAll(type)) {
+          writeRecord(writer, type, type.keyOf(entity), Optional.of(entity));
+          ++records;
+        }
+      }
+      writer.flush();
+      channel.force(false);
+    }
+    Files.move(tmpSnapshot, snapshot, StandardCopyOption.ATOMIC_MOVE);
+    LOG.info("Wrote snapshot {} of the memory storage with {} records", snapshot, records);
+
+    for (Pair<String, Long> file : listFiles()) {
+      if (file.getRight() < newGeneration) {
+        Files.deleteIfExists(file(file.getLeft(), file.getRight()));
+      }
+    }
+  }
+
+  /**
+   * Loads the latest snapshot and replays the journals following it, then restores the resulting state.
+   *
+   * @return the latest generation found on disk
+   */
+  private long replay() throws IOException {
+    List<Pair<String, Long>> files = listFiles();
+    long lastSnapshot = files.stream()
+        .filter(file -> SNAPSHOT.equals(file.getLeft()))
+        .mapToLong(Pair::getRight)
+        .max()
+        .orElse(0);
+
+    // the latest value of each entity, or null once deleted, in the order the entities were first seen
+    Map<RecordType, Map<String, JsonNode>> values = new EnumMap<>(RecordType.class);
+    for (RecordType type : RecordType.values()) {
+      values.put(type, Maps.newLinkedHashMap());
+    }
+    long records = 0;
+    long lastGeneration = 0;
+    for (Pair<String, Long> file : files) {
+      lastGeneration = Math.max(lastGeneration, file.getRight());
+      boolean isLastSnapshot = SNAPSHOT.equals(file.getLeft()) && lastSnapshot == file.getRight();
+      if (isLastSnapshot || (JOURNAL.equals(file.getLeft()) && lastSnapshot <= file.getRight())) {
+        records += readRecords(file(file.getLeft(), file.getRight()), values);
+      }
+    }
+    for (RecordType type : RecordType.values()) {
+      List<Object> entities = Lists.newArrayList();
+      for (JsonNode value : values.get(type).values()) {
+        if (null != value) {
+          entities.add(RecordCodec.decode(type, value));
+        }
+      }
+      state.restore(type, entities);
+    }
+    LOG.info("Restored the memory storage from {} records in {}", records, directory);
+    return lastGeneration;
+  }
+
+  private static long readRecords(Path file, Map<RecordType, Map<String, JsonNode>> values) throws IOException {
+    long records = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while (null != (line = reader.readLine())) {
+        JsonNode record;
+        try {
+          record = RecordCodec.mapper().readTree(line);
+        } catch (IOException e) {
+          // the last record is torn when the host crashed while it was being written
+          LOG.warn("Skipping unreadable record in {}: {}", file, line, e);
+          continue;
+        }
+        Map<String, JsonNode> typeValues = values.get(RecordType.valueOf(record.get("type").asText()));
+        String key = record.get("key").asText();
+        // deleted entities are kept as null, they're skipped when restoring
+        typeValues.put(key, record.hasNonNull("value") ? record.get("value") : null);
+        ++records;
+      }
+    }
+    return records;
+  }
+
+  private static void writeRecord(Writer writer, RecordType type, String key, Optional<?> entity) throws IOException {
+    ObjectNode record = RecordCodec.mapper().createObjectNode()
+        .put("type", type.name())
+        .put("key", key);
+    record.set("value", entity.isPresent() ? RecordCodec.encode(type, entity.get()) : null);
+    writer.write(RecordCodec.mapper().writeValueAsString(record));
+    writer.write('\n');
+  }
+
+  /**
+   * Lists the journals and snapshots in the directory, ordered by generation with the snapshot of a generation first.
+   */
+  private List<Pair<String, Long>> listFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> FILE_PATTERN.matcher(file.getFileName().toString()))
+          .filter(Matcher::matches)
+          .map(matcher -> Pair.of(matcher.group(1), Long.parseLong(matcher.group(2))))
+          .sorted((left, right) -> left.getRight().equals(right.getRight())
+              ? right.getLeft().compareTo(left.getLeft())
+              : left.getRight().compareTo(right.getRight()))
+          .collect(Collectors.toList());
+    }
+  }
+
+  private Path file(String kind, long fileGeneration) {
+    return directory.resolve(String.format("%s-%016d.log", kind, fileGeneration));
+  }
+}
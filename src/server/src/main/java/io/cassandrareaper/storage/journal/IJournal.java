@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.journal;
+
+/**
+ * Receives the changes made to the memory storage, so they can be persisted.
+ */
+public interface IJournal {
+
+  /**
+   * Journal discarding all changes, for a memory storage which doesn't survive restarts.
+   */
+  IJournal NOOP = (type, key) -> { };
+
+  /**
+   * Records that the entity of the given type and key was added, updated or deleted.
+   * Must be called after the change has been applied to the memory storage.
+   */
+  void recordChange(RecordType type, Object key);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.journal;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * The state of the memory storage, as read and restored by the journal.
+ */
+public interface IJournaledState {
+
+  /**
+   * Returns the current value of the entity of the given type and key, or empty if it was deleted.
+   */
+  Optional<?> get(RecordType type, String key);
+
+  /**
+   * Returns all the entities of the given type, in the order they should be restored in.
+   */
+  Collection<?> getAll(RecordType type);
+
+  /**
+   * Loads entities read back from disk, bypassing the journal. Types are restored in the order they're declared in.
+   */
+  void restore(RecordType type, Collection<?> entities);
+}
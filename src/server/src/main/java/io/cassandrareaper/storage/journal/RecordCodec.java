@@ -0,0 +1,327 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.journal;
+
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.ClusterProperties;
+import io.cassandrareaper.core.DiagEventSubscription;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSchedule;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.RepairUnit;
+import io.cassandrareaper.core.Segment;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import org.apache.cassandra.repair.RepairParallelism;
+import org.joda.time.DateTime;
+
+/**
+ * Converts the journaled entities from and to JSON.
+ *
+ * <p>
+ * The entities are built through their builders, so every field is mapped explicitly. Instants are stored as epoch
+ * milliseconds, the same way the Cassandra storage stores them.
+ */
+final class RecordCodec {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ObjectReader SET_READER = MAPPER.readerFor(new TypeReference<Set<String>>() {});
+  private static final ObjectReader MAP_READER = MAPPER.readerFor(new TypeReference<Map<String, String>>() {});
+
+  private RecordCodec() {
+  }
+
+  static ObjectNode encode(RecordType type, Object entity) {
+    switch (type) {
+      case CLUSTER:
+        return encodeCluster((Cluster) entity);
+      case REPAIR_UNIT:
+        return encodeRepairUnit((RepairUnit) entity);
+      case REPAIR_RUN:
+        return encodeRepairRun((RepairRun) entity);
+      case REPAIR_SEGMENT:
+        return encodeRepairSegment((RepairSegment) entity);
+      case REPAIR_SCHEDULE:
+        return encodeRepairSchedule((RepairSchedule) entity);
+      case EVENT_SUBSCRIPTION:
+        return encodeEventSubscription((DiagEventSubscription) entity);
+      default:
+        throw new IllegalArgumentException("unknown record type " + type);
+    }
+  }
+
+  static Object decode(RecordType type, JsonNode node) throws IOException {
+    switch (type) {
+      case CLUSTER:
+        return decodeCluster(node);
+      case REPAIR_UNIT:
+        return decodeRepairUnit(node);
+      case REPAIR_RUN:
+        return decodeRepairRun(node);
+      case REPAIR_SEGMENT:
+        return decodeRepairSegment(node);
+      case REPAIR_SCHEDULE:
+        return decodeRepairSchedule(node);
+      case EVENT_SUBSCRIPTION:
+        return decodeEventSubscription(node);
+      default:
+        throw new IllegalArgumentException("unknown record type " + type);
+    }
+  }
+
+  static ObjectMapper mapper() {
+    return MAPPER;
+  }
+
+  private static ObjectNode encodeCluster(Cluster cluster) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("name", cluster.getName())
+        .put("partitioner", cluster.getPartitioner().orElse(null))
+        .put("state", cluster.getState().name())
+        .put("lastContact", cluster.getLastContact().toString());
+    node.set("seedHosts", MAPPER.valueToTree(cluster.getSeedHosts()));
+    node.set("properties", MAPPER.valueToTree(cluster.getProperties()));
+    return node;
+  }
+
+  private static Cluster decodeCluster(JsonNode node) throws IOException {
+    ClusterProperties properties = MAPPER.treeToValue(node.get("properties"), ClusterProperties.class);
+    Cluster.Builder builder = Cluster.builder()
+        .withName(node.get("name").asText())
+        .withSeedHosts(readSet(node.get("seedHosts")))
+        .withState(Cluster.State.valueOf(node.get("state").asText()))
+        .withLastContact(LocalDate.parse(node.get("lastContact").asText()))
+        .withJmxPort(properties.getJmxPort());
+    if (hasValue(node, "partitioner")) {
+      builder.withPartitioner(node.get("partitioner").asText());
+    }
+    if (null != properties.getJmxCredentials()) {
+      builder.withJmxCredentials(properties.getJmxCredentials());
+    }
+    return builder.build();
+  }
+
+  private static ObjectNode encodeRepairUnit(RepairUnit unit) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("id", unit.getId().toString())
+        .put("clusterName", unit.getClusterName())
+        .put("keyspaceName", unit.getKeyspaceName())
+        .put("incrementalRepair", unit.getIncrementalRepair())
+        .put("repairThreadCount", unit.getRepairThreadCount())
+        .put("timeout", unit.getTimeout());
+    node.set("columnFamilies", MAPPER.valueToTree(unit.getColumnFamilies()));
+    node.set("nodes", MAPPER.valueToTree(unit.getNodes()));
+    node.set("datacenters", MAPPER.valueToTree(unit.getDatacenters()));
+    node.set("blacklistedTables", MAPPER.valueToTree(unit.getBlacklistedTables()));
+    return node;
+  }
+
+  private static RepairUnit decodeRepairUnit(JsonNode node) throws IOException {
+    return RepairUnit.builder()
+        .clusterName(node.get("clusterName").asText())
+        .keyspaceName(node.get("keyspaceName").asText())
+        .columnFamilies(readSet(node.get("columnFamilies")))
+        .incrementalRepair(node.get("incrementalRepair").asBoolean())
+        .nodes(readSet(node.get("nodes")))
+        .datacenters(readSet(node.get("datacenters")))
+        .blacklistedTables(readSet(node.get("blacklistedTables")))
+        .repairThreadCount(node.get("repairThreadCount").asInt())
+        .timeout(node.get("timeout").asInt())
+        .build(readUuid(node, "id"));
+  }
+
+  private static ObjectNode encodeRepairRun(RepairRun run) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("id", run.getId().toString())
+        .put("clusterName", run.getClusterName())
+        .put("repairUnitId", run.getRepairUnitId().toString())
+        .put("runState", run.getRunState().name())
+        .put("intensity", run.getIntensity())
+        .put("cause", run.getCause())
+        .put("owner", run.getOwner())
+        .put("lastEvent", run.getLastEvent())
+        .put("segmentCount", run.getSegmentCount())
+        .put("repairParallelism", run.getRepairParallelism().name())
+        .put("adaptiveSchedule", run.getAdaptiveSchedule());
+    putTime(node, "creationTime", run.getCreationTime());
+    putTime(node, "startTime", run.getStartTime());
+    putTime(node, "endTime", run.getEndTime());
+    putTime(node, "pauseTime", run.getPauseTime());
+    node.set("tables", MAPPER.valueToTree(run.getTables()));
+    return node;
+  }
+
+  private static RepairRun decodeRepairRun(JsonNode node) throws IOException {
+    return RepairRun.builder(node.get("clusterName").asText(), readUuid(node, "repairUnitId"))
+        // the run state resets the pause time, so it goes first
+        .runState(RepairRun.RunState.valueOf(node.get("runState").asText()))
+        .creationTime(readTime(node, "creationTime"))
+        .startTime(readTime(node, "startTime"))
+        .endTime(readTime(node, "endTime"))
+        .pauseTime(readTime(node, "pauseTime"))
+        .intensity(node.get("intensity").asDouble())
+        .cause(node.get("cause").asText())
+        .owner(node.get("owner").asText())
+        .lastEvent(node.get("lastEvent").asText())
+        .segmentCount(node.get("segmentCount").asInt())
+        .repairParallelism(RepairParallelism.valueOf(node.get("repairParallelism").asText()))
+        .tables(readSet(node.get("tables")))
+        .adaptiveSchedule(node.get("adaptiveSchedule").asBoolean())
+        .build(readUuid(node, "id"));
+  }
+
+  private static ObjectNode encodeRepairSegment(RepairSegment segment) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("id", segment.getId().toString())
+        .put("runId", segment.getRunId().toString())
+        .put("repairUnitId", segment.getRepairUnitId().toString())
+        .put("failCount", segment.getFailCount())
+        .put("state", segment.getState().name())
+        .put("coordinatorHost", segment.getCoordinatorHost())
+        .put("hostId", null != segment.getHostID() ? segment.getHostID().toString() : null);
+    putTime(node, "startTime", segment.getStartTime());
+    putTime(node, "endTime", segment.getEndTime());
+    node.set("tokenRange", MAPPER.valueToTree(segment.getTokenRange()));
+    node.set("replicas", MAPPER.valueToTree(segment.getReplicas()));
+    return node;
+  }
+
+  private static RepairSegment decodeRepairSegment(JsonNode node) throws IOException {
+    Segment tokenRange = MAPPER.treeToValue(node.get("tokenRange"), Segment.class);
+    RepairSegment.Builder builder = RepairSegment.builder(tokenRange, readUuid(node, "repairUnitId"))
+        .withId(readUuid(node, "id"))
+        .withRunId(readUuid(node, "runId"))
+        .withFailCount(node.get("failCount").asInt())
+        .withState(RepairSegment.State.valueOf(node.get("state").asText()))
+        .withCoordinatorHost(readText(node, "coordinatorHost"))
+        .withEndTime(readTime(node, "endTime"))
+        .withHostID(readUuid(node, "hostId"));
+    if (hasValue(node, "startTime")) {
+      builder.withStartTime(readTime(node, "startTime"));
+    }
+    if (hasValue(node, "replicas")) {
+      builder.withReplicas(MAP_READER.readValue(node.get("replicas")));
+    }
+    return builder.build();
+  }
+
+  private static ObjectNode encodeRepairSchedule(RepairSchedule schedule) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("id", schedule.getId().toString())
+        .put("repairUnitId", schedule.getRepairUnitId().toString())
+        .put("state", schedule.getState().name())
+        .put("daysBetween", schedule.getDaysBetween())
+        .put("repairParallelism", schedule.getRepairParallelism().name())
+        .put("intensity", schedule.getIntensity())
+        .put("owner", schedule.getOwner())
+        .put("segmentCountPerNode", schedule.getSegmentCountPerNode())
+        .put("adaptive", schedule.getAdaptive())
+        .put("percentUnrepairedThreshold", schedule.getPercentUnrepairedThreshold())
+        .put("lastRun", null != schedule.getLastRun() ? schedule.getLastRun().toString() : null);
+    putTime(node, "nextActivation", schedule.getNextActivation());
+    putTime(node, "creationTime", schedule.getCreationTime());
+    putTime(node, "pauseTime", schedule.getPauseTime());
+    ArrayNode runHistory = node.putArray("runHistory");
+    schedule.getRunHistory().forEach(runId -> runHistory.add(runId.toString()));
+    return node;
+  }
+
+  private static RepairSchedule decodeRepairSchedule(JsonNode node) {
+    ImmutableList.Builder<UUID> runHistory = ImmutableList.builder();
+    node.get("runHistory").forEach(runId -> runHistory.add(UUID.fromString(runId.asText())));
+    return RepairSchedule.builder(readUuid(node, "repairUnitId"))
+        .state(RepairSchedule.State.valueOf(node.get("state").asText()))
+        .daysBetween(node.get("daysBetween").asInt())
+        .nextActivation(readTime(node, "nextActivation"))
+        .runHistory(runHistory.build())
+        .repairParallelism(RepairParallelism.valueOf(node.get("repairParallelism").asText()))
+        .intensity(node.get("intensity").asDouble())
+        .creationTime(readTime(node, "creationTime"))
+        .owner(node.get("owner").asText())
+        .pauseTime(readTime(node, "pauseTime"))
+        .segmentCountPerNode(node.get("segmentCountPerNode").asInt())
+        .adaptive(node.get("adaptive").asBoolean())
+        .percentUnrepairedThreshold(
+            hasValue(node, "percentUnrepairedThreshold") ? node.get("percentUnrepairedThreshold").asInt() : null)
+        .lastRun(readUuid(node, "lastRun"))
+        .build(readUuid(node, "id"));
+  }
+
+  private static ObjectNode encodeEventSubscription(DiagEventSubscription subscription) {
+    ObjectNode node = MAPPER.createObjectNode()
+        .put("id", subscription.getId().get().toString())
+        .put("cluster", subscription.getCluster())
+        .put("description", subscription.getDescription())
+        .put("exportSse", subscription.getExportSse())
+        .put("exportFileLogger", subscription.getExportFileLogger())
+        .put("exportHttpEndpoint", subscription.getExportHttpEndpoint());
+    node.set("nodes", MAPPER.valueToTree(subscription.getNodes()));
+    node.set("events", MAPPER.valueToTree(subscription.getEvents()));
+    return node;
+  }
+
+  private static DiagEventSubscription decodeEventSubscription(JsonNode node) throws IOException {
+    return new DiagEventSubscription(
+        Optional.of(readUuid(node, "id")),
+        node.get("cluster").asText(),
+        Optional.ofNullable(readText(node, "description")),
+        readSet(node.get("nodes")),
+        readSet(node.get("events")),
+        node.get("exportSse").asBoolean(),
+        readText(node, "exportFileLogger"),
+        readText(node, "exportHttpEndpoint"));
+  }
+
+  private static boolean hasValue(JsonNode node, String field) {
+    return node.hasNonNull(field);
+  }
+
+  private static String readText(JsonNode node, String field) {
+    return hasValue(node, field) ? node.get(field).asText() : null;
+  }
+
+  private static UUID readUuid(JsonNode node, String field) {
+    return hasValue(node, field) ? UUID.fromString(node.get(field).asText()) : null;
+  }
+
+  private static Set<String> readSet(JsonNode node) throws IOException {
+    return SET_READER.readValue(node);
+  }
+
+  private static void putTime(ObjectNode node, String field, DateTime time) {
+    if (null != time) {
+      node.put(field, time.getMillis());
+    }
+  }
+
+  private static DateTime readTime(JsonNode node, String field) {
+    return hasValue(node, field) ? new DateTime(node.get(field).asLong()) : null;
+  }
+}
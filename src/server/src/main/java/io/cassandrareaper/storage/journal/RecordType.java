@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.journal;
+
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.DiagEventSubscription;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSchedule;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.RepairUnit;
+
+import java.util.function.Function;
+
+/**
+ * The entities of the memory storage which are journaled, in the order they're restored in.
+ */
+public enum RecordType {
+  CLUSTER(entity -> ((Cluster) entity).getName()),
+  REPAIR_UNIT(entity -> ((RepairUnit) entity).getId().toString()),
+  REPAIR_RUN(entity -> ((RepairRun) entity).getId().toString()),
+  REPAIR_SEGMENT(entity -> ((RepairSegment) entity).getId().toString()),
+  REPAIR_SCHEDULE(entity -> ((RepairSchedule) entity).getId().toString()),
+  EVENT_SUBSCRIPTION(entity -> ((DiagEventSubscription) entity).getId().get().toString());
+
+  private final Function<Object, String> keyFunction;
+
+  RecordType(Function<Object, String> keyFunction) {
+    this.keyFunction = keyFunction;
+  }
+
+  String keyOf(Object entity) {
+    return keyFunction.apply(entity);
+  }
+}
@@ -22,6 +22,8 @@ import io.cassandrareaper.core.GenericMetric;
 import io.cassandrareaper.core.PercentRepairedMetric;
 
 import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,15 +42,16 @@ import org.joda.time.format.DateTimeFormatter;
 
 public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
 
-  static final int METRICS_PARTITIONING_TIME_MINS = 10;
   private static final DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
   private final Session session;
   private PreparedStatement storeNodeMetricsPrepStmt;
   private PreparedStatement getNodeMetricsPrepStmt;
   private PreparedStatement getNodeMetricsByNodePrepStmt;
-  private PreparedStatement getMetricsForHostPrepStmt;
   private PreparedStatement delNodeMetricsByNodePrepStmt;
-  private PreparedStatement storeMetricsPrepStmt;
+  private final Map<MetricsResolution, PreparedStatement> storeMetricsPrepStmts
+      = new EnumMap<>(MetricsResolution.class);
+  private final Map<MetricsResolution, PreparedStatement> getMetricsForHostPrepStmts
+      = new EnumMap<>(MetricsResolution.class);
   private PreparedStatement storePercentRepairedForSchedulePrepStmt;
   private PreparedStatement getPercentRepairedForSchedulePrepStmt;
 
@@ -72,18 +75,22 @@ public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
         + " WHERE time_partition = ? AND run_id = ? AND node = ?");
     delNodeMetricsByNodePrepStmt = session.prepare("DELETE FROM node_metrics_v1"
         + " WHERE time_partition = ? AND run_id = ? AND node = ?");
-    storeMetricsPrepStmt
-        = session
-        .prepare(
-            "INSERT INTO node_metrics_v3 (cluster, metric_domain, metric_type, time_bucket, "
-                + "host, metric_scope, metric_name, ts, metric_attribute, value) "
-                + "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-    getMetricsForHostPrepStmt = session
-        .prepare(
-            "SELECT cluster, metric_domain, metric_type, time_bucket, host, "
-                + "metric_scope, metric_name, ts, metric_attribute, value "
-                + "FROM node_metrics_v3 "
-                + "WHERE metric_domain = ? and metric_type = ? and cluster = ? and time_bucket = ? and host = ?");
+    for (MetricsResolution resolution : MetricsResolution.values()) {
+      storeMetricsPrepStmts.put(
+          resolution,
+          session.prepare(
+              "INSERT INTO " + resolution.table + " (cluster, metric_domain, metric_type, time_bucket, "
+                  + "host, metric_scope, metric_name, ts, metric_attribute, value) "
+                  + "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"));
+      getMetricsForHostPrepStmts.put(
+          resolution,
+          session.prepare(
+              "SELECT cluster, metric_domain, metric_type, time_bucket, host, "
+                  + "metric_scope, metric_name, ts, metric_attribute, value "
+                  + "FROM " + resolution.table + " "
+                  + "WHERE metric_domain = ? and metric_type = ? and cluster = ? and time_bucket = ? and host = ?"
+                  + " and ts >= ?"));
+    }
 
 
     storePercentRepairedForSchedulePrepStmt = session
@@ -101,6 +108,10 @@ public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
   }
 
 
+  /**
+   * Reads the metrics of a host since the given time, from the finest resolution whose time buckets cover the
+   * requested window in a bounded number of queries.
+   */
   @Override
   public List<GenericMetric> getMetrics(
       String clusterName,
@@ -110,26 +121,20 @@ public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
       long since) {
     List<GenericMetric> metrics = Lists.newArrayList();
     List<ResultSetFuture> futures = Lists.newArrayList();
-    List<String> timeBuckets = Lists.newArrayList();
     long now = DateTime.now().getMillis();
-    long startTime = since;
-
-    // Compute the hourly buckets since the requested lower bound timestamp
-    while (startTime < now) {
-      timeBuckets.add(DateTime.now().withMillis(startTime).toString(TIME_BUCKET_FORMATTER).substring(0, 11) + "0");
-      startTime += 600000;
-    }
+    MetricsResolution resolution = MetricsResolution.forWindow(since, now);
+    Date from = resolution.truncate(new DateTime(since)).toDate();
 
-    for (String timeBucket : timeBuckets) {
+    for (String timeBucket : resolution.timeBuckets(since, now)) {
       if (host.isPresent()) {
-        //metric = ? and cluster = ? and time_bucket = ? and host = ? and ts >= ? and ts <= ?
         futures.add(session.executeAsync(
-            getMetricsForHostPrepStmt.bind(
+            getMetricsForHostPrepStmts.get(resolution).bind(
                 metricDomain,
                 metricType,
                 clusterName,
                 timeBucket,
-                host.get())));
+                host.get(),
+                from)));
       }
     }
 
@@ -148,41 +153,45 @@ public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
                 .build());
       }
     }
-
-
     return metrics;
   }
 
-
+  /**
+   * Stores the metrics at every resolution, each row holding the last sample of its time slot.
+   */
   @Override
   public void storeMetrics(List<GenericMetric> metrics) {
-    Map<String, List<GenericMetric>> metricsPerPartition = metrics.stream()
-        .collect(Collectors.groupingBy(metric ->
-            metric.getClusterName()
-                + metric.getMetricDomain()
-                + metric.getMetricType()
-                + computeMetricsPartition(metric.getTs()).toString(TIME_BUCKET_FORMATTER)
-                + metric.getHost()
-        ));
-
-    for (Map.Entry<String, List<GenericMetric>> metricPartition : metricsPerPartition.entrySet()) {
-      BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
-      for (GenericMetric metric : metricPartition.getValue()) {
-        batch.add(
-            storeMetricsPrepStmt.bind(
-                metric.getClusterName(),
-                metric.getMetricDomain(),
-                metric.getMetricType(),
-                computeMetricsPartition(metric.getTs()).toString(TIME_BUCKET_FORMATTER),
-                metric.getHost(),
-                metric.getMetricScope(),
-                metric.getMetricName(),
-                computeMetricsPartition(metric.getTs()),
-                metric.getMetricAttribute(),
-                metric.getValue()));
+    List<ResultSetFuture> futures = Lists.newArrayList();
+    for (MetricsResolution resolution : MetricsResolution.values()) {
+      Map<String, List<GenericMetric>> metricsPerPartition = metrics.stream()
+          .collect(Collectors.groupingBy(metric ->
+              metric.getClusterName()
+                  + metric.getMetricDomain()
+                  + metric.getMetricType()
+                  + resolution.timeBucket(metric.getTs())
+                  + metric.getHost()
+          ));
+
+      for (List<GenericMetric> metricPartition : metricsPerPartition.values()) {
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        for (GenericMetric metric : metricPartition) {
+          batch.add(
+              storeMetricsPrepStmts.get(resolution).bind(
+                  metric.getClusterName(),
+                  metric.getMetricDomain(),
+                  metric.getMetricType(),
+                  resolution.timeBucket(metric.getTs()),
+                  metric.getHost(),
+                  metric.getMetricScope(),
+                  metric.getMetricName(),
+                  resolution.truncate(metric.getTs()).toDate(),
+                  metric.getMetricAttribute(),
+                  metric.getValue()));
+        }
+        futures.add(session.executeAsync(batch));
       }
-      session.execute(batch);
     }
+    futures.forEach(ResultSetFuture::getUninterruptibly);
   }
 
   /**
@@ -192,15 +201,12 @@ public class CassandraMetricsDao implements IMetricsDao, IDistributedMetrics {
    * @return the time truncated to the closest partition
    */
   public DateTime computeMetricsPartition(DateTime metricTime) {
-    return metricTime
-        .withMinuteOfHour(
-            (metricTime.getMinuteOfHour() / METRICS_PARTITIONING_TIME_MINS)
-                * METRICS_PARTITIONING_TIME_MINS)
-        .withSecondOfMinute(0)
-        .withMillisOfSecond(0);
+    return MetricsResolution.RAW.truncate(metricTime);
   }
 
-
+  /**
+   * Nothing to do, the metrics of every resolution expire through the default TTL of their table.
+   */
   public void purgeMetrics() {
   }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * The resolutions at which the generic node metrics are stored.
+ *
+ * <p>
+ * Every sample is written at each resolution, with its timestamp truncated to the resolution, so that each stored
+ * value is the last sample of its time slot. Each resolution expires with the default TTL of its table, and is split
+ * into time buckets sized so that reading a window of up to {@link #maxWindowMillis} never touches more than a handful
+ * of buckets. Reads pick the finest resolution whose maximum window covers the requested one.
+ */
+enum MetricsResolution {
+
+  RAW("node_metrics_v3", TimeUnit.HOURS.toMillis(1)),
+  MINUTE("node_metrics_1m", TimeUnit.HOURS.toMillis(6)),
+  HOUR("node_metrics_1h", TimeUnit.DAYS.toMillis(14)),
+  DAY("node_metrics_1d", TimeUnit.DAYS.toMillis(365));
+
+  private static final DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
+
+  final String table;
+  final long maxWindowMillis;
+
+  MetricsResolution(String table, long maxWindowMillis) {
+    this.table = table;
+    this.maxWindowMillis = maxWindowMillis;
+  }
+
+  /**
+   * Returns the finest resolution that covers the window starting at the given time, the coarsest one otherwise.
+   */
+  static MetricsResolution forWindow(long since, long now) {
+    for (MetricsResolution resolution : values()) {
+      if (now - since <= resolution.maxWindowMillis) {
+        return resolution;
+      }
+    }
+    return DAY;
+  }
+
+  DateTime truncate(DateTime ts) {
+    switch (this) {
+      case RAW:
+        return tenMinutesFloor(ts);
+      case MINUTE:
+        return ts.minuteOfHour().roundFloorCopy();
+      case HOUR:
+        return ts.hourOfDay().roundFloorCopy();
+      default:
+        return ts.withTimeAtStartOfDay();
+    }
+  }
+
+  String timeBucket(DateTime ts) {
+    return bucketStart(ts).toString(TIME_BUCKET_FORMATTER);
+  }
+
+  /**
+   * Lists the time buckets holding the samples between the two given times.
+   */
+  List<String> timeBuckets(long since, long now) {
+    List<String> timeBuckets = Lists.newArrayList();
+    for (DateTime bucket = bucketStart(new DateTime(since)); bucket.getMillis() <= now; bucket = nextBucket(bucket)) {
+      timeBuckets.add(bucket.toString(TIME_BUCKET_FORMATTER));
+    }
+    return timeBuckets;
+  }
+
+  private DateTime bucketStart(DateTime ts) {
+    switch (this) {
+      case RAW:
+        return tenMinutesFloor(ts);
+      case MINUTE:
+        return ts.hourOfDay().roundFloorCopy();
+      case HOUR:
+        return ts.withTimeAtStartOfDay();
+      default:
+        return ts.withTimeAtStartOfDay().withDayOfMonth(1);
+    }
+  }
+
+  private DateTime nextBucket(DateTime bucket) {
+    switch (this) {
+      case RAW:
+        return bucket.plusMinutes(10);
+      case MINUTE:
+        return bucket.plusHours(1);
+      case HOUR:
+        return bucket.plusDays(1);
+      default:
+        return bucket.plusMonths(1);
+    }
+  }
+
+  private static DateTime tenMinutesFloor(DateTime ts) {
+    return ts.withMinuteOfHour((ts.getMinuteOfHour() / 10) * 10).withSecondOfMinute(0).withMillisOfSecond(0);
+  }
+}
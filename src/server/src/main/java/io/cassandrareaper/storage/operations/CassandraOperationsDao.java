@@ -18,24 +18,53 @@
 
 package io.cassandrareaper.storage.operations;
 
+import io.cassandrareaper.core.CompactionStats;
+import io.cassandrareaper.core.StreamSession;
+import io.cassandrareaper.service.PayloadCodec;
 import io.cassandrareaper.storage.OpType;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Stores the latest compactions and streams of each node in a single row of node_operations_latest.
+ *
+ * <p>
+ * The snapshots are stored in the format of {@link PayloadCodec}, along with their digest. A snapshot is only written
+ * when its digest differs from the one of the stored row, whichever instance wrote it, or to refresh the row before
+ * the TTL of the table expires it.
+ */
 public class CassandraOperationsDao implements IOperationsDao {
 
+  private static final Logger LOG = LoggerFactory.getLogger(CassandraOperationsDao.class);
   private static final DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
-  private PreparedStatement insertOperationsPrepStmt;
+  // node_operations_latest has a 10 minutes TTL
+  private static final long REFRESH_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private PreparedStatement insertLatestOperationsPrepStmt;
+  private PreparedStatement getLatestOperationsPrepStmt;
+  private PreparedStatement getLatestDigestPrepStmt;
   private PreparedStatement listOperationsForNodePrepStmt;
   private final Session session;
 
@@ -45,26 +74,49 @@ public class CassandraOperationsDao implements IOperationsDao {
   }
 
   private void prepareOperationsStatements() {
-    insertOperationsPrepStmt = session.prepare(
-        "INSERT INTO node_operations(cluster, type, time_bucket, host, ts, data) "
-            + "values(?,?,?,?,?,?)");
+    insertLatestOperationsPrepStmt = session.prepare(
+        "INSERT INTO node_operations_latest(cluster, type, host, ts, digest, data) values(?,?,?,?,?,?)");
+
+    getLatestOperationsPrepStmt = session.prepare(
+        "SELECT data FROM node_operations_latest WHERE cluster = ? AND type = ? AND host = ?");
+
+    getLatestDigestPrepStmt = session.prepare(
+        "SELECT ts, digest FROM node_operations_latest WHERE cluster = ? AND type = ? AND host = ?");
 
     listOperationsForNodePrepStmt = session.prepare(
         "SELECT cluster, type, time_bucket, host, ts, data FROM node_operations "
             + "WHERE cluster = ? AND type = ? and time_bucket = ? and host = ? LIMIT 1");
   }
 
-  public void storeOperations(String clusterName, OpType operationType, String host, String operationsJson) {
-    session.executeAsync(
-        insertOperationsPrepStmt.bind(
-            clusterName,
-            operationType.getName(),
-            DateTime.now().toString(TIME_BUCKET_FORMATTER),
-            host,
-            DateTime.now().toDate(),
-            operationsJson));
+  @Override
+  public void storeCompactionStats(String clusterName, String host, CompactionStats compactionStats) {
+    try {
+      storeSnapshot(clusterName, OpType.OP_COMPACTION, host, PayloadCodec.writeCompactionStats(compactionStats));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Couldn't serialize the compactions of " + host, e);
+    }
+  }
+
+  @Override
+  public void storeActiveStreams(String clusterName, String host, List<StreamSession> activeStreams) {
+    try {
+      storeSnapshot(clusterName, OpType.OP_STREAMING, host, PayloadCodec.writeStreamSessions(activeStreams));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Couldn't serialize the streams of " + host, e);
+    }
   }
 
+  @Override
+  public Optional<CompactionStats> getCompactionStats(String clusterName, String host) {
+    return getSnapshot(clusterName, OpType.OP_COMPACTION, host, PayloadCodec::readStoredCompactionStats);
+  }
+
+  @Override
+  public Optional<List<StreamSession>> getActiveStreams(String clusterName, String host) {
+    return getSnapshot(clusterName, OpType.OP_STREAMING, host, PayloadCodec::readStoredStreamSessions);
+  }
+
+  @Override
   public String listOperations(String clusterName, OpType operationType, String host) {
     List<ResultSetFuture> futures = Lists.newArrayList();
     futures.add(session.executeAsync(
@@ -86,7 +138,69 @@ public class CassandraOperationsDao implements IOperationsDao {
     return "";
   }
 
-
+  @Override
   public void purgeNodeOperations() {
   }
-}
\ No newline at end of file
+
+  private void storeSnapshot(String clusterName, OpType operationType, String host, byte[] serialized) {
+    long digest = Hashing.murmur3_128().hashBytes(serialized).asLong();
+    ListenableFuture<ResultSet> future = Futures.transformAsync(
+        session.executeAsync(getLatestDigestPrepStmt.bind(clusterName, operationType.getName(), host)),
+        stored -> {
+          long now = System.currentTimeMillis();
+          Row row = stored.one();
+          if (null != row
+              && !row.isNull("digest")
+              && digest == row.getLong("digest")
+              && now - row.getTimestamp("ts").getTime() < REFRESH_PERIOD_MILLIS) {
+            return Futures.immediateFuture(stored);
+          }
+          return session.executeAsync(
+              insertLatestOperationsPrepStmt.bind(
+                  clusterName,
+                  operationType.getName(),
+                  host,
+                  new DateTime(now).toDate(),
+                  digest,
+                  PayloadCodec.toStored(serialized)));
+        },
+        MoreExecutors.directExecutor());
+
+    Futures.addCallback(
+        future,
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet result) {
+          }
+
+          @Override
+          public void onFailure(Throwable throwable) {
+            // the snapshot is written again on the next collection
+            LOG.warn("Failed storing the {} of {}", operationType.getName(), host, throwable);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private <T> Optional<T> getSnapshot(
+      String clusterName,
+      OpType operationType,
+      String host,
+      SnapshotReader<T> reader) {
+
+    Row row = session.execute(getLatestOperationsPrepStmt.bind(clusterName, operationType.getName(), host)).one();
+    if (null == row) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(reader.read(row.getBytes("data")));
+    } catch (IOException e) {
+      LOG.warn("Couldn't read the {} of {}", operationType.getName(), host, e);
+      return Optional.empty();
+    }
+  }
+
+  private interface SnapshotReader<T> {
+    T read(ByteBuffer stored) throws IOException;
+  }
+}
@@ -18,12 +18,33 @@
 
 package io.cassandrareaper.storage.operations;
 
+import io.cassandrareaper.core.CompactionStats;
+import io.cassandrareaper.core.StreamSession;
 import io.cassandrareaper.storage.OpType;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface IOperationsDao {
 
-  void storeOperations(String clusterName, OpType operationType, String host, String operationsJson);
+  /**
+   * Stores the compactions of a node, unless they didn't change since they were last stored.
+   */
+  void storeCompactionStats(String clusterName, String host, CompactionStats compactionStats);
+
+  /**
+   * Stores the streams of a node, unless they didn't change since they were last stored.
+   */
+  void storeActiveStreams(String clusterName, String host, List<StreamSession> activeStreams);
+
+  Optional<CompactionStats> getCompactionStats(String clusterName, String host);
+
+  Optional<List<StreamSession>> getActiveStreams(String clusterName, String host);
 
+  /**
+   * Lists the JSON operations of a node stored by the Reaper versions preceding the typed snapshots,
+   * which can still be running during a rolling upgrade.
+   */
   String listOperations(String clusterName, OpType operationType, String host);
 
   /**
@@ -31,4 +52,4 @@ public interface IOperationsDao {
    */
   void purgeNodeOperations();
 
-}
\ No newline at end of file
+}
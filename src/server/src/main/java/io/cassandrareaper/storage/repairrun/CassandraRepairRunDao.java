@@ -67,6 +67,7 @@ public class CassandraRepairRunDao implements IRepairRunDao {
   PreparedStatement getRepairRunPrepStmt;
   PreparedStatement getRepairRunForClusterPrepStmt;
   PreparedStatement getRepairRunForClusterWhereStatusPrepStmt;
+  PreparedStatement getRepairRunIdsForClusterBeforePrepStmt;
   PreparedStatement getRepairRunForUnitPrepStmt;
 
   PreparedStatement deleteRepairRunPrepStmt;
@@ -121,6 +122,8 @@ public class CassandraRepairRunDao implements IRepairRunDao {
         "SELECT * FROM repair_run_by_cluster_v2 WHERE cluster_name = ? limit ?");
     getRepairRunForClusterWhereStatusPrepStmt = session.prepare(
         "SELECT id FROM repair_run_by_cluster_v2 WHERE cluster_name = ? AND repair_run_state = ? limit ?");
+    getRepairRunIdsForClusterBeforePrepStmt = session.prepare(
+        "SELECT id FROM repair_run_by_cluster_v2 WHERE cluster_name = ? AND id < ? limit ?");
     getRepairRunForUnitPrepStmt = session.prepare("SELECT * FROM repair_run_by_unit WHERE repair_unit_id = ?");
 
 
@@ -159,6 +162,7 @@ public class CassandraRepairRunDao implements IRepairRunDao {
             newRepairRun.getAdaptiveSchedule()));
 
     int nbRanges = 0;
+    long nbSegments = 0;
     for (RepairSegment.Builder builder : newSegments) {
       RepairSegment segment = builder.withRunId(newRepairRun.getId()).withId(UUIDs.timeBased()).build();
       isIncremental = null == isIncremental ? null != segment.getCoordinatorHost() : isIncremental;
@@ -204,8 +208,14 @@ public class CassandraRepairRunDao implements IRepairRunDao {
           throw new IllegalStateException(e);
         }
       }
+      repairRunBatch.add(
+          cassRepairSegmentDao.insertRepairSegmentStateIndexPrepStmt.bind(
+              segment.getRunId(),
+              segment.getState().ordinal(),
+              segment.getId()));
 
       nbRanges += segment.getTokenRange().getTokenRanges().size();
+      ++nbSegments;
 
       if (100 <= nbRanges) {
         // Limit batch size to prevent queries being rejected
@@ -217,6 +227,12 @@ public class CassandraRepairRunDao implements IRepairRunDao {
     assert cassRepairUnitDao.getRepairUnit(newRepairRun.getRepairUnitId()).getIncrementalRepair() == isIncremental;
 
     futures.add(this.session.executeAsync(repairRunBatch));
+    futures.add(
+        this.session.executeAsync(
+            cassRepairSegmentDao.updateRepairSegmentCountPrepStmt.bind(
+                nbSegments,
+                newRepairRun.getId(),
+                RepairSegment.State.NOT_STARTED.ordinal())));
     futures.add(
         this.session.executeAsync(
             insertRepairRunClusterIndexPrepStmt.bind(
@@ -482,11 +498,18 @@ public class CassandraRepairRunDao implements IRepairRunDao {
   @Override
   public Optional<RepairRun> deleteRepairRun(UUID id) {
     Optional<RepairRun> repairRun = getRepairRun(id);
+    // the deletes are independent, so they are issued concurrently
+    List<ResultSetFuture> deletes = Lists.newArrayList();
     if (repairRun.isPresent()) {
-      this.session.execute(deleteRepairRunByUnitPrepStmt.bind(id, repairRun.get().getRepairUnitId()));
-      this.session.execute(deleteRepairRunByClusterByIdPrepStmt.bind(id, repairRun.get().getClusterName()));
+      deletes.add(session.executeAsync(deleteRepairRunByUnitPrepStmt.bind(id, repairRun.get().getRepairUnitId())));
+      deletes.add(
+          session.executeAsync(deleteRepairRunByClusterByIdPrepStmt.bind(id, repairRun.get().getClusterName())));
     }
-    this.session.execute(deleteRepairRunPrepStmt.bind(id));
+    // the run, its segments, their state index and counters are each deleted with a single partition tombstone
+    deletes.add(session.executeAsync(deleteRepairRunPrepStmt.bind(id)));
+    deletes.add(cassRepairSegmentDao.deleteSegmentStateIndexForRunAsync(id));
+    deletes.add(cassRepairSegmentDao.deleteRepairSegmentCountsForRunAsync(id));
+    deletes.forEach(ResultSetFuture::getUninterruptibly);
     return repairRun;
   }
 
@@ -504,6 +527,16 @@ public class CassandraRepairRunDao implements IRepairRunDao {
     return repairRunIds;
   }
 
+  @Override
+  public List<UUID> getRepairRunIdsForClusterBefore(String clusterName, UUID before, int limit) {
+    // the index table is ordered by descending time based id
+    return session.execute(getRepairRunIdsForClusterBeforePrepStmt.bind(clusterName, before, limit))
+        .all()
+        .stream()
+        .map(row -> row.getUUID("id"))
+        .collect(Collectors.toList());
+  }
+
   private SortedSet<UUID> getRepairRunIdsForClusterWithState(String clusterName, RepairRun.RunState runState) {
     SortedSet<UUID> repairRunIds = Sets.newTreeSet((u0, u1) -> (int) (u0.timestamp() - u1.timestamp()));
     ResultSet results = this.session.execute(
@@ -521,15 +554,22 @@ public class CassandraRepairRunDao implements IRepairRunDao {
   }
 
   @Override
-  public Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, int limit) {
+  public Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, Optional<UUID> before, int limit) {
+    ResultSet repairRunIds = before.isPresent()
+        ? session.execute(getRepairRunIdsForClusterBeforePrepStmt.bind(clusterName, before.get(), limit))
+        : session.execute(getRepairRunForClusterPrepStmt.bind(clusterName, limit));
+
+    // the index table is ordered by descending id, and the runs are fetched concurrently in that order
+    List<ResultSetFuture> repairRunFutures = Lists.<ResultSetFuture>newArrayList();
+    for (Row row : repairRunIds) {
+      repairRunFutures.add(session.executeAsync(getRepairRunPrepStmt.bind(row.getUUID("id"))));
+    }
     Collection<RepairRunStatus> repairRunStatuses = Lists.<RepairRunStatus>newArrayList();
-    Collection<RepairRun> repairRuns = getRepairRunsForCluster(clusterName, Optional.of(limit));
-    for (RepairRun repairRun : repairRuns) {
-      Collection<RepairSegment> segments = cassRepairSegmentDao.getRepairSegmentsForRun(repairRun.getId());
+    for (RepairRun repairRun : getRepairRunsAsync(repairRunFutures)) {
+      // repair units are cached, and the DONE segments are read from the run's segment counters
       RepairUnit repairUnit = cassRepairUnitDao.getRepairUnit(repairRun.getRepairUnitId());
-
       int segmentsRepaired
-            = (int) segments.stream().filter(seg -> seg.getState().equals(RepairSegment.State.DONE)).count();
+          = cassRepairSegmentDao.getSegmentAmountForRepairRunWithState(repairRun.getId(), RepairSegment.State.DONE);
 
       repairRunStatuses.add(new RepairRunStatus(repairRun, repairUnit, segmentsRepaired));
     }
@@ -23,6 +23,7 @@ import io.cassandrareaper.core.RepairSegment;
 import io.cassandrareaper.resources.view.RepairRunStatus;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.UUID;
@@ -49,6 +50,19 @@ public interface IRepairRunDao {
 
   SortedSet<UUID> getRepairRunIdsForCluster(String clusterName, Optional<Integer> limit);
 
+  /**
+   * Return the ids of the repair runs in a cluster created before the given one, in reverse chronological order.
+   *
+   * <p>
+   * Repair run ids are time based, so this pages through the history of a cluster from any point in time.
+   *
+   * @param clusterName The name of the cluster.
+   * @param before Only the repair runs older than this time based id are returned.
+   * @param limit The maximum number of returned ids.
+   * @return The repair run ids, the most recent first.
+   */
+  List<UUID> getRepairRunIdsForClusterBefore(String clusterName, UUID before, int limit);
+
   /**
    * Delete the RepairRun instance identified by the given id, and delete also all the related repair segments.
    *
@@ -57,5 +71,13 @@ public interface IRepairRunDao {
    */
   Optional<RepairRun> deleteRepairRun(UUID id);
 
-  Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, int limit);
+  /**
+   * Return the status of the repair runs in a cluster, in reverse chronological order.
+   *
+   * @param clusterName The name of the cluster.
+   * @param before When present, only the repair runs older than this repair run are returned, to page through them.
+   * @param limit The maximum number of returned repair run statuses.
+   * @return The repair run statuses, the most recent first.
+   */
+  Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, Optional<UUID> before, int limit);
 }
\ No newline at end of file
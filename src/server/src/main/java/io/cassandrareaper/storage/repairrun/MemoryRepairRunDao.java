@@ -23,12 +23,15 @@ import io.cassandrareaper.core.RepairSegment;
 import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.resources.view.RepairRunStatus;
 import io.cassandrareaper.service.RepairRunService;
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
 import io.cassandrareaper.storage.repairsegment.MemoryRepairSegmentDao;
 import io.cassandrareaper.storage.repairunit.MemoryRepairUnitDao;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -48,17 +51,33 @@ public class MemoryRepairRunDao implements IRepairRunDao {
   public final ConcurrentMap<UUID, RepairRun> repairRuns = Maps.newConcurrentMap();
   private final MemoryRepairSegmentDao memRepairSegment;
   private final MemoryRepairUnitDao memoryRepairUnitDao;
+  private final IJournal journal;
 
 
-  public MemoryRepairRunDao(MemoryRepairSegmentDao memRepairSegment, MemoryRepairUnitDao memoryRepairUnitDao) {
+  public MemoryRepairRunDao(
+      MemoryRepairSegmentDao memRepairSegment,
+      MemoryRepairUnitDao memoryRepairUnitDao,
+      IJournal journal) {
     this.memRepairSegment = memRepairSegment;
     this.memoryRepairUnitDao = memoryRepairUnitDao;
+    this.journal = journal;
   }
 
   @Override
-  public Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, int limit) {
+  public Collection<RepairRunStatus> getClusterRunStatuses(String clusterName, Optional<UUID> before, int limit) {
     List<RepairRunStatus> runStatuses = Lists.newArrayList();
-    for (RepairRun run : getRepairRunsForCluster(clusterName, Optional.of(limit))) {
+    TreeMap<UUID, RepairRun> reverseOrder = new TreeMap<UUID, RepairRun>(Collections.reverseOrder());
+    reverseOrder.putAll(repairRuns);
+    Collection<RepairRun> runs = before.isPresent()
+        ? reverseOrder.tailMap(before.get(), false).values()
+        : reverseOrder.values();
+    for (RepairRun run : runs) {
+      if (runStatuses.size() == limit) {
+        break;
+      }
+      if (!run.getClusterName().equalsIgnoreCase(clusterName)) {
+        continue;
+      }
       RepairUnit unit = memoryRepairUnitDao.getRepairUnit(run.getRepairUnitId());
       int segmentsRepaired = memRepairSegment
             .getSegmentAmountForRepairRunWithState(run.getId(), RepairSegment.State.DONE);
@@ -97,6 +116,7 @@ public class MemoryRepairRunDao implements IRepairRunDao {
   public RepairRun addRepairRun(RepairRun.Builder repairRun, Collection<RepairSegment.Builder> newSegments) {
     RepairRun newRepairRun = repairRun.build(UUIDs.timeBased());
     repairRuns.put(newRepairRun.getId(), newRepairRun);
+    journal.recordChange(RecordType.REPAIR_RUN, newRepairRun.getId());
     memRepairSegment.addRepairSegments(newSegments, newRepairRun.getId());
     return newRepairRun;
   }
@@ -112,6 +132,7 @@ public class MemoryRepairRunDao implements IRepairRunDao {
       return false;
     } else {
       repairRuns.put(repairRun.getId(), repairRun);
+      journal.recordChange(RecordType.REPAIR_RUN, repairRun.getId());
       return true;
     }
   }
@@ -175,6 +196,7 @@ public class MemoryRepairRunDao implements IRepairRunDao {
   public Optional<RepairRun> deleteRepairRun(UUID id) {
     RepairRun deletedRun = repairRuns.remove(id);
     if (deletedRun != null) {
+      journal.recordChange(RecordType.REPAIR_RUN, id);
       if (memRepairSegment.getSegmentAmountForRepairRunWithState(id, RepairSegment.State.RUNNING) == 0) {
         memRepairSegment.deleteRepairSegmentsForRun(id);
 
@@ -188,6 +210,18 @@ public class MemoryRepairRunDao implements IRepairRunDao {
   }
 
 
+  @Override
+  public List<UUID> getRepairRunIdsForClusterBefore(String clusterName, UUID before, int limit) {
+    return repairRuns.values()
+        .stream()
+        .filter(run -> run.getClusterName().equalsIgnoreCase(clusterName))
+        .map(RepairRun::getId)
+        .filter(id -> id.timestamp() < before.timestamp())
+        .sorted(Comparator.comparingLong(UUID::timestamp).reversed())
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
   public SortedSet<UUID> getRepairRunIdsForCluster(String clusterName, Optional<Integer> limit) {
     SortedSet<UUID> repairRunIds = Sets.newTreeSet((u0, u1) -> (int) (u0.timestamp() - u1.timestamp()));
     for (RepairRun repairRun : repairRuns.values()) {
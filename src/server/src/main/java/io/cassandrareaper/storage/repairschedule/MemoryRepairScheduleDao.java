@@ -21,6 +21,8 @@ package io.cassandrareaper.storage.repairschedule;
 import io.cassandrareaper.core.RepairSchedule;
 import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.resources.view.RepairScheduleStatus;
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
 import io.cassandrareaper.storage.repairunit.MemoryRepairUnitDao;
 
 import java.util.ArrayList;
@@ -39,15 +41,18 @@ public class MemoryRepairScheduleDao implements IRepairScheduleDao {
   public final ConcurrentMap<UUID, RepairSchedule> repairSchedules = Maps.newConcurrentMap();
 
   private final MemoryRepairUnitDao memoryRepairUnitDao;
+  private final IJournal journal;
 
-  public MemoryRepairScheduleDao(MemoryRepairUnitDao memoryRepairUnitDao) {
+  public MemoryRepairScheduleDao(MemoryRepairUnitDao memoryRepairUnitDao, IJournal journal) {
     this.memoryRepairUnitDao = memoryRepairUnitDao;
+    this.journal = journal;
   }
 
   @Override
   public RepairSchedule addRepairSchedule(RepairSchedule.Builder repairSchedule) {
     RepairSchedule newRepairSchedule = repairSchedule.build(UUIDs.timeBased());
     repairSchedules.put(newRepairSchedule.getId(), newRepairSchedule);
+    journal.recordChange(RecordType.REPAIR_SCHEDULE, newRepairSchedule.getId());
     return newRepairSchedule;
   }
 
@@ -112,6 +117,7 @@ public class MemoryRepairScheduleDao implements IRepairScheduleDao {
       return false;
     } else {
       repairSchedules.put(newRepairSchedule.getId(), newRepairSchedule);
+      journal.recordChange(RecordType.REPAIR_SCHEDULE, newRepairSchedule.getId());
       return true;
     }
   }
@@ -131,6 +137,7 @@ public class MemoryRepairScheduleDao implements IRepairScheduleDao {
   public Optional<RepairSchedule> deleteRepairSchedule(UUID id) {
     RepairSchedule deletedSchedule = repairSchedules.remove(id);
     if (deletedSchedule != null) {
+      journal.recordChange(RecordType.REPAIR_SCHEDULE, id);
       deletedSchedule = deletedSchedule.with().state(RepairSchedule.State.DELETED).build(id);
     }
     return Optional.ofNullable(deletedSchedule);
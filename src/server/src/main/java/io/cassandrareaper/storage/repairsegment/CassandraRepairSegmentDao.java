@@ -28,10 +28,13 @@ import io.cassandrareaper.storage.repairunit.CassandraRepairUnitDao;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -39,6 +42,7 @@ import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
@@ -47,15 +51,31 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CassandraRepairSegmentDao implements IRepairSegmentDao {
+  private static final Logger LOG = LoggerFactory.getLogger(CassandraRepairSegmentDao.class);
+  private static final int FREE_SEGMENTS_PAGE_SIZE = 100;
+
   public PreparedStatement insertRepairSegmentPrepStmt;
   public PreparedStatement insertRepairSegmentIncrementalPrepStmt;
+  public PreparedStatement insertRepairSegmentStateIndexPrepStmt;
+  public PreparedStatement updateRepairSegmentCountPrepStmt;
   PreparedStatement updateRepairSegmentPrepStmt;
   PreparedStatement insertRepairSegmentEndTimePrepStmt;
   PreparedStatement getRepairSegmentPrepStmt;
   PreparedStatement getRepairSegmentsByRunIdPrepStmt;
   PreparedStatement getRepairSegmentCountByRunIdPrepStmt;
+  PreparedStatement getRepairSegmentsByRunIdAndIdsPrepStmt;
+  PreparedStatement deleteRepairSegmentStateIndexPrepStmt;
+  PreparedStatement deleteRepairSegmentStateIndexByRunIdPrepStmt;
+  PreparedStatement getSegmentIdsByRunIdAndStatePrepStmt;
+  PreparedStatement getSegmentIdsByRunIdAndStateAfterCursorPrepStmt;
+  PreparedStatement getRepairSegmentStatePrepStmt;
+  PreparedStatement getRepairSegmentStatesByRunIdPrepStmt;
+  PreparedStatement getRepairSegmentCountsByRunIdPrepStmt;
+  PreparedStatement deleteRepairSegmentCountsByRunIdPrepStmt;
   @Nullable // null on Cassandra-2 as it's not supported syntax
   PreparedStatement getRepairSegmentsByRunIdAndStatePrepStmt = null;
   @Nullable // null on Cassandra-2 as it's not supported syntax
@@ -160,6 +180,39 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
     getRepairSegmentCountByRunIdPrepStmt = session.prepare(
         "SELECT count(*) FROM repair_run WHERE id = ?"
     );
+    getRepairSegmentsByRunIdAndIdsPrepStmt = session.prepare(
+        "SELECT id,repair_unit_id,segment_id,start_token,end_token,segment_state,coordinator_host,segment_start_time,"
+            + "segment_end_time,fail_count, token_ranges, replicas, host_id FROM repair_run "
+            + "WHERE id = ? AND segment_id IN ?");
+    insertRepairSegmentStateIndexPrepStmt = session
+        .prepare("INSERT INTO repair_segment_by_run_and_state (run_id, segment_state, segment_id) VALUES(?, ?, ?)")
+        .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    deleteRepairSegmentStateIndexPrepStmt = session
+        .prepare(
+            "DELETE FROM repair_segment_by_run_and_state WHERE run_id = ? AND segment_state = ? AND segment_id = ?")
+        .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    deleteRepairSegmentStateIndexByRunIdPrepStmt = session
+        .prepare("DELETE FROM repair_segment_by_run_and_state WHERE run_id = ?");
+    getSegmentIdsByRunIdAndStatePrepStmt = session.prepare(
+        "SELECT segment_id FROM repair_segment_by_run_and_state WHERE run_id = ? AND segment_state = ? LIMIT ?");
+    getSegmentIdsByRunIdAndStateAfterCursorPrepStmt = session.prepare(
+        "SELECT segment_id FROM repair_segment_by_run_and_state"
+            + " WHERE run_id = ? AND segment_state = ? AND segment_id > ? LIMIT ?");
+    getRepairSegmentStatePrepStmt = session
+        .prepare("SELECT segment_state FROM repair_run WHERE id = ? AND segment_id = ?")
+        .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    getRepairSegmentStatesByRunIdPrepStmt = session
+        .prepare("SELECT segment_state FROM repair_run WHERE id = ?")
+        .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    updateRepairSegmentCountPrepStmt = session
+        .prepare(
+            "UPDATE repair_run_segment_count_by_state SET segment_count = segment_count + ?"
+                + " WHERE run_id = ? AND segment_state = ?")
+        .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    getRepairSegmentCountsByRunIdPrepStmt = session.prepare(
+        "SELECT segment_state, segment_count FROM repair_run_segment_count_by_state WHERE run_id = ?");
+    deleteRepairSegmentCountsByRunIdPrepStmt = session.prepare(
+        "DELETE FROM repair_run_segment_count_by_state WHERE run_id = ?");
     try {
       getRepairSegmentsByRunIdAndStatePrepStmt = session.prepare(
           "SELECT id,repair_unit_id,segment_id,start_token,end_token,segment_state,coordinator_host,"
@@ -177,6 +230,10 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
 
   @Override
   public int getSegmentAmountForRepairRun(UUID runId) {
+    Optional<RepairRunProgress> progress = getRepairRunProgressFromCounters(runId);
+    if (progress.isPresent()) {
+      return progress.get().getSegmentsTotal();
+    }
     return (int) session
         .execute(getRepairSegmentCountByRunIdPrepStmt.bind(runId))
         .one()
@@ -185,6 +242,54 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
 
   @Override
   public int getSegmentAmountForRepairRunWithState(UUID runId, RepairSegment.State state) {
+    Optional<RepairRunProgress> progress = getRepairRunProgressFromCounters(runId);
+    if (progress.isPresent()) {
+      return progress.get().getSegmentAmount(state);
+    }
+    return countSegmentsWithState(runId, state);
+  }
+
+  @Override
+  public RepairRunProgress getRepairRunProgress(UUID runId) {
+    Optional<RepairRunProgress> progress = getRepairRunProgressFromCounters(runId);
+    if (progress.isPresent()) {
+      return progress.get();
+    }
+    // runs created before the counters existed
+    return countSegmentsByState(runId);
+  }
+
+  @Override
+  public RepairRunProgress countSegmentsByState(UUID runId) {
+    Map<RepairSegment.State, Integer> amountByState = new EnumMap<>(RepairSegment.State.class);
+    for (Row row : session.execute(getRepairSegmentStatesByRunIdPrepStmt.bind(runId))) {
+      // the run's own columns are static, a partition without segments still returns a row
+      if (!row.isNull("segment_state")) {
+        amountByState.merge(RepairSegment.State.values()[row.getInt("segment_state")], 1, Integer::sum);
+      }
+    }
+    return RepairRunProgress.of(amountByState);
+  }
+
+  public ResultSetFuture deleteRepairSegmentCountsForRunAsync(UUID runId) {
+    return session.executeAsync(deleteRepairSegmentCountsByRunIdPrepStmt.bind(runId));
+  }
+
+  private Optional<RepairRunProgress> getRepairRunProgressFromCounters(UUID runId) {
+    Map<RepairSegment.State, Integer> amountByState = new EnumMap<>(RepairSegment.State.class);
+    for (Row row : session.execute(getRepairSegmentCountsByRunIdPrepStmt.bind(runId))) {
+      long count = row.getLong("segment_count");
+      if (0 > count) {
+        // counters that were not initialised when the run was created only hold the transitions since
+        LOG.warn("Inconsistent segment counters for repair run {}, counting segments instead", runId);
+        return Optional.empty();
+      }
+      amountByState.put(RepairSegment.State.values()[row.getInt("segment_state")], (int) count);
+    }
+    return amountByState.isEmpty() ? Optional.empty() : Optional.of(RepairRunProgress.of(amountByState));
+  }
+
+  private int countSegmentsWithState(UUID runId, RepairSegment.State state) {
     if (null != getRepairSegmentCountByRunIdAndStatePrepStmt) {
       return (int) session
           .execute(getRepairSegmentCountByRunIdAndStatePrepStmt.bind(runId, state.ordinal()))
@@ -210,7 +315,11 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
   @Override
   public boolean updateRepairSegmentUnsafe(RepairSegment segment) {
 
-    BatchStatement updateRepairSegmentBatch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+    final Row previousStateRow = session
+        .execute(getRepairSegmentStatePrepStmt.bind(segment.getRunId(), segment.getId()))
+        .one();
+    // logged, so that the state index entry of the segment is never lost once its state has been written
+    BatchStatement updateRepairSegmentBatch = new BatchStatement(BatchStatement.Type.LOGGED);
 
     updateRepairSegmentBatch.add(
         updateRepairSegmentPrepStmt.bind(
@@ -246,7 +355,27 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
     } else if (RepairSegment.State.STARTED == segment.getState()) {
       updateRepairSegmentBatch.setConsistencyLevel(ConsistencyLevel.EACH_QUORUM);
     }
+
+    // keep the state index in line with the segment. Entries it still has under other states, left by concurrent
+    // updates, are harmless as readers always check the state of the segment itself
+    updateRepairSegmentBatch.add(
+        insertRepairSegmentStateIndexPrepStmt.bind(segment.getRunId(), segment.getState().ordinal(), segment.getId()));
+    if (null != previousStateRow && previousStateRow.getInt("segment_state") != segment.getState().ordinal()) {
+      updateRepairSegmentBatch.add(
+          deleteRepairSegmentStateIndexPrepStmt.bind(
+              segment.getRunId(), previousStateRow.getInt("segment_state"), segment.getId()));
+    }
     session.execute(updateRepairSegmentBatch);
+
+    // counter updates aren't idempotent, concurrent or retried transitions make them drift so they're only displayed
+    if (null != previousStateRow && previousStateRow.getInt("segment_state") != segment.getState().ordinal()) {
+      BatchStatement updateCountsBatch = new BatchStatement(BatchStatement.Type.COUNTER);
+      updateCountsBatch.add(
+          updateRepairSegmentCountPrepStmt.bind(-1L, segment.getRunId(), previousStateRow.getInt("segment_state")));
+      updateCountsBatch.add(
+          updateRepairSegmentCountPrepStmt.bind(1L, segment.getRunId(), segment.getState().ordinal()));
+      session.execute(updateCountsBatch);
+    }
     return true;
   }
 
@@ -275,30 +404,86 @@ public class CassandraRepairSegmentDao implements IRepairSegmentDao {
 
   @Override
   public List<RepairSegment> getNextFreeSegments(UUID runId) {
-    List<RepairSegment> segments = Lists.<RepairSegment>newArrayList(getRepairSegmentsForRun(runId));
-    Collections.shuffle(segments);
+    return getAllFreeSegments(runId, seg -> true);
+  }
 
-    Set<String> lockedNodes = cassandraConcurrencyDao.getLockedNodesForRun(runId);
-    List<RepairSegment> candidates = segments.stream()
-        .filter(seg -> segmentIsCandidate(seg, lockedNodes))
-        .collect(Collectors.toList());
-    return candidates;
+  @Override
+  public RepairSegmentPage getNextFreeSegments(UUID runId, Optional<UUID> cursor, int limit) {
+    return getFreeSegmentsPage(runId, cursor, limit, cassandraConcurrencyDao.getLockedNodesForRun(runId), seg -> true);
   }
 
   // TODO: this comes from IDistributed storage and probably shouldn't be here, despite being segment related.
   public List<RepairSegment> getNextFreeSegmentsForRanges(
       UUID runId,
       List<RingRange> ranges) {
-    List<RepairSegment> segments
-        = Lists.<RepairSegment>newArrayList(getRepairSegmentsForRun(runId));
-    Collections.shuffle(segments);
+    return getAllFreeSegments(runId, seg -> segmentIsWithinRanges(seg, ranges));
+  }
+
+  public RepairSegmentPage getNextFreeSegmentsForRanges(
+      UUID runId,
+      List<RingRange> ranges,
+      Optional<UUID> cursor,
+      int limit) {
+    return getFreeSegmentsPage(
+        runId,
+        cursor,
+        limit,
+        cassandraConcurrencyDao.getLockedNodesForRun(runId),
+        seg -> segmentIsWithinRanges(seg, ranges));
+  }
+
+  public ResultSetFuture deleteSegmentStateIndexForRunAsync(UUID runId) {
+    return session.executeAsync(deleteRepairSegmentStateIndexByRunIdPrepStmt.bind(runId));
+  }
+
+  private List<RepairSegment> getAllFreeSegments(UUID runId, Predicate<RepairSegment> filter) {
     Set<String> lockedNodes = cassandraConcurrencyDao.getLockedNodesForRun(runId);
+    List<RepairSegment> candidates = Lists.newArrayList();
+    Optional<UUID> cursor = Optional.empty();
+    do {
+      RepairSegmentPage page = getFreeSegmentsPage(runId, cursor, FREE_SEGMENTS_PAGE_SIZE, lockedNodes, filter);
+      candidates.addAll(page.getSegments());
+      cursor = page.getNextCursor();
+    } while (cursor.isPresent());
+
+    Collections.shuffle(candidates);
+    return candidates;
+  }
+
+  private RepairSegmentPage getFreeSegmentsPage(
+      UUID runId,
+      Optional<UUID> cursor,
+      int limit,
+      Set<String> lockedNodes,
+      Predicate<RepairSegment> filter) {
+
+    Preconditions.checkArgument(0 < limit, "page limit must be positive");
+    Statement idsStatement = cursor.isPresent()
+        ? getSegmentIdsByRunIdAndStateAfterCursorPrepStmt
+            .bind(runId, RepairSegment.State.NOT_STARTED.ordinal(), cursor.get(), limit)
+        : getSegmentIdsByRunIdAndStatePrepStmt.bind(runId, RepairSegment.State.NOT_STARTED.ordinal(), limit);
+
+    List<UUID> segmentIds = session.execute(idsStatement).all().stream()
+        .map(row -> row.getUUID("segment_id"))
+        .collect(Collectors.toList());
+
+    if (segmentIds.isEmpty()) {
+      return RepairSegmentPage.empty();
+    }
+    List<RepairSegment> segments = Lists.newArrayList();
+    for (Row segmentRow : session.execute(getRepairSegmentsByRunIdAndIdsPrepStmt.bind(runId, segmentIds))) {
+      segments.add(createRepairSegmentFromRow(segmentRow));
+    }
+    Collections.shuffle(segments);
+
     List<RepairSegment> candidates = segments.stream()
         .filter(seg -> segmentIsCandidate(seg, lockedNodes))
-        .filter(seg -> segmentIsWithinRanges(seg, ranges))
+        .filter(filter)
         .collect(Collectors.toList());
 
-    return candidates;
+    return RepairSegmentPage.of(
+        candidates,
+        segmentIds.size() < limit ? Optional.empty() : Optional.of(segmentIds.get(segmentIds.size() - 1)));
   }
 
   private boolean segmentIsWithinRanges(RepairSegment seg, List<RingRange> ranges) {
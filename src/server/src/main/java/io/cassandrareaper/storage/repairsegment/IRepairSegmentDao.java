@@ -47,11 +47,40 @@ public interface IRepairSegmentDao {
    */
   List<RepairSegment> getNextFreeSegments(UUID runId);
 
+  /**
+   * Reads a bounded page of NOT_STARTED segments that have none of their replicas locked, without scanning the
+   * segments of the run that are in other states.
+   *
+   * @param runId the run id that the segments belong to.
+   * @param cursor the cursor returned with the previous page, or nothing to start from the first segment.
+   * @param limit the maximum amount of NOT_STARTED segments to scan for this page.
+   * @return the free segments found in the page, along with the cursor of the next page.
+   */
+  RepairSegmentPage getNextFreeSegments(UUID runId, Optional<UUID> cursor, int limit);
+
   Collection<RepairSegment> getSegmentsWithState(UUID runId, RepairSegment.State segmentState);
 
   int getSegmentAmountForRepairRun(UUID runId);
 
   int getSegmentAmountForRepairRunWithState(UUID runId, RepairSegment.State state);
 
+  /**
+   * Reads the per state segment counters of a run, which are maintained on each segment state transition.
+   * The counters can drift from the actual states of the segments, so they are only meant for display.
+   *
+   * @param runId the run id that the segments belong to.
+   * @return the amount of segments of the run in each state.
+   */
+  RepairRunProgress getRepairRunProgress(UUID runId);
+
+  /**
+   * Counts the segments of a run in each state from the segments themselves. It reads every segment of the run, and
+   * is what decides whether a run is complete.
+   *
+   * @param runId the run id that the segments belong to.
+   * @return the amount of segments of the run in each state.
+   */
+  RepairRunProgress countSegmentsByState(UUID runId);
+
 
 }
\ No newline at end of file
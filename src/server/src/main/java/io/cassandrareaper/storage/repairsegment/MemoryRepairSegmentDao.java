@@ -20,14 +20,20 @@ package io.cassandrareaper.storage.repairsegment;
 
 import io.cassandrareaper.core.RepairSegment;
 import io.cassandrareaper.storage.MemoryStorageFacade;
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.datastax.driver.core.utils.UUIDs;
@@ -38,31 +44,65 @@ public class MemoryRepairSegmentDao implements IRepairSegmentDao {
 
   public final ConcurrentMap<UUID, LinkedHashMap<UUID, RepairSegment>> repairSegmentsByRunId = Maps.newConcurrentMap();
   private final MemoryStorageFacade memoryStorageFacade;
+  private final IJournal journal;
   private final ConcurrentMap<UUID, RepairSegment> repairSegments = Maps.newConcurrentMap();
-
-  public MemoryRepairSegmentDao(MemoryStorageFacade memoryStorageFacade) {
+  // segment ids of each run, indexed by segment state
+  private final ConcurrentMap<UUID, Map<RepairSegment.State, NavigableSet<UUID>>> segmentIdsByRunIdAndState
+      = Maps.newConcurrentMap();
+  // amount of segments of each run, by segment state
+  private final ConcurrentMap<UUID, Map<RepairSegment.State, AtomicInteger>> segmentCountsByRunIdAndState
+      = Maps.newConcurrentMap();
+
+  public MemoryRepairSegmentDao(MemoryStorageFacade memoryStorageFacade, IJournal journal) {
     this.memoryStorageFacade = memoryStorageFacade;
+    this.journal = journal;
   }
 
   public int deleteRepairSegmentsForRun(UUID runId) {
     Map<UUID, RepairSegment> segmentsMap = repairSegmentsByRunId.remove(runId);
+    segmentIdsByRunIdAndState.remove(runId);
+    segmentCountsByRunIdAndState.remove(runId);
     if (null != segmentsMap) {
       for (RepairSegment segment : segmentsMap.values()) {
         this.repairSegments.remove(segment.getId());
+        journal.recordChange(RecordType.REPAIR_SEGMENT, segment.getId());
       }
     }
     return segmentsMap != null ? segmentsMap.size() : 0;
   }
 
   public void addRepairSegments(Collection<RepairSegment.Builder> segments, UUID runId) {
+    List<RepairSegment> newSegments = segments.stream()
+        .map(segment -> segment.withRunId(runId).withId(UUIDs.timeBased()).build())
+        .collect(Collectors.toList());
+    putRepairSegments(runId, newSegments);
+    newSegments.forEach(segment -> journal.recordChange(RecordType.REPAIR_SEGMENT, segment.getId()));
+  }
+
+  /**
+   * Loads the segments of a run read back from disk, in their original order.
+   */
+  public void restoreRepairSegments(UUID runId, Collection<RepairSegment> segments) {
+    putRepairSegments(runId, segments);
+  }
+
+  private void putRepairSegments(UUID runId, Collection<RepairSegment> segments) {
     LinkedHashMap<UUID, RepairSegment> newSegments = Maps.newLinkedHashMap();
-    for (RepairSegment.Builder segment : segments) {
-      RepairSegment newRepairSegment = segment.withRunId(runId).withId(UUIDs.timeBased()).build();
+    Map<RepairSegment.State, NavigableSet<UUID>> segmentIdsByState = new EnumMap<>(RepairSegment.State.class);
+    Map<RepairSegment.State, AtomicInteger> segmentCountsByState = new EnumMap<>(RepairSegment.State.class);
+    for (RepairSegment.State state : RepairSegment.State.values()) {
+      segmentIdsByState.put(state, new ConcurrentSkipListSet<>(RepairSegmentPage.SEGMENT_ID_ORDER));
+      segmentCountsByState.put(state, new AtomicInteger());
+    }
+    for (RepairSegment newRepairSegment : segments) {
       this.repairSegments.put(newRepairSegment.getId(), newRepairSegment);
       newSegments.put(newRepairSegment.getId(), newRepairSegment);
+      segmentIdsByState.get(newRepairSegment.getState()).add(newRepairSegment.getId());
+      segmentCountsByState.get(newRepairSegment.getState()).incrementAndGet();
     }
+    segmentIdsByRunIdAndState.put(runId, segmentIdsByState);
+    segmentCountsByRunIdAndState.put(runId, segmentCountsByState);
     repairSegmentsByRunId.put(runId, newSegments);
-
   }
 
   @Override
@@ -71,9 +111,25 @@ public class MemoryRepairSegmentDao implements IRepairSegmentDao {
         newRepairSegment.getId()) == null) {
       return false;
     } else {
-      this.repairSegments.put(newRepairSegment.getId(), newRepairSegment);
+      RepairSegment oldRepairSegment = this.repairSegments.put(newRepairSegment.getId(), newRepairSegment);
       LinkedHashMap<UUID, RepairSegment> updatedSegment = repairSegmentsByRunId.get(newRepairSegment.getRunId());
       updatedSegment.put(newRepairSegment.getId(), newRepairSegment);
+      Map<RepairSegment.State, NavigableSet<UUID>> segmentIdsByState
+          = segmentIdsByRunIdAndState.get(newRepairSegment.getRunId());
+      if (null != segmentIdsByState) {
+        if (null != oldRepairSegment && oldRepairSegment.getState() != newRepairSegment.getState()) {
+          segmentIdsByState.get(oldRepairSegment.getState()).remove(newRepairSegment.getId());
+        }
+        segmentIdsByState.get(newRepairSegment.getState()).add(newRepairSegment.getId());
+      }
+      Map<RepairSegment.State, AtomicInteger> segmentCountsByState
+          = segmentCountsByRunIdAndState.get(newRepairSegment.getRunId());
+      if (null != segmentCountsByState && null != oldRepairSegment
+          && oldRepairSegment.getState() != newRepairSegment.getState()) {
+        segmentCountsByState.get(oldRepairSegment.getState()).decrementAndGet();
+        segmentCountsByState.get(newRepairSegment.getState()).incrementAndGet();
+      }
+      journal.recordChange(RecordType.REPAIR_SEGMENT, newRepairSegment.getId());
       return true;
     }
   }
@@ -89,6 +145,10 @@ public class MemoryRepairSegmentDao implements IRepairSegmentDao {
     return Optional.ofNullable(repairSegments.get(segmentId));
   }
 
+  public Optional<RepairSegment> getRepairSegment(UUID segmentId) {
+    return Optional.ofNullable(repairSegments.get(segmentId));
+  }
+
   @Override
   public Collection<RepairSegment> getRepairSegmentsForRun(UUID runId) {
     return repairSegmentsByRunId.get(runId).values();
@@ -101,11 +161,39 @@ public class MemoryRepairSegmentDao implements IRepairSegmentDao {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public RepairSegmentPage getNextFreeSegments(UUID runId, Optional<UUID> cursor, int limit) {
+    Map<RepairSegment.State, NavigableSet<UUID>> segmentIdsByState = segmentIdsByRunIdAndState.get(runId);
+    if (null == segmentIdsByState) {
+      return RepairSegmentPage.empty();
+    }
+    NavigableSet<UUID> notStartedIds = segmentIdsByState.get(RepairSegment.State.NOT_STARTED);
+    if (cursor.isPresent()) {
+      notStartedIds = notStartedIds.tailSet(cursor.get(), false);
+    }
+    List<RepairSegment> segments = Lists.newArrayList();
+    UUID lastId = null;
+    int scanned = 0;
+    for (UUID segmentId : notStartedIds) {
+      if (scanned++ == limit) {
+        break;
+      }
+      lastId = segmentId;
+      RepairSegment segment = repairSegments.get(segmentId);
+      if (null != segment && segment.getState() == RepairSegment.State.NOT_STARTED) {
+        segments.add(segment);
+      }
+    }
+    return RepairSegmentPage.of(segments, scanned > limit ? Optional.of(lastId) : Optional.empty());
+  }
+
   @Override
   public Collection<RepairSegment> getSegmentsWithState(UUID runId, RepairSegment.State segmentState) {
     List<RepairSegment> segments = Lists.newArrayList();
-    for (RepairSegment segment : repairSegmentsByRunId.get(runId).values()) {
-      if (segment.getState() == segmentState) {
+    Map<RepairSegment.State, NavigableSet<UUID>> segmentIdsByState = segmentIdsByRunIdAndState.get(runId);
+    for (UUID segmentId : segmentIdsByState.get(segmentState)) {
+      RepairSegment segment = repairSegments.get(segmentId);
+      if (null != segment && segment.getState() == segmentState) {
         segments.add(segment);
       }
     }
@@ -114,21 +202,31 @@ public class MemoryRepairSegmentDao implements IRepairSegmentDao {
 
   @Override
   public int getSegmentAmountForRepairRun(UUID runId) {
-    Map<UUID, RepairSegment> segmentsMap = repairSegmentsByRunId.get(runId);
-    return segmentsMap == null ? 0 : segmentsMap.size();
+    return getRepairRunProgress(runId).getSegmentsTotal();
   }
 
   @Override
   public int getSegmentAmountForRepairRunWithState(UUID runId, RepairSegment.State state) {
-    Map<UUID, RepairSegment> segmentsMap = repairSegmentsByRunId.get(runId);
-    int amount = 0;
-    if (null != segmentsMap) {
-      for (RepairSegment segment : segmentsMap.values()) {
-        if (segment.getState() == state) {
-          amount += 1;
-        }
-      }
+    return getRepairRunProgress(runId).getSegmentAmount(state);
+  }
+
+  @Override
+  public RepairRunProgress countSegmentsByState(UUID runId) {
+    Map<RepairSegment.State, Integer> amountByState = new EnumMap<>(RepairSegment.State.class);
+    Map<UUID, RepairSegment> segments = repairSegmentsByRunId.get(runId);
+    if (null != segments) {
+      segments.values().forEach(segment -> amountByState.merge(segment.getState(), 1, Integer::sum));
+    }
+    return RepairRunProgress.of(amountByState);
+  }
+
+  @Override
+  public RepairRunProgress getRepairRunProgress(UUID runId) {
+    Map<RepairSegment.State, Integer> amountByState = new EnumMap<>(RepairSegment.State.class);
+    Map<RepairSegment.State, AtomicInteger> segmentCountsByState = segmentCountsByRunIdAndState.get(runId);
+    if (null != segmentCountsByState) {
+      segmentCountsByState.forEach((state, count) -> amountByState.put(state, count.get()));
     }
-    return amount;
+    return RepairRunProgress.of(amountByState);
   }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.repairsegment;
+
+import io.cassandrareaper.core.RepairSegment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The amount of segments of a repair run in each state.
+ */
+public final class RepairRunProgress {
+
+  private final Map<RepairSegment.State, Integer> amountByState;
+  private final int total;
+
+  private RepairRunProgress(Map<RepairSegment.State, Integer> amountByState) {
+    this.amountByState = amountByState;
+    this.total = amountByState.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  public static RepairRunProgress of(Map<RepairSegment.State, Integer> amountByState) {
+    Map<RepairSegment.State, Integer> amounts = new EnumMap<>(RepairSegment.State.class);
+    for (RepairSegment.State state : RepairSegment.State.values()) {
+      amounts.put(state, amountByState.getOrDefault(state, 0));
+    }
+    return new RepairRunProgress(amounts);
+  }
+
+  public int getSegmentAmount(RepairSegment.State state) {
+    return amountByState.get(state);
+  }
+
+  public int getSegmentsDone() {
+    return getSegmentAmount(RepairSegment.State.DONE);
+  }
+
+  public int getSegmentsTotal() {
+    return total;
+  }
+
+  /**
+   * @return the ratio of segments that are done, between 0 and 1.
+   */
+  public float getProgress() {
+    return 0 == total ? 0 : (float) getSegmentsDone() / total;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.repairsegment;
+
+import io.cassandrareaper.core.RepairSegment;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A bounded page of repair segments, along with the cursor to pass in to read the following page.
+ */
+public final class RepairSegmentPage {
+
+  /**
+   * The order segments are paged in, the one of their time based ids as clustered by Cassandra.
+   */
+  public static final Comparator<UUID> SEGMENT_ID_ORDER
+      = Comparator.comparingLong(UUID::timestamp).thenComparing(Comparator.naturalOrder());
+
+  private static final RepairSegmentPage EMPTY = new RepairSegmentPage(ImmutableList.of(), Optional.empty());
+
+  private final List<RepairSegment> segments;
+  private final Optional<UUID> nextCursor;
+
+  private RepairSegmentPage(List<RepairSegment> segments, Optional<UUID> nextCursor) {
+    this.segments = segments;
+    this.nextCursor = nextCursor;
+  }
+
+  public static RepairSegmentPage of(List<RepairSegment> segments, Optional<UUID> nextCursor) {
+    return new RepairSegmentPage(ImmutableList.copyOf(segments), nextCursor);
+  }
+
+  public static RepairSegmentPage empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the segments of this page. Can be empty even when there are further pages to read.
+   */
+  public List<RepairSegment> getSegments() {
+    return segments;
+  }
+
+  /**
+   * @return the id of the last segment scanned for this page, or nothing if this was the last page.
+   */
+  public Optional<UUID> getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean isLastPage() {
+    return !nextCursor.isPresent();
+  }
+}
@@ -19,6 +19,9 @@ package io.cassandrareaper.storage.repairunit;
 
 import io.cassandrareaper.core.RepairUnit;
 
+import io.cassandrareaper.storage.journal.IJournal;
+import io.cassandrareaper.storage.journal.RecordType;
+
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
@@ -31,7 +34,10 @@ public class MemoryRepairUnitDao implements IRepairUnitDao {
   public final ConcurrentMap<UUID, RepairUnit> repairUnits = Maps.newConcurrentMap();
   public final ConcurrentMap<RepairUnit.Builder, RepairUnit> repairUnitsByKey = Maps.newConcurrentMap();
 
-  public MemoryRepairUnitDao() {
+  private final IJournal journal;
+
+  public MemoryRepairUnitDao(IJournal journal) {
+    this.journal = journal;
   }
 
   /**
@@ -50,6 +56,7 @@ public class MemoryRepairUnitDao implements IRepairUnitDao {
       RepairUnit newRepairUnit = repairUnit.build(UUIDs.timeBased());
       repairUnits.put(newRepairUnit.getId(), newRepairUnit);
       repairUnitsByKey.put(repairUnit, newRepairUnit);
+      journal.recordChange(RecordType.REPAIR_UNIT, newRepairUnit.getId());
       return newRepairUnit;
     }
   }
@@ -58,6 +65,7 @@ public class MemoryRepairUnitDao implements IRepairUnitDao {
   public void updateRepairUnit(RepairUnit updatedRepairUnit) {
     repairUnits.put(updatedRepairUnit.getId(), updatedRepairUnit);
     repairUnitsByKey.put(updatedRepairUnit.with(), updatedRepairUnit);
+    journal.recordChange(RecordType.REPAIR_UNIT, updatedRepairUnit.getId());
   }
 
   @Override
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import io.cassandrareaper.resources.view.NodesStatus;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EndpointTopologyTest {
+
+  @Test
+  public void testTopologyFromGossip() {
+    NodesStatus nodesStatus = new NodesStatus(
+        "127.0.0.1",
+        "/127.0.0.1\n  generation:1\n  heartbeat:10\n  STATUS:14:NORMAL,-1\n  DC:8:dc1\n  RACK:10:rack1\n"
+            + "/127.0.0.2\n  generation:1\n  heartbeat:10\n  STATUS:14:NORMAL,-1\n  DC:8:dc2\n  RACK:10:rack2\n"
+            + "/127.0.0.3\n  generation:1\n  heartbeat:10\n  STATUS:14:NORMAL,-1\n",
+        ImmutableMap.of("127.0.0.1", "UP", "127.0.0.2", "UP", "127.0.0.3", "UP"));
+
+    EndpointTopology topology = EndpointTopology.of(nodesStatus);
+
+    assertThat(topology.getDatacenter("127.0.0.1")).contains("dc1");
+    assertThat(topology.getRack("127.0.0.1")).contains("rack1");
+    assertThat(topology.getDatacenter("127.0.0.2")).contains("dc2");
+    assertThat(topology.getRack("127.0.0.2")).contains("rack2");
+    // endpoints which didn't gossip their location are left to the endpoint snitch
+    assertThat(topology.getDatacenter("127.0.0.3")).isEmpty();
+    assertThat(topology.getDatacenter("127.0.0.4")).isEmpty();
+    assertThat(topology.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void testEmptyTopology() {
+    assertThat(EndpointTopology.of(null).getDatacenter("127.0.0.1")).isEmpty();
+    assertThat(EndpointTopology.empty().size()).isZero();
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class RepairNotificationDispatcherTest {
+
+  @Test
+  public void testNotificationsOfARepairAreHandledInOrder() throws InterruptedException {
+    RepairNotificationDispatcher dispatcher = new RepairNotificationDispatcher(4);
+    Map<Integer, List<Integer>> handled = new ConcurrentHashMap<>();
+    CountDownLatch done = new CountDownLatch(20 * 100);
+
+    for (int i = 0; i < 100; ++i) {
+      for (int repairNo = 0; repairNo < 20; ++repairNo) {
+        final int repair = repairNo;
+        final int sequence = i;
+        dispatcher.dispatch("127.0.0.1", repair, () -> {
+          handled.computeIfAbsent(repair, (key) -> new CopyOnWriteArrayList<>()).add(sequence);
+          done.countDown();
+        });
+      }
+    }
+
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(handled).hasSize(20);
+    handled.values().forEach((sequences) -> assertThat(sequences).isSorted().hasSize(100));
+    assertThat(dispatcher.getDispatchLatency().getCount()).isEqualTo(20 * 100);
+  }
+
+  @Test
+  public void testRepairsAreSpreadOverTheStripes() {
+    RepairNotificationDispatcher dispatcher = new RepairNotificationDispatcher(4);
+    assertThat(dispatcher.stripeOf("127.0.0.1", 1)).isEqualTo(dispatcher.stripeOf("127.0.0.1", 1));
+    for (int repairNo = 0; repairNo < 100; ++repairNo) {
+      assertThat(dispatcher.stripeOf("127.0.0.1", repairNo)).isBetween(0, 3);
+      assertThat(dispatcher.stripeOf("127.0.0.2", -repairNo)).isBetween(0, 3);
+    }
+  }
+
+  @Test
+  public void testMetricsAreRegisteredOnce() throws InterruptedException {
+    RepairNotificationDispatcher dispatcher = new RepairNotificationDispatcher(1);
+    MetricRegistry registry = new MetricRegistry();
+    dispatcher.registerMetrics(registry);
+    dispatcher.registerMetrics(registry);
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+    for (int i = 0; i < 3; ++i) {
+      dispatcher.dispatch("127.0.0.1", 1, () -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        done.countDown();
+      });
+    }
+
+    // the first task is running, the others are queued behind it
+    assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(registry.getGauges().get(RepairNotificationDispatcher.QUEUE_DEPTH_METRIC).getValue()).isEqualTo(2);
+    release.countDown();
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(registry.getTimers().get(RepairNotificationDispatcher.DISPATCH_LATENCY_METRIC).getCount()).isEqualTo(3);
+  }
+}
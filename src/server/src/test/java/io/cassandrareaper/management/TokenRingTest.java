@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management;
+
+import io.cassandrareaper.service.RingRange;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class TokenRingTest {
+
+  private static final Map<List<String>, List<String>> RANGE_TO_ENDPOINT = ImmutableMap.of(
+      ImmutableList.of("-100", "0"), ImmutableList.of("node1", "node2"),
+      ImmutableList.of("0", "100"), ImmutableList.of("node2", "node3"),
+      ImmutableList.of("100", "200"), ImmutableList.of("node3", "node1"),
+      ImmutableList.of("200", "-100"), ImmutableList.of("node1", "node3"));
+
+  @Test
+  public void testSegmentWithinARange() {
+    TokenRing ring = TokenRing.of(RANGE_TO_ENDPOINT);
+    assertThat(ring.getReplicas(new RingRange("10", "20"))).contains(ImmutableList.of("node2", "node3"));
+    assertThat(ring.getReplicas(new RingRange("-100", "0"))).contains(ImmutableList.of("node1", "node2"));
+    assertThat(ring.getReplicas(new RingRange("199", "200"))).contains(ImmutableList.of("node3", "node1"));
+  }
+
+  @Test
+  public void testSegmentWithinTheWrappingRange() {
+    TokenRing ring = TokenRing.of(RANGE_TO_ENDPOINT);
+    assertThat(ring.getReplicas(new RingRange("300", "400"))).contains(ImmutableList.of("node1", "node3"));
+    assertThat(ring.getReplicas(new RingRange("-200", "-150"))).contains(ImmutableList.of("node1", "node3"));
+    assertThat(ring.getReplicas(new RingRange("250", "-150"))).contains(ImmutableList.of("node1", "node3"));
+  }
+
+  @Test
+  public void testSegmentSpanningRanges() {
+    TokenRing ring = TokenRing.of(RANGE_TO_ENDPOINT);
+    assertThat(ring.getReplicas(new RingRange("50", "150"))).isEmpty();
+    assertThat(ring.getReplicas(new RingRange("150", "-150"))).isEmpty();
+  }
+
+  @Test
+  public void testRangeToEndpointIsKept() {
+    assertThat(TokenRing.of(RANGE_TO_ENDPOINT).getRangeToEndpoint()).isSameAs(RANGE_TO_ENDPOINT);
+  }
+
+  @Test
+  public void testEmptyRing() {
+    assertThat(TokenRing.of(ImmutableMap.of()).getReplicas(new RingRange("10", "20"))).isEmpty();
+  }
+}
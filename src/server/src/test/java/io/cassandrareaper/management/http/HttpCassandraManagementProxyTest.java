@@ -37,7 +37,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.codahale.metrics.MetricRegistry;
@@ -55,9 +58,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.collect.Maps;
+import okhttp3.OkHttpClient;
 import org.apache.cassandra.repair.RepairParallelism;
 import org.apache.commons.lang3.concurrent.ConcurrentUtils;
+import org.awaitility.Awaitility;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
@@ -158,13 +163,11 @@ public class HttpCassandraManagementProxyTest {
     assertTrue(httpCassandraManagementProxy.jobTracker.containsKey(jobId));
     JobStatusTracker jobStatus = httpCassandraManagementProxy.jobTracker.get(jobId);
     assertEquals(0, jobStatus.latestNotificationCount.get());
-    assertEquals(1, httpCassandraManagementProxy.repairStatusExecutors.size());
     assertEquals(1, httpCassandraManagementProxy.repairStatusHandlers.size());
     assertTrue(httpCassandraManagementProxy.repairStatusHandlers.containsKey(repairNo));
 
     httpCassandraManagementProxy.removeRepairStatusHandler(repairNo);
     assertEquals(0, httpCassandraManagementProxy.jobTracker.size());
-    assertEquals(0, httpCassandraManagementProxy.repairStatusExecutors.size());
     assertEquals(0, httpCassandraManagementProxy.repairStatusHandlers.size());
   }
 
@@ -185,7 +188,7 @@ public class HttpCassandraManagementProxyTest {
     RepairStatusHandler workAroundHandler = (repairNumber, status, progress, message, cassandraManagementProxy)
         -> callTimes.incrementAndGet();
 
-    int repairNo = httpCassandraManagementProxy.triggerRepair("ks",
+    final int repairNo = httpCassandraManagementProxy.triggerRepair("ks",
         RepairParallelism.PARALLEL,
         Collections.singleton("table"), true, Collections.emptyList(), workAroundHandler,
         Collections.emptyList(), 1);
@@ -202,9 +205,6 @@ public class HttpCassandraManagementProxyTest {
         )
     );
 
-    // We want the execution to happen in the same thread for this test
-    httpCassandraManagementProxy.repairStatusExecutors.put(repairNo, MoreExecutors.newDirectExecutorService());
-
     Job job = new Job();
     job.setId("repair-123456789");
     StatusChange firstSc = new StatusChange();
@@ -224,7 +224,8 @@ public class HttpCassandraManagementProxyTest {
     assertEquals(1, jobStatus.latestNotificationCount.get());
 
     verify(mockClient, times(1)).getJobStatus(any());
-    assertEquals(1, callTimes.get());
+    // the status changes are handled asynchronously, in order, by the shared notification dispatcher
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> 1 == callTimes.get());
 
     StatusChange secondSc = new StatusChange();
     secondSc.setStatus("COMPLETE");
@@ -234,7 +235,101 @@ public class HttpCassandraManagementProxyTest {
     httpCassandraManagementProxy.notificationsTracker().run();
     jobStatus = httpCassandraManagementProxy.jobTracker.get(jobId);
     assertEquals(2, jobStatus.latestNotificationCount.get());
-    assertEquals(2, callTimes.get());
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> 2 == callTimes.get());
+  }
+
+  @Test
+  public void testTriggerRepairSchedulesAQuickPoll() throws Exception {
+    DefaultApi mockClient = mock(DefaultApi.class);
+    doReturn((new RepairRequestResponse()).repairId("repair-123456789")).when(mockClient).putRepairV2(any());
+    HttpCassandraManagementProxy proxy = mockProxy(mockClient);
+
+    proxy.triggerRepair("ks", RepairParallelism.PARALLEL, Collections.singleton("table"), true,
+        Collections.emptyList(), Mockito.mock(RepairStatusHandler.class), Collections.emptyList(), 1);
+
+    verify(proxy.statusTracker).schedule(any(Runnable.class),
+        eq((long) HttpCassandraManagementProxy.MIN_POLL_INTERVAL_IN_MILLISECONDS), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testRepairTriggeredDuringASlowPollIsNotPolledConcurrently() throws Exception {
+    DefaultApi mockClient = mock(DefaultApi.class);
+    doReturn((new RepairRequestResponse()).repairId("repair-1"), (new RepairRequestResponse()).repairId("repair-2"))
+        .when(mockClient).putRepairV2(any());
+    CountDownLatch pollStarted = new CountDownLatch(1);
+    CountDownLatch releasePoll = new CountDownLatch(1);
+    AtomicInteger concurrentPolls = new AtomicInteger(0);
+    AtomicInteger maxConcurrentPolls = new AtomicInteger(0);
+    AtomicInteger statusPolls = new AtomicInteger(0);
+    when(mockClient.getJobStatus(anyString())).then(invocation -> {
+      maxConcurrentPolls.accumulateAndGet(concurrentPolls.incrementAndGet(), Math::max);
+      try {
+        if (0 == statusPolls.getAndIncrement()) {
+          pollStarted.countDown();
+          releasePoll.await();
+        }
+        StatusChange statusChange = new StatusChange();
+        statusChange.setStatus("START");
+        statusChange.setMessage("");
+        Job job = new Job();
+        job.setId(invocation.getArgument(0));
+        job.setStatusChanges(Lists.newArrayList(statusChange));
+        return job;
+      } finally {
+        concurrentPolls.decrementAndGet();
+      }
+    });
+    ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    try {
+      HttpCassandraManagementProxy proxy = new HttpCassandraManagementProxy(
+          null,
+          "/",
+          InetSocketAddress.createUnresolved("localhost", 8080),
+          executor,
+          mockClient,
+          ReaperApplicationConfiguration.DEFAULT_MGMT_API_METRICS_PORT,
+          Mockito.mock(Node.class),
+          Mockito.mock(OkHttpClient.class));
+      Map<Integer, AtomicInteger> handledByRepair = Maps.newConcurrentMap();
+      RepairStatusHandler handler = (repairNumber, status, progress, message, cassandraManagementProxy)
+          -> handledByRepair.computeIfAbsent(repairNumber, number -> new AtomicInteger()).incrementAndGet();
+
+      proxy.triggerRepair("ks", RepairParallelism.PARALLEL, Collections.singleton("table"), true,
+          Collections.emptyList(), handler, Collections.emptyList(), 1);
+      assertTrue(pollStarted.await(10, TimeUnit.SECONDS));
+      proxy.triggerRepair("ks", RepairParallelism.PARALLEL, Collections.singleton("table"), true,
+          Collections.emptyList(), handler, Collections.emptyList(), 1);
+      // longer than the poll interval the second repair reset
+      Thread.sleep(3 * HttpCassandraManagementProxy.MIN_POLL_INTERVAL_IN_MILLISECONDS);
+      releasePoll.countDown();
+
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> 2 == handledByRepair.size());
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> 4 <= statusPolls.get());
+      assertEquals(1, maxConcurrentPolls.get());
+      assertEquals(1, handledByRepair.get(1).get());
+      assertEquals(1, handledByRepair.get(2).get());
+      proxy.removeRepairStatusHandler(1);
+      proxy.removeRepairStatusHandler(2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testNextPollInterval() {
+    long min = HttpCassandraManagementProxy.MIN_POLL_INTERVAL_IN_MILLISECONDS;
+    long max = HttpCassandraManagementProxy.DEFAULT_POLL_INTERVAL_IN_MILLISECONDS;
+
+    // progress resets the interval
+    assertEquals(min, HttpCassandraManagementProxy.nextPollInterval(4000, true, 0));
+    // no progress backs off up to the default interval while the job durations are unknown
+    assertEquals(2 * min, HttpCassandraManagementProxy.nextPollInterval(min, false, 0));
+    assertEquals(max, HttpCassandraManagementProxy.nextPollInterval(4000, false, 0));
+    // short jobs cap the backoff to a quarter of their average duration
+    assertEquals(750, HttpCassandraManagementProxy.nextPollInterval(2000, false, 3000));
+    assertEquals(min, HttpCassandraManagementProxy.nextPollInterval(min, false, 100));
+    // long jobs never back off beyond the default interval
+    assertEquals(max, HttpCassandraManagementProxy.nextPollInterval(4000, false, 600_000));
   }
 
   @Test
@@ -484,7 +579,8 @@ public class HttpCassandraManagementProxyTest {
         executorService,
         mockClient,
         ReaperApplicationConfiguration.DEFAULT_MGMT_API_METRICS_PORT,
-        Mockito.mock(Node.class));
+        Mockito.mock(Node.class),
+        Mockito.mock(OkHttpClient.class));
   }
 
   @Test
@@ -706,6 +802,7 @@ public class HttpCassandraManagementProxyTest {
             mockClient,
             ReaperApplicationConfiguration.DEFAULT_MGMT_API_METRICS_PORT,
             Mockito.mock(Node.class),
+            Mockito.mock(OkHttpClient.class),
             metricsProxy);
 
     assertEquals("Number of pending compactions isn't the expected value", 5, proxy.getPendingCompactions());
@@ -751,6 +848,7 @@ public class HttpCassandraManagementProxyTest {
             mockClient,
             ReaperApplicationConfiguration.DEFAULT_MGMT_API_METRICS_PORT,
             Mockito.mock(Node.class),
+            Mockito.mock(OkHttpClient.class),
             metricsProxy);
 
     proxy.getPendingCompactions();
@@ -771,6 +869,7 @@ public class HttpCassandraManagementProxyTest {
             mockClient,
             ReaperApplicationConfiguration.DEFAULT_MGMT_API_METRICS_PORT,
             Mockito.mock(Node.class),
+            Mockito.mock(OkHttpClient.class),
             metricsProxy);
     proxy.getPendingCompactions();
   }
@@ -23,6 +23,7 @@ import io.cassandrareaper.core.GenericMetric;
 import io.cassandrareaper.core.Node;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
@@ -277,7 +278,7 @@ public class HttpMetricsProxyTest {
     when(response.isSuccessful()).thenReturn(true);
 
     ResponseBody responseBody = Mockito.mock(ResponseBody.class);
-    when(responseBody.string()).thenReturn(responseBodyStr);
+    when(responseBody.charStream()).thenReturn(new StringReader(responseBodyStr));
     when(response.body()).thenReturn(responseBody);
 
     HttpCassandraManagementProxy httpManagementProxy = Mockito.mock(HttpCassandraManagementProxy.class);
@@ -321,7 +322,7 @@ public class HttpMetricsProxyTest {
     when(response.isSuccessful()).thenReturn(true);
 
     ResponseBody responseBody = Mockito.mock(ResponseBody.class);
-    when(responseBody.string()).thenReturn(responseBodyStr);
+    when(responseBody.charStream()).thenReturn(new StringReader(responseBodyStr));
     when(response.body()).thenReturn(responseBody);
 
     HttpCassandraManagementProxy httpManagementProxy = Mockito.mock(HttpCassandraManagementProxy.class);
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.management.http;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class PrometheusTextParserTest {
+
+  @Test
+  public void testOnlySamplesWithThePrefixAreParsed() throws IOException {
+    String text = "# HELP jvm_threads_current Current thread count of a JVM\n"
+        + "# TYPE jvm_threads_current gauge\n"
+        + "jvm_threads_current 86.0\n"
+        + "\n"
+        + "# TYPE org_apache_cassandra_metrics_thread_pools_pending_tasks gauge\n"
+        + "org_apache_cassandra_metrics_thread_pools_pending_tasks{pool_name=\"TPC\",} 3.0\n"
+        + "org_apache_cassandra_metrics_thread_pools_max_pool_size{pool_name=\"Repair\"} 2.147483647E9\n";
+
+    List<Sample> samples = parse(text, "org_apache_cassandra_metrics_thread_pools");
+
+    assertThat(samples).hasSize(2);
+    assertThat(samples.get(0).name).isEqualTo("org_apache_cassandra_metrics_thread_pools_pending_tasks");
+    assertThat(samples.get(0).labels).isEqualTo(ImmutableMap.of("pool_name", "TPC"));
+    assertThat(samples.get(0).value).isEqualTo(3.0);
+    assertThat(samples.get(1).labels).isEqualTo(ImmutableMap.of("pool_name", "Repair"));
+    assertThat(samples.get(1).value).isEqualTo(2147483647.0);
+  }
+
+  @Test
+  public void testEscapedLabelValuesAndTimestamps() throws IOException {
+    String text = "metric{a=\"x\\\"y\", b = \"1,2}\", c=\"back\\\\slash\\nnew line\"} 1.5 1395066363000\n";
+
+    List<Sample> samples = parse(text, "metric");
+
+    assertThat(samples).hasSize(1);
+    assertThat(samples.get(0).labels)
+        .isEqualTo(ImmutableMap.of("a", "x\"y", "b", "1,2}", "c", "back\\slash\nnew line"));
+    assertThat(samples.get(0).value).isEqualTo(1.5);
+  }
+
+  @Test
+  public void testSpecialValuesAndMalformedSamples() throws IOException {
+    String text = "metric_nan NaN\n"
+        + "metric_inf{le=\"+Inf\"} +Inf\n"
+        + "metric_negative -2\n"
+        + "metric_broken{le=\"1\" 0.0\n"
+        + "metric_garbage{} twelve\n";
+
+    List<Sample> samples = parse(text, "metric");
+
+    assertThat(samples).hasSize(3);
+    assertThat(samples.get(0).value).isNaN();
+    assertThat(samples.get(1).value).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(samples.get(2).labels).isEmpty();
+    assertThat(samples.get(2).value).isEqualTo(-2.0);
+  }
+
+  private static List<Sample> parse(String text, String prefix) throws IOException {
+    List<Sample> samples = Lists.newArrayList();
+    PrometheusTextParser.parse(
+        new StringReader(text), prefix, (name, labels, value) -> samples.add(new Sample(name, labels, value)));
+    return samples;
+  }
+
+  private static final class Sample {
+    private final String name;
+    private final Map<String, String> labels;
+    private final double value;
+
+    Sample(String name, Map<String, String> labels, double value) {
+      this.name = name;
+      this.labels = labels;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.management.jmx;
+
+import io.cassandrareaper.ReaperApplicationConfiguration.Jmxmp;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.StandardEmitterMBean;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.cassandra.service.StorageServiceMBean;
+import org.apache.cassandra.streaming.StreamManagerMBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class JmxCassandraManagementProxyTest {
+
+  private MBeanServer mbeanServer;
+  private JMXConnector jmxConnector;
+  private JmxCassandraManagementProxy proxy;
+  private ObjectName name;
+
+  @Before
+  public void setUp() throws Exception {
+    // delegating rather than spying, as the platform implementation isn't accessible
+    mbeanServer = mock(MBeanServer.class, delegatesTo(MBeanServerFactory.newMBeanServer()));
+    StorageServiceMBean storageService = mock(StorageServiceMBean.class);
+    when(storageService.getReleaseVersion()).thenReturn("4.0.0");
+    when(storageService.getClusterName()).thenReturn("test");
+    mbeanServer.registerMBean(
+        new StandardEmitterMBean(storageService, StorageServiceMBean.class, new NotificationBroadcasterSupport()),
+        new ObjectName("org.apache.cassandra.db:type=StorageService"));
+    mbeanServer.registerMBean(
+        new StandardEmitterMBean(
+            mock(StreamManagerMBean.class), StreamManagerMBean.class, new NotificationBroadcasterSupport()),
+        new ObjectName(StreamManagerMBean.OBJECT_NAME));
+
+    jmxConnector = mock(JMXConnector.class);
+    when(jmxConnector.getMBeanServerConnection()).thenReturn(mbeanServer);
+    proxy = JmxCassandraManagementProxy
+        .create("127.0.0.1", "127.0.0.1", jmxConnector, new MetricRegistry(), new Jmxmp());
+
+    name = new ObjectName("org.apache.cassandra.metrics:type=Test,name=Attributes");
+    mbeanServer.registerMBean(new StandardMBean(new Attributes(), AttributesMBean.class), name);
+  }
+
+  @After
+  public void tearDown() {
+    proxy.close();
+  }
+
+  @Test
+  public void testReadableAttributeNamesAreCached() throws Exception {
+    assertThat(attributeNames(proxy.getReadableAttributes(name))).containsExactlyInAnyOrder("Count", "Mean");
+    assertThat(attributeNames(proxy.getReadableAttributes(name))).containsExactlyInAnyOrder("Count", "Mean");
+
+    verify(mbeanServer, times(1)).getMBeanInfo(name);
+    verify(mbeanServer, times(2)).getAttributes(any(ObjectName.class), any(String[].class));
+  }
+
+  @Test
+  public void testReadableAttributeNamesAreInvalidatedWhenTheMBeanIsRegisteredAgain() throws Exception {
+    assertThat(attributeNames(proxy.getReadableAttributes(name))).containsExactlyInAnyOrder("Count", "Mean");
+
+    mbeanServer.unregisterMBean(name);
+    mbeanServer.registerMBean(new StandardMBean(new OtherAttributes(), OtherAttributesMBean.class), name);
+
+    assertThat(attributeNames(proxy.getReadableAttributes(name))).containsExactly("Max");
+    verify(mbeanServer, times(2)).getMBeanInfo(name);
+  }
+
+  @Test
+  public void testOtherMBeansRegistrationsKeepTheCachedAttributeNames() throws Exception {
+    proxy.getReadableAttributes(name);
+
+    ObjectName other = new ObjectName("org.apache.cassandra.metrics:type=Test,name=Other");
+    mbeanServer.registerMBean(new StandardMBean(new OtherAttributes(), OtherAttributesMBean.class), other);
+    mbeanServer.unregisterMBean(other);
+
+    proxy.getReadableAttributes(name);
+    verify(mbeanServer, times(1)).getMBeanInfo(name);
+  }
+
+  @Test
+  public void testReadableAttributeNamesAreInvalidatedWhenNotificationsAreLost() throws Exception {
+    ArgumentCaptor<NotificationListener> connectionListener = ArgumentCaptor.forClass(NotificationListener.class);
+    verify(jmxConnector).addConnectionNotificationListener(connectionListener.capture(), any(), any());
+
+    proxy.getReadableAttributes(name);
+    connectionListener.getValue().handleNotification(connectionNotification(JMXConnectionNotification.OPENED), null);
+    proxy.getReadableAttributes(name);
+    verify(mbeanServer, times(1)).getMBeanInfo(name);
+
+    connectionListener.getValue()
+        .handleNotification(connectionNotification(JMXConnectionNotification.NOTIFS_LOST), null);
+    proxy.getReadableAttributes(name);
+    verify(mbeanServer, times(2)).getMBeanInfo(name);
+
+    connectionListener.getValue().handleNotification(connectionNotification(JMXConnectionNotification.FAILED), null);
+    proxy.getReadableAttributes(name);
+    verify(mbeanServer, times(3)).getMBeanInfo(name);
+  }
+
+  private static JMXConnectionNotification connectionNotification(String type) {
+    return new JMXConnectionNotification(type, JmxCassandraManagementProxyTest.class, "connection", 0, null, null);
+  }
+
+  private static List<String> attributeNames(AttributeList attributes) {
+    return attributes.asList().stream().map(Attribute::getName).collect(Collectors.toList());
+  }
+
+  public interface AttributesMBean {
+
+    long getCount();
+
+    double getMean();
+  }
+
+  public interface OtherAttributesMBean {
+
+    long getMax();
+  }
+
+  private static final class Attributes implements AttributesMBean {
+
+    @Override
+    public long getCount() {
+      return 1;
+    }
+
+    @Override
+    public double getMean() {
+      return 0.5;
+    }
+  }
+
+  private static final class OtherAttributes implements OtherAttributesMBean {
+
+    @Override
+    public long getMax() {
+      return 2;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.metrics;
+
+import java.util.UUID;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MetricOwnershipIndexTest {
+
+  @Test
+  public void testRemoveAllOnlyRemovesTheMetricsOfTheOwner() {
+    MetricRegistry registry = new MetricRegistry();
+    MetricOwnershipIndex index = MetricOwnershipIndex.create(() -> registry);
+    UUID owner = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    index.register(owner, "a", (Gauge<Integer>) () -> 1);
+    index.register(owner, "b", (Gauge<Integer>) () -> 2);
+    index.register(other, "c", (Gauge<Integer>) () -> 3);
+
+    index.removeAll(owner);
+
+    assertThat(registry.getNames()).containsExactly("c");
+    assertThat(index.getMetricNames(owner)).isEmpty();
+    assertThat(index.getMetricNames(other)).containsExactly("c");
+  }
+
+  @Test
+  public void testRegisteringAnOwnedNameTransfersItsOwnership() {
+    MetricRegistry registry = new MetricRegistry();
+    MetricOwnershipIndex index = MetricOwnershipIndex.create(() -> registry);
+    UUID previousRun = UUID.randomUUID();
+    UUID latestRun = UUID.randomUUID();
+    index.register(previousRun, "progress", (Gauge<Integer>) () -> 1);
+    Gauge<Integer> latest = () -> 2;
+    index.register(latestRun, "progress", latest);
+
+    index.removeAll(previousRun);
+
+    assertThat(registry.getGauges().get("progress")).isSameAs(latest);
+    assertThat(index.getMetricNames(latestRun)).containsExactly("progress");
+  }
+
+  @Test
+  public void testRegisterIfAbsentKeepsTheRegisteredMetric() {
+    MetricRegistry registry = new MetricRegistry();
+    MetricOwnershipIndex index = MetricOwnershipIndex.create(() -> registry);
+    UUID owner = UUID.randomUUID();
+    Gauge<Integer> first = () -> 1;
+    index.registerIfAbsent(owner, "a", first);
+    index.registerIfAbsent(owner, "a", (Gauge<Integer>) () -> 2);
+
+    assertThat(registry.getGauges().get("a")).isSameAs(first);
+  }
+
+  @Test
+  public void testRetainOwnersRemovesTheMetricsOfTheOtherOwners() {
+    MetricRegistry registry = new MetricRegistry();
+    MetricOwnershipIndex index = MetricOwnershipIndex.create(() -> registry);
+    UUID live = UUID.randomUUID();
+    UUID gone = UUID.randomUUID();
+    index.register(live, "live", (Gauge<Integer>) () -> 1);
+    index.register(gone, "gone", (Gauge<Integer>) () -> 2);
+
+    index.retainOwners(ImmutableSet.of(live));
+
+    assertThat(registry.getNames()).containsExactly("live");
+    assertThat(index.getMetricNames(gone)).isEmpty();
+  }
+}
@@ -20,6 +20,8 @@ package io.cassandrareaper.resources;
 import io.cassandrareaper.AppContext;
 import io.cassandrareaper.ReaperException;
 import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairUnit;
 import io.cassandrareaper.core.Table;
 import io.cassandrareaper.crypto.Cryptograph;
 import io.cassandrareaper.crypto.NoopCrypotograph;
@@ -27,15 +29,19 @@ import io.cassandrareaper.management.ClusterFacade;
 import io.cassandrareaper.management.ICassandraManagementProxy;
 import io.cassandrareaper.management.jmx.JmxCassandraManagementProxy;
 import io.cassandrareaper.management.jmx.JmxManagementConnectionFactory;
+import io.cassandrareaper.resources.view.ClusterStatus;
+import io.cassandrareaper.resources.view.RepairRunStatus;
 import io.cassandrareaper.service.TestRepairConfiguration;
 import io.cassandrareaper.storage.MemoryStorageFacade;
 
 import java.net.URI;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -43,6 +49,7 @@ import javax.ws.rs.core.UriInfo;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.apache.cassandra.repair.RepairParallelism;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.assertj.core.api.Assertions;
 import org.eclipse.jetty.http.HttpStatus;
@@ -204,7 +211,7 @@ public final class ClusterResourceTest {
         = ClusterResource.create(mocks.context, new NoopCrypotograph(), () -> mocks.clusterFacade,
         mocks.context.storage.getEventsDao(),
         mocks.context.storage.getRepairRunDao());
-    Response response = clusterResource.getCluster(I_DONT_EXIST, Optional.<Integer>empty());
+    Response response = clusterResource.getCluster(I_DONT_EXIST, Optional.<Integer>empty(), Optional.empty());
     Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND_404);
   }
 
@@ -226,10 +233,61 @@ public final class ClusterResourceTest {
         = ClusterResource.create(mocks.context, new NoopCrypotograph(), () -> mocks.clusterFacade,
         mocks.context.storage.getEventsDao(),
         mocks.context.storage.getRepairRunDao());
-    Response response = clusterResource.getCluster(I_DO_EXIST, Optional.<Integer>empty());
+    Response response = clusterResource.getCluster(I_DO_EXIST, Optional.<Integer>empty(), Optional.empty());
     Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.OK_200);
   }
 
+  @Test
+  public void testGetClusterPagesThroughRepairRuns() throws ReaperException {
+    final MockObjects mocks = initMocks();
+    Cluster cluster = Cluster.builder()
+        .withName(I_DO_EXIST)
+        .withPartitioner(PARTITIONER)
+        .withSeedHosts(ImmutableSet.of(SEED_HOST))
+        .withState(Cluster.State.ACTIVE)
+        .build();
+    mocks.context.storage.getClusterDao().addCluster(cluster);
+    RepairUnit unit = mocks.context.storage.getRepairUnitDao().addRepairUnit(
+        RepairUnit.builder()
+            .clusterName(I_DO_EXIST)
+            .keyspaceName("ks")
+            .incrementalRepair(false)
+            .repairThreadCount(1)
+            .timeout(30));
+    for (int i = 0; i < 3; ++i) {
+      mocks.context.storage.getRepairRunDao().addRepairRun(
+          RepairRun.builder(I_DO_EXIST, unit.getId())
+              .intensity(0.5)
+              .segmentCount(0)
+              .repairParallelism(RepairParallelism.PARALLEL)
+              .tables(ImmutableSet.of("table")),
+          Collections.emptyList());
+    }
+
+    ClusterResource clusterResource
+        = ClusterResource.create(mocks.context, new NoopCrypotograph(), () -> mocks.clusterFacade,
+        mocks.context.storage.getEventsDao(),
+        mocks.context.storage.getRepairRunDao());
+
+    ClusterStatus firstPage
+        = (ClusterStatus) clusterResource.getCluster(I_DO_EXIST, Optional.of(2), Optional.empty()).getEntity();
+    Assertions.assertThat(firstPage.repairRuns).hasSize(2);
+    Assertions.assertThat(firstPage.repairRunsCursor).isNotNull();
+
+    ClusterStatus lastPage = (ClusterStatus) clusterResource
+        .getCluster(I_DO_EXIST, Optional.of(2), Optional.of(firstPage.repairRunsCursor))
+        .getEntity();
+    Assertions.assertThat(lastPage.repairRuns).hasSize(1);
+    Assertions.assertThat(lastPage.repairRunsCursor).isNull();
+    Assertions.assertThat(lastPage.repairRuns)
+        .extracting(RepairRunStatus::getId)
+        .doesNotContainAnyElementsOf(
+            firstPage.repairRuns.stream().map(RepairRunStatus::getId).collect(Collectors.toList()));
+
+    Response badCursor = clusterResource.getCluster(I_DO_EXIST, Optional.empty(), Optional.of("not-a-cursor"));
+    Assertions.assertThat(badCursor.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST_400);
+  }
+
   @Test
   public void testGetClusters_all() throws ReaperException {
     final MockObjects mocks = initMocks();
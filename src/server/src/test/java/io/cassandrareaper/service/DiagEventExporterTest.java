@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class DiagEventExporterTest {
+
+  private static final String ENDPOINT = "http://localhost:8080/events";
+
+  @Test
+  public void testEventsArePostedOneByOne() throws Exception {
+    HttpClient client = mock(HttpClient.class);
+    HttpResponse ok = response(200);
+    when(client.execute(any(HttpUriRequest.class))).thenReturn(ok);
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    // held on to, as closing the exporter unregisters them
+    final Counter exported = registry.counter(DiagEventExporter.metricName(id, "exported"));
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 100, 2, 60_000, 1, false);
+
+    exporter.offer("{\"id\":1}");
+    exporter.offer("{\"id\":2}");
+    exporter.offer("{\"id\":3}");
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+    verify(client, times(3)).execute(captor.capture());
+    assertThat(bodies(captor.getAllValues())).containsExactly("{\"id\":1}", "{\"id\":2}", "{\"id\":3}");
+    assertThat(exported.getCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testEventsArePostedInBatchesWhenOptedIn() throws Exception {
+    HttpClient client = mock(HttpClient.class);
+    HttpResponse ok = response(200);
+    when(client.execute(any(HttpUriRequest.class))).thenReturn(ok);
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    final Counter exported = registry.counter(DiagEventExporter.metricName(id, "exported"));
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 100, 2, 60_000, 1, true);
+
+    exporter.offer("{\"id\":1}");
+    exporter.offer("{\"id\":2}");
+    exporter.offer("{\"id\":3}");
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+    verify(client, times(2)).execute(captor.capture());
+    assertThat(bodies(captor.getAllValues())).containsExactly("[{\"id\":1},{\"id\":2}]", "[{\"id\":3}]");
+    assertThat(exported.getCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testFailedPostsAreRetried() throws Exception {
+    HttpClient client = mock(HttpClient.class);
+    HttpResponse unavailable = response(503);
+    HttpResponse ok = response(200);
+    when(client.execute(any(HttpUriRequest.class)))
+        .thenThrow(new IOException("connection refused"))
+        .thenReturn(unavailable)
+        .thenReturn(ok);
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    final Counter exported = registry.counter(DiagEventExporter.metricName(id, "exported"));
+    final Counter droppedFailed = registry.counter(DiagEventExporter.metricName(id, "droppedFailed"));
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 100, 1, 60_000, 1, false);
+
+    exporter.offer("{}");
+
+    verify(client, timeout(10_000).times(3)).execute(any(HttpUriRequest.class));
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(exported.getCount()).isEqualTo(1);
+    assertThat(droppedFailed.getCount()).isZero();
+  }
+
+  @Test
+  public void testBatchIsDroppedAfterTheLastAttempt() throws Exception {
+    HttpClient client = mock(HttpClient.class);
+    when(client.execute(any(HttpUriRequest.class))).thenThrow(new IOException("connection refused"));
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    final Counter droppedFailed = registry.counter(DiagEventExporter.metricName(id, "droppedFailed"));
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 100, 10, 60_000, 1, true);
+
+    exporter.offer("{}");
+    exporter.offer("{}");
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    verify(client, times(DiagEventExporter.MAX_ATTEMPTS)).execute(any(HttpUriRequest.class));
+    assertThat(droppedFailed.getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testOfferDoesNotBlockOnAFullQueue() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    HttpClient client = mock(HttpClient.class);
+    HttpResponse ok = response(200);
+    when(client.execute(any(HttpUriRequest.class))).thenAnswer((invocation) -> {
+      release.await();
+      return ok;
+    });
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    final Counter exported = registry.counter(DiagEventExporter.metricName(id, "exported"));
+    final Counter droppedQueueFull = registry.counter(DiagEventExporter.metricName(id, "droppedQueueFull"));
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 2, 1, 60_000, 1, false);
+
+    // the first event is taken by the exporter thread, which then blocks on the endpoint
+    exporter.offer("{\"id\":1}");
+    verify(client, timeout(10_000)).execute(any(HttpUriRequest.class));
+    exporter.offer("{\"id\":2}");
+    exporter.offer("{\"id\":3}");
+    exporter.offer("{\"id\":4}");
+    assertThat(droppedQueueFull.getCount()).isEqualTo(1);
+
+    release.countDown();
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(exported.getCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testCountersAreUnregisteredOnClose() throws Exception {
+    HttpClient client = mock(HttpClient.class);
+    UUID id = UUID.randomUUID();
+    MetricRegistry registry = new MetricRegistry();
+    DiagEventExporter exporter = new DiagEventExporter(id, ENDPOINT, client, registry, 1, 1, 60_000, 1, false);
+    assertThat(registry.getCounters()).containsOnlyKeys(
+        DiagEventExporter.metricName(id, "exported"),
+        DiagEventExporter.metricName(id, "droppedQueueFull"),
+        DiagEventExporter.metricName(id, "droppedFailed"));
+
+    exporter.close();
+    assertThat(exporter.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(registry.getCounters()).isEmpty();
+  }
+
+  private static HttpResponse response(int status) {
+    StatusLine statusLine = mock(StatusLine.class);
+    when(statusLine.getStatusCode()).thenReturn(status);
+    HttpResponse response = mock(HttpResponse.class);
+    when(response.getStatusLine()).thenReturn(statusLine);
+    return response;
+  }
+
+  private static List<String> bodies(List<HttpUriRequest> requests) {
+    return requests.stream().map((request) -> {
+      try {
+        return EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity());
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.storage.repairsegment.RepairSegmentPage;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FreeSegmentCursorTest {
+
+  // three pages of two segments
+  private final List<List<RepairSegment>> pages = IntStream.range(0, 3)
+      .mapToObj(page -> ImmutableList.of(segment(), segment()))
+      .collect(Collectors.toList());
+  private final List<UUID> cursors = ImmutableList.of(UUIDs.timeBased(), UUIDs.timeBased());
+  private final List<Integer> readPages = Lists.newArrayList();
+
+  @Test
+  public void testSearchResumesFromThePageItStoppedIn() throws ReaperException {
+    FreeSegmentCursor cursor = new FreeSegmentCursor();
+    RepairSegment inSecondPage = pages.get(1).get(1);
+    RepairSegment inThirdPage = pages.get(2).get(0);
+
+    assertThat(cursor.next(this::read, ready(inSecondPage, inThirdPage))).contains(inSecondPage);
+    assertThat(cursor.getPosition()).contains(cursors.get(0));
+    assertThat(cursor.next(this::read, ready(inSecondPage, inThirdPage))).contains(inSecondPage);
+    assertThat(readPages).containsExactly(0, 1, 1);
+  }
+
+  @Test
+  public void testSearchWrapsAroundToTheFirstPage() throws ReaperException {
+    FreeSegmentCursor cursor = new FreeSegmentCursor();
+    RepairSegment inFirstPage = pages.get(0).get(0);
+    RepairSegment inThirdPage = pages.get(2).get(1);
+    assertThat(cursor.next(this::read, ready(inThirdPage))).contains(inThirdPage);
+    readPages.clear();
+
+    assertThat(cursor.next(this::read, ready(inFirstPage))).contains(inFirstPage);
+    assertThat(readPages).containsExactly(2, 0);
+  }
+
+  @Test
+  public void testSearchStopsAfterWrappingAroundOnce() throws ReaperException {
+    FreeSegmentCursor cursor = new FreeSegmentCursor();
+    RepairSegment inSecondPage = pages.get(1).get(0);
+    assertThat(cursor.next(this::read, ready(inSecondPage))).contains(inSecondPage);
+    readPages.clear();
+
+    assertThat(cursor.next(this::read, ready())).isEmpty();
+    assertThat(readPages).containsExactly(1, 2, 0);
+  }
+
+  @Test
+  public void testSearchFromTheStartReadsEveryPageOnce() throws ReaperException {
+    assertThat(new FreeSegmentCursor().next(this::read, ready())).isEmpty();
+    assertThat(readPages).containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void testSearchIsExhaustedOnlyWithoutFreeSegments() throws ReaperException {
+    FreeSegmentCursor cursor = new FreeSegmentCursor();
+    assertThat(cursor.next(this::read, ready())).isEmpty();
+    assertThat(cursor.isExhausted()).isFalse();
+
+    pages.replaceAll(page -> ImmutableList.of());
+    assertThat(cursor.next(this::read, ready())).isEmpty();
+    assertThat(cursor.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void testSearchStopsOnceItPassesItsStartInTheMiddleOfAPage() throws ReaperException {
+    // an index of seven free segments read two at a time, paged the way the storage backends do
+    List<RepairSegment> index = IntStream.range(0, 7)
+        .mapToObj(i -> segment(UUIDs.timeBased()))
+        .collect(Collectors.toCollection(Lists::newArrayList));
+    List<Integer> readFrom = Lists.newArrayList();
+    List<RepairSegment> initialIndex = ImmutableList.copyOf(index);
+    FreeSegmentCursor.PageReader reader = cursor -> {
+      List<RepairSegment> remaining = index.stream()
+          .filter(segment -> !cursor.isPresent()
+              || 0 < RepairSegmentPage.SEGMENT_ID_ORDER.compare(segment.getId(), cursor.get()))
+          .collect(Collectors.toList());
+      readFrom.add(initialIndex.indexOf(remaining.get(0)));
+      List<RepairSegment> page = remaining.subList(0, Math.min(2, remaining.size()));
+      return RepairSegmentPage.of(
+          page,
+          remaining.size() > 2 ? Optional.of(page.get(1).getId()) : Optional.empty());
+    };
+    FreeSegmentCursor cursor = new FreeSegmentCursor();
+    assertThat(cursor.next(reader, ready(initialIndex.get(3)))).contains(initialIndex.get(3));
+    assertThat(cursor.getPosition()).contains(initialIndex.get(1).getId());
+
+    // the first segment started meanwhile, so the pages read from the start of the index no longer end on the cursor
+    index.remove(0);
+    readFrom.clear();
+    assertThat(cursor.next(reader, ready())).isEmpty();
+    assertThat(readFrom).containsExactly(2, 4, 6, 1);
+  }
+
+  private RepairSegmentPage read(Optional<UUID> cursor) {
+    int page = cursor.isPresent() ? cursors.indexOf(cursor.get()) + 1 : 0;
+    readPages.add(page);
+    return RepairSegmentPage.of(
+        pages.get(page),
+        page < cursors.size() ? Optional.of(cursors.get(page)) : Optional.empty());
+  }
+
+  private static FreeSegmentCursor.SegmentPicker ready(RepairSegment... segments) {
+    Set<RepairSegment> readySegments = ImmutableSet.copyOf(segments);
+    return candidates -> candidates.stream().filter(readySegments::contains).findFirst();
+  }
+
+  private static RepairSegment segment() {
+    return segment(UUID.randomUUID());
+  }
+
+  private static RepairSegment segment(UUID id) {
+    return RepairSegment.builder(
+            Segment.builder().withTokenRange(new RingRange(BigInteger.ZERO, BigInteger.ONE)).build(),
+            UUID.randomUUID())
+        .withRunId(UUID.randomUUID())
+        .withId(id)
+        .build();
+  }
+}
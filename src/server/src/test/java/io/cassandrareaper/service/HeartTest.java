@@ -22,6 +22,7 @@ import io.cassandrareaper.ReaperApplicationConfiguration;
 import io.cassandrareaper.ReaperException;
 import io.cassandrareaper.core.Cluster;
 import io.cassandrareaper.core.Cluster.State;
+import io.cassandrareaper.core.Node;
 import io.cassandrareaper.crypto.NoopCrypotograph;
 import io.cassandrareaper.management.ICassandraManagementProxy;
 import io.cassandrareaper.management.jmx.JmxCassandraManagementProxy;
@@ -329,4 +330,31 @@ public final class HeartTest {
 
     Mockito.verify((CassandraStorageFacade) context.storage, Mockito.times(1)).saveHeartbeat();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBeatsOfDepartedNodesAreForgotten() throws ReaperException {
+    AppContext context = new AppContext();
+    context.config = new ReaperApplicationConfiguration();
+    context.storage = Mockito.mock(IStorageDao.class);
+    IRepairScheduleDao mockedRepairScheduleDao = Mockito.mock(IRepairScheduleDao.class);
+    Mockito.when(context.storage.getRepairScheduleDao()).thenReturn(mockedRepairScheduleDao);
+    Mockito.when(mockedRepairScheduleDao.getRepairSchedulesForCluster(any(), anyBoolean()))
+        .thenReturn(Collections.emptyList());
+    Cluster cluster = Cluster.builder()
+        .withName("test")
+        .withSeedHosts(Sets.newSet("127.0.0.1"))
+        .withState(State.ACTIVE)
+        .build();
+    Node node1 = Node.builder().withHostname("node1").withCluster(cluster).build();
+    Node node2 = Node.builder().withHostname("node2").withCluster(cluster).build();
+
+    try (Heart heart = Heart.create(context)) {
+      Assertions.assertThat(heart.collectNode(cluster, node1)).isTrue();
+      Assertions.assertThat(heart.collectNode(cluster, node2)).isTrue();
+      Assertions.assertThat(heart.getBeatKeys()).containsOnly("test/node1", "test/node2");
+
+      heart.forgetDepartedNodes(Arrays.asList(node2));
+      Assertions.assertThat(heart.getBeatKeys()).containsOnly("test/node2");
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.AppContext;
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.Node;
+import io.cassandrareaper.management.ClusterFacade;
+import io.cassandrareaper.management.HostConnectionCounters;
+import io.cassandrareaper.management.IManagementConnectionFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class MetricsCollectionSchedulerTest {
+
+  private static final Cluster CLUSTER = Cluster.builder()
+      .withName("test")
+      .withSeedHosts(ImmutableSet.of("node1"))
+      .withState(Cluster.State.ACTIVE)
+      .build();
+
+  @Test
+  public void testLiveNodesAreCachedUntilACollectionFails() throws Exception {
+    AppContext context = newContext();
+    ClusterFacade clusterFacade = mock(ClusterFacade.class);
+    when(clusterFacade.getLiveNodes(CLUSTER)).thenReturn(ImmutableList.of("node1", "node2"));
+    Set<String> collected = ConcurrentHashMap.newKeySet();
+
+    try (MetricsCollectionScheduler scheduler = MetricsCollectionScheduler.create(context, 100)) {
+      scheduler.collect(clusterFacade, ImmutableList.of(CLUSTER), (cluster, node) -> collected.add(node.getHostname()))
+          .get(10, TimeUnit.SECONDS);
+      assertThat(scheduler.collect(clusterFacade, ImmutableList.of(CLUSTER), (cluster, node) -> true)
+          .get(10, TimeUnit.SECONDS))
+          .extracting(Node::getHostname)
+          .containsExactly("node1", "node2");
+      verify(clusterFacade, times(1)).getLiveNodes(CLUSTER);
+      assertThat(collected).containsExactlyInAnyOrder("node1", "node2");
+
+      // node2 could not be collected, the live nodes are listed again on the next collection
+      scheduler
+          .collect(clusterFacade, ImmutableList.of(CLUSTER), (cluster, node) -> !"node2".equals(node.getHostname()))
+          .get(10, TimeUnit.SECONDS);
+      scheduler.collect(clusterFacade, ImmutableList.of(CLUSTER), (cluster, node) -> true)
+          .get(10, TimeUnit.SECONDS);
+      verify(clusterFacade, times(2)).getLiveNodes(CLUSTER);
+      assertThat(scheduler.getPendingCollectionCount()).isZero();
+    }
+  }
+
+  @Test
+  public void testCollectionsAreBoundedPerCluster() throws Exception {
+    AppContext context = newContext();
+    ClusterFacade clusterFacade = mock(ClusterFacade.class);
+    List<String> nodes = IntStream.range(0, 12).mapToObj(i -> "node" + i).collect(Collectors.toList());
+    when(clusterFacade.getLiveNodes(CLUSTER)).thenReturn(nodes);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Set<String> collected = ConcurrentHashMap.newKeySet();
+
+    try (MetricsCollectionScheduler scheduler = MetricsCollectionScheduler.create(context, 1)) {
+      scheduler.collect(clusterFacade, ImmutableList.of(CLUSTER), (cluster, node) -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return collected.add(node.getHostname());
+      }).get(10, TimeUnit.SECONDS);
+    }
+    assertThat(collected).containsExactlyInAnyOrderElementsOf(nodes);
+    assertThat(maxRunning.get()).isBetween(1, 4);
+  }
+
+  @Test
+  public void testInactiveClustersAreNotCollected() throws ReaperException {
+    AppContext context = newContext();
+    ClusterFacade clusterFacade = mock(ClusterFacade.class);
+    Cluster unreachable = CLUSTER.with().withState(Cluster.State.UNREACHABLE).build();
+
+    try (MetricsCollectionScheduler scheduler = MetricsCollectionScheduler.create(context, 100)) {
+      assertThat(scheduler.collect(clusterFacade, ImmutableList.of(unreachable), (cluster, node) -> true)).isDone();
+    }
+    verify(clusterFacade, times(0)).getLiveNodes(unreachable);
+  }
+
+  private static AppContext newContext() {
+    AppContext context = new AppContext();
+    context.managementConnectionFactory = mock(IManagementConnectionFactory.class);
+    when(context.managementConnectionFactory.getHostConnectionCounters())
+        .thenReturn(new HostConnectionCounters(new MetricRegistry()));
+    return context;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.core.Compaction;
+import io.cassandrareaper.core.CompactionStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class PayloadCodecTest {
+
+  private static final CompactionStats COMPACTION_STATS = CompactionStats.builder()
+      .withActiveCompactions(ImmutableList.of(Compaction.builder()
+          .withId("foo")
+          .withKeyspace("ks")
+          .withTable("t")
+          .withProgress(64L)
+          .withTotal(128L)
+          .withType("Validation")
+          .withUnit("bytes")
+          .build()))
+      .withPendingCompactions(Optional.of(42))
+      .build();
+
+  @Test
+  public void testCompactionStatsRoundTrip() throws IOException {
+    String json = new String(PayloadCodec.writeCompactionStats(COMPACTION_STATS), "UTF-8");
+    CompactionStats read = PayloadCodec.readCompactionStats(json);
+
+    assertThat(read.getPendingCompactions()).contains(42);
+    assertThat(read.getActiveCompactions()).extracting(Compaction::getId).containsExactly("foo");
+  }
+
+  @Test
+  public void testStoredPayloadCanBeReadMoreThanOnce() throws IOException {
+    ByteBuffer stored = PayloadCodec.toStored(PayloadCodec.writeCompactionStats(COMPACTION_STATS));
+
+    assertThat(PayloadCodec.readStoredCompactionStats(stored).getPendingCompactions()).contains(42);
+    assertThat(PayloadCodec.readStoredCompactionStats(stored).getActiveCompactions()).hasSize(1);
+  }
+}
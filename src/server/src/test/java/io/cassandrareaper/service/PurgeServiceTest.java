@@ -29,22 +29,35 @@ import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.utils.UUIDs;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.apache.cassandra.repair.RepairParallelism;
 import org.joda.time.DateTime;
+import org.junit.After;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class PurgeServiceTest {
@@ -54,6 +67,13 @@ public final class PurgeServiceTest {
   private static final Set<String> SEEDS = ImmutableSet.of("127.0.0.1");
   private static final Set<String> TABLES = ImmutableSet.of("table1");
 
+  private final ExecutorService executor = Executors.newFixedThreadPool(PurgeService.PURGE_CONCURRENCY);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
   @Test
   public void testPurgeByDate() throws InterruptedException, ReaperException {
     AppContext context = new AppContext();
@@ -86,15 +106,18 @@ public final class PurgeServiceTest {
               .runState(RunState.DONE)
               .build(UUIDs.timeBased()));
     }
-    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    IRepairRunDao mockedRepairRunDao = mockRepairRunDao(repairRuns);
     when(context.storage.getRepairRunDao()).thenReturn(mockedRepairRunDao);
-    when(mockedRepairRunDao.getRepairRunsForCluster(anyString(), any())).thenReturn(repairRuns);
+    // the unit of the oldest run hasn't been repaired since, its gauge has to remain for alerting
+    UUID unrepairedUnitId = repairRuns.get(9).getRepairUnitId();
+    context.repairUnitMetrics.register(unrepairedUnitId, "millisSinceLastRepair.test.ks", (Gauge<Long>) () -> 0L);
 
     // Invoke the purge manager
-    int purged = PurgeService.create(context, context.storage.getRepairRunDao()).purgeDatabase();
+    int purged = PurgeService.create(context, executor, context.storage.getRepairRunDao()).purgeDatabase();
 
     // Check that runs were removed
     assertEquals(9, purged);
+    assertTrue(context.metricRegistry.getGauges().containsKey("millisSinceLastRepair.test.ks"));
   }
 
   @Test
@@ -130,12 +153,11 @@ public final class PurgeServiceTest {
               .build(UUIDs.timeBased()));
     }
 
-    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    IRepairRunDao mockedRepairRunDao = mockRepairRunDao(repairRuns);
     when(context.storage.getRepairRunDao()).thenReturn(mockedRepairRunDao);
-    when(mockedRepairRunDao.getRepairRunsForCluster(anyString(), any())).thenReturn(repairRuns);
 
     // Invoke the purge manager
-    int purged = PurgeService.create(context, context.storage.getRepairRunDao()).purgeDatabase();
+    int purged = PurgeService.create(context, executor, context.storage.getRepairRunDao()).purgeDatabase();
 
     // Check that runs were removed
     assertEquals(15, purged);
@@ -175,15 +197,77 @@ public final class PurgeServiceTest {
               .build(UUIDs.timeBased()));
     }
 
-    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    IRepairRunDao mockedRepairRunDao = mockRepairRunDao(repairRuns);
     when(context.storage.getRepairRunDao()).thenReturn(mockedRepairRunDao);
-    when(mockedRepairRunDao.getRepairRunsForCluster(anyString(), any())).thenReturn(repairRuns);
 
     // Invoke the purge manager
-    int purged = PurgeService.create(context, context.storage.getRepairRunDao()).purgeDatabase();
+    int purged = PurgeService.create(context, executor, context.storage.getRepairRunDao()).purgeDatabase();
 
     // Check that runs were removed
     assertEquals(0, purged);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testPurgeByDateResumesFromCheckpoint() throws ReaperException {
+    AppContext context = new AppContext();
+    context.config = new ReaperApplicationConfiguration();
+    context.config.setPurgeRecordsAfterInDays(1);
+    context.storage = mock(IStorageDao.class);
+
+    List<Cluster> clusters = Arrays.asList(Cluster.builder().withName(CLUSTER_NAME).withSeedHosts(SEEDS).build());
+    IClusterDao mockedClusterDao = mock(IClusterDao.class);
+    when(context.storage.getClusterDao()).thenReturn(mockedClusterDao);
+    when(mockedClusterDao.getClusters()).thenReturn(clusters);
+
+    // one full page of old runs, followed by a partial one
+    List<RepairRun> repairRuns = Lists.newArrayList();
+    DateTime endTime = DateTime.now().minusDays(10);
+    for (int i = 0; i < PurgeService.PURGE_PAGE_SIZE + 10; i++) {
+      repairRuns.add(
+          RepairRun.builder(CLUSTER_NAME, UUIDs.timeBased())
+              .startTime(endTime.minusHours(1))
+              .intensity(0.9)
+              .segmentCount(10)
+              .repairParallelism(RepairParallelism.DATACENTER_AWARE)
+              .tables(TABLES)
+              .endTime(endTime)
+              .runState(RunState.DONE)
+              .build(UUIDs.timeBased()));
+    }
+    IRepairRunDao mockedRepairRunDao = mockRepairRunDao(repairRuns);
+    List<UUID> firstPage = repairRuns.subList(0, PurgeService.PURGE_PAGE_SIZE)
+        .stream().map(RepairRun::getId).collect(Collectors.toList());
+    List<UUID> secondPage = repairRuns.subList(PurgeService.PURGE_PAGE_SIZE, repairRuns.size())
+        .stream().map(RepairRun::getId).collect(Collectors.toList());
+    UUID checkpoint = firstPage.get(firstPage.size() - 1);
+    when(mockedRepairRunDao.getRepairRunIdsForClusterBefore(anyString(), any(), anyInt())).thenReturn(firstPage);
+    when(mockedRepairRunDao.getRepairRunIdsForClusterBefore(anyString(), eq(checkpoint), anyInt()))
+        .thenReturn(secondPage);
+
+    // without any time left, the purge stops after the first page
+    PurgeService purgeService = PurgeService.create(context, executor, mockedRepairRunDao, 0);
+    assertEquals(PurgeService.PURGE_PAGE_SIZE, (int) purgeService.purgeDatabase());
+    assertEquals(Optional.of(checkpoint), purgeService.getCheckpoint(CLUSTER_NAME));
+
+    // the next purge resumes after the first page, and clears the checkpoint once done
+    assertEquals(10, (int) purgeService.purgeDatabase());
+    assertEquals(Optional.empty(), purgeService.getCheckpoint(CLUSTER_NAME));
+    verify(mockedRepairRunDao, times(PurgeService.PURGE_PAGE_SIZE + 10)).deleteRepairRun(any());
+    assertTrue(context.metricRegistry.getGauges()
+        .containsKey(MetricRegistry.name(PurgeService.class, "purgeThroughput")));
+    assertEquals(
+        PurgeService.PURGE_PAGE_SIZE + 10,
+        context.metricRegistry.meter(MetricRegistry.name(PurgeService.class, "purgedRuns")).getCount());
+  }
+
+  private static IRepairRunDao mockRepairRunDao(List<RepairRun> repairRuns) {
+    Map<UUID, RepairRun> repairRunsById = repairRuns.stream().collect(Collectors.toMap(RepairRun::getId, run -> run));
+    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    when(mockedRepairRunDao.getRepairRunsForCluster(anyString(), any())).thenReturn(repairRuns);
+    when(mockedRepairRunDao.getRepairRunIdsForClusterBefore(anyString(), any(), anyInt()))
+        .thenReturn(Lists.newArrayList(repairRunsById.keySet()));
+    when(mockedRepairRunDao.getRepairRun(any()))
+        .thenAnswer(invocation -> Optional.ofNullable(repairRunsById.get(invocation.<UUID>getArgument(0))));
+    return mockedRepairRunDao;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.AppContext;
+import io.cassandrareaper.storage.IStorageDao;
+import io.cassandrareaper.storage.cassandra.CassandraStorageFacade;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ReaperMembershipTest {
+
+  @Test
+  public void testInstancesAreReadOnceUntilRefreshed() {
+    AppContext context = new AppContext();
+    CassandraStorageFacade storage = mock(CassandraStorageFacade.class);
+    context.storage = storage;
+    UUID other = UUIDs.timeBased();
+    when(storage.getRunningReapers()).thenReturn(Lists.newArrayList(other, context.reaperInstanceId));
+
+    assertThat(context.membership.getInstances()).containsExactly(context.reaperInstanceId, other);
+    assertThat(context.membership.count()).isEqualTo(2);
+    assertThat(context.membership.count()).isEqualTo(2);
+    verify(storage, times(1)).getRunningReapers();
+
+    when(storage.getRunningReapers()).thenReturn(Lists.newArrayList(context.reaperInstanceId));
+    assertThat(context.membership.count()).isEqualTo(2);
+    context.membership.refresh();
+    assertThat(context.membership.getInstances()).containsExactly(context.reaperInstanceId);
+    assertThat(context.membership.count()).isEqualTo(1);
+    verify(storage, times(2)).getRunningReapers();
+  }
+
+  @Test
+  public void testListenersAreNotifiedOfChanges() {
+    AppContext context = new AppContext();
+    CassandraStorageFacade storage = mock(CassandraStorageFacade.class);
+    context.storage = storage;
+    List<List<UUID>> notifications = Lists.newArrayList();
+    context.membership.addListener(notifications::add);
+    final UUID other = UUIDs.timeBased();
+
+    when(storage.getRunningReapers()).thenReturn(Lists.newArrayList(context.reaperInstanceId));
+    context.membership.refresh();
+    context.membership.refresh();
+    assertThat(notifications).isEmpty();
+
+    when(storage.getRunningReapers()).thenReturn(Lists.newArrayList(other, context.reaperInstanceId));
+    context.membership.refresh();
+    context.membership.refresh();
+    assertThat(notifications).containsExactly(Arrays.asList(context.reaperInstanceId, other));
+  }
+
+  @Test
+  public void testCountIsAtLeastOne() {
+    AppContext context = new AppContext();
+    CassandraStorageFacade storage = mock(CassandraStorageFacade.class);
+    context.storage = storage;
+    when(storage.getRunningReapers()).thenReturn(Collections.emptyList());
+    assertThat(context.membership.getInstances()).isEmpty();
+    assertThat(context.membership.count()).isEqualTo(1);
+  }
+
+  @Test
+  public void testNonDistributedStorage() {
+    AppContext context = new AppContext();
+    context.storage = mock(IStorageDao.class);
+    assertThat(context.membership.getInstances()).containsExactly(context.reaperInstanceId);
+    assertThat(context.membership.count()).isEqualTo(1);
+  }
+}
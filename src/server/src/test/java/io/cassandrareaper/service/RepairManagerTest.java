@@ -246,6 +246,85 @@ public final class RepairManagerTest {
     Mockito.verify(context.repairManager, Mockito.times(2)).abortSegments(Mockito.argThat(new EmptyList()), any());
   }
 
+  /**
+   * Verifies that the RUNNING segments of an incremental repair run are only aborted when neither the run nor the
+   * segments have a leader, looking up the leaders of the run rather than all of them.
+   *
+   * @throws ReaperException      if some goes wrong :)
+   * @throws InterruptedException if some goes wrong :)
+   */
+  @Test
+  public void abortIncrementalSegmentsWithNoLeaderOnTheRun() throws ReaperException, InterruptedException {
+    final String clusterName = "reaper";
+
+    // use CassandraStorage so we get both IStorage and IDistributedStorage
+    final IStorageDao storage = mock(CassandraStorageFacade.class);
+    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    when(storage.getRepairRunDao()).thenReturn(mockedRepairRunDao);
+
+    AppContext context = new AppContext();
+    context.storage = storage;
+    context.config = new ReaperApplicationConfiguration();
+
+    RepairManager repairManager = RepairManager.create(
+        context,
+        Executors.newScheduledThreadPool(1),
+        1,
+        TimeUnit.MILLISECONDS,
+        1,
+        context.storage.getRepairRunDao());
+
+    repairManager = Mockito.spy(repairManager);
+    context.repairManager = repairManager;
+
+    final RepairUnit cf = RepairUnit.builder()
+        .clusterName(clusterName)
+        .keyspaceName("reaper")
+        .columnFamilies(Sets.newHashSet("reaper"))
+        .incrementalRepair(true)
+        .nodes(Sets.newHashSet("127.0.0.1"))
+        .datacenters(Collections.emptySet())
+        .repairThreadCount(1)
+        .timeout(30)
+        .build(UUIDs.timeBased());
+
+    final RepairRun run = RepairRun.builder(clusterName, cf.getId())
+        .intensity(0.5)
+        .segmentCount(1)
+        .repairParallelism(RepairParallelism.PARALLEL)
+        .tables(TABLES)
+        .build(UUIDs.timeBased());
+
+    final RepairSegment segment = RepairSegment.builder(
+            Segment.builder().withTokenRange(new RingRange("-1", "1")).build(), cf.getId())
+        .withRunId(run.getId())
+        .withId(UUIDs.timeBased())
+        .build();
+
+    context.repairManager.repairRunners.put(run.getId(), mock(RepairRunner.class));
+    Mockito.doNothing().when(context.repairManager).abortSegments(any(), any());
+    when(mockedRepairRunDao.getRepairRunsWithState(RepairRun.RunState.RUNNING)).thenReturn(Arrays.asList(run));
+    when(mockedRepairRunDao.getRepairRunsWithState(RepairRun.RunState.PAUSED)).thenReturn(Collections.emptyList());
+    IRepairSegmentDao mockedRepairSegmentDao = mock(IRepairSegmentDao.class);
+    Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
+    when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(Arrays.asList(segment));
+    IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
+    Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
+    Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(cf);
+
+    // the run is lead by a Reaper instance
+    when(((IDistributedStorage) context.storage).getLeadersForRun(run.getId()))
+        .thenReturn(new HashSet<UUID>(Arrays.asList(run.getId())));
+    context.repairManager.resumeRunningRepairRuns();
+    Mockito.verify(context.repairManager, Mockito.times(2)).abortSegments(Mockito.argThat(new EmptyList()), any());
+
+    // the lead on the run was lost
+    when(((IDistributedStorage) context.storage).getLeadersForRun(run.getId())).thenReturn(Collections.emptySet());
+    context.repairManager.resumeRunningRepairRuns();
+    Mockito.verify(context.repairManager, Mockito.times(2)).abortSegments(Mockito.argThat(new NotEmptyList()), any());
+    Mockito.verify((IDistributedStorage) context.storage, Mockito.times(4)).getLeadersForRun(run.getId());
+  }
+
   /**
    * Verifies that when a RUNNING segment exists it will not get aborted when using a non
    * IDistributedStorage backend if a repair runner exists
@@ -288,6 +288,7 @@ public final class RepairRunServiceTest {
         .thenThrow(new ReaperException("fail"));
     when(clusterFacade.getCassandraVersion(any())).thenReturn("3.11.6");
     when(clusterFacade.getTokens(any())).thenReturn(TOKENS);
+    when(clusterFacade.getDatacenter(any(Cluster.class), anyString())).thenReturn("dc1");
 
 
     context.managementConnectionFactory = new JmxManagementConnectionFactory(context, new NoopCrypotograph()) {
@@ -375,6 +376,7 @@ public final class RepairRunServiceTest {
         .thenReturn((Map) ImmutableMap.of(Lists.newArrayList("0", "100"), Lists.newArrayList(NODES)));
     when(clusterFacade.getCassandraVersion(any())).thenReturn("3.11.6");
     when(clusterFacade.getTokens(any())).thenReturn(TOKENS);
+    when(clusterFacade.getDatacenter(any(Cluster.class), anyString())).thenReturn("dc1");
 
 
     context.managementConnectionFactory = new JmxManagementConnectionFactory(context, new NoopCrypotograph()) {
@@ -441,6 +443,7 @@ public final class RepairRunServiceTest {
         .thenReturn((Map) ImmutableMap.of(Lists.newArrayList("0", "100"), Lists.newArrayList(NODES)));
     when(clusterFacade.getCassandraVersion(any())).thenReturn("3.11.6");
     when(clusterFacade.getTokens(any())).thenReturn(TOKENS);
+    when(clusterFacade.getDatacenter(any(Cluster.class), anyString())).thenReturn("dc1");
 
     RepairRunService repairRunService = RepairRunService.create(context, () -> clusterFacade,
         context.storage.getRepairRunDao());
@@ -500,6 +503,7 @@ public final class RepairRunServiceTest {
         .thenReturn((Map) ImmutableMap.of(Lists.newArrayList("0", "100"), Lists.newArrayList(NODES)));
     when(clusterFacade.getCassandraVersion(any())).thenReturn("3.11.6");
     when(clusterFacade.getTokens(any())).thenReturn(TOKENS);
+    when(clusterFacade.getDatacenter(any(Cluster.class), anyString())).thenReturn("dc1");
     when(clusterFacade.getEndpointToHostId(any(Cluster.class))).thenReturn(Collections.emptyMap());
     Map<String, String> endpointToHostIDMap = new HashMap<String, String>();
     endpointToHostIDMap.put("127.0.0.1", UUID.randomUUID().toString());
@@ -871,6 +875,7 @@ public final class RepairRunServiceTest {
         .thenReturn((Map) ImmutableMap.of(Lists.newArrayList("0", "100"), Collections.EMPTY_LIST));
     when(clusterFacade.getCassandraVersion(any())).thenReturn("3.11.6");
     when(clusterFacade.getTokens(any())).thenReturn(TOKENS);
+    when(clusterFacade.getDatacenter(any(Cluster.class), anyString())).thenReturn("dc1");
 
 
     context.managementConnectionFactory = new JmxManagementConnectionFactory(context, new NoopCrypotograph()) {
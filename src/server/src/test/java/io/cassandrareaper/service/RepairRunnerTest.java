@@ -43,6 +43,7 @@ import io.cassandrareaper.storage.cluster.IClusterDao;
 import io.cassandrareaper.storage.repairrun.IRepairRunDao;
 import io.cassandrareaper.storage.repairschedule.IRepairScheduleDao;
 import io.cassandrareaper.storage.repairsegment.IRepairSegmentDao;
+import io.cassandrareaper.storage.repairsegment.RepairRunProgress;
 import io.cassandrareaper.storage.repairunit.IRepairUnitDao;
 
 import java.io.IOException;
@@ -58,6 +59,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -66,6 +68,7 @@ import javax.management.MalformedObjectNameException;
 import javax.management.ReflectionException;
 
 import com.datastax.driver.core.utils.UUIDs;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -1038,6 +1041,23 @@ public final class RepairRunnerTest {
     assertTrue(RepairRunner.okToRepairSegment(true, true, DatacenterAvailability.EACH));
   }
 
+  @Test
+  public void mayBeCompleteTest() {
+    RepairRunProgress allDone = RepairRunProgress.of(ImmutableMap.of(RepairSegment.State.DONE, 3));
+    RepairRunProgress lastRunning = RepairRunProgress.of(
+        ImmutableMap.of(RepairSegment.State.DONE, 2, RepairSegment.State.RUNNING, 1));
+    RepairRunProgress notStarted = RepairRunProgress.of(
+        ImmutableMap.of(RepairSegment.State.DONE, 2, RepairSegment.State.NOT_STARTED, 1));
+
+    assertTrue(RepairRunner.mayBeComplete(allDone, false, false));
+    // all nodes busy, the counters aren't confirmed on each attempt
+    assertFalse(RepairRunner.mayBeComplete(notStarted, false, true));
+    assertFalse(RepairRunner.mayBeComplete(lastRunning, true, false));
+    assertTrue(RepairRunner.mayBeComplete(lastRunning, true, true));
+    // the counters report segments to start while none was found
+    assertTrue(RepairRunner.mayBeComplete(notStarted, true, false));
+  }
+
   @Test
   public void testDontFailRepairAfterTopologyChangeIncrementalRepair() throws InterruptedException, ReaperException,
       MalformedObjectNameException, ReflectionException, IOException {
@@ -1221,7 +1241,8 @@ public final class RepairRunnerTest {
     IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
     Mockito.when(mockedRepairRunDao.getRepairRun(any())).thenReturn(Optional.of(run));
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairRunDao()).thenReturn(mockedRepairRunDao);
 
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
@@ -1401,7 +1422,8 @@ public final class RepairRunnerTest {
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairRunDao()).thenReturn(mockedRepairRun);
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
@@ -1499,7 +1521,8 @@ public final class RepairRunnerTest {
     Mockito.when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(segments);
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
     Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
@@ -1598,7 +1621,8 @@ public final class RepairRunnerTest {
     Mockito.when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(segments);
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
     Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
@@ -1688,7 +1712,8 @@ public final class RepairRunnerTest {
     Mockito.when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(segments);
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
     Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
@@ -1799,7 +1824,8 @@ public final class RepairRunnerTest {
     Mockito.when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(segments);
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
     Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
@@ -1861,7 +1887,8 @@ public final class RepairRunnerTest {
     Mockito.when(mockedRepairSegmentDao.getSegmentsWithState(any(), any())).thenReturn(segments);
     Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
 
-    Mockito.when(((IDistributedStorage) context.storage).countRunningReapers()).thenReturn(1);
+    Mockito.when(((IDistributedStorage) context.storage).getRunningReapers())
+        .thenReturn(Collections.singletonList(context.reaperInstanceId));
     IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
     Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
     Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
@@ -1895,6 +1922,63 @@ public final class RepairRunnerTest {
     assertFalse(repairRunner.isAllowedToRun(runningRepairs, unallowedRun));
   }
 
+  @Test
+  public void testIntensityDelaysOnlyTheReplicasOfTheSegment() throws ReaperException {
+    final AppContext context = new AppContext();
+    context.storage = Mockito.mock(CassandraStorageFacade.class);
+    context.config = new ReaperApplicationConfiguration();
+    context.config.setMaxParallelRepairs(3);
+    IClusterDao mockedClusterDao = Mockito.mock(IClusterDao.class);
+    Mockito.when(context.storage.getClusterDao()).thenReturn(mockedClusterDao);
+    Mockito.when(mockedClusterDao.getCluster(any())).thenReturn(cluster);
+
+    RepairUnit repairUnit = RepairUnit.builder()
+        .clusterName(cluster.getName())
+        .keyspaceName("reaper")
+        .columnFamilies(Sets.newHashSet("reaper"))
+        .incrementalRepair(false)
+        .nodes(Sets.newHashSet("127.0.0.1", "127.0.0.2", "127.0.0.3"))
+        .datacenters(Collections.emptySet())
+        .blacklistedTables(Collections.emptySet())
+        .repairThreadCount(1)
+        .timeout(30)
+        .build(UUID.randomUUID());
+
+    UUID runId = UUIDs.timeBased();
+    RepairRun run = RepairRun.builder(cluster.getName(), repairUnit.getId())
+        .intensity(0.5)
+        .segmentCount(100)
+        .repairParallelism(RepairParallelism.PARALLEL)
+        .adaptiveSchedule(false)
+        .runState(RepairRun.RunState.RUNNING)
+        .startTime(DateTime.now())
+        .tables(TABLES).build(runId);
+
+    IRepairRunDao mockedRepairRunDao = mock(IRepairRunDao.class);
+    Mockito.when(mockedRepairRunDao.getRepairRun(any())).thenReturn(Optional.of(run));
+    IRepairSegmentDao mockedRepairSegmentDao = mock(IRepairSegmentDao.class);
+    Mockito.when(context.storage.getRepairSegmentDao()).thenReturn(mockedRepairSegmentDao);
+    IRepairUnitDao mockedRepairUnitDao = mock(IRepairUnitDao.class);
+    Mockito.when(((CassandraStorageFacade) context.storage).getRepairUnitDao()).thenReturn(mockedRepairUnitDao);
+    Mockito.when(mockedRepairUnitDao.getRepairUnit(any(UUID.class))).thenReturn(repairUnit);
+
+    ClusterFacade clusterFacade = mock(ClusterFacade.class);
+    ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    context.repairManager = RepairManager.create(
+        context, clusterFacade, executor, 1, SECONDS, 1, mockedRepairRunDao);
+    RepairRunner repairRunner = RepairRunner.create(context, runId, clusterFacade, mockedRepairRunDao);
+
+    // the segment runner hands the intensity delay to the run instead of sleeping on its thread
+    repairRunner.delayNextSegment(ImmutableList.of("127.0.0.1", "127.0.0.2"), 60_000);
+    repairRunner.delayNextSegment(ImmutableList.of("127.0.0.1"), 1_000);
+    repairRunner.delayNextSegment(ImmutableList.of("127.0.0.3"), 0);
+
+    // only the segments involving those replicas wait, the other replica sets of the run keep repairing
+    assertTrue(repairRunner.isDelayed(ImmutableList.of("127.0.0.2", "127.0.0.3")));
+    assertTrue(repairRunner.isDelayed(ImmutableList.of("127.0.0.1")));
+    assertFalse(repairRunner.isDelayed(ImmutableList.of("127.0.0.3", "127.0.0.4")));
+  }
+
   @Test
   public void testGetRunningRepairRunIds() {
     String currentClusterName = "cluster1";
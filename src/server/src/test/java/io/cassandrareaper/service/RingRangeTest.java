@@ -117,4 +117,20 @@ public final class RingRangeTest {
     assertEquals("80", merged.getStart().toString());
     assertEquals("50", merged.getEnd().toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLongAndBigIntegerTokens() {
+    RingRange murmur3 = new RingRange("-9223372036854775808", "9223372036854775807");
+    assertTrue(murmur3.hasLongTokens());
+    assertEquals(Long.MIN_VALUE, murmur3.startToken());
+    assertEquals("9223372036854775807", murmur3.getEnd().toString());
+    assertFalse(new RingRange("0", "9223372036854775808").hasLongTokens());
+    assertFalse(new RingRange("-9223372036854775809", "0").hasLongTokens());
+
+    RingRange random = new RingRange("0", "113427455640312821154458202477256070485");
+    assertTrue(random.encloses(new RingRange("10", "20")));
+    assertFalse(new RingRange("10", "20").encloses(random));
+    assertTrue(random.endsAfterStartOf(new RingRange("10", "20")));
+    assertEquals("(0,113427455640312821154458202477256070485]", random.toString());
+  }
+}
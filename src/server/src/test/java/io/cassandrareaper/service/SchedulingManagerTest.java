@@ -32,18 +32,16 @@ import io.cassandrareaper.storage.repairschedule.IRepairScheduleDao;
 import io.cassandrareaper.storage.repairunit.IRepairUnitDao;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import com.codahale.metrics.Metric;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.utils.UUIDs;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.apache.cassandra.repair.RepairParallelism;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeUtils;
@@ -51,6 +49,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -407,10 +406,11 @@ public final class SchedulingManagerTest {
     context.metricRegistry = mock(MetricRegistry.class);
     List<UUID> scheduleIds = Lists.newArrayList();
     IntStream.range(0, 4).forEach(i -> scheduleIds.add(UUIDs.timeBased()));
-    HashMap<String, Metric> metrics = Maps.newHashMap();
     scheduleIds.stream().forEach(scheduleId ->
-        metrics.put(MetricRegistry.name(RepairScheduleService.MILLIS_SINCE_LAST_REPAIR_METRIC_NAME,
-            "test", "test", scheduleId.toString()), null));
+        context.scheduleMetrics.register(scheduleId, MetricRegistry.name(
+            RepairScheduleService.MILLIS_SINCE_LAST_REPAIR_METRIC_NAME, "test", "test", scheduleId.toString()),
+            mock(Gauge.class)));
+    Mockito.clearInvocations(context.metricRegistry);
 
     List<RepairSchedule> repairSchedules = scheduleIds.stream().map(scheduleId ->
         RepairSchedule.builder(scheduleId)
@@ -426,10 +426,62 @@ public final class SchedulingManagerTest {
 
     // Removing a schedule should trigger the removal of one metric
     repairSchedules.remove(0);
-    when(context.metricRegistry.getMetrics()).thenReturn(metrics);
     SchedulingManager schedulingManager = SchedulingManager.create(context, () -> null,
         context.storage.getRepairRunDao());
     schedulingManager.cleanupMetricsRegistry(repairSchedules);
     Mockito.verify(context.metricRegistry, Mockito.times(1)).remove(any());
+    Mockito.verify(context.metricRegistry).remove(MetricRegistry.name(
+        RepairScheduleService.MILLIS_SINCE_LAST_REPAIR_METRIC_NAME, "test", "test", scheduleIds.get(0).toString()));
+    assertTrue(context.scheduleMetrics.getMetricNames(scheduleIds.get(0)).isEmpty());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testDueSchedulesArePolledInActivationOrder() {
+    AppContext context = new AppContext();
+    context.config = new ReaperApplicationConfiguration();
+    SchedulingManager schedulingManager = SchedulingManager.create(context, () -> null, null);
+    long now = DateTime.now().getMillis();
+    RepairSchedule later = activeSchedule(new DateTime(now - 1000));
+    RepairSchedule earlier = activeSchedule(new DateTime(now - 2000));
+    RepairSchedule future = activeSchedule(new DateTime(now + 60_000));
+    schedulingManager.reload(Lists.newArrayList(later, future, earlier));
+
+    assertEquals(Lists.newArrayList(earlier.getId(), later.getId()), schedulingManager.pollDueSchedules(now));
+    // polled schedules are only queued again once evaluated
+    assertTrue(schedulingManager.pollDueSchedules(now).isEmpty());
+    assertEquals(Lists.newArrayList(future.getId()), schedulingManager.pollDueSchedules(now + 60_000));
+  }
+
+  @Test
+  public void testReloadRequeuesChangedSchedulesAndForgetsInactiveOnes() {
+    AppContext context = new AppContext();
+    context.config = new ReaperApplicationConfiguration();
+    SchedulingManager schedulingManager = SchedulingManager.create(context, () -> null, null);
+    long now = DateTime.now().getMillis();
+    RepairSchedule moved = activeSchedule(new DateTime(now + 60_000));
+    RepairSchedule paused = activeSchedule(new DateTime(now - 1000));
+    RepairSchedule deleted = activeSchedule(new DateTime(now - 1000));
+    schedulingManager.reload(Lists.newArrayList(moved, paused, deleted));
+
+    RepairSchedule movedEarlier = moved.with().nextActivation(new DateTime(now - 1000)).build(moved.getId());
+    RepairSchedule pausedNow = paused.with().state(RepairSchedule.State.PAUSED).build(paused.getId());
+    schedulingManager.reload(Lists.newArrayList(movedEarlier, pausedNow));
+    assertEquals(Lists.newArrayList(moved.getId()), schedulingManager.pollDueSchedules(now));
+
+    // changes made through this instance are queued right away
+    schedulingManager.scheduleChanged(paused);
+    schedulingManager.scheduleRemoved(paused.getId());
+    assertTrue(schedulingManager.pollDueSchedules(now).isEmpty());
+  }
+
+  private static RepairSchedule activeSchedule(DateTime nextActivation) {
+    return RepairSchedule.builder(UUIDs.timeBased())
+        .daysBetween(1)
+        .nextActivation(nextActivation)
+        .repairParallelism(RepairParallelism.PARALLEL)
+        .intensity(1)
+        .segmentCountPerNode(10)
+        .state(RepairSchedule.State.ACTIVE)
+        .build(UUIDs.timeBased());
+  }
+}
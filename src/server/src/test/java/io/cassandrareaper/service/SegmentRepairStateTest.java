@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.utils.UUIDs;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class SegmentRepairStateTest {
+
+  @Test
+  public void testCompleteOnceOutcomeAndEndAreNotified() {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    state.running();
+    assertThat(state.isComplete()).isFalse();
+    state.succeeded();
+    assertThat(state.isComplete()).isFalse();
+    state.finished();
+    assertThat(state.isComplete()).isTrue();
+    assertThat(state.getPhase()).isEqualTo(SegmentRepairState.Phase.SUCCEEDED);
+  }
+
+  @Test
+  public void testCompleteWithOutOfOrderNotifications() {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    state.finished();
+    assertThat(state.isComplete()).isFalse();
+    state.failed();
+    assertThat(state.isComplete()).isTrue();
+    assertThat(state.getPhase()).isEqualTo(SegmentRepairState.Phase.FAILED);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testMultipleOutcomesAreRejected() {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    state.succeeded();
+    state.failed();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNotRunningAfterOutcome() {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    state.succeeded();
+    state.running();
+  }
+
+  @Test
+  public void testAwaitCompletionTimesOut() throws InterruptedException {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    assertThat(state.awaitCompletion(10, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void testAwaitCompletionWakesUpOnCompletion() throws Exception {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    CompletableFuture<Boolean> completed = CompletableFuture.supplyAsync(() -> {
+      try {
+        return state.awaitCompletion(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    state.succeeded();
+    state.finished();
+    assertThat(completed.get(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void testAbortWakesUpTheWaiter() throws Exception {
+    SegmentRepairState state = new SegmentRepairState(UUIDs.timeBased());
+    state.running();
+    CompletableFuture<Boolean> completed = CompletableFuture.supplyAsync(() -> {
+      try {
+        return state.awaitCompletion(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    state.abort();
+    assertThat(completed.get(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(state.getPhase()).isEqualTo(SegmentRepairState.Phase.ABORTED);
+  }
+}
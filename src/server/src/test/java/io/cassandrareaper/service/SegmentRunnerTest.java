@@ -464,8 +464,9 @@ public final class SegmentRunnerTest {
                                 "Repair command 1 has failed",
                                 jmx);
 
+                        // the notification only records the failure, the runner postpones the segment
                         assertEquals(
-                            RepairSegment.State.NOT_STARTED,
+                            RepairSegment.State.RUNNING,
                             storage.getRepairSegmentDao().getRepairSegment(runId, segmentId).get().getState());
 
                         ((RepairStatusHandler) invocation.getArgument(5))
@@ -475,10 +476,6 @@ public final class SegmentRunnerTest {
                                 Optional.empty(),
                                 "Repair command 1 has finished",
                                 jmx);
-
-                        assertEquals(
-                            RepairSegment.State.NOT_STARTED,
-                            storage.getRepairSegmentDao().getRepairSegment(runId, segmentId).get().getState());
                       }));
 
               return 1;
@@ -904,10 +901,6 @@ public final class SegmentRunnerTest {
                                 Optional.empty(),
                                 "Repair session succeeded in command 1",
                                 jmx);
-
-                        assertEquals(
-                            RepairSegment.State.NOT_STARTED,
-                            storage.getRepairSegmentDao().getRepairSegment(runId, segmentId).get().getState());
                       }));
               return 1;
             });
@@ -1049,10 +1042,6 @@ public final class SegmentRunnerTest {
                                 Optional.of(ProgressEventType.ERROR),
                                 "Repair session succeeded in command 1",
                                 jmx);
-
-                        assertEquals(
-                            RepairSegment.State.NOT_STARTED,
-                            storage.getRepairSegmentDao().getRepairSegment(runId, segmentId).get().getState());
                       }));
               return 1;
             });
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.service;
+
+import io.cassandrareaper.ReaperException;
+import io.cassandrareaper.core.Segment;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class TokenSpaceTest {
+
+  private static final BigInteger MURMUR3_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger MURMUR3_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  @Test
+  public void testMurmur3SplitMatchesBigIntegerArithmetic() throws ReaperException {
+    TokenSpace murmur3 = TokenSpace.forPartitioner("org.apache.cassandra.dht.Murmur3Partitioner");
+    TokenSpace reference = TokenSpace.of(MURMUR3_MIN, MURMUR3_MAX);
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      BigInteger start = BigInteger.valueOf(random.nextLong());
+      BigInteger stop = BigInteger.valueOf(random.nextLong());
+      int segmentCount = 1 + random.nextInt(i % 2 == 0 ? 10 : 100_000);
+      assertThat(toStrings(murmur3.split(start, stop, segmentCount)))
+          .isEqualTo(toStrings(reference.split(start, stop, segmentCount)));
+    }
+  }
+
+  @Test
+  public void testMurmur3SplitOfTheWholeRing() throws ReaperException {
+    TokenSpace murmur3 = TokenSpace.forPartitioner("org.apache.cassandra.dht.Murmur3Partitioner");
+    TokenSpace reference = TokenSpace.of(MURMUR3_MIN, MURMUR3_MAX);
+    for (BigInteger token : ImmutableList.of(MURMUR3_MIN, BigInteger.ZERO, MURMUR3_MAX)) {
+      List<RingRange> ranges = murmur3.split(token, token, 7);
+      assertThat(ranges).hasSize(7);
+      assertThat(ranges.get(0).getStart()).isEqualTo(token);
+      assertThat(ranges.get(6).getEnd()).isEqualTo(token);
+      assertThat(toStrings(ranges)).isEqualTo(toStrings(reference.split(token, token, 7)));
+      assertThat(murmur3.coversRing(toSegments(ranges))).isTrue();
+      assertThat(murmur3.coversRing(toSegments(ranges.subList(1, 7)))).isFalse();
+    }
+    RingRange wholeRing = new RingRange(0L, 0L);
+    assertThat(murmur3.coversRing(toSegments(ImmutableList.of(wholeRing)))).isTrue();
+    assertThat(murmur3.coversRing(toSegments(ImmutableList.of(wholeRing, new RingRange(0L, 1L))))).isFalse();
+  }
+
+  @Test
+  public void testMurmur3SpanCounter() throws ReaperException {
+    TokenSpace murmur3 = TokenSpace.forPartitioner("org.apache.cassandra.dht.Murmur3Partitioner");
+    TokenSpace.SpanCounter counter = murmur3.newSpanCounter(BigInteger.valueOf(100));
+    assertThat(counter.exceedsLimitWith(new RingRange(-50L, 50L))).isFalse();
+    counter.add(new RingRange(-50L, 50L));
+    assertThat(counter.exceedsLimitWith(new RingRange(50L, 51L))).isTrue();
+    assertThat(counter.toString()).isEqualTo("100");
+    counter.reset();
+    assertThat(counter.exceedsLimitWith(new RingRange(Long.MAX_VALUE, Long.MIN_VALUE))).isFalse();
+    assertThat(counter.exceedsLimitWith(new RingRange(Long.MIN_VALUE, Long.MAX_VALUE))).isTrue();
+    assertThat(counter.exceedsLimitWith(new RingRange(0L, 0L))).isTrue();
+
+    // spans adding up to more than 2^64 saturate instead of overflowing
+    TokenSpace.SpanCounter halfRing = murmur3.newSpanCounter(BigInteger.ONE.shiftLeft(63));
+    halfRing.add(new RingRange(Long.MIN_VALUE, Long.MAX_VALUE));
+    halfRing.add(new RingRange(Long.MAX_VALUE, Long.MIN_VALUE));
+    assertThat(halfRing.toString()).isEqualTo(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE).toString());
+    assertThat(halfRing.exceedsLimitWith(new RingRange(0L, 1L))).isTrue();
+  }
+
+  @Test(expected = ReaperException.class)
+  public void testUnsupportedPartitioner() throws ReaperException {
+    TokenSpace.forPartitioner("org.apache.cassandra.dht.ByteOrderedPartitioner");
+  }
+
+  private static List<String> toStrings(List<RingRange> ranges) {
+    return ranges.stream().map(RingRange::toString).collect(Collectors.toList());
+  }
+
+  private static List<Segment> toSegments(List<RingRange> ranges) {
+    return ranges.stream()
+        .map(range -> Segment.builder().withTokenRanges(ImmutableList.of(range)).build())
+        .collect(Collectors.toList());
+  }
+}
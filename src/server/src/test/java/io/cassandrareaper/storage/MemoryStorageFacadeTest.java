@@ -0,0 +1,238 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage;
+
+import io.cassandrareaper.core.Cluster;
+import io.cassandrareaper.core.DiagEventSubscription;
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSchedule;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.RepairUnit;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.service.RingRange;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.cassandra.repair.RepairParallelism;
+import org.joda.time.DateTime;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MemoryStorageFacadeTest {
+
+  private static final long SYNC_INTERVAL_MILLIS = 10;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testStateSurvivesRestart() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    MemoryStorageFacade storage = MemoryStorageFacade.persistent(directory, SYNC_INTERVAL_MILLIS, 100);
+    Fixture fixture = new Fixture(storage);
+    storage.stop();
+
+    MemoryStorageFacade restarted = MemoryStorageFacade.persistent(directory, SYNC_INTERVAL_MILLIS, 100);
+    fixture.assertRestoredIn(restarted);
+    restarted.stop();
+  }
+
+  @Test
+  public void testJournalIsReplayedAfterCrash() throws Exception {
+    Path directory = temporaryFolder.getRoot().toPath();
+    // a snapshot every few records, so the crash happens with both a snapshot and a journal on disk
+    MemoryStorageFacade storage = MemoryStorageFacade.persistent(directory, SYNC_INTERVAL_MILLIS, 3);
+    final Fixture fixture = new Fixture(storage);
+    Thread.sleep(SYNC_INTERVAL_MILLIS * 20);
+
+    // copying the files without stopping the storage is what a crash would leave on disk
+    Path crashed = temporaryFolder.newFolder().toPath();
+    for (File file : directory.toFile().listFiles()) {
+      Files.copy(file.toPath(), crashed.resolve(file.getName()));
+    }
+    storage.stop();
+
+    MemoryStorageFacade restarted = MemoryStorageFacade.persistent(crashed, SYNC_INTERVAL_MILLIS, 3);
+    fixture.assertRestoredIn(restarted);
+    restarted.stop();
+  }
+
+  @Test
+  public void testTransientStorageDoesNotWriteAnything() throws IOException {
+    MemoryStorageFacade storage = new MemoryStorageFacade();
+    new Fixture(storage);
+    storage.stop();
+    assertThat(temporaryFolder.getRoot().list()).isEmpty();
+  }
+
+  private static final class Fixture {
+
+    private final Cluster cluster;
+    private final RepairUnit unit;
+    private final RepairRun run;
+    private final List<RepairSegment> segments;
+    private final RepairSchedule schedule;
+    private final DiagEventSubscription subscription;
+
+    Fixture(IStorageDao storage) {
+      cluster = Cluster.builder()
+          .withName("test")
+          .withPartitioner("org.apache.cassandra.dht.Murmur3Partitioner")
+          .withSeedHosts(ImmutableSet.of("127.0.0.1", "127.0.0.2"))
+          .withState(Cluster.State.ACTIVE)
+          .withLastContact(LocalDate.of(2023, 1, 1))
+          .withJmxPort(7199)
+          .build();
+      storage.getClusterDao().addCluster(cluster);
+
+      unit = storage.getRepairUnitDao().addRepairUnit(RepairUnit.builder()
+          .clusterName(cluster.getName())
+          .keyspaceName("ks")
+          .columnFamilies(ImmutableSet.of("table1"))
+          .incrementalRepair(false)
+          .nodes(ImmutableSet.of("127.0.0.1"))
+          .datacenters(ImmutableSet.of("dc1"))
+          .repairThreadCount(2)
+          .timeout(30));
+
+      RepairRun addedRun = storage.getRepairRunDao().addRepairRun(
+          RepairRun.builder(cluster.getName(), unit.getId())
+              .intensity(0.5)
+              .segmentCount(2)
+              .repairParallelism(RepairParallelism.PARALLEL)
+              .tables(ImmutableSet.of("table1")),
+          ImmutableList.of(segment(BigInteger.ZERO, BigInteger.TEN), segment(BigInteger.TEN, BigInteger.ONE)));
+      run = addedRun.with()
+          .runState(RepairRun.RunState.RUNNING)
+          .startTime(DateTime.now())
+          .lastEvent("started")
+          .build(addedRun.getId());
+      storage.getRepairRunDao().updateRepairRun(run);
+
+      List<RepairSegment> addedSegments = ImmutableList.copyOf(
+          storage.getRepairSegmentDao().getRepairSegmentsForRun(run.getId()));
+      RepairSegment started = addedSegments.get(0).with()
+          .withState(RepairSegment.State.RUNNING)
+          .withStartTime(DateTime.now())
+          .withCoordinatorHost("reaper")
+          .withHostID(UUID.randomUUID())
+          .withId(addedSegments.get(0).getId())
+          .build();
+      storage.getRepairSegmentDao().updateRepairSegment(started);
+      segments = ImmutableList.of(started, addedSegments.get(1));
+
+      RepairSchedule addedSchedule = storage.getRepairScheduleDao().addRepairSchedule(
+          RepairSchedule.builder(unit.getId())
+              .daysBetween(7)
+              .nextActivation(DateTime.now().plusDays(7))
+              .repairParallelism(RepairParallelism.DATACENTER_AWARE)
+              .intensity(0.9)
+              .segmentCountPerNode(16)
+              .runHistory(ImmutableList.of(run.getId())));
+      // a deleted schedule must stay deleted
+      storage.getRepairScheduleDao().deleteRepairSchedule(addedSchedule.getId());
+      schedule = storage.getRepairScheduleDao().addRepairSchedule(addedSchedule.with().lastRun(run.getId()));
+
+      subscription = storage.getEventsDao().addEventSubscription(new DiagEventSubscription(
+          Optional.of(UUID.randomUUID()),
+          cluster.getName(),
+          Optional.of("all events"),
+          ImmutableSet.of("127.0.0.1"),
+          ImmutableSet.of("org.apache.cassandra.audit.AuditEvent"),
+          true,
+          null,
+          null));
+    }
+
+    private static RepairSegment.Builder segment(BigInteger start, BigInteger end) {
+      return RepairSegment.builder(
+          Segment.builder()
+              .withTokenRange(new RingRange(start, end))
+              .withReplicas(ImmutableMap.of("127.0.0.1", "dc1"))
+              .build(),
+          UUID.randomUUID());
+    }
+
+    void assertRestoredIn(IStorageDao storage) {
+      Cluster restoredCluster = storage.getClusterDao().getCluster(cluster.getName());
+      assertThat(restoredCluster.getSeedHosts()).isEqualTo(cluster.getSeedHosts());
+      assertThat(restoredCluster.getPartitioner()).isEqualTo(cluster.getPartitioner());
+      assertThat(restoredCluster.getState()).isEqualTo(cluster.getState());
+      assertThat(restoredCluster.getLastContact()).isEqualTo(cluster.getLastContact());
+      assertThat(restoredCluster.getJmxPort()).isEqualTo(cluster.getJmxPort());
+
+      RepairUnit restoredUnit = storage.getRepairUnitDao().getRepairUnit(unit.getId());
+      assertThat(restoredUnit.with()).isEqualTo(unit.with());
+      assertThat(storage.getRepairUnitDao().getRepairUnit(unit.with()).map(RepairUnit::getId)).contains(unit.getId());
+
+      RepairRun restoredRun = storage.getRepairRunDao().getRepairRun(run.getId()).get();
+      assertThat(restoredRun.getRepairUnitId()).isEqualTo(unit.getId());
+      assertThat(restoredRun.getRunState()).isEqualTo(RepairRun.RunState.RUNNING);
+      assertThat(restoredRun.getStartTime()).isEqualTo(run.getStartTime());
+      assertThat(restoredRun.getCreationTime()).isEqualTo(run.getCreationTime());
+      assertThat(restoredRun.getLastEvent()).isEqualTo("started");
+      assertThat(restoredRun.getTables()).isEqualTo(run.getTables());
+
+      assertThat(storage.getRepairSegmentDao().getRepairSegmentsForRun(run.getId()))
+          .extracting(RepairSegment::getId)
+          .containsExactly(segments.get(0).getId(), segments.get(1).getId());
+      RepairSegment restoredSegment
+          = storage.getRepairSegmentDao().getRepairSegment(run.getId(), segments.get(0).getId()).get();
+      assertThat(restoredSegment.getState()).isEqualTo(RepairSegment.State.RUNNING);
+      assertThat(restoredSegment.getStartTime()).isEqualTo(segments.get(0).getStartTime());
+      assertThat(restoredSegment.getCoordinatorHost()).isEqualTo("reaper");
+      assertThat(restoredSegment.getHostID()).isEqualTo(segments.get(0).getHostID());
+      assertThat(restoredSegment.getStartToken()).isEqualTo(segments.get(0).getStartToken());
+      assertThat(restoredSegment.getEndToken()).isEqualTo(segments.get(0).getEndToken());
+      assertThat(restoredSegment.getReplicas()).isEqualTo(segments.get(0).getReplicas());
+      assertThat(storage.getRepairSegmentDao().getSegmentAmountForRepairRunWithState(
+          run.getId(), RepairSegment.State.NOT_STARTED)).isEqualTo(1);
+      assertThat(storage.getRepairSegmentDao().getNextFreeSegments(run.getId()))
+          .extracting(RepairSegment::getId)
+          .containsExactly(segments.get(1).getId());
+
+      assertThat(storage.getRepairScheduleDao().getAllRepairSchedules())
+          .extracting(RepairSchedule::getId)
+          .containsExactly(schedule.getId());
+      RepairSchedule restoredSchedule = storage.getRepairScheduleDao().getRepairSchedule(schedule.getId()).get();
+      assertThat(restoredSchedule.getRunHistory()).isEqualTo(schedule.getRunHistory());
+      assertThat(restoredSchedule.getLastRun()).isEqualTo(run.getId());
+      assertThat(restoredSchedule.getNextActivation()).isEqualTo(schedule.getNextActivation());
+      assertThat(restoredSchedule.getRepairParallelism()).isEqualTo(RepairParallelism.DATACENTER_AWARE);
+
+      DiagEventSubscription restoredSubscription
+          = storage.getEventsDao().getEventSubscription(subscription.getId().get());
+      assertThat(restoredSubscription.getEvents()).isEqualTo(subscription.getEvents());
+      assertThat(restoredSubscription.getDescription()).isEqualTo("all events");
+      assertThat(restoredSubscription.getExportSse()).isTrue();
+    }
+  }
+}
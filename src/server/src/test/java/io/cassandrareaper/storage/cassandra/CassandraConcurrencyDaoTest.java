@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.cassandra;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.VersionNumber;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class CassandraConcurrencyDaoTest {
+
+  private static final String TAKE_LEAD = "INSERT INTO leader(";
+  private static final String RELEASE_LEAD = "DELETE FROM leader WHERE";
+  private static final String INDEX_LEAD = "INSERT INTO leader_by_run";
+  private static final String UNINDEX_LEAD = "DELETE FROM leader_by_run";
+
+  private final UUID leaderId = UUID.randomUUID();
+  private final UUID runId = UUID.randomUUID();
+  private final Map<Statement, String> boundQueries = Maps.newHashMap();
+  private final List<String> executedQueries = Lists.newArrayList();
+  private boolean applied;
+  private CassandraConcurrencyDao concurrency;
+
+  @Before
+  public void setUp() {
+    Session session = mock(Session.class);
+    when(session.prepare(anyString())).then(invocation -> prepare(invocation.getArgument(0)));
+    when(session.execute(any(Statement.class))).then(invocation -> {
+      executedQueries.add(boundQueries.get(invocation.getArgument(0)));
+      ResultSet resultSet = mock(ResultSet.class);
+      when(resultSet.wasApplied()).thenReturn(applied);
+      return resultSet;
+    });
+    concurrency = new CassandraConcurrencyDao(VersionNumber.parse("4.0.0"), UUID.randomUUID(), session);
+  }
+
+  @After
+  public void tearDown() {
+    DateTimeUtils.setCurrentMillisSystem();
+  }
+
+  @Test
+  public void testLeadIsIndexedOnceTaken() {
+    applied = true;
+
+    assertThat(concurrency.takeLead(leaderId, runId)).isTrue();
+    assertThat(executedQueries).containsExactly(TAKE_LEAD, INDEX_LEAD);
+  }
+
+  @Test
+  public void testLeadIsNotIndexedWhenTakenByAnotherInstance() {
+    applied = false;
+
+    assertThat(concurrency.takeLead(leaderId, runId)).isFalse();
+    // the index entry of the instance holding the lead must be left alone
+    assertThat(executedQueries).containsExactly(TAKE_LEAD);
+  }
+
+  @Test
+  public void testLeadIsHeldAccordingToTheJodaClock() {
+    applied = true;
+    DateTimeUtils.setCurrentMillisFixed(DateTimeUtils.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+
+    assertThat(concurrency.takeLead(leaderId)).isTrue();
+    // the lease taken at the fixed time is still valid, so it is not renewed in the database
+    assertThat(concurrency.renewLead(leaderId)).isTrue();
+    assertThat(executedQueries).containsExactly(TAKE_LEAD);
+  }
+
+  @Test
+  public void testLeadIsUnindexedBeforeItIsReleased() {
+    applied = true;
+
+    concurrency.releaseLead(leaderId, runId);
+    assertThat(executedQueries).containsExactly(UNINDEX_LEAD, RELEASE_LEAD);
+  }
+
+  private PreparedStatement prepare(String query) {
+    String key = Lists.newArrayList(TAKE_LEAD, RELEASE_LEAD, INDEX_LEAD, UNINDEX_LEAD)
+        .stream()
+        .filter(query::startsWith)
+        .findFirst()
+        .orElse(query);
+    return mock(PreparedStatement.class, invocation -> {
+      if (PreparedStatement.class.equals(invocation.getMethod().getReturnType())) {
+        return invocation.getMock();
+      }
+      if (BoundStatement.class.equals(invocation.getMethod().getReturnType())) {
+        BoundStatement bound = mock(BoundStatement.class);
+        boundQueries.put(bound, key);
+        return bound;
+      }
+      return null;
+    });
+  }
+}
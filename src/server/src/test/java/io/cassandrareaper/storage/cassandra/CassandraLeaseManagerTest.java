@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.cassandra;
+
+import java.util.UUID;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.collect.ImmutableSet;
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class CassandraLeaseManagerTest {
+
+  private static final int LEASE_DURATION_SECONDS = 90;
+  private static final long RENEWAL_PERIOD_MILLIS = 30_000;
+
+  private final UUID leaderId = UUID.randomUUID();
+  private final UUID runId = UUID.randomUUID();
+  private final UUID segmentId = UUID.randomUUID();
+  private long now = 1_000_000;
+  private CassandraConcurrencyDao concurrency;
+  private CassandraLeaseManager leases;
+
+  @Before
+  public void setUp() {
+    DateTimeUtils.setCurrentMillisFixed(now);
+    concurrency = mock(CassandraConcurrencyDao.class);
+    ResultSetFuture applied = result(true);
+    when(concurrency.renewLeadAsync(any())).thenReturn(applied);
+    when(concurrency.indexLeadAsync(any(), any())).thenReturn(applied);
+    when(concurrency.renewRunningRepairsForRunAsync(any(), anyMap())).thenReturn(applied);
+    leases = new CassandraLeaseManager(concurrency, LEASE_DURATION_SECONDS);
+  }
+
+  @After
+  public void tearDown() {
+    DateTimeUtils.setCurrentMillisSystem();
+  }
+
+  @Test
+  public void testRenewalKeepsLeadHeld() {
+    leases.leadAcquired(leaderId, now);
+    leases.leadIndexed(leaderId, runId);
+
+    // without a renewal the lead isn't trusted anymore after two renewal periods
+    advance(2 * RENEWAL_PERIOD_MILLIS);
+    assertThat(leases.holdsLead(leaderId)).isFalse();
+
+    leases.renewAll();
+    verify(concurrency).renewLeadAsync(leaderId);
+    verify(concurrency).indexLeadAsync(leaderId, runId);
+    assertThat(leases.holdsLead(leaderId)).isTrue();
+  }
+
+  @Test
+  public void testLostLeadIsNoLongerRenewed() {
+    leases.leadAcquired(leaderId, now);
+    ResultSetFuture notApplied = result(false);
+    when(concurrency.renewLeadAsync(leaderId)).thenReturn(notApplied);
+
+    leases.renewAll();
+    assertThat(leases.holdsLead(leaderId)).isFalse();
+
+    leases.renewAll();
+    verify(concurrency, times(1)).renewLeadAsync(leaderId);
+  }
+
+  @Test
+  public void testReleasedLeasesAreNoLongerRenewed() {
+    leases.leadAcquired(leaderId, now);
+    leases.runningRepairsLocked(runId, segmentId, ImmutableSet.of("node1", "node2"), now);
+
+    leases.leadReleased(leaderId);
+    leases.runningRepairsReleased(runId, segmentId);
+    leases.renewAll();
+
+    assertThat(leases.holdsLead(leaderId)).isFalse();
+    assertThat(leases.holdsRunningRepairs(runId, segmentId, ImmutableSet.of("node1", "node2"))).isFalse();
+    verify(concurrency, never()).renewLeadAsync(any());
+    verify(concurrency, never()).renewRunningRepairsForRunAsync(any(), anyMap());
+  }
+
+  @Test
+  public void testLeasesTouchedByTheirOwnerAreRenewed() {
+    leases.leadAcquired(leaderId, now);
+    leases.runningRepairsLocked(runId, segmentId, ImmutableSet.of("node1", "node2"), now);
+
+    for (int i = 0; i < 6; ++i) {
+      advance(RENEWAL_PERIOD_MILLIS);
+      leases.renewAll();
+      assertThat(leases.holdsLead(leaderId)).isTrue();
+      assertThat(leases.holdsRunningRepairs(runId, segmentId, ImmutableSet.of("node1"))).isTrue();
+    }
+    verify(concurrency, times(6)).renewLeadAsync(leaderId);
+    verify(concurrency, times(6)).renewRunningRepairsForRunAsync(any(), anyMap());
+  }
+
+  @Test
+  public void testLeasesOfAnAbandonedOwnerExpire() {
+    leases.leadAcquired(leaderId, now);
+    leases.runningRepairsLocked(runId, segmentId, ImmutableSet.of("node1", "node2"), now);
+
+    // the owner hangs, the leases are renewed until they weren't asked about for a whole lease duration
+    for (int i = 0; i < 2; ++i) {
+      advance(RENEWAL_PERIOD_MILLIS);
+      leases.renewAll();
+    }
+    verify(concurrency, times(2)).renewLeadAsync(leaderId);
+    verify(concurrency, times(2)).renewRunningRepairsForRunAsync(any(), anyMap());
+
+    advance(RENEWAL_PERIOD_MILLIS);
+    leases.renewAll();
+    advance(RENEWAL_PERIOD_MILLIS);
+    leases.renewAll();
+    verify(concurrency, times(2)).renewLeadAsync(leaderId);
+    verify(concurrency, times(2)).renewRunningRepairsForRunAsync(any(), anyMap());
+
+    // the owner wakes up to find its leases gone, and has to go to the database to take them again
+    assertThat(leases.holdsLead(leaderId)).isFalse();
+    assertThat(leases.holdsRunningRepairs(runId, segmentId, ImmutableSet.of("node1", "node2"))).isFalse();
+  }
+
+  private void advance(long millis) {
+    now += millis;
+    DateTimeUtils.setCurrentMillisFixed(now);
+  }
+
+  private static ResultSetFuture result(boolean applied) {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.wasApplied()).thenReturn(applied);
+    ResultSetFuture future = mock(ResultSetFuture.class);
+    when(future.getUninterruptibly()).thenReturn(resultSet);
+    return future;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.metrics;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MetricsResolutionTest {
+
+  private static final DateTime NOW = new DateTime(2023, 6, 15, 12, 34, 56);
+
+  @Test
+  public void testResolutionForWindow() {
+    long now = NOW.getMillis();
+    assertThat(MetricsResolution.forWindow(NOW.minusMinutes(11).getMillis(), now)).isEqualTo(MetricsResolution.RAW);
+    assertThat(MetricsResolution.forWindow(NOW.minusHours(3).getMillis(), now)).isEqualTo(MetricsResolution.MINUTE);
+    assertThat(MetricsResolution.forWindow(NOW.minusDays(7).getMillis(), now)).isEqualTo(MetricsResolution.HOUR);
+    assertThat(MetricsResolution.forWindow(NOW.minusDays(90).getMillis(), now)).isEqualTo(MetricsResolution.DAY);
+    assertThat(MetricsResolution.forWindow(NOW.minusYears(3).getMillis(), now)).isEqualTo(MetricsResolution.DAY);
+  }
+
+  @Test
+  public void testTimeBuckets() {
+    long now = NOW.getMillis();
+    assertThat(MetricsResolution.RAW.timeBuckets(NOW.minusMinutes(11).getMillis(), now))
+        .containsExactly("202306151220", "202306151230");
+    assertThat(MetricsResolution.MINUTE.timeBuckets(NOW.minusHours(2).getMillis(), now))
+        .containsExactly("202306151000", "202306151100", "202306151200");
+    assertThat(MetricsResolution.HOUR.timeBuckets(NOW.minusDays(1).getMillis(), now))
+        .containsExactly("202306140000", "202306150000");
+    assertThat(MetricsResolution.DAY.timeBuckets(NOW.minusDays(40).getMillis(), now))
+        .containsExactly("202305010000", "202306010000");
+  }
+
+  @Test
+  public void testTruncate() {
+    assertThat(MetricsResolution.RAW.truncate(NOW)).isEqualTo(new DateTime(2023, 6, 15, 12, 30));
+    assertThat(MetricsResolution.MINUTE.truncate(NOW)).isEqualTo(new DateTime(2023, 6, 15, 12, 34));
+    assertThat(MetricsResolution.HOUR.truncate(NOW)).isEqualTo(new DateTime(2023, 6, 15, 12, 0));
+    assertThat(MetricsResolution.DAY.truncate(NOW)).isEqualTo(new DateTime(2023, 6, 15, 0, 0));
+  }
+}
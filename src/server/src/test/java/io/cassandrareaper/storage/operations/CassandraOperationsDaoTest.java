@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cassandrareaper.storage.operations;
+
+import io.cassandrareaper.core.Compaction;
+import io.cassandrareaper.core.CompactionStats;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class CassandraOperationsDaoTest {
+
+  private static final String INSERT
+      = "INSERT INTO node_operations_latest(cluster, type, host, ts, digest, data) values(?,?,?,?,?,?)";
+  private static final String SELECT_DATA
+      = "SELECT data FROM node_operations_latest WHERE cluster = ? AND type = ? AND host = ?";
+  private static final String SELECT_DIGEST
+      = "SELECT ts, digest FROM node_operations_latest WHERE cluster = ? AND type = ? AND host = ?";
+
+  private final Map<BoundStatement, List<Object>> boundValues = Maps.newHashMap();
+  private final Map<BoundStatement, String> boundQueries = Maps.newHashMap();
+  // node_operations_latest, keyed by cluster, type and host
+  private final Map<List<Object>, List<Object>> rows = Maps.newHashMap();
+  private final List<List<Object>> inserts = Lists.newArrayList();
+  private Session session;
+
+  @Before
+  public void setUp() {
+    session = mock(Session.class);
+    when(session.prepare(anyString())).then(invocation -> prepare(invocation.getArgument(0)));
+    when(session.executeAsync(any(BoundStatement.class))).then(invocation -> execute(invocation.getArgument(0)));
+    when(session.execute(any(BoundStatement.class)))
+        .then(invocation -> execute(invocation.getArgument(0)).getUninterruptibly());
+  }
+
+  @Test
+  public void testUnchangedSnapshotsAreNotWrittenAgain() {
+    CassandraOperationsDao dao = new CassandraOperationsDao(session);
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+    assertThat(inserts).hasSize(1);
+
+    dao.storeCompactionStats("test", "node1", compactionStats(20L));
+    dao.storeCompactionStats("test", "node2", compactionStats(20L));
+    dao.storeActiveStreams("test", "node1", Collections.emptyList());
+    dao.storeActiveStreams("test", "node1", Collections.emptyList());
+    assertThat(inserts).hasSize(4);
+  }
+
+  @Test
+  public void testSnapshotsAreComparedWithTheStoredOne() {
+    CassandraOperationsDao dao = new CassandraOperationsDao(session);
+    CassandraOperationsDao otherInstanceDao = new CassandraOperationsDao(session);
+
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+    otherInstanceDao.storeCompactionStats("test", "node1", compactionStats(10L));
+    assertThat(inserts).hasSize(1);
+
+    otherInstanceDao.storeCompactionStats("test", "node1", compactionStats(20L));
+    assertThat(inserts).hasSize(2);
+
+    // the snapshot last written by the first instance is stale, it must replace the stored one
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+    assertThat(inserts).hasSize(3);
+    assertThat(dao.getCompactionStats("test", "node1").get().getActiveCompactions().get(0).getProgress())
+        .isEqualTo(10L);
+  }
+
+  @Test
+  public void testUnchangedSnapshotsAreRefreshedBeforeTheyExpire() {
+    CassandraOperationsDao dao = new CassandraOperationsDao(session);
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+
+    List<Object> row = rows.get(Arrays.asList("test", "compaction", "node1"));
+    row.set(0, new Date(((Date) row.get(0)).getTime() - TimeUnit.MINUTES.toMillis(6)));
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+    assertThat(inserts).hasSize(2);
+  }
+
+  @Test
+  public void testSnapshotsAreReadBack() {
+    CassandraOperationsDao dao = new CassandraOperationsDao(session);
+    dao.storeCompactionStats("test", "node1", compactionStats(10L));
+
+    CompactionStats compactionStats = dao.getCompactionStats("test", "node1").get();
+    assertThat(compactionStats.getPendingCompactions()).contains(3);
+    assertThat(compactionStats.getActiveCompactions()).hasSize(1);
+    assertThat(compactionStats.getActiveCompactions().get(0).getProgress()).isEqualTo(10L);
+    assertThat(compactionStats.getActiveCompactions().get(0).getKeyspace()).isEqualTo("ks");
+  }
+
+  @Test
+  public void testMissingSnapshot() {
+    assertThat(new CassandraOperationsDao(session).getActiveStreams("test", "node1")).isEqualTo(Optional.empty());
+  }
+
+  private PreparedStatement prepare(String query) {
+    return mock(PreparedStatement.class, invocation -> {
+      if (BoundStatement.class.equals(invocation.getMethod().getReturnType())) {
+        BoundStatement bound = mock(BoundStatement.class);
+        boundQueries.put(bound, query);
+        boundValues.put(bound, Arrays.asList(invocation.getArguments()));
+        return bound;
+      }
+      return null;
+    });
+  }
+
+  private ResultSetFuture execute(BoundStatement statement) {
+    List<Object> values = boundValues.get(statement);
+    ResultSet resultSet = mock(ResultSet.class);
+    switch (boundQueries.get(statement)) {
+      case INSERT:
+        inserts.add(values);
+        // ts, digest, data
+        rows.put(values.subList(0, 3), Lists.newArrayList(values.subList(3, 6)));
+        break;
+      case SELECT_DIGEST:
+      case SELECT_DATA:
+        List<Object> row = rows.get(values);
+        if (null != row) {
+          Row result = mock(Row.class);
+          when(result.getTimestamp("ts")).then(invocation -> row.get(0));
+          when(result.getLong("digest")).then(invocation -> row.get(1));
+          when(result.getBytes("data")).then(invocation -> ((ByteBuffer) row.get(2)).duplicate());
+          when(resultSet.one()).thenReturn(result);
+        }
+        break;
+      default:
+        break;
+    }
+    SettableFuture<ResultSet> future = SettableFuture.create();
+    future.set(resultSet);
+    ResultSetFuture resultSetFuture = mock(ResultSetFuture.class, delegatesTo(future));
+    doReturn(resultSet).when(resultSetFuture).getUninterruptibly();
+    return resultSetFuture;
+  }
+
+  private static CompactionStats compactionStats(long progress) {
+    return CompactionStats.builder()
+        .withPendingCompactions(Optional.of(3))
+        .withActiveCompactions(Collections.singletonList(
+            Compaction.builder()
+                .withId("id")
+                .withType("Compaction")
+                .withKeyspace("ks")
+                .withTable("tbl")
+                .withProgress(progress)
+                .withTotal(100L)
+                .withUnit("bytes")
+                .build()))
+        .build();
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.repairsegment;
+
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.service.RingRange;
+import io.cassandrareaper.storage.cassandra.CassandraConcurrencyDao;
+import io.cassandrareaper.storage.repairunit.CassandraRepairUnitDao;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class CassandraRepairSegmentDaoTest {
+
+  private static final String GET_STATE = "SELECT segment_state FROM repair_run WHERE id = ? AND segment_id = ?";
+  private static final String GET_STATES = "SELECT segment_state FROM repair_run WHERE id = ?";
+  private static final String UPDATE_COUNT = "UPDATE repair_run_segment_count_by_state";
+  private static final String INSERT_INDEX = "INSERT INTO repair_segment_by_run_and_state";
+  private static final String DELETE_INDEX = "DELETE FROM repair_segment_by_run_and_state WHERE run_id = ? AND";
+
+  private final UUID runId = UUID.randomUUID();
+  private final UUID segmentId = UUID.randomUUID();
+  private final Map<String, PreparedStatement> prepared = Maps.newHashMap();
+  private final Map<Statement, String> boundQueries = Maps.newHashMap();
+  private final Map<String, List<Row>> results = Maps.newHashMap();
+  private Session session;
+  private CassandraRepairSegmentDao dao;
+
+  @Before
+  public void setUp() {
+    session = mock(Session.class);
+    when(session.prepare(anyString())).then(invocation -> prepare(invocation.getArgument(0)));
+    when(session.execute(any(Statement.class))).then(invocation -> {
+      List<Row> rows = results.getOrDefault(boundQueries.get(invocation.getArgument(0)), ImmutableList.of());
+      ResultSet resultSet = mock(ResultSet.class);
+      when(resultSet.one()).thenReturn(rows.isEmpty() ? null : rows.get(0));
+      when(resultSet.iterator()).then(iteration -> rows.iterator());
+      return resultSet;
+    });
+    dao = new CassandraRepairSegmentDao(
+        mock(CassandraConcurrencyDao.class), mock(CassandraRepairUnitDao.class), session);
+  }
+
+  @Test
+  public void testStateTransitionMovesTheSegmentBetweenCounters() {
+    results.put(GET_STATE, ImmutableList.of(stateRow(RepairSegment.State.NOT_STARTED)));
+
+    dao.updateRepairSegmentUnsafe(segment(RepairSegment.State.STARTED));
+
+    List<BatchStatement> batches = executedBatches();
+    assertThat(batches).hasSize(2);
+    assertThat(queriesOf(batches.get(0))).contains(INSERT_INDEX).doesNotContain(UPDATE_COUNT);
+    // only the index entry of the previous state is deleted
+    assertThat(queriesOf(batches.get(0))).filteredOn(DELETE_INDEX::equals).hasSize(1);
+    verify(prepared.get(DELETE_INDEX)).bind(runId, RepairSegment.State.NOT_STARTED.ordinal(), segmentId);
+    assertThat(queriesOf(batches.get(1))).containsExactly(UPDATE_COUNT, UPDATE_COUNT);
+    verify(prepared.get(UPDATE_COUNT)).bind(-1L, runId, RepairSegment.State.NOT_STARTED.ordinal());
+    verify(prepared.get(UPDATE_COUNT)).bind(1L, runId, RepairSegment.State.STARTED.ordinal());
+  }
+
+  @Test
+  public void testUpdateWithoutStateChangeLeavesCountersAlone() {
+    results.put(GET_STATE, ImmutableList.of(stateRow(RepairSegment.State.STARTED)));
+
+    dao.updateRepairSegmentUnsafe(segment(RepairSegment.State.STARTED));
+
+    List<BatchStatement> batches = executedBatches();
+    assertThat(batches).hasSize(1);
+    assertThat(queriesOf(batches.get(0))).contains(INSERT_INDEX).doesNotContain(DELETE_INDEX, UPDATE_COUNT);
+  }
+
+  @Test
+  public void testSegmentsAreCountedFromTheirOwnState() {
+    Row staticRow = mock(Row.class);
+    when(staticRow.isNull("segment_state")).thenReturn(true);
+    results.put(GET_STATES, ImmutableList.of(
+        staticRow,
+        stateRow(RepairSegment.State.DONE),
+        stateRow(RepairSegment.State.DONE),
+        stateRow(RepairSegment.State.RUNNING)));
+
+    RepairRunProgress progress = dao.countSegmentsByState(runId);
+
+    assertThat(progress.getSegmentsTotal()).isEqualTo(3);
+    assertThat(progress.getSegmentsDone()).isEqualTo(2);
+    assertThat(progress.getSegmentAmount(RepairSegment.State.RUNNING)).isEqualTo(1);
+  }
+
+  private PreparedStatement prepare(String query) {
+    String key = key(query);
+    PreparedStatement statement = mock(PreparedStatement.class, invocation -> {
+      if (PreparedStatement.class.equals(invocation.getMethod().getReturnType())) {
+        return invocation.getMock();
+      }
+      if (BoundStatement.class.equals(invocation.getMethod().getReturnType())) {
+        BoundStatement bound = mock(BoundStatement.class);
+        boundQueries.put(bound, key);
+        return bound;
+      }
+      return null;
+    });
+    prepared.put(key, statement);
+    return statement;
+  }
+
+  private static String key(String query) {
+    for (String known : ImmutableList.of(GET_STATE, GET_STATES, UPDATE_COUNT, INSERT_INDEX, DELETE_INDEX)) {
+      if (known.equals(query) || (!known.startsWith("SELECT") && query.startsWith(known))) {
+        return known;
+      }
+    }
+    return query;
+  }
+
+  private List<BatchStatement> executedBatches() {
+    ArgumentCaptor<Statement> executed = ArgumentCaptor.forClass(Statement.class);
+    verify(session, atLeastOnce()).execute(executed.capture());
+    return executed.getAllValues().stream()
+        .filter(BatchStatement.class::isInstance)
+        .map(BatchStatement.class::cast)
+        .collect(Collectors.toList());
+  }
+
+  private List<String> queriesOf(BatchStatement batch) {
+    Collection<Statement> statements = batch.getStatements();
+    return statements.stream().map(boundQueries::get).collect(Collectors.toList());
+  }
+
+  private RepairSegment segment(RepairSegment.State state) {
+    return RepairSegment.builder(
+            Segment.builder().withTokenRange(new RingRange(BigInteger.ZERO, BigInteger.ONE)).build(),
+            UUID.randomUUID())
+        .withRunId(runId)
+        .withState(state)
+        .withCoordinatorHost("reaper")
+        .withStartTime(DateTime.now())
+        .withId(segmentId)
+        .build();
+  }
+
+  private static Row stateRow(RepairSegment.State state) {
+    Row row = mock(Row.class);
+    when(row.getInt("segment_state")).thenReturn(state.ordinal());
+    return row;
+  }
+}
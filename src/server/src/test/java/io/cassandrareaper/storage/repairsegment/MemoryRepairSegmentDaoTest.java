@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023-2023 DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cassandrareaper.storage.repairsegment;
+
+import io.cassandrareaper.core.RepairRun;
+import io.cassandrareaper.core.RepairSegment;
+import io.cassandrareaper.core.Segment;
+import io.cassandrareaper.service.RingRange;
+import io.cassandrareaper.storage.MemoryStorageFacade;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.apache.cassandra.repair.RepairParallelism;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MemoryRepairSegmentDaoTest {
+
+  private final MemoryStorageFacade storage = new MemoryStorageFacade();
+
+  @Test
+  public void testPagesCoverEveryFreeSegmentOnce() {
+    UUID runId = addRun(7);
+    List<UUID> read = Lists.newArrayList();
+
+    RepairSegmentPage page = storage.getRepairSegmentDao().getNextFreeSegments(runId, Optional.empty(), 3);
+    read.addAll(ids(page));
+    assertThat(page.getSegments()).hasSize(3);
+    assertThat(page.getNextCursor()).isPresent();
+
+    page = storage.getRepairSegmentDao().getNextFreeSegments(runId, page.getNextCursor(), 3);
+    read.addAll(ids(page));
+    assertThat(page.getSegments()).hasSize(3);
+    assertThat(page.getNextCursor()).isPresent();
+
+    page = storage.getRepairSegmentDao().getNextFreeSegments(runId, page.getNextCursor(), 3);
+    read.addAll(ids(page));
+    assertThat(page.getSegments()).hasSize(1);
+    assertThat(page.isLastPage()).isTrue();
+
+    assertThat(read).containsExactlyInAnyOrderElementsOf(allSegmentIds(runId));
+  }
+
+  @Test
+  public void testFullLastPageHasNoCursor() {
+    UUID runId = addRun(6);
+    RepairSegmentPage first = storage.getRepairSegmentDao().getNextFreeSegments(runId, Optional.empty(), 3);
+    RepairSegmentPage last = storage.getRepairSegmentDao().getNextFreeSegments(runId, first.getNextCursor(), 3);
+
+    assertThat(last.getSegments()).hasSize(3);
+    assertThat(last.isLastPage()).isTrue();
+  }
+
+  @Test
+  public void testSegmentsThatLeftTheFreeStateAreNotPaged() {
+    UUID runId = addRun(4);
+    RepairSegmentPage first = storage.getRepairSegmentDao().getNextFreeSegments(runId, Optional.empty(), 2);
+    RepairSegment started = storage.getRepairSegmentDao().getNextFreeSegments(runId, first.getNextCursor(), 2)
+        .getSegments()
+        .get(0);
+    storage.getRepairSegmentDao().updateRepairSegment(started.with()
+        .withState(RepairSegment.State.STARTED)
+        .withCoordinatorHost("reaper")
+        .withStartTime(DateTime.now())
+        .withId(started.getId())
+        .build());
+
+    RepairSegmentPage second = storage.getRepairSegmentDao().getNextFreeSegments(runId, first.getNextCursor(), 2);
+    assertThat(ids(second)).hasSize(1).doesNotContain(started.getId());
+    assertThat(second.isLastPage()).isTrue();
+  }
+
+  @Test
+  public void testUnknownRunHasAnEmptyPage() {
+    RepairSegmentPage page = storage.getRepairSegmentDao().getNextFreeSegments(UUID.randomUUID(), Optional.empty(), 2);
+    assertThat(page.getSegments()).isEmpty();
+    assertThat(page.isLastPage()).isTrue();
+  }
+
+  private UUID addRun(int segmentCount) {
+    UUID unitId = UUID.randomUUID();
+    List<RepairSegment.Builder> segments = IntStream.range(0, segmentCount)
+        .mapToObj(i -> RepairSegment.builder(
+            Segment.builder()
+                .withTokenRange(new RingRange(BigInteger.valueOf(i * 10L), BigInteger.valueOf(i * 10L + 10)))
+                .withReplicas(ImmutableMap.of("127.0.0.1", "dc1"))
+                .build(),
+            unitId))
+        .collect(Collectors.toList());
+    return storage.getRepairRunDao().addRepairRun(
+        RepairRun.builder("test", unitId)
+            .intensity(0.5)
+            .segmentCount(segmentCount)
+            .repairParallelism(RepairParallelism.PARALLEL)
+            .tables(ImmutableSet.of("table1")),
+        segments).getId();
+  }
+
+  private List<UUID> allSegmentIds(UUID runId) {
+    return storage.getRepairSegmentDao().getRepairSegmentsForRun(runId).stream()
+        .map(RepairSegment::getId)
+        .collect(Collectors.toList());
+  }
+
+  private static List<UUID> ids(RepairSegmentPage page) {
+    return page.getSegments().stream().map(RepairSegment::getId).collect(Collectors.toList());
+  }
+}